@@ -47,4 +47,13 @@ public interface ContactRepository extends JpaRepository<Contact, UUID> {
      * @return Página con los contactos correspondientes al cliente indicado.
      */
     Page<Contact> findByCustomerId(UUID customerId, Pageable pageable);
+
+    /**
+     * Busca contactos por correo electrónico (sin distinguir mayúsculas).
+     *
+     * @param email    Correo electrónico exacto.
+     * @param pageable Parámetros de paginación (página, tamaño, orden).
+     * @return Página con los contactos que tienen ese correo.
+     */
+    Page<Contact> findByEmailIgnoreCase(String email, Pageable pageable);
 }
\ No newline at end of file
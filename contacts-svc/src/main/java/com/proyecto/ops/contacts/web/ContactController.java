@@ -121,16 +121,23 @@ public class ContactController {
      * Lista contactos con soporte de paginación.
      *
      * @param customerId (Opcional) Filtra por UUID de cliente.
+     * @param email      (Opcional) Filtra por correo electrónico; tiene prioridad sobre customerId.
      * @param pageable   Parámetros de paginación (página, tamaño, orden).
      * @return Página de resultados mapeada a ContactResponse.
      */
     @GetMapping
     public Page<ContactResponse> list(@RequestParam(required = false) UUID customerId,
+            @RequestParam(required = false) String email,
             Pageable pageable) {
-        // Determina si se listan todos los contactos o solo los de un cliente específico.
-        Page<Contact> page = (customerId == null)
-                ? repo.findAll(pageable)
-                : repo.findByCustomerId(customerId, pageable);
+        // Determina si se listan todos los contactos, los de un correo o los de un cliente específico.
+        Page<Contact> page;
+        if (email != null && !email.isBlank()) {
+            page = repo.findByEmailIgnoreCase(email.trim(), pageable);
+        } else if (customerId != null) {
+            page = repo.findByCustomerId(customerId, pageable);
+        } else {
+            page = repo.findAll(pageable);
+        }
         return page.map(this::toResponse);
     }
 
@@ -34,6 +34,7 @@
  */
 package com.proyecto.ops.sites.model;
 
+import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
@@ -73,6 +74,11 @@ public class CustomerSite {
     private String state;
     // País donde se ubica el sitio.
     private String country;
+    // Coordenadas geográficas (grados decimales, opcionales). Las usa el despacho de órdenes.
+    @Column(precision = 9, scale = 6)
+    private BigDecimal latitude;
+    @Column(precision = 9, scale = 6)
+    private BigDecimal longitude;
 
     // Fecha y hora de creación del registro (asignada automáticamente por la base de datos).
     @Column(name = "created_at", nullable = false, updatable = false, insertable = false)
@@ -102,6 +108,12 @@ public class CustomerSite {
     public String getCountry() { return country; }
     public void setCountry(String country) { this.country = country; }
 
+    public BigDecimal getLatitude() { return latitude; }
+    public void setLatitude(BigDecimal latitude) { this.latitude = latitude; }
+
+    public BigDecimal getLongitude() { return longitude; }
+    public void setLongitude(BigDecimal longitude) { this.longitude = longitude; }
+
     public OffsetDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(OffsetDateTime createdAt) { this.createdAt = createdAt; }
 }
\ No newline at end of file
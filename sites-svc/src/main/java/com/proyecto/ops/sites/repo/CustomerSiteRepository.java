@@ -25,6 +25,7 @@
  */
 package com.proyecto.ops.sites.repo;
 
+import java.util.Collection;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
@@ -47,4 +48,13 @@ public interface CustomerSiteRepository extends JpaRepository<CustomerSite, UUID
      * @return Página de resultados con los sitios correspondientes.
      */
     Page<CustomerSite> findByCustomerId(UUID customerId, Pageable pageable);
+
+    /**
+     * Obtiene en una sola consulta los sitios con los identificadores indicados.
+     *
+     * @param ids      Identificadores de los sitios.
+     * @param pageable Parámetros de paginación (página, tamaño, orden).
+     * @return Página con los sitios encontrados (los inexistentes se omiten).
+     */
+    Page<CustomerSite> findByIdIn(Collection<UUID> ids, Pageable pageable);
 }
\ No newline at end of file
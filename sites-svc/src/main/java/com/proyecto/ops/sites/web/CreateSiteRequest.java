@@ -32,8 +32,11 @@
  */
 package com.proyecto.ops.sites.web;
 
+import java.math.BigDecimal;
 import java.util.UUID;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
@@ -59,5 +62,11 @@ public record CreateSiteRequest(
         String state,
 
         // País donde se encuentra el sitio (opcional).
-        String country
+        String country,
+
+        // Latitud en grados decimales (opcional).
+        @DecimalMin("-90") @DecimalMax("90") BigDecimal latitude,
+
+        // Longitud en grados decimales (opcional).
+        @DecimalMin("-180") @DecimalMax("180") BigDecimal longitude
 ) {}
\ No newline at end of file
@@ -33,6 +33,7 @@ package com.proyecto.ops.sites.web;
 import java.net.URI;
 import java.time.OffsetDateTime;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -95,6 +96,8 @@ public class SiteController {
         s.setCity(req.city());
         s.setState(req.state());
         s.setCountry(req.country());
+        s.setLatitude(req.latitude());
+        s.setLongitude(req.longitude());
 
         CustomerSite saved = repo.save(s);
         return ResponseEntity.created(URI.create("/sites/" + saved.getId()))
@@ -118,16 +121,23 @@ public class SiteController {
      * Lista sitios existentes, con soporte de paginación.
      *
      * @param customerId (Opcional) Filtra los sitios por el identificador del cliente.
+     * @param ids        (Opcional) Devuelve solo estos sitios (consulta en lote); tiene prioridad.
      * @param pageable   Parámetros de paginación (página, tamaño, orden).
      * @return Página de resultados con los sitios encontrados.
      */
     @GetMapping
     public Page<SiteResponse> list(@RequestParam(required = false) UUID customerId,
+                                   @RequestParam(required = false) List<UUID> ids,
                                    Pageable pageable) {
-        // Determina si se listan todos los sitios o solo los asociados a un cliente específico.
-        Page<CustomerSite> page = (customerId == null)
-                ? repo.findAll(pageable)
-                : repo.findByCustomerId(customerId, pageable);
+        // Determina si se listan todos los sitios, un lote concreto o los de un cliente específico.
+        Page<CustomerSite> page;
+        if (ids != null && !ids.isEmpty()) {
+            page = repo.findByIdIn(ids, pageable);
+        } else if (customerId != null) {
+            page = repo.findByCustomerId(customerId, pageable);
+        } else {
+            page = repo.findAll(pageable);
+        }
 
         return page.map(this::toResponse);
     }
@@ -149,6 +159,8 @@ public class SiteController {
             s.setCity(req.city());
             s.setState(req.state());
             s.setCountry(req.country());
+            s.setLatitude(req.latitude());
+            s.setLongitude(req.longitude());
             CustomerSite saved = repo.save(s);
             return ResponseEntity.ok(toResponse(saved));
         }).orElseGet(() -> ResponseEntity.notFound().build());
@@ -205,6 +217,8 @@ public class SiteController {
                 s.getCity(),
                 s.getState(),
                 s.getCountry(),
+                s.getLatitude(),
+                s.getLongitude(),
                 s.getCreatedAt()
         );
     }
@@ -23,6 +23,8 @@
  *   city        → Ciudad donde se encuentra el sitio.
  *   state       → Estado o provincia.
  *   country     → País donde se ubica.
+ *   latitude    → Latitud en grados decimales (opcional).
+ *   longitude   → Longitud en grados decimales (opcional).
  *   createdAt   → Fecha y hora en que se creó el sitio.
  *
  * Mantenibilidad:
@@ -31,6 +33,7 @@
  */
 package com.proyecto.ops.sites.web;
 
+import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
@@ -54,6 +57,10 @@ public record SiteResponse(
         String state,
         // País donde se encuentra el sitio.
         String country,
+        // Latitud del sitio en grados decimales (puede ser nula).
+        BigDecimal latitude,
+        // Longitud del sitio en grados decimales (puede ser nula).
+        BigDecimal longitude,
         // Fecha y hora en que se creó el sitio (establecida por la base de datos).
         OffsetDateTime createdAt
 ) {}
\ No newline at end of file
@@ -28,6 +28,10 @@
  */
 package com.proyecto.ops.sites.web;
 
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 
 /**
@@ -46,5 +50,11 @@ public record UpdateSiteRequest(
         // Estado o provincia del sitio (opcional).
         String state,
         // País donde se encuentra el sitio (opcional).
-        String country
+        String country,
+
+        // Latitud en grados decimales (opcional).
+        @DecimalMin("-90") @DecimalMax("90") BigDecimal latitude,
+
+        // Longitud en grados decimales (opcional).
+        @DecimalMin("-180") @DecimalMax("180") BigDecimal longitude
 ) {}
\ No newline at end of file
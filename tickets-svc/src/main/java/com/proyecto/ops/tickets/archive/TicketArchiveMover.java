@@ -0,0 +1,59 @@
+package com.proyecto.ops.tickets.archive;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.proyecto.ops.tickets.repo.TicketArchiveRepository;
+
+/**
+ * Job en segundo plano que pasa los tickets cerrados hace más de
+ * {@code tickets.archive.closed-older-than} a {@code app.tickets_archive},
+ * en lotes pequeños (cada uno es una transacción corta con SKIP LOCKED).
+ */
+@Component
+public class TicketArchiveMover {
+    private static final Logger log = LoggerFactory.getLogger(TicketArchiveMover.class);
+
+    private final TicketArchiveRepository archive;
+    private final boolean enabled;
+    private final Duration olderThan;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public TicketArchiveMover(TicketArchiveRepository archive,
+                              @Value("${tickets.archive.enabled:true}") boolean enabled,
+                              @Value("${tickets.archive.closed-older-than:30d}") Duration olderThan,
+                              @Value("${tickets.archive.batch-size:1000}") int batchSize,
+                              @Value("${tickets.archive.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.archive = archive;
+        this.enabled = enabled;
+        this.olderThan = olderThan;
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxBatchesPerRun = Math.max(maxBatchesPerRun, 1);
+    }
+
+    @Scheduled(fixedDelayString = "${tickets.archive.interval:PT10M}",
+               initialDelayString = "${tickets.archive.initial-delay:PT1M}")
+    public void run() {
+        if (!enabled) return;
+
+        OffsetDateTime before = OffsetDateTime.now(ZoneOffset.UTC).minus(olderThan);
+        long moved = 0;
+        // Tope por ejecución para no competir con el tráfico si hay mucho atraso.
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            int n = archive.archiveClosedBefore(before, batchSize);
+            moved += n;
+            if (n < batchSize) break;
+        }
+        if (moved > 0) {
+            log.info("Archived {} tickets closed before {}", moved, before);
+        }
+    }
+}
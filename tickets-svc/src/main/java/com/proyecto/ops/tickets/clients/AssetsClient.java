@@ -0,0 +1,78 @@
+package com.proyecto.ops.tickets.clients;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Cliente de assets-svc. El tipo de activo se consulta al enrutar cada ticket
+ * nuevo, así que se cachea {@code assets.type-cache.ttl} (el tipo de un activo
+ * casi nunca cambia). Los fallos de red no se cachean.
+ */
+@Component
+public class AssetsClient {
+    private static final Logger log = LoggerFactory.getLogger(AssetsClient.class);
+
+    /** Tipo cacheado; {@code type} nulo si el activo no existe o no tiene tipo. */
+    private record CachedType(String type, long expiresAt) {}
+
+    private final RestClient http;
+    private final Map<UUID, CachedType> types = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    public AssetsClient(RestClient.Builder builder,
+                        @Value("${assets.base-url:http://localhost:8082}") String baseUrl,
+                        @Value("${assets.type-cache.ttl:PT10M}") Duration ttl,
+                        @Value("${assets.type-cache.max-entries:10000}") int maxEntries) {
+        this.http = builder.baseUrl(baseUrl).build();
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = Math.max(maxEntries, 1);
+    }
+
+    public String getTypeOrNull(UUID id) {
+        if (id == null) return null;
+        long now = System.nanoTime();
+        CachedType cached = types.get(id);
+        if (cached != null && now - cached.expiresAt() < 0) {
+            return cached.type();
+        }
+        try {
+            AssetDto dto = http.get()
+                    .uri("/assets/{id}", id)
+                    .retrieve()
+                    .body(AssetDto.class);
+            return remember(id, dto != null ? dto.type : null, now);
+        } catch (HttpClientErrorException.NotFound e) {
+            return remember(id, null, now);
+        } catch (RestClientException e) {
+            // sin tipo de activo, las reglas que lo exigen simplemente no aplican
+            log.warn("assets-svc unreachable when fetching id={}: {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    private String remember(UUID id, String type, long now) {
+        if (types.size() >= maxEntries) {
+            types.values().removeIf(c -> now - c.expiresAt() >= 0);
+            // Si todas siguen vigentes se vacía: es solo una caché.
+            if (types.size() >= maxEntries) types.clear();
+        }
+        types.put(id, new CachedType(type, now + ttlNanos));
+        return type;
+    }
+
+    public static class AssetDto {
+        public UUID id;
+        public String type;
+    }
+}
@@ -1,5 +1,6 @@
 package com.proyecto.ops.tickets.clients;
 
+import java.util.List;
 import java.util.UUID;
 
 import org.slf4j.Logger;
@@ -35,10 +36,25 @@ public class ContactsClient {
         }
     }
 
-    
+    /**
+     * Contacto con ese correo, o null si no existe. Los errores de red se propagan
+     * (quien llama decide si reintentar o descartar).
+     */
+    public ContactDto findByEmail(String email) {
+        ContactPage page = http.get()
+                .uri(b -> b.path("/contacts").queryParam("email", email).queryParam("size", 1).build())
+                .retrieve()
+                .body(ContactPage.class);
+        return (page != null && page.content != null && !page.content.isEmpty()) ? page.content.get(0) : null;
+    }
 
     public static class ContactDto {
         public UUID id;
+        public UUID customerId;
         public String name;
     }
+
+    public static class ContactPage {
+        public List<ContactDto> content;
+    }
 }
\ No newline at end of file
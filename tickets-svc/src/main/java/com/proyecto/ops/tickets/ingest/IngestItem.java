@@ -0,0 +1,13 @@
+package com.proyecto.ops.tickets.ingest;
+
+import com.proyecto.ops.tickets.model.Ticket;
+
+/**
+ * Resultado de procesar un correo, camino del escritor. {@code ticket} solo
+ * existe con status CREATED; FAILED no se persiste (se reintenta en la próxima
+ * ejecución y bloquea el checkpoint de su mbox).
+ */
+record IngestItem(MailDrop.RawMail raw, String messageId, String fromEmail, Status status, Ticket ticket) {
+
+    enum Status { CREATED, UNRESOLVED, INVALID, FAILED }
+}
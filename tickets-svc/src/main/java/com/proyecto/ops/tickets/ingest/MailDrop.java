@@ -0,0 +1,113 @@
+package com.proyecto.ops.tickets.ingest;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Lee en streaming los correos de un directorio de entrega.
+ *
+ * Reconoce maildirs (el propio directorio o subdirectorios con {@code new/}: un
+ * fichero por mensaje) y ficheros mbox ({@code *.mbox}, mensajes separados por
+ * líneas {@code "From "}). Un mbox se recorre línea a línea sin cargarlo entero
+ * y se retoma desde el offset del último checkpoint.
+ */
+final class MailDrop {
+
+    /** Un mensaje crudo. En mbox {@code seq}/{@code endOffset} ordenan el checkpoint; en maildir {@code file} es el fichero a mover. */
+    record RawMail(String source, long seq, long endOffset, Path file, byte[] data) {}
+
+    @FunctionalInterface
+    interface Sink {
+        void accept(RawMail mail) throws InterruptedException;
+    }
+
+    private static final byte[] FROM_ = "From ".getBytes();
+
+    private MailDrop() {
+    }
+
+    static void scan(Path dir, ToLongFunction<String> checkpoint, Sink sink) throws IOException, InterruptedException {
+        if (Files.isDirectory(dir.resolve("new"))) {
+            readMaildir(dir, sink);
+        }
+        List<Path> entries;
+        try (Stream<Path> s = Files.list(dir)) {
+            entries = s.sorted().toList();
+        }
+        for (Path p : entries) {
+            if (Files.isDirectory(p) && Files.isDirectory(p.resolve("new"))) {
+                readMaildir(p, sink);
+            } else if (Files.isRegularFile(p) && p.getFileName().toString().endsWith(".mbox")) {
+                String source = p.toAbsolutePath().toString();
+                readMbox(p, source, checkpoint.applyAsLong(source), sink);
+            }
+        }
+    }
+
+    private static void readMaildir(Path maildir, Sink sink) throws IOException, InterruptedException {
+        List<Path> files;
+        try (Stream<Path> s = Files.list(maildir.resolve("new"))) {
+            files = s.filter(Files::isRegularFile).sorted().toList();
+        }
+        for (Path f : files) {
+            sink.accept(new RawMail(f.toAbsolutePath().toString(), 0, 0, f, Files.readAllBytes(f)));
+        }
+    }
+
+    private static void readMbox(Path file, String source, long fromOffset, Sink sink)
+            throws IOException, InterruptedException {
+        // Un mbox más corto que el checkpoint se ha reemplazado: se lee desde el principio
+        long offset = fromOffset <= Files.size(file) ? fromOffset : 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 64 * 1024)) {
+            in.skipNBytes(offset);
+            ByteArrayOutputStream current = null;
+            boolean prevBlank = true;
+            long seq = 0;
+
+            ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+            while (true) {
+                line.reset();
+                int c;
+                while ((c = in.read()) != -1) {
+                    line.write(c);
+                    if (c == '\n') break;
+                }
+                if (line.size() == 0) break;
+                byte[] bytes = line.toByteArray();
+
+                if (prevBlank && startsWith(bytes, 0)) {
+                    if (current != null) sink.accept(new RawMail(source, seq++, offset, null, current.toByteArray()));
+                    current = new ByteArrayOutputStream(4096);
+                } else if (current != null) {
+                    // mboxrd: ">From " escapado en el cuerpo pierde un '>'
+                    int gt = 0;
+                    while (gt < bytes.length && bytes[gt] == '>') gt++;
+                    if (gt > 0 && startsWith(bytes, gt)) current.write(bytes, 1, bytes.length - 1);
+                    else current.write(bytes, 0, bytes.length);
+                }
+                offset += bytes.length;
+                prevBlank = isBlank(bytes);
+            }
+            if (current != null) sink.accept(new RawMail(source, seq, offset, null, current.toByteArray()));
+        }
+    }
+
+    private static boolean startsWith(byte[] line, int at) {
+        if (line.length - at < FROM_.length) return false;
+        for (int i = 0; i < FROM_.length; i++) {
+            if (line[at + i] != FROM_[i]) return false;
+        }
+        return true;
+    }
+
+    private static boolean isBlank(byte[] line) {
+        return (line.length == 1 && line[0] == '\n') || (line.length == 2 && line[0] == '\r' && line[1] == '\n');
+    }
+}
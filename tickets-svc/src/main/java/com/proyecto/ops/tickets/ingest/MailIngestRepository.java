@@ -0,0 +1,108 @@
+package com.proyecto.ops.tickets.ingest;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.proyecto.ops.tickets.model.Ticket;
+
+/** Escritura por lotes de la ingesta de correo y sus checkpoints. */
+@Repository
+public class MailIngestRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public MailIngestRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public long checkpoint(String source) {
+        List<Long> r = jdbc.queryForList(
+                "select byte_offset from app.ticket_ingest_checkpoints where source = ?", Long.class, source);
+        return r.isEmpty() ? 0 : r.get(0);
+    }
+
+    /**
+     * Persiste un lote en una transacción: registra los Message-ID (los ya vistos
+     * se ignoran), inserta con batch JDBC los tickets de los mensajes nuevos y
+     * avanza los checkpoints.
+     *
+     * @return tickets realmente insertados.
+     */
+    @Transactional
+    public List<Ticket> writeBatch(List<IngestItem> items, Map<String, Long> checkpoints) {
+        Set<String> fresh = new HashSet<>(insertMessages(items));
+
+        List<Ticket> created = new ArrayList<>();
+        for (IngestItem it : items) {
+            if (it.ticket() != null && fresh.contains(it.messageId())) created.add(it.ticket());
+        }
+        if (!created.isEmpty()) {
+            jdbc.batchUpdate("""
+                insert into app.tickets
+                  (id, title, description, status, priority, customer_id, requested_by,
+                   created_by, created_at, routing_queue)
+                values (?, ?, ?, cast(? as app.ticket_status), cast(? as app.ticket_priority), ?, ?, ?, ?, ?)
+                """, created, created.size(), (ps, t) -> {
+                ps.setObject(1, t.getId());
+                ps.setString(2, t.getTitle());
+                ps.setString(3, t.getDescription());
+                ps.setString(4, t.getStatus().name());
+                ps.setString(5, t.getPriority().name());
+                ps.setObject(6, t.getCustomerId());
+                ps.setObject(7, t.getRequestedBy());
+                ps.setString(8, t.getCreatedBy());
+                ps.setTimestamp(9, Timestamp.from(t.getCreatedAt().toInstant()));
+                ps.setString(10, t.getRoutingQueue());
+            });
+        }
+
+        for (Map.Entry<String, Long> cp : checkpoints.entrySet()) {
+            jdbc.update("""
+                insert into app.ticket_ingest_checkpoints (source, byte_offset) values (?, ?)
+                on conflict (source) do update set byte_offset = excluded.byte_offset, updated_at = now()
+                """, cp.getKey(), cp.getValue());
+        }
+        return created;
+    }
+
+    // Un único INSERT ... SELECT unnest(...) ON CONFLICT DO NOTHING: devuelve solo los Message-ID nuevos.
+    private List<String> insertMessages(List<IngestItem> items) {
+        int n = items.size();
+        String[] ids = new String[n];
+        Object[] tickets = new Object[n];
+        String[] statuses = new String[n];
+        String[] froms = new String[n];
+        String[] sources = new String[n];
+        for (int i = 0; i < n; i++) {
+            IngestItem it = items.get(i);
+            ids[i] = it.messageId();
+            tickets[i] = it.ticket() == null ? null : it.ticket().getId();
+            statuses[i] = it.status().name();
+            froms[i] = it.fromEmail();
+            sources[i] = it.raw().source();
+        }
+        return jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement("""
+                insert into app.ticket_email_messages (message_id, ticket_id, status, from_email, source)
+                select * from unnest(?::varchar[], ?::uuid[], ?::varchar[], ?::varchar[], ?::varchar[])
+                on conflict (message_id) do nothing
+                returning message_id
+                """);
+            ps.setArray(1, con.createArrayOf("varchar", ids));
+            ps.setArray(2, con.createArrayOf("uuid", tickets));
+            ps.setArray(3, con.createArrayOf("varchar", statuses));
+            ps.setArray(4, con.createArrayOf("varchar", froms));
+            ps.setArray(5, con.createArrayOf("varchar", sources));
+            return ps;
+        }, (rs, i) -> rs.getString(1));
+    }
+}
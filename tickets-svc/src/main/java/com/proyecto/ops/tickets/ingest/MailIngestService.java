@@ -0,0 +1,354 @@
+package com.proyecto.ops.tickets.ingest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.proyecto.ops.tickets.clients.ContactsClient;
+import com.proyecto.ops.tickets.model.Ticket;
+import com.proyecto.ops.tickets.model.TicketPriority;
+import com.proyecto.ops.tickets.model.TicketStatus;
+import com.proyecto.ops.tickets.routing.TicketRouter;
+import com.proyecto.ops.tickets.similarity.DuplicateTicketIndex;
+import com.proyecto.ops.tickets.sla.SlaTimerService;
+
+/**
+ * Pipeline de ingesta de correo a tickets.
+ *
+ * <pre>
+ * lector (1 hilo) ──▶ workers (N): parseo + resolución del remitente ──▶ escritor (1 hilo): lotes
+ * </pre>
+ *
+ * Un semáforo limita los mensajes en vuelo (leídos y aún no confirmados): cuando
+ * se agota, el lector se bloquea, así la memoria queda acotada aunque
+ * contacts-svc o la BD vayan lentos. El escritor agrupa en lotes de
+ * {@code batch-size} y los confirma en una transacción junto con el checkpoint
+ * del mbox (offset hasta el que todo está confirmado). Los maildir se mueven de
+ * {@code new/} a {@code cur/} tras confirmar. Tras un fallo se retoma desde ahí;
+ * lo que se reprocese lo descarta la deduplicación por Message-ID.
+ */
+@Service
+public class MailIngestService {
+    private static final Logger log = LoggerFactory.getLogger(MailIngestService.class);
+
+    private static final String CREATED_BY_PREFIX = "email:";
+
+    public record RunSummary(long read, long created, long duplicates, long unresolved, long invalid, long failed) {}
+
+    private final MailIngestRepository repo;
+    private final ContactsClient contactsClient;
+    private final TicketRouter router;
+    private final SlaTimerService slaTimers;
+    private final DuplicateTicketIndex duplicates;
+
+    private final String dir;
+    private final int parallelism;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public MailIngestService(MailIngestRepository repo,
+                             ContactsClient contactsClient,
+                             TicketRouter router,
+                             SlaTimerService slaTimers,
+                             DuplicateTicketIndex duplicates,
+                             @Value("${tickets.ingest.mail.dir:}") String dir,
+                             @Value("${tickets.ingest.mail.parallelism:8}") int parallelism,
+                             @Value("${tickets.ingest.mail.batch-size:200}") int batchSize,
+                             @Value("${tickets.ingest.mail.max-in-flight:1000}") int maxInFlight) {
+        this.repo = repo;
+        this.contactsClient = contactsClient;
+        this.router = router;
+        this.slaTimers = slaTimers;
+        this.duplicates = duplicates;
+        this.dir = dir;
+        this.parallelism = Math.max(parallelism, 1);
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxInFlight = Math.max(maxInFlight, this.batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${tickets.ingest.mail.interval:PT1M}")
+    public void scheduledRun() {
+        if (dir.isBlank()) return;
+        try {
+            run().ifPresent(s -> {
+                if (s.read() > 0) log.info("Mail ingest run: {}", s);
+            });
+        } catch (IOException e) {
+            log.error("Mail ingest failed reading {}: {}", dir, e.getMessage());
+        }
+    }
+
+    /** Procesa el directorio configurado; vacío si ya hay una ejecución en curso. */
+    public Optional<RunSummary> run() throws IOException {
+        if (dir.isBlank()) {
+            throw new IllegalStateException("tickets.ingest.mail.dir no está configurado");
+        }
+        if (!running.compareAndSet(false, true)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new Run().execute(Path.of(dir)));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /** Estado de una ejecución. */
+    private final class Run {
+        private static final Object END = new Object();
+
+        private final Semaphore inFlight = new Semaphore(maxInFlight);
+        private final BlockingQueue<Object> toWriter = new ArrayBlockingQueue<>(maxInFlight + 1);
+        private final Map<String, Optional<ContactsClient.ContactDto>> contacts = new ConcurrentHashMap<>();
+        private final Map<String, OffsetTracker> trackers = new HashMap<>();
+        private volatile RuntimeException writerError;
+
+        private long read, created, dups, unresolved, invalid, failed;
+
+        RunSummary execute(Path root) throws IOException {
+            ExecutorService workers = Executors.newFixedThreadPool(parallelism, r -> {
+                Thread t = new Thread(r, "mail-ingest-worker");
+                t.setDaemon(true);
+                return t;
+            });
+            Thread writer = new Thread(this::writeLoop, "mail-ingest-writer");
+            writer.start();
+            try {
+                MailDrop.scan(root, repo::checkpoint, raw -> {
+                    if (writerError != null) throw writerError;
+                    inFlight.acquire();
+                    read++;
+                    workers.execute(() -> {
+                        IngestItem item = null;
+                        try {
+                            item = process(raw);
+                        } catch (RuntimeException e) {
+                            log.error("Mail ingest failed processing message in {}: {}", raw.source(), e.getMessage(), e);
+                        } finally {
+                            // Siempre se entrega algo al escritor: es él quien libera el permiso.
+                            handOff(item != null ? item
+                                    : new IngestItem(raw, null, null, IngestItem.Status.FAILED, null));
+                        }
+                    });
+                });
+                // Esperar a que todo lo leído esté confirmado
+                inFlight.acquire(maxInFlight);
+                inFlight.release(maxInFlight);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                workers.shutdownNow();
+                toWriter.offer(END);
+                try {
+                    writer.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (writerError != null) throw writerError;
+            return new RunSummary(read, created, dups, unresolved, invalid, failed);
+        }
+
+        private void handOff(IngestItem item) {
+            try {
+                toWriter.put(item);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Worker: parseo MIME + remitente → contacto (cacheado por ejecución).
+        private IngestItem process(MailDrop.RawMail raw) {
+            ParsedMail mail;
+            try {
+                mail = MailParser.parse(raw.data());
+            } catch (Exception e) {
+                log.warn("Unparseable message in {}: {}", raw.source(), e.getMessage());
+                String id = "<invalid:" + raw.source() + "#" + raw.seq() + ">";
+                return new IngestItem(raw, id, null, IngestItem.Status.INVALID, null);
+            }
+            if (mail.fromEmail() == null) {
+                return new IngestItem(raw, mail.messageId(), null, IngestItem.Status.UNRESOLVED, null);
+            }
+
+            Optional<ContactsClient.ContactDto> contact;
+            try {
+                contact = contacts.get(mail.fromEmail());
+                if (contact == null) {
+                    contact = Optional.ofNullable(contactsClient.findByEmail(mail.fromEmail()));
+                    contacts.put(mail.fromEmail(), contact);
+                }
+            } catch (RuntimeException e) {
+                log.warn("contacts-svc lookup failed for {}: {}", mail.fromEmail(), e.getMessage());
+                return new IngestItem(raw, mail.messageId(), mail.fromEmail(), IngestItem.Status.FAILED, null);
+            }
+            if (contact.isEmpty() || contact.get().customerId == null) {
+                return new IngestItem(raw, mail.messageId(), mail.fromEmail(), IngestItem.Status.UNRESOLVED, null);
+            }
+            return new IngestItem(raw, mail.messageId(), mail.fromEmail(), IngestItem.Status.CREATED,
+                    toTicket(mail, contact.get()));
+        }
+
+        private Ticket toTicket(ParsedMail mail, ContactsClient.ContactDto contact) {
+            Ticket t = new Ticket();
+            t.setId(UUID.randomUUID());
+            String subject = mail.subject() == null || mail.subject().isBlank() ? "(sin asunto)" : mail.subject().strip();
+            t.setTitle(subject.length() > 200 ? subject.substring(0, 200) : subject);
+            t.setDescription(mail.body());
+            t.setStatus(TicketStatus.OPEN);
+            t.setPriority(TicketPriority.MEDIUM);
+            t.setCustomerId(contact.customerId);
+            t.setRequestedBy(contact.id);
+            String createdBy = CREATED_BY_PREFIX + mail.fromEmail();
+            t.setCreatedBy(createdBy.length() > 255 ? createdBy.substring(0, 255) : createdBy);
+            t.setCreatedAt(OffsetDateTime.now());
+            t.setRoutingQueue(router.route(t));
+            return t;
+        }
+
+        // Escritor: un solo hilo, lotes por tamaño o por inactividad.
+        private void writeLoop() {
+            List<IngestItem> batch = new ArrayList<>(batchSize);
+            try {
+                while (true) {
+                    Object o = toWriter.poll(200, TimeUnit.MILLISECONDS);
+                    if (o == END) break;
+                    if (o != null) batch.add((IngestItem) o);
+                    if (batch.size() >= batchSize || (o == null && !batch.isEmpty())) {
+                        flush(batch);
+                    }
+                }
+                if (!batch.isEmpty()) flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                writerError = e;
+                log.error("Mail ingest batch failed: {}", e.getMessage());
+                // Desbloquea al lector para que vea el error
+                inFlight.release(maxInFlight);
+            }
+        }
+
+        private void flush(List<IngestItem> batch) {
+            // Un mismo Message-ID repetido dentro del lote solo cuenta una vez
+            Map<String, IngestItem> unique = new LinkedHashMap<>();
+            List<IngestItem> maildirFiles = new ArrayList<>();
+            for (IngestItem it : batch) {
+                MailDrop.RawMail raw = it.raw();
+                if (raw.file() == null) {
+                    OffsetTracker tr = trackers.computeIfAbsent(raw.source(), s -> new OffsetTracker());
+                    if (it.status() == IngestItem.Status.FAILED) tr.failed(raw.seq());
+                    else tr.done(raw.seq(), raw.endOffset());
+                } else if (it.status() != IngestItem.Status.FAILED) {
+                    maildirFiles.add(it);
+                }
+                switch (it.status()) {
+                    case FAILED -> failed++;
+                    case UNRESOLVED -> unresolved++;
+                    case INVALID -> invalid++;
+                    default -> { }
+                }
+                if (it.status() != IngestItem.Status.FAILED) unique.putIfAbsent(it.messageId(), it);
+            }
+
+            Map<String, Long> checkpoints = new HashMap<>();
+            trackers.forEach((source, tr) -> {
+                if (tr.dirty()) checkpoints.put(source, tr.watermark());
+            });
+
+            List<IngestItem> toWrite = new ArrayList<>(unique.values());
+            List<Ticket> inserted = toWrite.isEmpty() && checkpoints.isEmpty()
+                    ? List.of()
+                    : repo.writeBatch(toWrite, checkpoints);
+            trackers.values().forEach(OffsetTracker::clean);
+
+            long withTicket = toWrite.stream().filter(it -> it.ticket() != null).count();
+            created += inserted.size();
+            dups += withTicket - inserted.size();
+
+            for (Ticket t : inserted) {
+                slaTimers.track(t);
+                duplicates.add(t.getId(), t.getCustomerId(), t.getTitle(), t.getDescription());
+            }
+            for (IngestItem it : maildirFiles) {
+                markSeen(it.raw().file());
+            }
+
+            inFlight.release(batch.size());
+            batch.clear();
+        }
+    }
+
+    // Convención maildir: new/<nombre> → cur/<nombre>:2,S (leído)
+    private static void markSeen(Path file) {
+        try {
+            Path cur = file.getParent().resolveSibling("cur");
+            Files.createDirectories(cur);
+            Files.move(file, cur.resolve(file.getFileName() + ":2,S"), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not move {} to cur/: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Marca de agua de un mbox: los workers terminan en desorden, así que solo se
+     * avanza el offset mientras los mensajes confirmados sean contiguos. Un FAILED
+     * la detiene para que la próxima ejecución lo vuelva a leer.
+     */
+    private static final class OffsetTracker {
+        private final TreeMap<Long, Long> pending = new TreeMap<>();
+        private long nextSeq;
+        private long watermark = -1;
+        private boolean blocked;
+        private boolean dirty;
+
+        void done(long seq, long endOffset) {
+            pending.put(seq, endOffset);
+            while (!blocked && pending.containsKey(nextSeq)) {
+                watermark = pending.remove(nextSeq++);
+                dirty = true;
+            }
+        }
+
+        void failed(long seq) {
+            if (seq >= nextSeq) blocked = true;
+        }
+
+        boolean dirty() {
+            return dirty && watermark >= 0;
+        }
+
+        long watermark() {
+            return watermark;
+        }
+
+        void clean() {
+            dirty = false;
+        }
+    }
+}
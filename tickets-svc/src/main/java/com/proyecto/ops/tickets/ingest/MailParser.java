@@ -0,0 +1,83 @@
+package com.proyecto.ops.tickets.ingest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Properties;
+
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Multipart;
+import jakarta.mail.Part;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+
+/** Parser MIME sin estado (thread-safe): extrae Message-ID, remitente, asunto y texto. */
+final class MailParser {
+
+    private static final Session SESSION = Session.getInstance(new Properties());
+
+    private MailParser() {
+    }
+
+    static ParsedMail parse(byte[] raw) throws MessagingException, IOException {
+        MimeMessage m = new MimeMessage(SESSION, new ByteArrayInputStream(raw));
+
+        String messageId = m.getMessageID();
+        if (messageId == null || messageId.isBlank()) {
+            // Sin Message-ID: el hash del contenido sirve igual para deduplicar reenvíos idénticos
+            messageId = "<sha256:" + sha256(raw) + ">";
+        }
+
+        String from = null;
+        Address[] addrs = m.getFrom();
+        if (addrs != null && addrs.length > 0 && addrs[0] instanceof InternetAddress ia) {
+            from = ia.getAddress();
+        }
+
+        String body = text(m);
+        return new ParsedMail(messageId.trim(), from == null ? null : from.toLowerCase(), m.getSubject(),
+                body == null ? null : body.strip());
+    }
+
+    // Primer text/plain; si no hay, el primer text/html sin etiquetas.
+    private static String text(Part p) throws MessagingException, IOException {
+        if (p.isMimeType("text/plain")) {
+            return p.getContent().toString();
+        }
+        if (p.isMimeType("multipart/*")) {
+            Multipart mp = (Multipart) p.getContent();
+            String html = null;
+            for (int i = 0; i < mp.getCount(); i++) {
+                Part part = mp.getBodyPart(i);
+                if (Part.ATTACHMENT.equalsIgnoreCase(part.getDisposition())) continue;
+                if (part.isMimeType("text/html")) {
+                    if (html == null) html = text(part);
+                    continue;
+                }
+                String t = text(part);
+                if (t != null) return t;
+            }
+            return html;
+        }
+        if (p.isMimeType("text/html")) {
+            return p.getContent().toString()
+                    .replaceAll("(?is)<(script|style)[^>]*>.*?</\\1>", " ")
+                    .replaceAll("<[^>]+>", " ")
+                    .replaceAll("&nbsp;", " ")
+                    .replaceAll("[ \\t]+", " ");
+        }
+        return null;
+    }
+
+    private static String sha256(byte[] raw) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(raw));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
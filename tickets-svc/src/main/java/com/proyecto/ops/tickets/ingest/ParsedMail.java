@@ -0,0 +1,4 @@
+package com.proyecto.ops.tickets.ingest;
+
+/** Campos de un correo que necesita la ingesta. */
+record ParsedMail(String messageId, String fromEmail, String subject, String body) {}
@@ -71,6 +71,17 @@ public class Ticket {
     @Column(name = "created_at", nullable = false, columnDefinition = "timestamptz")
     private OffsetDateTime createdAt = OffsetDateTime.now();
 
+    // Agente de triage que reclamó el ticket (POST /tickets/claim-next)
+    @Column(name = "assigned_to", length = 200)
+    private String assignedTo;
+
+    @Column(name = "lease_expires_at", columnDefinition = "timestamptz")
+    private OffsetDateTime leaseExpiresAt;
+
+    // Cola/equipo asignado por las reglas de enrutado al crear el ticket
+    @Column(name = "routing_queue", length = 100)
+    private String routingQueue;
+
     // Getters/Setters
     public UUID getId() {
         return id;
@@ -160,6 +171,30 @@ public class Ticket {
         this.createdAt = createdAt;
     }
 
+    public String getAssignedTo() {
+        return assignedTo;
+    }
+
+    public void setAssignedTo(String assignedTo) {
+        this.assignedTo = assignedTo;
+    }
+
+    public OffsetDateTime getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(OffsetDateTime leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public String getRoutingQueue() {
+        return routingQueue;
+    }
+
+    public void setRoutingQueue(String routingQueue) {
+        this.routingQueue = routingQueue;
+    }
+
     @PrePersist
     void prePersistDefaults() {
         if (this.status == null) {
@@ -0,0 +1,121 @@
+package com.proyecto.ops.tickets.repo;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.proyecto.ops.tickets.model.Ticket;
+import com.proyecto.ops.tickets.model.TicketPriority;
+
+/**
+ * Acceso a {@code app.tickets_archive}, donde viven los tickets cerrados antiguos.
+ *
+ * {@link TicketRepository} solo ve la tabla caliente; las lecturas de histórico
+ * pasan siempre por aquí de forma explícita. Devuelve {@link Ticket} desligados
+ * del contexto JPA (solo lectura).
+ */
+@Repository
+public class TicketArchiveRepository {
+
+    private static final String COLUMNS = TicketRowMapper.COMMON_COLUMNS;
+
+    /** Propiedades por las que se puede ordenar el archivo y su columna. */
+    public static final Map<String, String> SORT_COLUMNS = Map.of(
+            "createdAt", "created_at",
+            "title", "title",
+            "priority", "priority",
+            "status", "status",
+            "customerId", "customer_id",
+            "requestedBy", "requested_by",
+            "assignedTo", "assigned_to");
+
+    private final JdbcTemplate jdbc;
+
+    public TicketArchiveRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public Optional<Ticket> findById(UUID id) {
+        return jdbc.query("select " + COLUMNS + " from app.tickets_archive where id = ?", TicketRowMapper.INSTANCE, id)
+                .stream().findFirst();
+    }
+
+    /**
+     * Misma semántica de filtros que {@link TicketRepository#search}, sobre el
+     * archivo. Respeta el {@code Sort} de {@code pageable} (por defecto
+     * {@code createdAt} descendente).
+     *
+     * @throws IllegalArgumentException si se ordena por una propiedad fuera de {@link #SORT_COLUMNS}.
+     */
+    public Page<Ticket> search(TicketPriority priority, UUID customerId, UUID requestedBy, Pageable pageable) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder where = new StringBuilder(" where true");
+        if (priority != null) { where.append(" and priority = cast(? as app.ticket_priority)"); params.add(priority.name()); }
+        if (customerId != null) { where.append(" and customer_id = ?"); params.add(customerId); }
+        if (requestedBy != null) { where.append(" and requested_by = ?"); params.add(requestedBy); }
+
+        Long total = jdbc.queryForObject("select count(*) from app.tickets_archive" + where, Long.class, params.toArray());
+
+        List<Object> pageParams = new ArrayList<>(params);
+        pageParams.add(pageable.getPageSize());
+        pageParams.add(pageable.getOffset());
+        List<Ticket> content = jdbc.query(
+                "select " + COLUMNS + " from app.tickets_archive" + where
+                        + orderBy(pageable.getSort()) + " limit ? offset ?",
+                TicketRowMapper.INSTANCE, pageParams.toArray());
+
+        return new PageImpl<>(content, pageable, total == null ? 0 : total);
+    }
+
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return " order by created_at desc, id";
+        }
+        StringBuilder sql = new StringBuilder(" order by ");
+        for (Sort.Order o : sort) {
+            String column = SORT_COLUMNS.get(o.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("No se puede ordenar el archivo por " + o.getProperty());
+            }
+            sql.append(column).append(o.isAscending() ? " asc" : " desc").append(", ");
+        }
+        // id como desempate para que la paginación sea estable.
+        return sql.append("id").toString();
+    }
+
+    /**
+     * Mueve en una sola sentencia hasta {@code limit} tickets cerrados antes de
+     * {@code before} de la tabla caliente al archivo. La fecha de cierre es
+     * {@code status_changed_at} (o {@code created_at} si se creó ya cerrado).
+     *
+     * @return número de tickets movidos.
+     */
+    public int archiveClosedBefore(OffsetDateTime before, int limit) {
+        String sql = """
+            with moved as (
+              delete from app.tickets
+              where id in (
+                select id from app.tickets
+                where status = 'CLOSED' and coalesce(status_changed_at, created_at) < ?
+                order by coalesce(status_changed_at, created_at)
+                limit ?
+                for update skip locked
+              )
+              returning *
+            )
+            insert into app.tickets_archive (%1$s, archived_at)
+            select %1$s, now() from moved
+            """.formatted(COLUMNS.strip());
+        return jdbc.update(sql, before, limit);
+    }
+}
@@ -0,0 +1,209 @@
+package com.proyecto.ops.tickets.repo;
+
+import java.sql.PreparedStatement;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.proyecto.ops.tickets.model.Ticket;
+import com.proyecto.ops.tickets.model.TicketPriority;
+import com.proyecto.ops.tickets.model.TicketStatus;
+
+/**
+ * Operaciones SQL por lotes sobre {@code app.tickets} que no encajan en JPA
+ * (UPDATE set-based con RETURNING, arrays de ids, etc.).
+ */
+@Repository
+public class TicketJdbcRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public TicketJdbcRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    // Columnas de TicketRowMapper cualificadas con el alias del UPDATE (evita ambigüedad con el CTE).
+    private static final String CLAIM_COLUMNS = String.join(", ",
+            Arrays.stream(TicketRowMapper.COMMON_COLUMNS.split(","))
+                    .map(c -> "t." + c.strip())
+                    .toList());
+
+    // Ticket completo más la lease, para las sentencias que devuelven CLAIM_COLUMNS.
+    private static final RowMapper<Ticket> LEASED_MAPPER = (rs, n) -> {
+        Ticket t = TicketRowMapper.INSTANCE.mapRow(rs, n);
+        t.setLeaseExpiresAt(rs.getObject("lease_expires_at", OffsetDateTime.class));
+        return t;
+    };
+
+    private static final RowMapper<TicketState> STATE_MAPPER = (rs, n) -> new TicketState(
+            rs.getObject("id", UUID.class),
+            TicketStatus.valueOf(rs.getString("status")),
+            TicketPriority.valueOf(rs.getString("priority")),
+            rs.getObject("created_at", OffsetDateTime.class)
+    );
+
+    /**
+     * Recorre en streaming los tickets no cerrados (cursor con fetch size, sin
+     * cargar la tabla en memoria).
+     */
+    @Transactional(readOnly = true)
+    public void forEachOpen(Consumer<TicketState> action) {
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement("""
+                select id, status, priority, created_at
+                from app.tickets
+                where status <> 'CLOSED'
+                """);
+            ps.setFetchSize(5_000);
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(STATE_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    /** Recorre en streaming id, cliente, título y descripción de los tickets no cerrados. */
+    @Transactional(readOnly = true)
+    public void forEachOpenText(TextConsumer action) {
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement("""
+                select id, customer_id, title, description
+                from app.tickets
+                where status <> 'CLOSED'
+                """);
+            ps.setFetchSize(5_000);
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(
+                rs.getObject("id", UUID.class), rs.getObject("customer_id", UUID.class),
+                rs.getString("title"), rs.getString("description")));
+    }
+
+    @FunctionalInterface
+    public interface TextConsumer {
+        void accept(UUID id, UUID customerId, String title, String description);
+    }
+
+    /**
+     * Reclama el siguiente ticket abierto (HIGH primero, luego el más antiguo) para
+     * {@code agent} durante {@code leaseSeconds}. Los tickets con una lease vigente
+     * se ignoran y los bloqueados por otra transacción se saltan (SKIP LOCKED), así
+     * que varios agentes concurrentes nunca se esperan ni se pisan.
+     */
+    public Optional<Ticket> claimNext(String agent, long leaseSeconds) {
+        String sql = """
+            with next as (
+              select id from app.tickets
+              where status = 'OPEN'
+                and (lease_expires_at is null or lease_expires_at < now())
+              order by (case priority when 'HIGH' then 0 when 'MEDIUM' then 1 else 2 end), created_at
+              limit 1
+              for update skip locked
+            )
+            update app.tickets t
+            set assigned_to = ?, lease_expires_at = now() + make_interval(secs => ?)
+            from next
+            where t.id = next.id
+            returning %s, t.lease_expires_at
+            """.formatted(CLAIM_COLUMNS);
+        return jdbc.query(sql, LEASED_MAPPER, agent, (double) leaseSeconds).stream().findFirst();
+    }
+
+    /**
+     * Cambia status y/o prioridad de un ticket actualizando solo esas columnas,
+     * así no pisa {@code assigned_to} ni {@code lease_expires_at} de un claim
+     * confirmado entre medias (como haría un findById + save de la entidad).
+     *
+     * @return el ticket actualizado, o vacío si no existe.
+     */
+    public Optional<Ticket> updateOne(UUID id, TicketStatus status, TicketPriority priority) {
+        List<Object> params = new ArrayList<>();
+        String sql = "update app.tickets t set " + setClause(status, priority, params)
+                + " where t.id = ? returning " + CLAIM_COLUMNS + ", t.lease_expires_at";
+        params.add(id);
+        return jdbc.query(sql, LEASED_MAPPER, params.toArray()).stream().findFirst();
+    }
+
+    /** Cuáles de los ids existen en la tabla caliente (una consulta por llamada). */
+    public List<UUID> existingIds(List<UUID> ids) {
+        if (ids.isEmpty()) return List.of();
+        return jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement("select id from app.tickets where id = any(?)");
+            ps.setArray(1, con.createArrayOf("uuid", ids.toArray()));
+            return ps;
+        }, (rs, i) -> rs.getObject(1, UUID.class));
+    }
+
+    /**
+     * Aplica status y/o prioridad a los ids indicados en un único UPDATE.
+     *
+     * @return estado final de los tickets que existían y fueron actualizados.
+     */
+    public List<TicketState> updateByIds(List<UUID> ids, TicketStatus status, TicketPriority priority) {
+        if (ids.isEmpty()) return List.of();
+
+        List<Object> params = new ArrayList<>();
+        String sql = "update app.tickets set " + setClause(status, priority, params)
+                + " where id = any(?) returning id, status, priority, created_at";
+
+        return jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            int i = 1;
+            for (Object p : params) ps.setObject(i++, p);
+            ps.setArray(i, con.createArrayOf("uuid", ids.toArray()));
+            return ps;
+        }, STATE_MAPPER);
+    }
+
+    /**
+     * Actualiza como máximo {@code limit} tickets que cumplen el filtro y aún no
+     * tienen los valores destino. Llamar en bucle hasta que devuelva menos de
+     * {@code limit}: cada llamada es una sentencia (y transacción) independiente,
+     * así que los locks y la memoria quedan acotados al tamaño del lote.
+     *
+     * @return estado final de las filas actualizadas en este lote.
+     */
+    public List<TicketState> updateByFilterChunk(TicketStatus fromStatus, TicketPriority fromPriority,
+                                   UUID customerId, UUID requestedBy,
+                                   TicketStatus status, TicketPriority priority, int limit) {
+        List<Object> setParams = new ArrayList<>();
+        String set = setClause(status, priority, setParams);
+
+        List<Object> params = new ArrayList<>();
+        StringBuilder where = new StringBuilder("where true");
+        if (fromStatus != null) { where.append(" and status = cast(? as app.ticket_status)"); params.add(fromStatus.name()); }
+        if (fromPriority != null) { where.append(" and priority = cast(? as app.ticket_priority)"); params.add(fromPriority.name()); }
+        if (customerId != null) { where.append(" and customer_id = ?"); params.add(customerId); }
+        if (requestedBy != null) { where.append(" and requested_by = ?"); params.add(requestedBy); }
+
+        // Excluye filas que ya tienen el valor destino para que el bucle termine.
+        List<String> pending = new ArrayList<>();
+        if (status != null) { pending.add("status <> cast(? as app.ticket_status)"); params.add(status.name()); }
+        if (priority != null) { pending.add("priority <> cast(? as app.ticket_priority)"); params.add(priority.name()); }
+        where.append(" and (").append(String.join(" or ", pending)).append(")");
+        params.add(limit);
+        params.addAll(setParams);
+
+        String sql = "with batch as (select id from app.tickets " + where + " limit ? for update) "
+                + "update app.tickets t set " + set + " from batch where t.id = batch.id"
+                + " returning t.id, t.status, t.priority, t.created_at";
+        return jdbc.query(sql, STATE_MAPPER, params.toArray());
+    }
+
+    // set status/priority con los valores no nulos; agrega sus parámetros a params
+    private static String setClause(TicketStatus status, TicketPriority priority, List<Object> params) {
+        List<String> sets = new ArrayList<>();
+        if (status != null) { sets.add("status = cast(? as app.ticket_status)"); params.add(status.name()); }
+        if (priority != null) { sets.add("priority = cast(? as app.ticket_priority)"); params.add(priority.name()); }
+        if (sets.isEmpty()) {
+            throw new IllegalArgumentException("status o priority es requerido");
+        }
+        return String.join(", ", sets);
+    }
+}
@@ -0,0 +1,45 @@
+package com.proyecto.ops.tickets.repo;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import com.proyecto.ops.tickets.model.Ticket;
+import com.proyecto.ops.tickets.model.TicketPriority;
+import com.proyecto.ops.tickets.model.TicketStatus;
+
+/** Mapea las columnas comunes a {@code app.tickets} y {@code app.tickets_archive} a un {@link Ticket}. */
+final class TicketRowMapper implements RowMapper<Ticket> {
+
+    static final String COMMON_COLUMNS = """
+        id, title, description, status, priority, customer_id, site_id,
+        asset_id, requested_by, created_by, created_at, assigned_to, routing_queue
+        """;
+
+    static final TicketRowMapper INSTANCE = new TicketRowMapper();
+
+    private TicketRowMapper() {
+    }
+
+    @Override
+    public Ticket mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Ticket t = new Ticket();
+        t.setId(rs.getObject("id", UUID.class));
+        t.setTitle(rs.getString("title"));
+        t.setDescription(rs.getString("description"));
+        t.setStatus(TicketStatus.valueOf(rs.getString("status")));
+        t.setPriority(TicketPriority.valueOf(rs.getString("priority")));
+        t.setCustomerId(rs.getObject("customer_id", UUID.class));
+        t.setSiteId(rs.getObject("site_id", UUID.class));
+        t.setAssetId(rs.getObject("asset_id", UUID.class));
+        t.setRequestedBy(rs.getObject("requested_by", UUID.class));
+        t.setCreatedBy(rs.getString("created_by"));
+        t.setCreatedAt(rs.getObject("created_at", OffsetDateTime.class));
+        t.setAssignedTo(rs.getString("assigned_to"));
+        t.setRoutingQueue(rs.getString("routing_queue"));
+        return t;
+    }
+}
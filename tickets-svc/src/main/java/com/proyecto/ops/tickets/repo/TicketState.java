@@ -0,0 +1,15 @@
+package com.proyecto.ops.tickets.repo;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import com.proyecto.ops.tickets.model.TicketPriority;
+import com.proyecto.ops.tickets.model.TicketStatus;
+
+/** Proyección mínima de un ticket: lo justo para recalcular sus plazos. */
+public record TicketState(
+        UUID id,
+        TicketStatus status,
+        TicketPriority priority,
+        OffsetDateTime createdAt
+) {}
@@ -0,0 +1,108 @@
+package com.proyecto.ops.tickets.repo;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.proyecto.ops.tickets.model.TicketPriority;
+import com.proyecto.ops.tickets.model.TicketStatus;
+
+/**
+ * Lecturas del historial de status ({@code app.ticket_status_transitions}) y de
+ * los agregados diarios de tiempo en status ({@code app.ticket_status_time_daily}).
+ * Ambas tablas las mantiene el trigger {@code app.log_ticket_status_change}.
+ */
+@Repository
+public class TicketStatsRepository {
+
+    private static final UUID NO_CUSTOMER = new UUID(0L, 0L);
+
+    /** Dimensiones por las que se puede agrupar el agregado. */
+    public enum Dimension { CUSTOMER, PRIORITY, DAY }
+
+    public record StatusTransition(
+            String fromStatus,
+            String toStatus,
+            String priority,
+            OffsetDateTime enteredAt,
+            OffsetDateTime changedAt
+    ) {}
+
+    public record TimeInStatus(
+            String status,
+            UUID customerId,
+            String priority,
+            LocalDate day,
+            long exits,
+            double totalSeconds,
+            double avgSeconds
+    ) {}
+
+    private final JdbcTemplate jdbc;
+
+    public TicketStatsRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public List<StatusTransition> history(UUID ticketId) {
+        return jdbc.query("""
+            select from_status, to_status, priority, entered_at, changed_at
+            from app.ticket_status_transitions
+            where ticket_id = ?
+            order by changed_at, id
+            """, (rs, n) -> new StatusTransition(
+                rs.getString("from_status"),
+                rs.getString("to_status"),
+                rs.getString("priority"),
+                rs.getObject("entered_at", OffsetDateTime.class),
+                rs.getObject("changed_at", OffsetDateTime.class)
+        ), ticketId);
+    }
+
+    /**
+     * Tiempo en status sumado sobre el rango de días [from, to], agrupado por
+     * status y por las dimensiones pedidas. Lee solo el agregado diario.
+     */
+    public List<TimeInStatus> timeInStatus(LocalDate from, LocalDate to,
+                                           TicketStatus status, UUID customerId, TicketPriority priority,
+                                           Set<Dimension> groupBy) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder where = new StringBuilder(" where day between ? and ?");
+        params.add(from);
+        params.add(to);
+        if (status != null) { where.append(" and status = ?"); params.add(status.name()); }
+        if (customerId != null) { where.append(" and customer_id = ?"); params.add(customerId); }
+        if (priority != null) { where.append(" and priority = ?"); params.add(priority.name()); }
+
+        List<String> keys = new ArrayList<>(List.of("status"));
+        if (groupBy.contains(Dimension.CUSTOMER)) keys.add("customer_id");
+        if (groupBy.contains(Dimension.PRIORITY)) keys.add("priority");
+        if (groupBy.contains(Dimension.DAY)) keys.add("day");
+        String cols = String.join(", ", keys);
+
+        String sql = "select " + cols + ", sum(exits) as exits, sum(total_seconds) as total_seconds"
+                + " from app.ticket_status_time_daily" + where
+                + " group by " + cols + " order by " + cols;
+
+        return jdbc.query(sql, (rs, n) -> {
+            long exits = rs.getLong("exits");
+            double total = rs.getDouble("total_seconds");
+            UUID customer = keys.contains("customer_id") ? rs.getObject("customer_id", UUID.class) : null;
+            return new TimeInStatus(
+                    rs.getString("status"),
+                    NO_CUSTOMER.equals(customer) ? null : customer,
+                    keys.contains("priority") ? rs.getString("priority") : null,
+                    keys.contains("day") ? rs.getObject("day", LocalDate.class) : null,
+                    exits,
+                    total,
+                    exits == 0 ? 0 : total / exits
+            );
+        }, params.toArray());
+    }
+}
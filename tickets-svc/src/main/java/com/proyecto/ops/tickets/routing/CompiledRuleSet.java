@@ -0,0 +1,127 @@
+package com.proyecto.ops.tickets.routing;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.proyecto.ops.tickets.model.TicketPriority;
+import com.proyecto.ops.tickets.similarity.TextNormalizer;
+
+/**
+ * Conjunto de reglas activas compilado a índices por campo.
+ *
+ * Cada regla recibe un bit según su precedencia. Por cada campo hay un mapa
+ * valor → bits de las reglas que lo aceptan (ya unido con las reglas que no
+ * condicionan ese campo), así que evaluar un ticket es una búsqueda por campo y
+ * un AND de bitsets; la regla ganadora es el primer bit encendido. El coste no
+ * depende del número de reglas más allá del tamaño del bitset. Inmutable: el
+ * router lo reemplaza entero al recargar.
+ */
+final class CompiledRuleSet {
+
+    static final CompiledRuleSet EMPTY = compile(List.of());
+
+    private final RoutingRule[] byRank;
+
+    private final Map<UUID, BitSet> byCustomer = new HashMap<>();
+    private final BitSet anyCustomer = new BitSet();
+    private final Map<TicketPriority, BitSet> byPriority = new EnumMap<>(TicketPriority.class);
+    private final BitSet anyPriority = new BitSet();
+    private final Map<String, BitSet> byAssetType = new HashMap<>();
+    private final BitSet anyAssetType = new BitSet();
+
+    // Palabras sueltas: índice por token. Frases: pocas, se comprueban con contains.
+    private final Map<String, BitSet> byKeyword = new HashMap<>();
+    private final List<Phrase> phrases = new ArrayList<>();
+    private final BitSet anyKeyword = new BitSet();
+
+    private record Phrase(String text, int rank) {}
+
+    private CompiledRuleSet(List<RoutingRule> rules) {
+        byRank = rules.toArray(RoutingRule[]::new);
+        for (int rank = 0; rank < byRank.length; rank++) {
+            RoutingRule r = byRank[rank];
+
+            if (r.customerId() == null) anyCustomer.set(rank);
+            else byCustomer.computeIfAbsent(r.customerId(), k -> new BitSet()).set(rank);
+
+            if (r.priority() == null) anyPriority.set(rank);
+            else byPriority.computeIfAbsent(r.priority(), k -> new BitSet()).set(rank);
+
+            if (r.assetType() == null) anyAssetType.set(rank);
+            else byAssetType.computeIfAbsent(normalize(r.assetType()), k -> new BitSet()).set(rank);
+
+            List<String> keywords = r.keywords() == null ? List.of() : r.keywords();
+            boolean hasKeyword = false;
+            for (String kw : keywords) {
+                String k = normalize(kw);
+                if (k.isEmpty()) continue;
+                hasKeyword = true;
+                if (k.indexOf(' ') < 0) byKeyword.computeIfAbsent(k, x -> new BitSet()).set(rank);
+                else phrases.add(new Phrase(" " + k + " ", rank));
+            }
+            if (!hasKeyword) anyKeyword.set(rank);
+        }
+
+        // Los comodines se pliegan en cada valor para que la evaluación sea un solo lookup por campo.
+        byCustomer.values().forEach(b -> b.or(anyCustomer));
+        for (TicketPriority p : TicketPriority.values()) {
+            byPriority.computeIfAbsent(p, k -> new BitSet()).or(anyPriority);
+        }
+        byAssetType.values().forEach(b -> b.or(anyAssetType));
+    }
+
+    static CompiledRuleSet compile(List<RoutingRule> rules) {
+        List<RoutingRule> active = rules.stream()
+                .filter(RoutingRule::active)
+                .sorted(Comparator.comparingInt(RoutingRule::precedence)
+                        .thenComparing(RoutingRule::name, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        return new CompiledRuleSet(active);
+    }
+
+    int size() {
+        return byRank.length;
+    }
+
+    /** Si alguna regla condiciona el tipo de activo (si no, no hace falta consultarlo). */
+    boolean usesAssetType() {
+        return !byAssetType.isEmpty();
+    }
+
+    /** Regla ganadora para el ticket, o null si ninguna aplica. */
+    RoutingRule match(UUID customerId, TicketPriority priority, String assetType, String title, String description) {
+        if (byRank.length == 0) return null;
+
+        BitSet m = (BitSet) byCustomer.getOrDefault(customerId, anyCustomer).clone();
+        m.and(priority == null ? anyPriority : byPriority.get(priority));
+        m.and(assetType == null ? anyAssetType : byAssetType.getOrDefault(normalize(assetType), anyAssetType));
+        if (m.isEmpty()) return null;
+
+        BitSet kw = (BitSet) anyKeyword.clone();
+        String text = normalize(title) + " " + normalize(description);
+        for (String token : text.split(" ")) {
+            BitSet b = byKeyword.get(token);
+            if (b != null) kw.or(b);
+        }
+        if (!phrases.isEmpty()) {
+            String padded = " " + text + " ";
+            for (Phrase p : phrases) {
+                if (m.get(p.rank()) && padded.contains(p.text())) kw.set(p.rank());
+            }
+        }
+        m.and(kw);
+
+        int first = m.nextSetBit(0);
+        return first < 0 ? null : byRank[first];
+    }
+
+    private static String normalize(String s) {
+        return TextNormalizer.normalize(s);
+    }
+}
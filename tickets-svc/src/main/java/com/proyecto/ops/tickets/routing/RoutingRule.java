@@ -0,0 +1,25 @@
+package com.proyecto.ops.tickets.routing;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import com.proyecto.ops.tickets.model.TicketPriority;
+
+/**
+ * Regla de enrutado. Las condiciones nulas (o {@code keywords} vacío) no
+ * restringen; {@code keywords} se cumple si el título o la descripción contiene
+ * alguna de las palabras o frases (sin distinguir mayúsculas ni acentos).
+ */
+public record RoutingRule(
+        UUID id,
+        String name,
+        boolean active,
+        int precedence,
+        UUID customerId,
+        TicketPriority priority,
+        String assetType,
+        List<String> keywords,
+        String queue,
+        OffsetDateTime updatedAt
+) {}
@@ -0,0 +1,116 @@
+package com.proyecto.ops.tickets.routing;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import com.proyecto.ops.tickets.model.TicketPriority;
+
+/** Acceso JDBC a {@code app.ticket_routing_rules}. */
+@Repository
+public class RoutingRuleRepository {
+
+    private static final String COLUMNS =
+            "id, name, active, precedence, customer_id, priority, asset_type, keywords, queue, updated_at";
+
+    private static final RowMapper<RoutingRule> MAPPER = (rs, n) -> {
+        Array kw = rs.getArray("keywords");
+        String priority = rs.getString("priority");
+        return new RoutingRule(
+                rs.getObject("id", UUID.class),
+                rs.getString("name"),
+                rs.getBoolean("active"),
+                rs.getInt("precedence"),
+                rs.getObject("customer_id", UUID.class),
+                priority == null ? null : TicketPriority.valueOf(priority),
+                rs.getString("asset_type"),
+                kw == null ? List.of() : Arrays.asList((String[]) kw.getArray()),
+                rs.getString("queue"),
+                rs.getObject("updated_at", OffsetDateTime.class)
+        );
+    };
+
+    private final JdbcTemplate jdbc;
+
+    public RoutingRuleRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public List<RoutingRule> findAll() {
+        return jdbc.query("select " + COLUMNS + " from app.ticket_routing_rules order by precedence, name", MAPPER);
+    }
+
+    public Optional<RoutingRule> findById(UUID id) {
+        return jdbc.query("select " + COLUMNS + " from app.ticket_routing_rules where id = ?", MAPPER, id)
+                .stream().findFirst();
+    }
+
+    /**
+     * Huella barata del conjunto de reglas: cambia con cualquier alta, edición o
+     * baja, y permite al router saber si tiene que recompilar sin leer las reglas.
+     */
+    public String version() {
+        return jdbc.queryForObject(
+                "select count(*) || ':' || coalesce(max(updated_at)::text, '') from app.ticket_routing_rules",
+                String.class);
+    }
+
+    public RoutingRule insert(RoutingRule r) {
+        UUID id = UUID.randomUUID();
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement("""
+                insert into app.ticket_routing_rules
+                  (id, name, active, precedence, customer_id, priority, asset_type, keywords, queue)
+                values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """);
+            ps.setObject(1, id);
+            bindFields(ps, 2, con.createArrayOf("text", keywords(r)), r);
+            return ps;
+        });
+        return findById(id).orElseThrow();
+    }
+
+    public Optional<RoutingRule> update(UUID id, RoutingRule r) {
+        int n = jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement("""
+                update app.ticket_routing_rules
+                set name = ?, active = ?, precedence = ?, customer_id = ?, priority = ?,
+                    asset_type = ?, keywords = ?, queue = ?, updated_at = now()
+                where id = ?
+                """);
+            bindFields(ps, 1, con.createArrayOf("text", keywords(r)), r);
+            ps.setObject(9, id);
+            return ps;
+        });
+        return n > 0 ? findById(id) : Optional.empty();
+    }
+
+    public boolean delete(UUID id) {
+        return jdbc.update("delete from app.ticket_routing_rules where id = ?", id) > 0;
+    }
+
+    // name, active, precedence, customer_id, priority, asset_type, keywords, queue desde la posición i
+    private static void bindFields(PreparedStatement ps, int i, Array keywords, RoutingRule r) throws SQLException {
+        ps.setString(i++, r.name());
+        ps.setBoolean(i++, r.active());
+        ps.setInt(i++, r.precedence());
+        ps.setObject(i++, r.customerId());
+        ps.setString(i++, r.priority() == null ? null : r.priority().name());
+        ps.setString(i++, r.assetType());
+        ps.setArray(i++, keywords);
+        ps.setString(i, r.queue());
+    }
+
+    private static Object[] keywords(RoutingRule r) {
+        return r.keywords() == null ? new Object[0] : r.keywords().toArray();
+    }
+}
@@ -0,0 +1,74 @@
+package com.proyecto.ops.tickets.routing;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.proyecto.ops.tickets.clients.AssetsClient;
+import com.proyecto.ops.tickets.model.Ticket;
+import com.proyecto.ops.tickets.model.TicketPriority;
+
+/**
+ * Evalúa las reglas de enrutado sobre un {@link CompiledRuleSet} en memoria.
+ *
+ * Las reglas se recargan en caliente: tras cada cambio hecho por el API y,
+ * para cambios hechos desde otra instancia o directamente en BD, comparando
+ * periódicamente la {@link RoutingRuleRepository#version() versión} del conjunto.
+ */
+@Service
+public class TicketRouter {
+    private static final Logger log = LoggerFactory.getLogger(TicketRouter.class);
+
+    private final RoutingRuleRepository rules;
+    private final AssetsClient assetsClient;
+
+    /** Reglas compiladas y la versión de la que salieron, publicadas juntas. */
+    private record Snapshot(CompiledRuleSet compiled, String version) {}
+
+    private volatile Snapshot current = new Snapshot(CompiledRuleSet.EMPTY, null);
+
+    public TicketRouter(RoutingRuleRepository rules, AssetsClient assetsClient) {
+        this.rules = rules;
+        this.assetsClient = assetsClient;
+    }
+
+    /**
+     * Recompila las reglas. La llaman el API y el planificador a la vez, así que
+     * se serializa: una recarga más antigua no puede publicarse encima de otra
+     * más nueva.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        String v = rules.version();
+        List<RoutingRule> all = rules.findAll();
+        CompiledRuleSet compiled = CompiledRuleSet.compile(all);
+        current = new Snapshot(compiled, v);
+        log.info("Routing rules compiled: {} active of {}", compiled.size(), all.size());
+    }
+
+    @Scheduled(fixedDelayString = "${tickets.routing.reload-interval:PT30S}",
+               initialDelayString = "${tickets.routing.reload-interval:PT30S}")
+    public void reloadIfChanged() {
+        if (!Objects.equals(rules.version(), current.version())) {
+            reload();
+        }
+    }
+
+    /** Cola asignada por la primera regla que aplica, o null. */
+    public String route(Ticket t) {
+        CompiledRuleSet set = current.compiled();
+        String assetType = (set.usesAssetType() && t.getAssetId() != null)
+                ? assetsClient.getTypeOrNull(t.getAssetId())
+                : null;
+        // Se enruta antes del insert: mismo default de prioridad que Ticket.prePersistDefaults
+        TicketPriority priority = t.getPriority() != null ? t.getPriority() : TicketPriority.MEDIUM;
+        RoutingRule rule = set.match(t.getCustomerId(), priority, assetType, t.getTitle(), t.getDescription());
+        return rule == null ? null : rule.queue();
+    }
+}
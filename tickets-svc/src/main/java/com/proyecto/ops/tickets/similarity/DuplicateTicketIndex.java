@@ -0,0 +1,170 @@
+package com.proyecto.ops.tickets.similarity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.proyecto.ops.tickets.model.Ticket;
+import com.proyecto.ops.tickets.model.TicketStatus;
+import com.proyecto.ops.tickets.repo.TicketJdbcRepository;
+
+/**
+ * Índice LSH en memoria de firmas MinHash (título + descripción) de los tickets
+ * no cerrados, para detectar duplicados casi idénticos al crear un ticket.
+ *
+ * La firma de {@code BANDS * ROWS} hashes se parte en bandas; dos tickets son
+ * candidatos si coinciden en alguna banda completa, y luego se filtran por la
+ * similitud estimada. Con 16x4 el umbral efectivo ronda Jaccard 0.5, así que
+ * una consulta solo toca unos pocos buckets en vez de todos los tickets.
+ *
+ * Los buckets van por cliente (el cliente entra en la clave de banda): un
+ * ticket solo se compara con los de su mismo cliente y nunca se sugieren
+ * tickets de otro.
+ *
+ * Se reconstruye desde la tabla al arrancar. Los cierres salen del índice; un
+ * ticket reabierto por PATCH vuelve a entrar (los reabiertos en bloque no, hasta
+ * el siguiente arranque, porque el UPDATE masivo no devuelve el texto).
+ */
+@Service
+public class DuplicateTicketIndex {
+    private static final Logger log = LoggerFactory.getLogger(DuplicateTicketIndex.class);
+
+    private static final int BANDS = 16;
+    private static final int ROWS = 4;
+
+    private final MinHasher hasher = new MinHasher(BANDS * ROWS, 0x7c3a_91e5_2b4dL);
+    private final Map<UUID, Entry> signatures = new HashMap<>();
+    private final Map<Long, List<UUID>> buckets = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final TicketJdbcRepository jdbcRepo;
+    private final double threshold;
+    private final int maxCandidates;
+
+    public DuplicateTicketIndex(TicketJdbcRepository jdbcRepo,
+                                @Value("${tickets.duplicates.threshold:0.6}") double threshold,
+                                @Value("${tickets.duplicates.max-candidates:5}") int maxCandidates) {
+        this.jdbcRepo = jdbcRepo;
+        this.threshold = threshold;
+        this.maxCandidates = maxCandidates;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        jdbcRepo.forEachOpenText(this::add);
+        log.info("Duplicate index rebuilt with {} open tickets", size());
+    }
+
+    /** Candidatos a duplicado del texto dado entre los tickets del cliente, de mayor a menor similitud. */
+    public List<SimilarTicket> findSimilar(UUID customerId, String title, String description) {
+        int[] sig = hasher.signature(text(title, description));
+        List<SimilarTicket> out = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            Set<UUID> seen = new HashSet<>();
+            for (int band = 0; band < BANDS; band++) {
+                List<UUID> bucket = buckets.get(bandKey(customerId, sig, band));
+                if (bucket == null) continue;
+                for (UUID id : bucket) {
+                    if (!seen.add(id)) continue;
+                    Entry e = signatures.get(id);
+                    // Las claves de banda pueden colisionar entre clientes.
+                    if (!Objects.equals(e.customerId(), customerId)) continue;
+                    double sim = MinHasher.similarity(sig, e.signature());
+                    if (sim >= threshold) out.add(new SimilarTicket(id, sim));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        out.sort((x, y) -> Double.compare(y.similarity(), x.similarity()));
+        return out.size() > maxCandidates ? List.copyOf(out.subList(0, maxCandidates)) : out;
+    }
+
+    public void add(UUID id, UUID customerId, String title, String description) {
+        int[] sig = hasher.signature(text(title, description));
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            signatures.put(id, new Entry(customerId, sig));
+            for (int band = 0; band < BANDS; band++) {
+                buckets.computeIfAbsent(bandKey(customerId, sig, band), k -> new ArrayList<>(2)).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Sincroniza el índice tras un cambio de status: fuera si se cerró, dentro si sigue abierto. */
+    public void track(Ticket t) {
+        if (t.getStatus() == TicketStatus.CLOSED) {
+            remove(t.getId());
+        } else {
+            add(t.getId(), t.getCustomerId(), t.getTitle(), t.getDescription());
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return signatures.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(UUID id) {
+        Entry e = signatures.remove(id);
+        if (e == null) return;
+        for (int band = 0; band < BANDS; band++) {
+            long key = bandKey(e.customerId(), e.signature(), band);
+            List<UUID> bucket = buckets.get(key);
+            if (bucket == null) continue;
+            bucket.remove(id);
+            if (bucket.isEmpty()) buckets.remove(key);
+        }
+    }
+
+    private static long bandKey(UUID customerId, int[] sig, int band) {
+        long h = band;
+        if (customerId != null) {
+            h = h * 0x9E3779B97F4A7C15L + customerId.getMostSignificantBits();
+            h = h * 0x9E3779B97F4A7C15L + customerId.getLeastSignificantBits();
+        }
+        for (int r = 0; r < ROWS; r++) {
+            h = h * 0x9E3779B97F4A7C15L + sig[band * ROWS + r];
+        }
+        return h;
+    }
+
+    private record Entry(UUID customerId, int[] signature) {}
+
+    private static String text(String title, String description) {
+        return description == null ? title : title + " " + description;
+    }
+}
@@ -0,0 +1,74 @@
+package com.proyecto.ops.tickets.similarity;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Firma MinHash de un texto sobre shingles de caracteres.
+ *
+ * El texto se normaliza con {@link TextNormalizer} y se
+ * parte en shingles de {@link #SHINGLE} caracteres. Cada una de las
+ * {@code numHashes} funciones es un hash universal {@code a*x + b} sobre 64 bits
+ * (se queda con la parte alta), así que calcular una firma es un bucle de
+ * multiplicaciones sin reservar memoria por shingle.
+ */
+final class MinHasher {
+
+    static final int SHINGLE = 5;
+    private static final int MAX_CHARS = 4_000;
+
+    private final long[] a;
+    private final long[] b;
+
+    MinHasher(int numHashes, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        a = new long[numHashes];
+        b = new long[numHashes];
+        for (int i = 0; i < numHashes; i++) {
+            a[i] = rnd.nextLong() | 1L;
+            b[i] = rnd.nextLong();
+        }
+    }
+
+    int[] signature(String text) {
+        String s = TextNormalizer.normalize(text == null || text.length() <= MAX_CHARS
+                ? text : text.substring(0, MAX_CHARS));
+        int[] sig = new int[a.length];
+        Arrays.fill(sig, Integer.MAX_VALUE);
+
+        int shingles = Math.max(s.length() - SHINGLE + 1, 1);
+        for (int start = 0; start < shingles; start++) {
+            long x = mix(shingleHash(s, start, Math.min(start + SHINGLE, s.length())));
+            for (int i = 0; i < sig.length; i++) {
+                int h = (int) ((a[i] * x + b[i]) >>> 33);
+                if (h < sig[i]) sig[i] = h;
+            }
+        }
+        return sig;
+    }
+
+    /** Estimación de Jaccard: fracción de posiciones iguales entre dos firmas. */
+    static double similarity(int[] x, int[] y) {
+        int eq = 0;
+        for (int i = 0; i < x.length; i++) {
+            if (x[i] == y[i]) eq++;
+        }
+        return (double) eq / x.length;
+    }
+
+    private static long shingleHash(String s, int from, int to) {
+        long h = 1125899906842597L;
+        for (int i = from; i < to; i++) h = 31 * h + s.charAt(i);
+        return h;
+    }
+
+    // Finalizador de MurmurHash3 (fmix64): reparte bien shingles parecidos.
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
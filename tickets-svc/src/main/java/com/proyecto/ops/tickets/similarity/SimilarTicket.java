@@ -0,0 +1,6 @@
+package com.proyecto.ops.tickets.similarity;
+
+import java.util.UUID;
+
+/** Candidato a duplicado con su similitud Jaccard estimada (0..1). */
+public record SimilarTicket(UUID ticketId, double similarity) {}
@@ -0,0 +1,29 @@
+package com.proyecto.ops.tickets.similarity;
+
+import java.text.Normalizer;
+
+/** Normalización de texto libre compartida por MinHash y el enrutado por palabras clave. */
+public final class TextNormalizer {
+
+    private TextNormalizer() {
+    }
+
+    /** Minúsculas, sin acentos, solo letras/dígitos separados por un espacio. */
+    public static String normalize(String text) {
+        if (text == null) return "";
+        String s = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(s.length());
+        boolean space = true;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+                space = false;
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK && !space) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        return sb.toString().strip();
+    }
+}
@@ -0,0 +1,17 @@
+package com.proyecto.ops.tickets.sla;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/** Sink por defecto: deja constancia de cada incumplimiento en el log. */
+@Component
+public class LoggingSlaBreachSink implements SlaBreachSink {
+    private static final Logger log = LoggerFactory.getLogger(LoggingSlaBreachSink.class);
+
+    @Override
+    public void onBreach(SlaBreach breach) {
+        log.warn("SLA {} breached for ticket={} priority={} deadline={}",
+                breach.kind(), breach.ticketId(), breach.priority(), breach.deadline());
+    }
+}
@@ -0,0 +1,14 @@
+package com.proyecto.ops.tickets.sla;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import com.proyecto.ops.tickets.model.TicketPriority;
+
+/** Evento emitido cuando un ticket abierto supera uno de sus plazos. */
+public record SlaBreach(
+        UUID ticketId,
+        SlaKind kind,
+        TicketPriority priority,
+        OffsetDateTime deadline
+) {}
@@ -0,0 +1,13 @@
+package com.proyecto.ops.tickets.sla;
+
+/**
+ * Destino de los eventos de incumplimiento. Cualquier bean que implemente esta
+ * interfaz recibe todos los eventos.
+ *
+ * Entrega al-menos-una-vez: al reiniciar se reconstruyen los timers desde la BD y
+ * los plazos ya vencidos de tickets aún abiertos se vuelven a emitir.
+ */
+public interface SlaBreachSink {
+
+    void onBreach(SlaBreach breach);
+}
@@ -0,0 +1,6 @@
+package com.proyecto.ops.tickets.sla;
+
+/** RESPONSE: el ticket debe salir de OPEN. RESOLUTION: el ticket debe quedar CLOSED. */
+public enum SlaKind {
+    RESPONSE, RESOLUTION
+}
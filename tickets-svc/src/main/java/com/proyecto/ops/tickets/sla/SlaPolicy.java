@@ -0,0 +1,38 @@
+package com.proyecto.ops.tickets.sla;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.proyecto.ops.tickets.model.TicketPriority;
+
+/** Plazos de respuesta y resolución por prioridad, contados desde {@code created_at}. */
+@Component
+public class SlaPolicy {
+
+    private final Map<TicketPriority, Duration> response = new EnumMap<>(TicketPriority.class);
+    private final Map<TicketPriority, Duration> resolution = new EnumMap<>(TicketPriority.class);
+
+    public SlaPolicy(@Value("${tickets.sla.response.high:1h}") Duration responseHigh,
+                     @Value("${tickets.sla.response.medium:4h}") Duration responseMedium,
+                     @Value("${tickets.sla.response.low:1d}") Duration responseLow,
+                     @Value("${tickets.sla.resolution.high:8h}") Duration resolutionHigh,
+                     @Value("${tickets.sla.resolution.medium:3d}") Duration resolutionMedium,
+                     @Value("${tickets.sla.resolution.low:7d}") Duration resolutionLow) {
+        response.put(TicketPriority.HIGH, responseHigh);
+        response.put(TicketPriority.MEDIUM, responseMedium);
+        response.put(TicketPriority.LOW, responseLow);
+        resolution.put(TicketPriority.HIGH, resolutionHigh);
+        resolution.put(TicketPriority.MEDIUM, resolutionMedium);
+        resolution.put(TicketPriority.LOW, resolutionLow);
+    }
+
+    public OffsetDateTime deadline(SlaKind kind, TicketPriority priority, OffsetDateTime createdAt) {
+        Duration d = (kind == SlaKind.RESPONSE ? response : resolution).get(priority);
+        return createdAt.plus(d);
+    }
+}
@@ -0,0 +1,138 @@
+package com.proyecto.ops.tickets.sla;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.proyecto.ops.tickets.model.Ticket;
+import com.proyecto.ops.tickets.model.TicketStatus;
+import com.proyecto.ops.tickets.repo.TicketJdbcRepository;
+import com.proyecto.ops.tickets.repo.TicketState;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Mantiene en memoria los plazos SLA de todos los tickets abiertos sobre una
+ * {@link TimingWheel} y emite {@link SlaBreach} a los {@link SlaBreachSink} en
+ * cuanto vencen, sin sondear la tabla.
+ *
+ * Se reconstruye desde la BD al arrancar y se actualiza con {@link #track} cada
+ * vez que cambia el status o la prioridad de un ticket.
+ */
+@Service
+public class SlaTimerService {
+    private static final Logger log = LoggerFactory.getLogger(SlaTimerService.class);
+
+    private final TicketJdbcRepository jdbcRepo;
+    private final SlaPolicy policy;
+    private final List<SlaBreachSink> sinks;
+    private final long tickMillis;
+
+    private final TimingWheel<SlaBreach> wheel;
+    private final Map<UUID, Timers> byTicket = new HashMap<>();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "sla-timer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public SlaTimerService(TicketJdbcRepository jdbcRepo,
+                           SlaPolicy policy,
+                           List<SlaBreachSink> sinks,
+                           @Value("${tickets.sla.tick:1s}") Duration tick) {
+        this.jdbcRepo = jdbcRepo;
+        this.policy = policy;
+        this.sinks = sinks;
+        this.tickMillis = Math.max(tick.toMillis(), 1);
+        this.wheel = new TimingWheel<>(tickMillis, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long[] count = {0};
+        jdbcRepo.forEachOpen(s -> {
+            track(s);
+            count[0]++;
+        });
+        log.info("SLA timers rebuilt for {} open tickets", count[0]);
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        ticker.shutdownNow();
+    }
+
+    public void track(Ticket t) {
+        track(new TicketState(t.getId(), t.getStatus(), t.getPriority(), t.getCreatedAt()));
+    }
+
+    /** (Re)programa los plazos del ticket según su status y prioridad actuales. */
+    public synchronized void track(TicketState s) {
+        Timers timers = byTicket.remove(s.id());
+        if (timers != null) {
+            wheel.cancel(timers.response);
+            wheel.cancel(timers.resolution);
+        }
+        if (s.status() == TicketStatus.CLOSED) {
+            return;
+        }
+
+        timers = new Timers();
+        if (s.status() == TicketStatus.OPEN) {
+            timers.response = schedule(s, SlaKind.RESPONSE);
+        }
+        timers.resolution = schedule(s, SlaKind.RESOLUTION);
+        byTicket.put(s.id(), timers);
+    }
+
+    public synchronized int size() {
+        return wheel.size();
+    }
+
+    private TimingWheel.Timer<SlaBreach> schedule(TicketState s, SlaKind kind) {
+        var deadline = policy.deadline(kind, s.priority(), s.createdAt());
+        return wheel.schedule(new SlaBreach(s.id(), kind, s.priority(), deadline),
+                deadline.toInstant().toEpochMilli());
+    }
+
+    private void tick() {
+        List<SlaBreach> fired = new ArrayList<>();
+        synchronized (this) {
+            wheel.advanceTo(System.currentTimeMillis(), fired::add);
+            for (SlaBreach b : fired) {
+                // La resolución es el último plazo: el ticket ya no tiene timers vivos.
+                if (b.kind() == SlaKind.RESOLUTION) byTicket.remove(b.ticketId());
+            }
+        }
+        // Los sinks se llaman fuera del lock para no frenar altas y cancelaciones.
+        for (SlaBreach b : fired) {
+            for (SlaBreachSink sink : sinks) {
+                try {
+                    sink.onBreach(b);
+                } catch (RuntimeException e) {
+                    log.error("SLA sink {} failed for ticket={}: {}",
+                            sink.getClass().getSimpleName(), b.ticketId(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static final class Timers {
+        TimingWheel.Timer<SlaBreach> response;
+        TimingWheel.Timer<SlaBreach> resolution;
+    }
+}
@@ -0,0 +1,165 @@
+package com.proyecto.ops.tickets.sla;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Rueda de tiempo jerárquica (estilo timers del kernel de Linux).
+ *
+ * {@code LEVELS} ruedas de 64 ranuras; la ranura de un timer se calcula a partir
+ * de su tick absoluto, así que alta y cancelación son O(1) (lista doblemente
+ * enlazada por ranura). Al avanzar, cuando los bits bajos del tick actual pasan
+ * por cero se "cascadean" las ranuras del nivel superior hacia los inferiores.
+ * Los plazos que exceden la última rueda esperan en una lista de desbordamiento
+ * que solo se revisa cuando la rueda superior da la vuelta.
+ *
+ * No es thread-safe: el llamador sincroniza.
+ */
+final class TimingWheel<T> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final Slot<T>[][] wheels;
+    private final Slot<T> overflow = new Slot<>();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        this.wheels = new Slot[LEVELS][SLOTS];
+        for (Slot<T>[] wheel : wheels) {
+            for (int i = 0; i < SLOTS; i++) wheel[i] = new Slot<>();
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Programa {@code payload} para {@code deadlineMillis}; si ya venció, salta en el próximo tick. */
+    Timer<T> schedule(T payload, long deadlineMillis) {
+        Timer<T> t = new Timer<>(payload, Math.max(ceilDiv(deadlineMillis, tickMillis), currentTick + 1));
+        place(t);
+        size++;
+        return t;
+    }
+
+    /** Cancela el timer; devuelve false si ya había disparado o estaba cancelado. */
+    boolean cancel(Timer<T> t) {
+        if (t == null || t.slot == null) return false;
+        t.unlink();
+        size--;
+        return true;
+    }
+
+    /** Avanza hasta {@code nowMillis} entregando a {@code expired} cada timer vencido. */
+    void advanceTo(long nowMillis, Consumer<T> expired) {
+        long target = nowMillis / tickMillis;
+        if (size == 0) {
+            currentTick = Math.max(currentTick, target);
+            return;
+        }
+        while (currentTick < target) {
+            currentTick++;
+            cascade();
+            Slot<T> due = wheels[0][(int) (currentTick & MASK)];
+            for (Timer<T> t = due.pollFirst(); t != null; t = due.pollFirst()) {
+                size--;
+                expired.accept(t.payload);
+            }
+        }
+    }
+
+    // De arriba hacia abajo para que lo bajado de un nivel pueda seguir bajando.
+    private void cascade() {
+        if ((currentTick & ((1L << (BITS * LEVELS)) - 1)) == 0) {
+            drainAndPlace(overflow);
+        }
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+                drainAndPlace(wheels[level][(int) ((currentTick >>> (BITS * level)) & MASK)]);
+            }
+        }
+    }
+
+    // Se vacía la ranura antes de recolocar: un timer del desbordamiento que aún
+    // no cabe en las ruedas vuelve a esa misma ranura y el bucle no terminaría.
+    private void drainAndPlace(Slot<T> slot) {
+        List<Timer<T>> drained = new ArrayList<>();
+        for (Timer<T> t = slot.pollFirst(); t != null; t = slot.pollFirst()) {
+            drained.add(t);
+        }
+        for (Timer<T> t : drained) {
+            place(t);
+        }
+    }
+
+    // Nivel = primer nivel cuyo bloque padre coincide con el del tick actual.
+    private void place(Timer<T> t) {
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = BITS * (level + 1);
+            if ((t.deadlineTick >>> shift) == (currentTick >>> shift)) {
+                wheels[level][(int) ((t.deadlineTick >>> (BITS * level)) & MASK)].add(t);
+                return;
+            }
+        }
+        overflow.add(t);
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return -Math.floorDiv(-a, b);
+    }
+
+    /** Manejador de un timer programado; se usa para cancelarlo. */
+    static final class Timer<T> {
+        final T payload;
+        final long deadlineTick;
+        private Slot<T> slot;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(T payload, long deadlineTick) {
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = next = null;
+            slot = null;
+        }
+    }
+
+    // Lista circular con centinela.
+    private static final class Slot<T> {
+        private final Timer<T> head = new Timer<>(null, 0);
+
+        Slot() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        void add(Timer<T> t) {
+            t.slot = this;
+            t.prev = head.prev;
+            t.next = head;
+            head.prev.next = t;
+            head.prev = t;
+        }
+
+        Timer<T> pollFirst() {
+            Timer<T> t = head.next;
+            if (t == head) return null;
+            t.unlink();
+            return t;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.proyecto.ops.tickets.web;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.proyecto.ops.tickets.model.TicketPriority;
+import com.proyecto.ops.tickets.model.TicketStatus;
+
+import jakarta.validation.constraints.Size;
+
+/**
+ * Actualización masiva: aplica {@code status} y/o {@code priority} a una lista de
+ * {@code ids} o a todos los tickets que cumplen {@code filter} (uno de los dos).
+ * El filtro debe tener al menos un criterio.
+ */
+public record BulkUpdateTicketsRequest(
+        @Size(max = 10_000) List<UUID> ids,
+        Filter filter,
+        TicketStatus status,
+        TicketPriority priority
+) {
+    public record Filter(
+            TicketStatus status,
+            TicketPriority priority,
+            UUID customerId,
+            UUID requestedBy
+    ) {
+        /** Sin ningún criterio el filtro abarcaría toda la tabla. */
+        public boolean isEmpty() {
+            return status == null && priority == null && customerId == null && requestedBy == null;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.proyecto.ops.tickets.web;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resultado de la actualización masiva. {@code results} trae el detalle por id
+ * solo cuando la petición fue por lista de ids; con filtro se devuelven los totales.
+ */
+public record BulkUpdateTicketsResponse(
+        long updated,
+        long notFound,
+        List<Item> results
+) {
+    public enum Outcome { UPDATED, NOT_FOUND }
+
+    public record Item(UUID id, Outcome outcome) {}
+}
@@ -0,0 +1,10 @@
+package com.proyecto.ops.tickets.web;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+
+/** Petición de un agente de triage; sin leaseSeconds se usa tickets.claim.lease. */
+public record ClaimNextRequest(
+        @NotBlank String agent,
+        @Positive Long leaseSeconds
+) {}
@@ -0,0 +1,133 @@
+package com.proyecto.ops.tickets.web;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * Almacén en memoria de claves {@code Idempotency-Key} con TTL.
+ *
+ * Guarda la respuesta original de cada creación para devolverla tal cual en los
+ * reintentos del gateway, sin repetir la validación contra customers-svc ni el
+ * insert. Como el TTL es fijo, el orden de inserción coincide con el de
+ * expiración: basta con recortar por la cabeza del mapa (O(1) amortizado), y
+ * {@code max-entries} pone un techo duro a la memoria.
+ *
+ * El cuerpo se identifica por el SHA-256 de su JSON canónico (propiedades y
+ * claves ordenadas), no por {@code hashCode}: una colisión no puede devolver
+ * la respuesta de otra petición.
+ *
+ * El almacén es por instancia: si hay varias réplicas detrás del gateway, un
+ * reintento que cae en otra réplica no ve la clave y se procesa de nuevo.
+ */
+@Component
+public class IdempotencyStore {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    // Serialización determinista, independiente de la configuración global de Jackson.
+    private static final ObjectMapper CANONICAL = JsonMapper.builder()
+            .findAndAddModules()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    public IdempotencyStore(@Value("${tickets.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${tickets.idempotency.max-entries:100000}") int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = Math.max(maxEntries, 1);
+    }
+
+    /**
+     * Reserva la clave para una petición nueva.
+     *
+     * @return la respuesta guardada si la clave ya se completó con el mismo cuerpo;
+     *         {@code null} si la clave queda reservada y hay que procesar la petición.
+     * @throws ResponseStatusException 409 si otra petición con la clave sigue en curso,
+     *         422 si la clave se reutiliza con un cuerpo distinto.
+     */
+    public TicketResponse begin(String key, Object body) {
+        return begin(key, fingerprint(body));
+    }
+
+    private synchronized TicketResponse begin(String key, String fingerprint) {
+        long now = System.nanoTime();
+        evict(now);
+
+        Entry e = entries.get(key);
+        if (e == null) {
+            entries.put(key, new Entry(fingerprint, now + ttlNanos));
+            return null;
+        }
+        if (!e.fingerprint.equals(fingerprint)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key reutilizada con un cuerpo distinto");
+        }
+        if (e.response == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Ya hay una petición en curso con esta Idempotency-Key");
+        }
+        return e.response;
+    }
+
+    /** Asocia la respuesta final a una clave reservada con {@link #begin}. */
+    public synchronized void complete(String key, TicketResponse response) {
+        Entry e = entries.get(key);
+        if (e != null) e.response = response;
+    }
+
+    /** Libera la clave si la petición falló, para que el reintento pueda procesarse. */
+    public synchronized void abort(String key) {
+        Entry e = entries.get(key);
+        if (e != null && e.response == null) entries.remove(key);
+    }
+
+    /** SHA-256 en hexadecimal del JSON canónico del cuerpo. */
+    static String fingerprint(Object body) {
+        try {
+            byte[] json = CANONICAL.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No se pudo calcular la huella del cuerpo", e);
+        }
+    }
+
+    private void evict(long now) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry head = it.next().getValue();
+            if (entries.size() < maxEntries && now - head.expiresAt < 0) break;
+            it.remove();
+        }
+    }
+
+    private static final class Entry {
+        final String fingerprint;
+        final long expiresAt;
+        TicketResponse response;
+
+        Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
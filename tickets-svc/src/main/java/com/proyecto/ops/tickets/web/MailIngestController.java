@@ -0,0 +1,36 @@
+package com.proyecto.ops.tickets.web;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.proyecto.ops.tickets.ingest.MailIngestService;
+import com.proyecto.ops.tickets.ingest.MailIngestService.RunSummary;
+
+@RestController
+@RequestMapping("/ingest/mail")
+public class MailIngestController {
+
+    private final MailIngestService ingest;
+
+    public MailIngestController(MailIngestService ingest) {
+        this.ingest = ingest;
+    }
+
+    /** Lanza una ejecución inmediata sobre el buzón configurado (además del sondeo periódico). */
+    @PostMapping("/run")
+    public RunSummary run() {
+        try {
+            return ingest.run()
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT, "Ya hay una ingesta en curso"));
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "No se pudo leer el buzón: " + e.getMessage());
+        }
+    }
+}
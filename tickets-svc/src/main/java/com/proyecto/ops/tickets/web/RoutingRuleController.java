@@ -0,0 +1,85 @@
+package com.proyecto.ops.tickets.web;
+
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.proyecto.ops.tickets.routing.RoutingRule;
+import com.proyecto.ops.tickets.routing.RoutingRuleRepository;
+import com.proyecto.ops.tickets.routing.TicketRouter;
+
+import jakarta.validation.Valid;
+
+/** CRUD de reglas de enrutado; cada cambio recompila las reglas al momento. */
+@RestController
+@RequestMapping("/routing-rules")
+@Validated
+public class RoutingRuleController {
+
+    private final RoutingRuleRepository repo;
+    private final TicketRouter router;
+
+    public RoutingRuleController(RoutingRuleRepository repo, TicketRouter router) {
+        this.repo = repo;
+        this.router = router;
+    }
+
+    @GetMapping
+    public List<RoutingRule> list() {
+        return repo.findAll();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<RoutingRule> get(@PathVariable UUID id) {
+        return ResponseEntity.of(repo.findById(id));
+    }
+
+    @PostMapping
+    public ResponseEntity<RoutingRule> create(@Valid @RequestBody RoutingRuleRequest req) {
+        RoutingRule saved = repo.insert(toRule(req));
+        router.reload();
+        return ResponseEntity.created(URI.create("/routing-rules/" + saved.id())).body(saved);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<RoutingRule> update(@PathVariable UUID id, @Valid @RequestBody RoutingRuleRequest req) {
+        var updated = repo.update(id, toRule(req));
+        updated.ifPresent(r -> router.reload());
+        return ResponseEntity.of(updated);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable UUID id) {
+        if (!repo.delete(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        router.reload();
+        return ResponseEntity.noContent().build();
+    }
+
+    private static RoutingRule toRule(RoutingRuleRequest req) {
+        return new RoutingRule(
+                null,
+                req.name(),
+                req.active() == null || req.active(),
+                req.precedence() == null ? 100 : req.precedence(),
+                req.customerId(),
+                req.priority(),
+                req.assetType(),
+                req.keywords() == null ? List.of() : req.keywords(),
+                req.queue(),
+                null
+        );
+    }
+}
@@ -0,0 +1,20 @@
+package com.proyecto.ops.tickets.web;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.proyecto.ops.tickets.model.TicketPriority;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record RoutingRuleRequest(
+        @NotBlank @Size(max = 200) String name,
+        Boolean active,
+        Integer precedence,
+        UUID customerId,
+        TicketPriority priority,
+        @Size(max = 100) String assetType,
+        List<@NotBlank String> keywords,
+        @NotBlank @Size(max = 100) String queue
+) {}
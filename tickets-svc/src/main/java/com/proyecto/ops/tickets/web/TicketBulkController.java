@@ -0,0 +1,116 @@
+package com.proyecto.ops.tickets.web;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.proyecto.ops.tickets.repo.TicketJdbcRepository;
+import com.proyecto.ops.tickets.model.TicketStatus;
+import com.proyecto.ops.tickets.repo.TicketState;
+import com.proyecto.ops.tickets.similarity.DuplicateTicketIndex;
+import com.proyecto.ops.tickets.sla.SlaTimerService;
+import com.proyecto.ops.tickets.web.BulkUpdateTicketsResponse.Item;
+import com.proyecto.ops.tickets.web.BulkUpdateTicketsResponse.Outcome;
+
+import jakarta.validation.Valid;
+
+/**
+ * Operaciones masivas sobre tickets. Va aparte de {@link TicketController} porque
+ * la ruta {@code /tickets:bulkUpdate} no cuelga de {@code /tickets/}.
+ */
+@RestController
+@Validated
+public class TicketBulkController {
+
+    private final TicketJdbcRepository jdbcRepo;
+    private final SlaTimerService slaTimers;
+    private final DuplicateTicketIndex duplicates;
+    private final int chunkSize;
+
+    public TicketBulkController(TicketJdbcRepository jdbcRepo,
+                                SlaTimerService slaTimers,
+                                DuplicateTicketIndex duplicates,
+                                @Value("${tickets.bulk.chunk-size:500}") int chunkSize) {
+        this.jdbcRepo = jdbcRepo;
+        this.slaTimers = slaTimers;
+        this.duplicates = duplicates;
+        this.chunkSize = Math.max(chunkSize, 1);
+    }
+
+    @PostMapping("/tickets:bulkUpdate")
+    public BulkUpdateTicketsResponse bulkUpdate(@Valid @RequestBody BulkUpdateTicketsRequest req) {
+        if (req.status() == null && req.priority() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "status o priority es requerido");
+        }
+        boolean byIds = req.ids() != null && !req.ids().isEmpty();
+        if (byIds == (req.filter() != null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Indica ids o filter (solo uno)");
+        }
+        if (!byIds && req.filter().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "filter debe tener al menos un criterio");
+        }
+        return byIds ? updateByIds(req) : updateByFilter(req);
+    }
+
+    /**
+     * Comprobación de existencia en lote para otros servicios (p. ej. work-orders-svc
+     * al crear órdenes en masa): una sola consulta en lugar de un GET por ticket.
+     * Solo mira la tabla caliente, igual que {@code GET /tickets/{id}}.
+     */
+    @PostMapping("/tickets:exists")
+    public TicketExistenceResponse exists(@Valid @RequestBody TicketExistenceRequest req) {
+        List<UUID> ids = new ArrayList<>(new LinkedHashSet<>(req.ids()));
+        return new TicketExistenceResponse(jdbcRepo.existingIds(ids));
+    }
+
+    private BulkUpdateTicketsResponse updateByIds(BulkUpdateTicketsRequest req) {
+        List<UUID> ids = new ArrayList<>(new LinkedHashSet<>(req.ids()));
+        List<Item> results = new ArrayList<>(ids.size());
+        long updated = 0;
+
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            Set<UUID> hit = new HashSet<>();
+            for (TicketState s : jdbcRepo.updateByIds(chunk, req.status(), req.priority())) {
+                onUpdated(s);
+                hit.add(s.id());
+            }
+            updated += hit.size();
+            for (UUID id : chunk) {
+                results.add(new Item(id, hit.contains(id) ? Outcome.UPDATED : Outcome.NOT_FOUND));
+            }
+        }
+        return new BulkUpdateTicketsResponse(updated, ids.size() - updated, results);
+    }
+
+    private BulkUpdateTicketsResponse updateByFilter(BulkUpdateTicketsRequest req) {
+        BulkUpdateTicketsRequest.Filter f = req.filter();
+        long updated = 0;
+        List<TicketState> chunk;
+        do {
+            chunk = jdbcRepo.updateByFilterChunk(f.status(), f.priority(), f.customerId(), f.requestedBy(),
+                    req.status(), req.priority(), chunkSize);
+            chunk.forEach(this::onUpdated);
+            updated += chunk.size();
+        } while (chunk.size() == chunkSize);
+        return new BulkUpdateTicketsResponse(updated, 0, List.of());
+    }
+
+    private void onUpdated(TicketState s) {
+        slaTimers.track(s);
+        if (s.status() == TicketStatus.CLOSED) {
+            duplicates.remove(s.id());
+        }
+    }
+}
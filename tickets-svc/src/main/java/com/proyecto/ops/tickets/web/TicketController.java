@@ -1,8 +1,12 @@
 package com.proyecto.ops.tickets.web;
 
 import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
@@ -11,7 +15,13 @@ import org.springframework.web.bind.annotation.*;
 
 import com.proyecto.ops.tickets.model.Ticket;
 import com.proyecto.ops.tickets.model.TicketPriority;
+import com.proyecto.ops.tickets.repo.TicketArchiveRepository;
+import com.proyecto.ops.tickets.repo.TicketJdbcRepository;
 import com.proyecto.ops.tickets.repo.TicketRepository;
+import com.proyecto.ops.tickets.routing.TicketRouter;
+import com.proyecto.ops.tickets.similarity.DuplicateTicketIndex;
+import com.proyecto.ops.tickets.similarity.SimilarTicket;
+import com.proyecto.ops.tickets.sla.SlaTimerService;
 import com.proyecto.ops.tickets.web.CreateTicketRequest;
 import com.proyecto.ops.tickets.web.TicketResponse;
 import com.proyecto.ops.tickets.web.UpdateTicketStatusRequest;
@@ -38,15 +48,36 @@ import org.springframework.web.client.ResourceAccessException;
 public class TicketController {
 
     private final TicketRepository repo;
+    private final TicketArchiveRepository archiveRepo;
     private final CustomersClient customersClient;
     private final ContactsClient contactsClient;
+    private final IdempotencyStore idempotencyStore;
+    private final SlaTimerService slaTimers;
+    private final DuplicateTicketIndex duplicates;
+    private final TicketRouter router;
+    private final TicketJdbcRepository jdbcRepo;
+    private final Duration defaultLease;
 
     public TicketController(TicketRepository repo,
+            TicketArchiveRepository archiveRepo,
+            TicketJdbcRepository jdbcRepo,
             CustomersClient customersClient,
-            ContactsClient contactsClient) {
+            ContactsClient contactsClient,
+            IdempotencyStore idempotencyStore,
+            SlaTimerService slaTimers,
+            DuplicateTicketIndex duplicates,
+            TicketRouter router,
+            @Value("${tickets.claim.lease:15m}") Duration defaultLease) {
         this.repo = repo;
+        this.archiveRepo = archiveRepo;
         this.customersClient = customersClient;
         this.contactsClient = contactsClient;
+        this.idempotencyStore = idempotencyStore;
+        this.slaTimers = slaTimers;
+        this.duplicates = duplicates;
+        this.router = router;
+        this.jdbcRepo = jdbcRepo;
+        this.defaultLease = defaultLease;
     }
 
     @GetMapping
@@ -55,21 +86,71 @@ public class TicketController {
             @RequestParam(required = false) TicketPriority priority,
             @RequestParam(required = false) UUID customerId,
             @RequestParam(required = false) UUID requestedBy,
+            @RequestParam(defaultValue = "false") boolean archived,
             Pageable pageable
     ) {
+        if (archived) {
+            // En el archivo solo hay tickets cerrados
+            if (status != null && status != TicketStatus.CLOSED) {
+                return Page.empty(pageable);
+            }
+            for (Sort.Order o : pageable.getSort()) {
+                if (!TicketArchiveRepository.SORT_COLUMNS.containsKey(o.getProperty())) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "No se puede ordenar el archivo por " + o.getProperty());
+                }
+            }
+            return archiveRepo.search(priority, customerId, requestedBy, pageable)
+                    .map(this::toResponse);
+        }
         return repo.search(status, priority, customerId, requestedBy, pageable)
                 .map(this::toResponse);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<TicketResponse> get(@PathVariable UUID id) {
+    public ResponseEntity<TicketResponse> get(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "false") boolean includeArchived
+    ) {
         return repo.findById(id)
+                .or(() -> includeArchived ? archiveRepo.findById(id) : Optional.empty())
                 .map(t -> ResponseEntity.ok(toResponse(t)))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PostMapping
-    public ResponseEntity<TicketResponse> create(@Valid @RequestBody CreateTicketRequest req) {
+    public ResponseEntity<TicketResponse> create(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody CreateTicketRequest req
+    ) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return created(doCreate(req), false);
+        }
+
+        // Reintento del gateway: devolver la respuesta original sin volver a validar ni insertar
+        TicketResponse previous = idempotencyStore.begin(idempotencyKey, req);
+        if (previous != null) {
+            return created(previous, true);
+        }
+        try {
+            TicketResponse body = doCreate(req);
+            idempotencyStore.complete(idempotencyKey, body);
+            return created(body, false);
+        } catch (RuntimeException e) {
+            idempotencyStore.abort(idempotencyKey);
+            throw e;
+        }
+    }
+
+    private ResponseEntity<TicketResponse> created(TicketResponse body, boolean replayed) {
+        var builder = ResponseEntity.created(URI.create("/tickets/" + body.id()));
+        if (replayed) {
+            builder.header("Idempotent-Replayed", "true");
+        }
+        return builder.body(body);
+    }
+
+    private TicketResponse doCreate(CreateTicketRequest req) {
         Ticket t = new Ticket();
         t.setTitle(req.title());
         t.setDescription(req.description());
@@ -103,9 +184,27 @@ public class TicketController {
             );
         }
 
+        t.setRoutingQueue(router.route(t));
+
+        // Antes del insert, para que el ticket no se encuentre a sí mismo
+        List<SimilarTicket> possibleDuplicates = duplicates.findSimilar(t.getCustomerId(), t.getTitle(), t.getDescription());
+
         Ticket saved = repo.save(t);
-        return ResponseEntity.created(URI.create("/tickets/" + saved.getId()))
-                .body(toResponse(saved));
+        slaTimers.track(saved);
+        duplicates.track(saved);
+        return toResponse(saved, possibleDuplicates);
+    }
+
+    /**
+     * Asigna al agente el siguiente ticket abierto (prioridad, luego antigüedad)
+     * con una lease; 204 si no queda ninguno libre.
+     */
+    @PostMapping("/claim-next")
+    public ResponseEntity<TicketResponse> claimNext(@Valid @RequestBody ClaimNextRequest req) {
+        long leaseSeconds = req.leaseSeconds() != null ? req.leaseSeconds() : defaultLease.toSeconds();
+        return jdbcRepo.claimNext(req.agent(), leaseSeconds)
+                .map(t -> ResponseEntity.ok(toResponse(t)))
+                .orElseGet(() -> ResponseEntity.noContent().build());
     }
 
     @PatchMapping("/{id}/status")
@@ -113,10 +212,10 @@ public class TicketController {
             @PathVariable UUID id,
             @Valid @RequestBody UpdateTicketStatusRequest req
     ) {
-        return repo.findById(id)
-                .map(t -> {
-                    t.setStatus(req.status());
-                    Ticket updated = repo.save(t);
+        return jdbcRepo.updateOne(id, req.status(), null)
+                .map(updated -> {
+                    slaTimers.track(updated);
+                    duplicates.track(updated);
                     return ResponseEntity.ok(toResponse(updated));
                 })
                 .orElseGet(() -> ResponseEntity.notFound().build());
@@ -134,16 +233,19 @@ public class TicketController {
             @PathVariable UUID id,
             @Valid @RequestBody UpdatePriorityRequest req
     ) {
-        return repo.findById(id)
-                .map(t -> {
-                    t.setPriority(req.priority());
-                    Ticket updated = repo.save(t);
+        return jdbcRepo.updateOne(id, null, req.priority())
+                .map(updated -> {
+                    slaTimers.track(updated);
                     return ResponseEntity.ok(toResponse(updated));
                 })
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     private TicketResponse toResponse(Ticket t) {
+        return toResponse(t, null);
+    }
+
+    private TicketResponse toResponse(Ticket t, List<SimilarTicket> possibleDuplicates) {
         String customerName = customersClient.getNameOrUnknown(t.getCustomerId());
         String requestedByName = (t.getRequestedBy() != null)
                 ? contactsClient.getNameOrUnknown(t.getRequestedBy())
@@ -162,7 +264,11 @@ public class TicketController {
                 t.getRequestedBy(),
                 requestedByName,
                 t.getCreatedBy(),
-                t.getCreatedAt()
+                t.getCreatedAt(),
+                t.getAssignedTo(),
+                t.getLeaseExpiresAt(),
+                t.getRoutingQueue(),
+                possibleDuplicates
         );
     }
 }
@@ -0,0 +1,10 @@
+package com.proyecto.ops.tickets.web;
+
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/** Ids a comprobar en {@code POST /tickets:exists}. */
+public record TicketExistenceRequest(@NotNull @Size(max = 10_000) List<UUID> ids) {}
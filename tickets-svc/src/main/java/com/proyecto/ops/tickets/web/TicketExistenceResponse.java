@@ -0,0 +1,7 @@
+package com.proyecto.ops.tickets.web;
+
+import java.util.List;
+import java.util.UUID;
+
+/** Subconjunto de los ids pedidos que existen. */
+public record TicketExistenceResponse(List<UUID> existing) {}
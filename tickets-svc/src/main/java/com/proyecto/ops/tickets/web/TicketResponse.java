@@ -2,8 +2,12 @@
 package com.proyecto.ops.tickets.web;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.proyecto.ops.tickets.similarity.SimilarTicket;
+
 public record TicketResponse(
         UUID id,
         String title,
@@ -17,5 +21,10 @@ public record TicketResponse(
         UUID requestedBy,
         String requestedByName,
         String createdBy,
-        OffsetDateTime createdAt
+        OffsetDateTime createdAt,
+        String assignedTo,
+        OffsetDateTime leaseExpiresAt,
+        String routingQueue,
+        // Solo en la respuesta de POST /tickets
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<SimilarTicket> possibleDuplicates
 ) {}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.proyecto.ops.tickets.web;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.proyecto.ops.tickets.model.TicketPriority;
+import com.proyecto.ops.tickets.model.TicketStatus;
+import com.proyecto.ops.tickets.repo.TicketStatsRepository;
+import com.proyecto.ops.tickets.repo.TicketStatsRepository.Dimension;
+import com.proyecto.ops.tickets.repo.TicketStatsRepository.StatusTransition;
+import com.proyecto.ops.tickets.repo.TicketStatsRepository.TimeInStatus;
+
+@RestController
+@RequestMapping("/tickets")
+public class TicketStatsController {
+
+    private final TicketStatsRepository stats;
+
+    public TicketStatsController(TicketStatsRepository stats) {
+        this.stats = stats;
+    }
+
+    @GetMapping("/{id}/status-history")
+    public List<StatusTransition> history(@PathVariable UUID id) {
+        return stats.history(id);
+    }
+
+    /**
+     * Ej.: tiempo medio en IN_PROGRESS por prioridad durante el último año:
+     * {@code /tickets/stats/time-in-status?status=IN_PROGRESS&groupBy=PRIORITY}
+     */
+    @GetMapping("/stats/time-in-status")
+    public List<TimeInStatus> timeInStatus(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) TicketStatus status,
+            @RequestParam(required = false) UUID customerId,
+            @RequestParam(required = false) TicketPriority priority,
+            @RequestParam(required = false) Set<Dimension> groupBy
+    ) {
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusYears(1);
+        if (start.isAfter(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from debe ser anterior a to");
+        }
+        Set<Dimension> dims = (groupBy == null || groupBy.isEmpty())
+                ? EnumSet.noneOf(Dimension.class)
+                : EnumSet.copyOf(groupBy);
+        return stats.timeInStatus(start, end, status, customerId, priority, dims);
+    }
+}
@@ -0,0 +1,32 @@
+SET search_path TO app;
+
+-- Archivo frío de tickets cerrados. app.tickets queda como tabla "caliente"
+-- (abiertos + cerrados recientes) y TicketArchiveMover va moviendo aquí los
+-- cerrados antiguos, así índices y vacuum de la tabla caliente no crecen con
+-- el histórico.
+--
+-- Mismas columnas y en el mismo orden que app.tickets (el mover inserta con
+-- "select moved.*"): cualquier columna nueva en app.tickets debe añadirse
+-- también aquí, antes de archived_at.
+CREATE TABLE IF NOT EXISTS app.tickets_archive (
+  LIKE app.tickets INCLUDING DEFAULTS
+);
+
+ALTER TABLE app.tickets_archive
+  ADD COLUMN IF NOT EXISTS archived_at TIMESTAMPTZ NOT NULL DEFAULT now();
+
+ALTER TABLE app.tickets_archive
+  ADD CONSTRAINT tickets_archive_pkey PRIMARY KEY (id);
+
+-- Solo se inserta en orden aproximado de created_at: BRIN ocupa unas pocas
+-- páginas aunque el archivo tenga años de histórico.
+CREATE INDEX IF NOT EXISTS brin_tickets_archive_created
+  ON app.tickets_archive USING brin (created_at);
+
+CREATE INDEX IF NOT EXISTS ix_tickets_archive_customer_created
+  ON app.tickets_archive (customer_id, created_at DESC);
+
+-- Candidatos del mover sin recorrer los abiertos.
+CREATE INDEX IF NOT EXISTS ix_tickets_closed_created
+  ON app.tickets (created_at)
+  WHERE status = 'CLOSED';
@@ -0,0 +1,19 @@
+SET search_path TO app;
+
+-- Reparto de tickets entre agentes de triage (POST /tickets/claim-next).
+-- assigned_to: agente que reclamó el ticket; lease_expires_at: mientras no
+-- venza, ningún otro agente puede reclamarlo.
+ALTER TABLE app.tickets
+  ADD COLUMN IF NOT EXISTS assigned_to      VARCHAR(200),
+  ADD COLUMN IF NOT EXISTS lease_expires_at TIMESTAMPTZ;
+
+-- El archivo conserva a quién estaba asignado (la lease no tiene sentido ahí).
+-- TicketArchiveMover inserta con lista explícita de columnas.
+ALTER TABLE app.tickets_archive
+  ADD COLUMN IF NOT EXISTS assigned_to VARCHAR(200);
+
+-- Cola de abiertos en el mismo orden que usa claim-next:
+-- prioridad (HIGH primero) y luego antigüedad.
+CREATE INDEX IF NOT EXISTS ix_tickets_open_claim_order
+  ON app.tickets ((CASE priority WHEN 'HIGH' THEN 0 WHEN 'MEDIUM' THEN 1 ELSE 2 END), created_at)
+  WHERE status = 'OPEN';
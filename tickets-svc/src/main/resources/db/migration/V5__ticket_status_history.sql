@@ -0,0 +1,90 @@
+SET search_path TO app;
+
+-- Momento en que el ticket entró en su status actual (NULL = desde created_at).
+ALTER TABLE app.tickets
+  ADD COLUMN IF NOT EXISTS status_changed_at TIMESTAMPTZ;
+
+-- Log append-only de transiciones de status. from_status NULL = alta del ticket.
+CREATE TABLE IF NOT EXISTS app.ticket_status_transitions (
+  id          BIGSERIAL    PRIMARY KEY,
+  ticket_id   UUID         NOT NULL,
+  from_status VARCHAR(32),
+  to_status   VARCHAR(32)  NOT NULL,
+  customer_id UUID,
+  priority    VARCHAR(32)  NOT NULL,
+  entered_at  TIMESTAMPTZ,
+  changed_at  TIMESTAMPTZ  NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS ix_ticket_transitions_ticket
+  ON app.ticket_status_transitions (ticket_id, changed_at);
+
+-- Agregado incremental de tiempo en status: cada salida de un status suma su
+-- duración al día (UTC) en que se produjo la salida, con la prioridad y el
+-- cliente que tenía el ticket en ese momento. Un año de datos son pocas filas
+-- por cliente, así que las consultas no tocan el log de transiciones.
+-- customer_id usa el UUID nulo cuando el ticket no tiene cliente (PK sin NULLs).
+CREATE TABLE IF NOT EXISTS app.ticket_status_time_daily (
+  customer_id   UUID        NOT NULL,
+  priority      VARCHAR(32) NOT NULL,
+  day           DATE        NOT NULL,
+  status        VARCHAR(32) NOT NULL,
+  exits         BIGINT      NOT NULL DEFAULT 0,
+  total_seconds DOUBLE PRECISION NOT NULL DEFAULT 0,
+  PRIMARY KEY (customer_id, priority, day, status)
+);
+
+CREATE INDEX IF NOT EXISTS ix_ticket_status_time_daily_day
+  ON app.ticket_status_time_daily (day, status);
+
+-- El trigger cubre cualquier camino de escritura (JPA, updates masivos,
+-- claim-next) dentro de la misma transacción que el cambio de status.
+CREATE OR REPLACE FUNCTION app.log_ticket_status_change()
+RETURNS TRIGGER AS $$
+DECLARE
+  entered TIMESTAMPTZ;
+  ts      TIMESTAMPTZ := now();
+BEGIN
+  IF TG_OP = 'INSERT' THEN
+    NEW.status_changed_at := coalesce(NEW.status_changed_at, NEW.created_at, ts);
+    INSERT INTO app.ticket_status_transitions
+      (ticket_id, from_status, to_status, customer_id, priority, entered_at, changed_at)
+    VALUES
+      (NEW.id, NULL, NEW.status::text, NEW.customer_id, NEW.priority::text, NULL, NEW.status_changed_at);
+    RETURN NEW;
+  END IF;
+
+  entered := coalesce(OLD.status_changed_at, OLD.created_at);
+
+  INSERT INTO app.ticket_status_transitions
+    (ticket_id, from_status, to_status, customer_id, priority, entered_at, changed_at)
+  VALUES
+    (OLD.id, OLD.status::text, NEW.status::text, OLD.customer_id, OLD.priority::text, entered, ts);
+
+  INSERT INTO app.ticket_status_time_daily AS d
+    (customer_id, priority, day, status, exits, total_seconds)
+  VALUES
+    (coalesce(OLD.customer_id, '00000000-0000-0000-0000-000000000000'::uuid),
+     OLD.priority::text, (ts AT TIME ZONE 'UTC')::date, OLD.status::text,
+     1, greatest(extract(epoch FROM ts - entered), 0))
+  ON CONFLICT (customer_id, priority, day, status) DO UPDATE
+    SET exits         = d.exits + 1,
+        total_seconds = d.total_seconds + excluded.total_seconds;
+
+  NEW.status_changed_at := ts;
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_tickets_status_insert ON app.tickets;
+CREATE TRIGGER trg_tickets_status_insert
+BEFORE INSERT ON app.tickets
+FOR EACH ROW
+EXECUTE FUNCTION app.log_ticket_status_change();
+
+DROP TRIGGER IF EXISTS trg_tickets_status_update ON app.tickets;
+CREATE TRIGGER trg_tickets_status_update
+BEFORE UPDATE OF status ON app.tickets
+FOR EACH ROW
+WHEN (OLD.status IS DISTINCT FROM NEW.status)
+EXECUTE FUNCTION app.log_ticket_status_change();
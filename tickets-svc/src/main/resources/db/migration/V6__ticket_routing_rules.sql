@@ -0,0 +1,22 @@
+SET search_path TO app;
+
+-- Reglas de enrutado de tickets a colas/equipos. Una regla aplica si se cumplen
+-- todas sus condiciones no nulas; gana la de menor precedence.
+CREATE TABLE IF NOT EXISTS app.ticket_routing_rules (
+  id          UUID         PRIMARY KEY DEFAULT gen_random_uuid(),
+  name        VARCHAR(200) NOT NULL,
+  active      BOOLEAN      NOT NULL DEFAULT TRUE,
+  precedence  INTEGER      NOT NULL DEFAULT 100,
+  customer_id UUID,
+  priority    VARCHAR(32),
+  asset_type  VARCHAR(100),
+  keywords    TEXT[],
+  queue       VARCHAR(100) NOT NULL,
+  updated_at  TIMESTAMPTZ  NOT NULL DEFAULT now()
+);
+
+ALTER TABLE app.tickets
+  ADD COLUMN IF NOT EXISTS routing_queue VARCHAR(100);
+
+ALTER TABLE app.tickets_archive
+  ADD COLUMN IF NOT EXISTS routing_queue VARCHAR(100);
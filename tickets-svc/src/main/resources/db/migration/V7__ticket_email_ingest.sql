@@ -0,0 +1,19 @@
+SET search_path TO app;
+
+-- Un registro por correo ingerido (deduplicación por Message-ID). ticket_id es
+-- NULL cuando el remitente no se pudo resolver a un contacto (status UNRESOLVED).
+CREATE TABLE IF NOT EXISTS app.ticket_email_messages (
+  message_id  VARCHAR(998)  PRIMARY KEY,
+  ticket_id   UUID,
+  status      VARCHAR(20)   NOT NULL,
+  from_email  VARCHAR(320),
+  source      VARCHAR(1000) NOT NULL,
+  ingested_at TIMESTAMPTZ   NOT NULL DEFAULT now()
+);
+
+-- Progreso por fichero mbox: bytes ya confirmados, para reanudar tras un fallo.
+CREATE TABLE IF NOT EXISTS app.ticket_ingest_checkpoints (
+  source      VARCHAR(1000) PRIMARY KEY,
+  byte_offset BIGINT        NOT NULL,
+  updated_at  TIMESTAMPTZ   NOT NULL DEFAULT now()
+);
@@ -0,0 +1,10 @@
+SET search_path TO app;
+
+-- El mover archiva por antigüedad del cierre, no de la creación: un ticket
+-- antiguo cerrado hoy debe seguir en la tabla caliente el periodo de retención.
+-- status_changed_at es NULL si el ticket no ha cambiado de status desde su alta.
+DROP INDEX IF EXISTS app.ix_tickets_closed_created;
+
+CREATE INDEX IF NOT EXISTS ix_tickets_closed_at
+  ON app.tickets ((coalesce(status_changed_at, created_at)))
+  WHERE status = 'CLOSED';
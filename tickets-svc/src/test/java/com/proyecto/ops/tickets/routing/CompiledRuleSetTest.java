@@ -0,0 +1,91 @@
+package com.proyecto.ops.tickets.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.proyecto.ops.tickets.model.TicketPriority;
+
+class CompiledRuleSetTest {
+
+    private static final UUID ACME = UUID.randomUUID();
+
+    private static RoutingRule rule(String name, int precedence, UUID customerId, TicketPriority priority,
+                                    String assetType, List<String> keywords) {
+        return new RoutingRule(UUID.randomUUID(), name, true, precedence, customerId, priority, assetType,
+                keywords, "queue-" + name, null);
+    }
+
+    @Test
+    void emptySetMatchesNothing() {
+        assertEquals(0, CompiledRuleSet.EMPTY.size());
+        assertNull(CompiledRuleSet.EMPTY.match(ACME, TicketPriority.HIGH, null, "x", "y"));
+    }
+
+    @Test
+    void lowestPrecedenceWinsThenName() {
+        CompiledRuleSet set = CompiledRuleSet.compile(List.of(
+                rule("b", 10, null, null, null, null),
+                rule("z", 5, null, null, null, null),
+                rule("a", 10, null, null, null, null)));
+
+        assertEquals("z", set.match(ACME, TicketPriority.LOW, null, "t", null).name());
+
+        CompiledRuleSet tie = CompiledRuleSet.compile(List.of(
+                rule("b", 10, null, null, null, null),
+                rule("a", 10, null, null, null, null)));
+        assertEquals("a", tie.match(ACME, TicketPriority.LOW, null, "t", null).name());
+    }
+
+    @Test
+    void inactiveRulesAreIgnored() {
+        RoutingRule off = new RoutingRule(UUID.randomUUID(), "off", false, 0, null, null, null, null, "q", null);
+        CompiledRuleSet set = CompiledRuleSet.compile(List.of(off, rule("on", 1, null, null, null, null)));
+
+        assertEquals(1, set.size());
+        assertEquals("on", set.match(null, null, null, null, null).name());
+    }
+
+    @Test
+    void everyConditionMustHold() {
+        CompiledRuleSet set = CompiledRuleSet.compile(List.of(
+                rule("acme-high-hvac", 1, ACME, TicketPriority.HIGH, "HVAC", null),
+                rule("fallback", 100, null, null, null, null)));
+
+        assertEquals("acme-high-hvac", set.match(ACME, TicketPriority.HIGH, "hvac", "t", null).name());
+        assertEquals("fallback", set.match(UUID.randomUUID(), TicketPriority.HIGH, "HVAC", "t", null).name());
+        assertEquals("fallback", set.match(ACME, TicketPriority.LOW, "HVAC", "t", null).name());
+        assertEquals("fallback", set.match(ACME, TicketPriority.HIGH, "Ascensor", "t", null).name());
+        assertEquals("fallback", set.match(ACME, null, "HVAC", "t", null).name());
+        assertTrue(set.usesAssetType());
+    }
+
+    @Test
+    void keywordsMatchWordsAndPhrasesIgnoringCaseAndAccents() {
+        CompiledRuleSet set = CompiledRuleSet.compile(List.of(
+                rule("fuga", 1, null, null, null, List.of("fuga")),
+                rule("sin-luz", 2, null, null, null, List.of("sin luz", "apagón"))));
+
+        assertEquals("fuga", set.match(null, null, null, "FUGA de agua", null).name());
+        assertEquals("sin-luz", set.match(null, null, null, "Oficina", "Estamos SIN LUZ desde las 9").name());
+        assertEquals("sin-luz", set.match(null, null, null, "Apagon general", null).name());
+        // Ni subcadenas de una palabra ni frases partidas cuentan.
+        assertNull(set.match(null, null, null, "Refugadas", null));
+        assertNull(set.match(null, null, null, "sin agua ni luz", null));
+    }
+
+    @Test
+    void noMatchReturnsNull() {
+        CompiledRuleSet set = CompiledRuleSet.compile(List.of(
+                rule("acme", 1, ACME, null, null, null)));
+
+        assertNull(set.match(UUID.randomUUID(), TicketPriority.MEDIUM, null, "t", "d"));
+        assertFalse(set.usesAssetType());
+    }
+}
@@ -0,0 +1,86 @@
+package com.proyecto.ops.tickets.similarity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.proyecto.ops.tickets.model.Ticket;
+import com.proyecto.ops.tickets.model.TicketStatus;
+
+class DuplicateTicketIndexTest {
+
+    private static final String TITLE = "El aire acondicionado de la sala de reuniones no enfría";
+    private static final String DESCRIPTION = "Desde esta mañana sale aire caliente por todas las rejillas";
+
+    private final UUID customer = UUID.randomUUID();
+    private final DuplicateTicketIndex index = new DuplicateTicketIndex(null, 0.6, 5);
+
+    @Test
+    void findsNearDuplicateOfSameCustomer() {
+        UUID id = UUID.randomUUID();
+        index.add(id, customer, TITLE, DESCRIPTION);
+        index.add(UUID.randomUUID(), customer, "Alta de usuario en nóminas", "Nuevo empleado en contabilidad");
+
+        List<SimilarTicket> found = index.findSimilar(customer, TITLE + "!", DESCRIPTION);
+        assertEquals(1, found.size());
+        assertEquals(id, found.get(0).ticketId());
+        assertTrue(found.get(0).similarity() >= 0.6);
+    }
+
+    @Test
+    void neverSuggestsTicketsOfAnotherCustomer() {
+        index.add(UUID.randomUUID(), customer, TITLE, DESCRIPTION);
+
+        assertTrue(index.findSimilar(UUID.randomUUID(), TITLE, DESCRIPTION).isEmpty());
+        assertTrue(index.findSimilar(null, TITLE, DESCRIPTION).isEmpty());
+    }
+
+    @Test
+    void removedAndClosedTicketsLeaveTheIndex() {
+        UUID removed = UUID.randomUUID();
+        index.add(removed, customer, TITLE, DESCRIPTION);
+        index.remove(removed);
+        assertTrue(index.findSimilar(customer, TITLE, DESCRIPTION).isEmpty());
+
+        Ticket t = new Ticket();
+        t.setId(UUID.randomUUID());
+        t.setCustomerId(customer);
+        t.setTitle(TITLE);
+        t.setDescription(DESCRIPTION);
+        t.setStatus(TicketStatus.OPEN);
+        index.track(t);
+        assertEquals(1, index.findSimilar(customer, TITLE, DESCRIPTION).size());
+
+        t.setStatus(TicketStatus.CLOSED);
+        index.track(t);
+        assertEquals(0, index.size());
+        assertTrue(index.findSimilar(customer, TITLE, DESCRIPTION).isEmpty());
+    }
+
+    @Test
+    void reAddingReplacesThePreviousText() {
+        UUID id = UUID.randomUUID();
+        index.add(id, customer, TITLE, DESCRIPTION);
+        index.add(id, customer, "Alta de usuario en nóminas", "Nuevo empleado en contabilidad");
+
+        assertEquals(1, index.size());
+        assertTrue(index.findSimilar(customer, TITLE, DESCRIPTION).isEmpty());
+    }
+
+    @Test
+    void returnsAtMostMaxCandidatesBestFirst() {
+        for (int i = 0; i < 8; i++) {
+            index.add(UUID.randomUUID(), customer, TITLE, DESCRIPTION + " " + "x".repeat(i));
+        }
+
+        List<SimilarTicket> found = index.findSimilar(customer, TITLE, DESCRIPTION);
+        assertEquals(5, found.size());
+        for (int i = 1; i < found.size(); i++) {
+            assertTrue(found.get(i - 1).similarity() >= found.get(i).similarity());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.proyecto.ops.tickets.similarity;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class MinHasherTest {
+
+    private final MinHasher hasher = new MinHasher(64, 42);
+
+    @Test
+    void sameTextSameSignature() {
+        int[] x = hasher.signature("La impresora de la planta 2 no imprime");
+        int[] y = new MinHasher(64, 42).signature("La impresora de la planta 2 no imprime");
+        assertArrayEquals(x, y);
+        assertEquals(1.0, MinHasher.similarity(x, y), 0.0);
+    }
+
+    @Test
+    void ignoresCaseAccentsAndPunctuation() {
+        assertArrayEquals(hasher.signature("Avería en el ascensor"),
+                hasher.signature("  AVERIA, en el ascensor!!"));
+    }
+
+    @Test
+    void nearDuplicatesScoreAboveUnrelatedTexts() {
+        int[] base = hasher.signature("El aire acondicionado de la sala de reuniones no enfría");
+        int[] near = hasher.signature("El aire acondicionado de la sala de reuniones no enfría nada");
+        int[] other = hasher.signature("Solicitud de alta de usuario en el sistema de nóminas");
+
+        double simNear = MinHasher.similarity(base, near);
+        double simOther = MinHasher.similarity(base, other);
+        assertTrue(simNear >= 0.7, "near " + simNear);
+        assertTrue(simOther <= 0.2, "other " + simOther);
+    }
+
+    @Test
+    void shortAndNullTextsStillHaveFullSignature() {
+        assertEquals(64, hasher.signature("ab").length);
+        assertEquals(64, hasher.signature(null).length);
+        assertEquals(64, hasher.signature("").length);
+    }
+
+    @Test
+    void onlyTheFirstCharactersCount() {
+        String head = "x".repeat(3_990) + " fin del texto";
+        assertArrayEquals(hasher.signature(head), hasher.signature(head + " y una cola que no se mira"));
+    }
+}
@@ -0,0 +1,108 @@
+package com.proyecto.ops.tickets.sla;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+    // Ticks que abarcan las cuatro ruedas; más allá se usa el desbordamiento.
+    private static final long WHEEL_SPAN = 1L << 24;
+
+    @Test
+    void firesAtDeadlineAndNotBefore() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 0);
+        wheel.schedule("a", 50);
+        List<String> fired = new ArrayList<>();
+
+        wheel.advanceTo(49, fired::add);
+        assertTrue(fired.isEmpty());
+
+        wheel.advanceTo(50, fired::add);
+        assertEquals(List.of("a"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlineFiresOnNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 1_000);
+        wheel.schedule("late", 0);
+        List<String> fired = new ArrayList<>();
+
+        wheel.advanceTo(1_010, fired::add);
+        assertEquals(List.of("late"), fired);
+    }
+
+    @Test
+    void cancelledTimerDoesNotFire() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        TimingWheel.Timer<String> a = wheel.schedule("a", 10);
+        wheel.schedule("b", 10);
+
+        assertTrue(wheel.cancel(a));
+        assertFalse(wheel.cancel(a));
+        assertEquals(1, wheel.size());
+
+        List<String> fired = new ArrayList<>();
+        wheel.advanceTo(10, fired::add);
+        assertEquals(List.of("b"), fired);
+        assertFalse(wheel.cancel(a));
+    }
+
+    @Test
+    void cascadesFromUpperLevelsInDeadlineOrder() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, 0);
+        // Un plazo en cada nivel, más uno justo en el borde de un bloque.
+        long[] deadlines = {3, 64, 100, 4_096, 5_000, 262_144, 300_000};
+        for (int i = deadlines.length - 1; i >= 0; i--) {
+            wheel.schedule(deadlines[i], deadlines[i]);
+        }
+        List<Long> fired = new ArrayList<>();
+
+        for (long d : deadlines) {
+            wheel.advanceTo(d - 1, fired::add);
+            assertFalse(fired.contains(d), "disparó antes de tiempo: " + d);
+            wheel.advanceTo(d, fired::add);
+            assertTrue(fired.contains(d), "no disparó: " + d);
+        }
+        assertEquals(deadlines.length, fired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void overflowTimerFiresOnTime() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        long deadline = WHEEL_SPAN + 123;
+        wheel.schedule("far", deadline);
+        List<String> fired = new ArrayList<>();
+
+        wheel.advanceTo(deadline - 1, fired::add);
+        assertTrue(fired.isEmpty());
+        wheel.advanceTo(deadline, fired::add);
+        assertEquals(List.of("far"), fired);
+    }
+
+    @Test
+    void overflowBoundaryWithTimerStillOutOfRangeTerminates() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        // Al pasar por el borde WHEEL_SPAN este timer sigue sin caber en las ruedas.
+        long deadline = 3 * WHEEL_SPAN + 7;
+        wheel.schedule("very far", deadline);
+        List<String> fired = new ArrayList<>();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            wheel.advanceTo(WHEEL_SPAN + 1, fired::add);
+            assertTrue(fired.isEmpty());
+            assertEquals(1, wheel.size());
+            wheel.advanceTo(deadline, fired::add);
+        });
+        assertEquals(List.of("very far"), fired);
+    }
+}
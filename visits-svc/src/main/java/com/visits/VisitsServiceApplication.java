@@ -31,11 +31,13 @@ package com.visits;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Clase principal que inicia la aplicación Spring Boot del microservicio "visits-svc".
  */
 @SpringBootApplication
+@EnableScheduling
 public class VisitsServiceApplication {
     /**
      * Método principal que lanza el microservicio "visits-svc".
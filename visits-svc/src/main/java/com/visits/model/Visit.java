@@ -51,7 +51,12 @@ import java.util.UUID;
     schema = "app",
     indexes = {
         @Index(name = "idx_visits_technician_start", columnList = "technician_id,scheduled_start_at"),
-        @Index(name = "idx_visits_state", columnList = "state")
+        @Index(name = "idx_visits_state", columnList = "state"),
+        @Index(name = "ix_visits_customer_start", columnList = "customer_id,scheduled_start_at"),
+        @Index(name = "ix_visits_site_start", columnList = "site_id,scheduled_start_at"),
+        @Index(name = "ix_visits_state_start", columnList = "state,scheduled_start_at"),
+        @Index(name = "ix_visits_start", columnList = "scheduled_start_at"),
+        @Index(name = "ix_visits_technician_updated", columnList = "technician_id,updated_at")
     }
 )
 public class Visit {
@@ -23,8 +23,12 @@
  *   • visitId        → Referencia a la visita asociada.
  *   • toEmail        → Dirección de correo electrónico del destinatario.
  *   • subject        → Asunto del correo enviado.
- *   • status         → Estado del correo (PENDING, SENT, FAILED).
+ *   • status         → Estado del correo (PENDING, SENDING, SENT, ERROR, FAILED).
  *   • errorMessage   → Mensaje de error en caso de fallo.
+ *   • attempts       → Intentos de envío realizados.
+ *   • nextAttemptAt  → Momento a partir del cual puede (re)intentarse el envío.
+ *   • sentAt         → Fecha y hora del envío exitoso.
+ *   • digest         → Si se envía agrupado en el resumen periódico del destinatario.
  *   • createdAt      → Fecha y hora en que se registró el intento.
  *
  * Mantenibilidad:
@@ -70,14 +74,31 @@ public class VisitEmail {
     @Column(name = "subject", length = 300)
     private String subject;
 
-    // Estado del correo: puede ser PENDING, SENT o FAILED.
+    // Estado del correo: PENDING → SENDING → SENT; ERROR si falló y se reintentará,
+    // FAILED si agotó los reintentos.
     @Column(name = "status", length = 30)
-    private String status; // SENT, FAILED, PENDING
+    private String status; // PENDING, SENDING, SENT, ERROR, FAILED
 
     // Mensaje de error en caso de que el envío falle (opcional).
     @Column(name = "error_message", length = 1000)
     private String errorMessage;
 
+    // Intentos de envío realizados (los incrementa el dispatcher al reclamar la fila).
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    // Momento a partir del cual el dispatcher puede reclamar el correo.
+    @Column(name = "next_attempt_at", nullable = false)
+    private OffsetDateTime nextAttemptAt;
+
+    // Fecha y hora en que el correo se entregó al servidor SMTP.
+    @Column(name = "sent_at")
+    private OffsetDateTime sentAt;
+
+    // Si el correo forma parte del resumen periódico (digest) de su destinatario.
+    @Column(name = "digest", nullable = false)
+    private boolean digest;
+
     // Fecha y hora de creación del registro (se asigna automáticamente).
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -101,6 +122,7 @@ public class VisitEmail {
         ve.toEmail = toEmail;
         ve.subject = subject;
         ve.status = "PENDING";
+        ve.nextAttemptAt = OffsetDateTime.now();
         return ve;
     }
 
@@ -111,6 +133,10 @@ public class VisitEmail {
     public String getSubject() { return subject; }
     public String getStatus() { return status; }
     public String getErrorMessage() { return errorMessage; }
+    public int getAttempts() { return attempts; }
+    public OffsetDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public OffsetDateTime getSentAt() { return sentAt; }
+    public boolean isDigest() { return digest; }
     public OffsetDateTime getCreatedAt() { return createdAt; }
 
     public void setId(UUID id) { this.id = id; }
@@ -119,5 +145,9 @@ public class VisitEmail {
     public void setSubject(String subject) { this.subject = subject; }
     public void setStatus(String status) { this.status = status; }
     public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public void setNextAttemptAt(OffsetDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    public void setSentAt(OffsetDateTime sentAt) { this.sentAt = sentAt; }
+    public void setDigest(boolean digest) { this.digest = digest; }
     public void setCreatedAt(OffsetDateTime createdAt) { this.createdAt = createdAt; }
 }
\ No newline at end of file
@@ -24,6 +24,7 @@
  *   • geoLat/lng  → Coordenadas del evento (ubicación donde ocurrió).
  *   • payload     → Información adicional del evento en formato JSON.
  *   • createdAt   → Fecha y hora de creación (asignada automáticamente).
+ *   • seq         → Número global creciente asignado por la BD (id de los eventos SSE).
  *
  * Mantenibilidad:
  *   - Si se agregan nuevos tipos de evento o campos, deben reflejarse
@@ -86,6 +87,10 @@ public class VisitEvent {
     @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
 
+    // Número de secuencia global asignado por la BD (identity); solo lectura.
+    @Column(name = "seq", insertable = false, updatable = false)
+    private Long seq;
+
     public VisitEvent() {}
 
     /**
@@ -121,6 +126,7 @@ public class VisitEvent {
     public Double getGeoLng() { return geoLng; }
     public String getPayload() { return payload; }
     public OffsetDateTime getCreatedAt() { return createdAt; }
+    public Long getSeq() { return seq; }
 
     public void setId(UUID id) { this.id = id; }
     public void setVisitId(UUID visitId) { this.visitId = visitId; }
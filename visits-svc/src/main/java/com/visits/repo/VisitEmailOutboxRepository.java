@@ -0,0 +1,130 @@
+package com.visits.repo;
+
+import com.visits.model.VisitEmail;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Acceso JDBC a {@code app.visit_emails} usada como outbox.
+ *
+ * Varias instancias pueden despachar a la vez: cada una reclama su lote con
+ * {@code FOR UPDATE SKIP LOCKED} (y un advisory lock por destinatario para los
+ * digest) y un lease sobre {@code next_attempt_at}, así que nunca se esperan
+ * ni envían dos veces el mismo correo mientras el lease esté vigente.
+ */
+@Repository
+public class VisitEmailOutboxRepository {
+
+    private static final RowMapper<VisitEmail> CLAIMED_MAPPER = (rs, n) -> {
+        VisitEmail e = new VisitEmail();
+        e.setId(rs.getObject("id", UUID.class));
+        e.setVisitId(rs.getObject("visit_id", UUID.class));
+        e.setToEmail(rs.getString("to_email"));
+        e.setSubject(rs.getString("subject"));
+        e.setStatus(rs.getString("status"));
+        e.setAttempts(rs.getInt("attempts"));
+        e.setDigest(rs.getBoolean("digest"));
+        return e;
+    };
+
+    private final JdbcTemplate jdbc;
+
+    public VisitEmailOutboxRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Reclama correos vencidos (PENDING, ERROR a reintentar o SENDING con lease
+     * caducado): los pasa a SENDING, suma un intento y aplaza
+     * {@code next_attempt_at} la duración del lease.
+     *
+     * Cada llamada toma como mucho {@code limit} correos inmediatos, por orden
+     * de vencimiento, y como mucho {@code limit} filas de digest. Las de digest
+     * se toman por destinatario completo, para que un resumen no quede repartido
+     * entre dos lotes; solo un destinatario con más de {@code limit} filas se
+     * parte. Un destinatario que otra instancia está reclamando a la vez se salta.
+     */
+    public List<VisitEmail> claim(int limit, Duration lease) {
+        return jdbc.query("""
+                with recipients as (
+                  select to_email, min(next_attempt_at) as first_due, count(*) as n
+                  from app.visit_emails
+                  where digest and status in ('PENDING', 'ERROR', 'SENDING')
+                    and next_attempt_at <= now()
+                  group by to_email
+                ), ranked as (
+                  select to_email, n, sum(n) over (order by first_due, to_email) - n as before
+                  from recipients
+                ), picked as materialized (
+                  select to_email from ranked
+                  where (before = 0 or before + n <= ?)
+                    and pg_try_advisory_xact_lock(hashtext('app.visit_emails:' || to_email))
+                ), digest_rows as (
+                  select id from app.visit_emails
+                  where digest and status in ('PENDING', 'ERROR', 'SENDING')
+                    and next_attempt_at <= now()
+                    and to_email in (select to_email from picked)
+                  order by next_attempt_at
+                  limit ?
+                  for update skip locked
+                ), immediate_rows as (
+                  select id from app.visit_emails
+                  where not digest and status in ('PENDING', 'ERROR', 'SENDING')
+                    and next_attempt_at <= now()
+                  order by next_attempt_at
+                  limit ?
+                  for update skip locked
+                ), due as (
+                  select id from digest_rows
+                  union all
+                  select id from immediate_rows
+                )
+                update app.visit_emails e
+                set status = 'SENDING',
+                    attempts = e.attempts + 1,
+                    next_attempt_at = now() + make_interval(secs => ?)
+                from due
+                where e.id = due.id
+                returning e.id, e.visit_id, e.to_email, e.subject, e.status, e.attempts, e.digest
+                """, CLAIMED_MAPPER, limit, limit, limit, lease.toSeconds());
+    }
+
+    /** Marca como enviados los correos indicados en una sola sentencia. */
+    public int markSent(Collection<UUID> ids) {
+        if (ids.isEmpty()) return 0;
+        return jdbc.update("""
+                update app.visit_emails
+                set status = 'SENT', sent_at = now(), error_message = null
+                where id = any(?) and status = 'SENDING'
+                """, ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids.toArray())));
+    }
+
+    /**
+     * Registra un fallo de envío. Con {@code retryIn} nulo el correo queda FAILED
+     * (sin más intentos); si no, queda ERROR hasta {@code now() + retryIn}.
+     */
+    public void markFailed(UUID id, String error, Duration retryIn) {
+        String msg = error;
+        if (msg != null && msg.length() > 1000) {
+            msg = msg.substring(0, 1000);
+        }
+        if (retryIn == null) {
+            jdbc.update("""
+                    update app.visit_emails set status = 'FAILED', error_message = ?
+                    where id = ? and status = 'SENDING'
+                    """, msg, id);
+        } else {
+            jdbc.update("""
+                    update app.visit_emails
+                    set status = 'ERROR', error_message = ?, next_attempt_at = now() + make_interval(secs => ?)
+                    where id = ? and status = 'SENDING'
+                    """, msg, retryIn.toSeconds(), id);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.visits.repo;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Lectura incremental de {@code app.visit_events} por {@code seq} para los
+ * streams SSE. Cada evento se devuelve junto con el técnico y el cliente de su
+ * visita, que son los criterios por los que se suscriben los clientes.
+ */
+@Repository
+public class VisitEventFeedRepository {
+
+    /**
+     * Evento tal como se publica a los suscriptores.
+     */
+    public record FeedEvent(
+            long seq,
+            UUID id,
+            UUID visitId,
+            UUID technicianId,
+            UUID customerId,
+            String type,
+            UUID actorId,
+            Double geoLat,
+            Double geoLng,
+            String payload,
+            OffsetDateTime createdAt
+    ) {}
+
+    private static final String SELECT = """
+            select e.seq, e.id, e.visit_id, v.technician_id, v.customer_id, e.type,
+                   e.actor_id, e.geo_lat, e.geo_lng, e.payload, e.created_at
+            from app.visit_events e
+            join app.visits v on v.id = e.visit_id
+            """;
+
+    private static final RowMapper<FeedEvent> MAPPER = (rs, n) -> new FeedEvent(
+            rs.getLong("seq"),
+            rs.getObject("id", UUID.class),
+            rs.getObject("visit_id", UUID.class),
+            rs.getObject("technician_id", UUID.class),
+            rs.getObject("customer_id", UUID.class),
+            rs.getString("type"),
+            rs.getObject("actor_id", UUID.class),
+            (Double) rs.getObject("geo_lat"),
+            (Double) rs.getObject("geo_lng"),
+            rs.getString("payload"),
+            rs.getObject("created_at", OffsetDateTime.class));
+
+    private final JdbcTemplate jdbc;
+
+    public VisitEventFeedRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Último {@code seq} escrito (0 si no hay eventos). */
+    public long maxSeq() {
+        Long max = jdbc.queryForObject("select max(seq) from app.visit_events", Long.class);
+        return max == null ? 0 : max;
+    }
+
+    /** Eventos con {@code seq > after}, en orden, para todos los suscriptores. */
+    public List<FeedEvent> after(long after, int limit) {
+        return jdbc.query(SELECT + " where e.seq > ? order by e.seq limit ?", MAPPER, after, limit);
+    }
+
+    /**
+     * Eventos con {@code seq > after} que cumplen el filtro (campos nulos no
+     * filtran), para reanudar un stream desde su Last-Event-ID.
+     */
+    public List<FeedEvent> replay(long after, UUID visitId, UUID technicianId, UUID customerId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT).append(" where e.seq > ?");
+        List<Object> args = new ArrayList<>();
+        args.add(after);
+        if (visitId != null) {
+            sql.append(" and e.visit_id = ?");
+            args.add(visitId);
+        }
+        if (technicianId != null) {
+            sql.append(" and v.technician_id = ?");
+            args.add(technicianId);
+        }
+        if (customerId != null) {
+            sql.append(" and v.customer_id = ?");
+            args.add(customerId);
+        }
+        sql.append(" order by e.seq limit ?");
+        args.add(limit);
+        return jdbc.query(sql.toString(), MAPPER, args.toArray());
+    }
+}
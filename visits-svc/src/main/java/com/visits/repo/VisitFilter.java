@@ -0,0 +1,28 @@
+package com.visits.repo;
+
+import com.visits.model.VisitPriority;
+import com.visits.model.VisitState;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Criterios opcionales del listado de visitas. Un campo nulo no filtra.
+ *
+ * @param customerId   Cliente de la visita.
+ * @param siteId       Sitio del cliente.
+ * @param technicianId Técnico asignado.
+ * @param state        Estado actual.
+ * @param priority     Prioridad.
+ * @param from         Inicio (inclusivo) del rango sobre {@code scheduledStartAt}.
+ * @param to           Fin (exclusivo) del rango sobre {@code scheduledStartAt}.
+ */
+public record VisitFilter(
+        UUID customerId,
+        UUID siteId,
+        UUID technicianId,
+        VisitState state,
+        VisitPriority priority,
+        OffsetDateTime from,
+        OffsetDateTime to
+) {}
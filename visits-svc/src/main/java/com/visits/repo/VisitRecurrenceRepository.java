@@ -0,0 +1,167 @@
+package com.visits.repo;
+
+import com.visits.model.Visit;
+import com.visits.model.VisitPriority;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Acceso JDBC a {@code app.visit_recurrences} y alta por lotes de las visitas
+ * que generan.
+ */
+@Repository
+public class VisitRecurrenceRepository {
+
+    /** Regla de recurrencia tal como está en la BD. */
+    public record Recurrence(
+            UUID id,
+            UUID customerId,
+            UUID siteId,
+            UUID technicianId,
+            VisitPriority priority,
+            String purpose,
+            String notesPlanned,
+            String rrule,
+            OffsetDateTime dtstart,
+            String timeZone,
+            int durationMinutes,
+            OffsetDateTime generatedUntil,
+            boolean active
+    ) {}
+
+    /** Visita generada por una regla, pendiente de insertar. */
+    public record Occurrence(UUID recurrenceId, Visit visit) {}
+
+    /** Avance de una regla tras generar un tramo. */
+    public record Progress(UUID recurrenceId, OffsetDateTime generatedUntil, boolean exhausted) {}
+
+    private static final String SELECT = """
+            select id, customer_id, site_id, technician_id, priority::text as priority, purpose, notes_planned,
+                   rrule, dtstart, time_zone, duration_minutes, generated_until, active
+            from app.visit_recurrences
+            """;
+
+    private static final RowMapper<Recurrence> MAPPER = (rs, n) -> new Recurrence(
+            rs.getObject("id", UUID.class),
+            rs.getObject("customer_id", UUID.class),
+            rs.getObject("site_id", UUID.class),
+            rs.getObject("technician_id", UUID.class),
+            VisitPriority.valueOf(rs.getString("priority")),
+            rs.getString("purpose"),
+            rs.getString("notes_planned"),
+            rs.getString("rrule"),
+            rs.getObject("dtstart", OffsetDateTime.class),
+            rs.getString("time_zone"),
+            rs.getInt("duration_minutes"),
+            rs.getObject("generated_until", OffsetDateTime.class),
+            rs.getBoolean("active"));
+
+    private final JdbcTemplate jdbc;
+
+    public VisitRecurrenceRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public Recurrence insert(Recurrence r) {
+        return jdbc.queryForObject("""
+                insert into app.visit_recurrences
+                  (id, customer_id, site_id, technician_id, priority, purpose, notes_planned,
+                   rrule, dtstart, time_zone, duration_minutes, generated_until)
+                values (?, ?, ?, ?, ?::app.visit_priority, ?, ?, ?, ?, ?, ?, ?)
+                returning id, customer_id, site_id, technician_id, priority::text as priority, purpose, notes_planned,
+                          rrule, dtstart, time_zone, duration_minutes, generated_until, active
+                """, MAPPER,
+                r.id(), r.customerId(), r.siteId(), r.technicianId(), r.priority().name(), r.purpose(),
+                r.notesPlanned(), r.rrule(), r.dtstart(), r.timeZone(), r.durationMinutes(), r.generatedUntil());
+    }
+
+    public Optional<Recurrence> findById(UUID id) {
+        return jdbc.query(SELECT + " where id = ?", MAPPER, id).stream().findFirst();
+    }
+
+    /** Reglas activas cuyo {@code generated_until} no llega a {@code horizon}. */
+    public List<Recurrence> findDue(OffsetDateTime horizon, int limit) {
+        return jdbc.query(SELECT + " where active and generated_until < ? order by generated_until limit ?",
+                MAPPER, horizon, limit);
+    }
+
+    /** Desactiva la regla; las visitas ya generadas no cambian. */
+    public boolean deactivate(UUID id) {
+        return jdbc.update("update app.visit_recurrences set active = false where id = ? and active", id) > 0;
+    }
+
+    /**
+     * Inserta las visitas en lotes JDBC. Las que chocan con una ya generada
+     * ({@code ux_visits_recurrence_start}) o con la agenda del técnico
+     * ({@code ex_visits_technician_overlap}) se omiten.
+     *
+     * @return las visitas realmente insertadas.
+     */
+    public List<Visit> insertPlanned(List<Occurrence> occurrences, int batchSize) {
+        int[][] counts = jdbc.batchUpdate("""
+                insert into app.visits
+                  (id, customer_id, site_id, technician_id, state, priority, purpose,
+                   scheduled_start_at, scheduled_end_at, notes_planned, recurrence_id)
+                values (?, ?, ?, ?, 'PLANNED', ?::app.visit_priority, ?, ?, ?, ?, ?)
+                on conflict do nothing
+                """,
+                occurrences, batchSize,
+                (ps, o) -> {
+                    Visit v = o.visit();
+                    ps.setObject(1, v.getId());
+                    ps.setObject(2, v.getCustomerId());
+                    ps.setObject(3, v.getSiteId());
+                    ps.setObject(4, v.getTechnicianId());
+                    ps.setString(5, v.getPriority().name());
+                    ps.setString(6, v.getPurpose());
+                    ps.setObject(7, v.getScheduledStartAt());
+                    ps.setObject(8, v.getScheduledEndAt());
+                    ps.setString(9, v.getNotesPlanned());
+                    ps.setObject(10, o.recurrenceId());
+                });
+        List<Visit> inserted = new ArrayList<>(occurrences.size());
+        int k = 0;
+        for (int[] batch : counts) {
+            for (int c : batch) {
+                if (c > 0) inserted.add(occurrences.get(k).visit());
+                k++;
+            }
+        }
+        return inserted;
+    }
+
+    /** Registra el evento VisitScheduled de cada visita, en lotes JDBC. */
+    public void insertScheduledEvents(List<Visit> visits, int batchSize) {
+        jdbc.batchUpdate("""
+                insert into app.visit_events (id, visit_id, type)
+                values (?, ?, 'VisitScheduled')
+                """,
+                visits, batchSize,
+                (ps, v) -> {
+                    ps.setObject(1, UUID.randomUUID());
+                    ps.setObject(2, v.getId());
+                });
+    }
+
+    /** Avanza {@code generated_until} y desactiva las reglas agotadas. */
+    public void advance(List<Progress> progress) {
+        jdbc.batchUpdate("""
+                update app.visit_recurrences
+                set generated_until = greatest(generated_until, ?), active = active and not ?
+                where id = ?
+                """,
+                progress, progress.size(),
+                (ps, p) -> {
+                    ps.setObject(1, p.generatedUntil());
+                    ps.setBoolean(2, p.exhausted());
+                    ps.setObject(3, p.recurrenceId());
+                });
+    }
+}
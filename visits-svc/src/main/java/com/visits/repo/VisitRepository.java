@@ -15,6 +15,8 @@
  *       • deleteById()  → Elimina una visita específica.
  *   - Incluye consultas personalizadas para filtrar visitas según técnico,
  *     rango de fechas o estado.
+ *   - search() compone solo los filtros informados (cliente, sitio, técnico,
+ *     estado, prioridad y rango de inicio) mediante Specifications.
  *
  * Mantenibilidad:
  *   - Pueden agregarse nuevos métodos derivados del nombre, por ejemplo:
@@ -29,6 +31,7 @@ import com.visits.model.VisitState;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
@@ -38,7 +41,7 @@ import java.util.UUID;
  *
  * Permite realizar operaciones CRUD y consultas específicas sobre las visitas.
  */
-public interface VisitRepository extends JpaRepository<Visit, UUID> {
+public interface VisitRepository extends JpaRepository<Visit, UUID>, JpaSpecificationExecutor<Visit> {
     // Consulta personalizada para obtener visitas por técnico y rango de fechas planificadas
     /**
      * Obtiene una página de visitas asignadas a un técnico específico dentro de un rango de fechas planificadas.
@@ -61,4 +64,15 @@ public interface VisitRepository extends JpaRepository<Visit, UUID> {
      * @return Página con las visitas que coinciden con el estado especificado.
      */
     Page<Visit> findByState(VisitState state, Pageable pageable);
+
+    /**
+     * Lista visitas aplicando solo los filtros informados en {@code filter}.
+     *
+     * @param filter Criterios opcionales (cliente, sitio, técnico, estado, prioridad, rango).
+     * @param pageable Parámetros de paginación y orden.
+     * @return Página con las visitas que cumplen todos los criterios.
+     */
+    default Page<Visit> search(VisitFilter filter, Pageable pageable) {
+        return findAll(VisitSpecs.matching(filter), pageable);
+    }
 }
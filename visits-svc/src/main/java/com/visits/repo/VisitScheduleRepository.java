@@ -0,0 +1,90 @@
+package com.visits.repo;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Lectura de las ventanas ocupadas de los técnicos (visitas PLANNED o STARTED)
+ * para reconstruir el índice de agenda en memoria, y estado de la restricción
+ * {@code ex_visits_technician_overlap} que las protege en la BD.
+ */
+@Repository
+public class VisitScheduleRepository {
+
+    /** Ventana planificada que ocupa a un técnico. */
+    public record Busy(UUID visitId, UUID technicianId, OffsetDateTime start, OffsetDateTime end) {}
+
+    private final JdbcTemplate jdbc;
+
+    public VisitScheduleRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Recorre las visitas que ocupan agenda en el orden de
+     * {@code ix_visits_technician_start}, sin cargarlas todas en una lista
+     * (el fetch size de PostgreSQL solo aplica dentro de una transacción).
+     */
+    @Transactional(readOnly = true)
+    public void forEachBusy(Consumer<Busy> action) {
+        jdbc.query(con -> {
+            var ps = con.prepareStatement("""
+                    select id, technician_id, scheduled_start_at, scheduled_end_at
+                    from app.visits
+                    where state in ('PLANNED', 'STARTED')
+                    order by technician_id, scheduled_start_at
+                    """);
+            ps.setFetchSize(5000);
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(new Busy(
+                rs.getObject("id", UUID.class),
+                rs.getObject("technician_id", UUID.class),
+                rs.getObject("scheduled_start_at", OffsetDateTime.class),
+                rs.getObject("scheduled_end_at", OffsetDateTime.class))));
+    }
+
+    public boolean overlapConstraintExists() {
+        return Boolean.TRUE.equals(jdbc.queryForObject(
+                "select exists (select 1 from pg_constraint where conname = 'ex_visits_technician_overlap')",
+                Boolean.class));
+    }
+
+    public boolean btreeGistInstalled() {
+        return Boolean.TRUE.equals(jdbc.queryForObject(
+                "select exists (select 1 from pg_extension where extname = 'btree_gist')", Boolean.class));
+    }
+
+    /** Parejas de visitas PLANNED/STARTED del mismo técnico que se solapan. */
+    public long countOverlaps() {
+        Long n = jdbc.queryForObject("""
+                select count(*)
+                from app.visits a
+                join app.visits b
+                  on b.technician_id = a.technician_id
+                 and b.id > a.id
+                 and b.scheduled_start_at < a.scheduled_end_at
+                 and a.scheduled_start_at < b.scheduled_end_at
+                where a.state in ('PLANNED', 'STARTED')
+                  and b.state in ('PLANNED', 'STARTED')
+                """, Long.class);
+        return n == null ? 0 : n;
+    }
+
+    /** Crea la restricción; falla si entretanto ha aparecido un solape. */
+    public void addOverlapConstraint() {
+        jdbc.execute("""
+                alter table app.visits
+                  add constraint ex_visits_technician_overlap
+                  exclude using gist (
+                    technician_id with =,
+                    tstzrange(scheduled_start_at, scheduled_end_at) with &&
+                  ) where (state in ('PLANNED', 'STARTED'))
+                """);
+    }
+}
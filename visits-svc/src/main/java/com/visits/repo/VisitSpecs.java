@@ -0,0 +1,61 @@
+package com.visits.repo;
+
+import com.visits.model.Visit;
+import com.visits.model.VisitPriority;
+import com.visits.model.VisitState;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Predicados componibles para {@link VisitRepository#search}.
+ *
+ * Cada método devuelve {@code null} si su parámetro es nulo y
+ * {@link Specification#and} lo ignora, de modo que el SQL solo lleva las
+ * condiciones pedidas y cada combinación puede usar su índice compuesto.
+ */
+public final class VisitSpecs {
+
+    private VisitSpecs() {}
+
+    public static Specification<Visit> matching(VisitFilter f) {
+        return Specification.where(customer(f.customerId()))
+                .and(site(f.siteId()))
+                .and(technician(f.technicianId()))
+                .and(state(f.state()))
+                .and(priority(f.priority()))
+                .and(startsFrom(f.from()))
+                .and(startsBefore(f.to()));
+    }
+
+    public static Specification<Visit> customer(UUID customerId) {
+        return customerId == null ? null : (root, q, cb) -> cb.equal(root.get("customerId"), customerId);
+    }
+
+    public static Specification<Visit> site(UUID siteId) {
+        return siteId == null ? null : (root, q, cb) -> cb.equal(root.get("siteId"), siteId);
+    }
+
+    public static Specification<Visit> technician(UUID technicianId) {
+        return technicianId == null ? null : (root, q, cb) -> cb.equal(root.get("technicianId"), technicianId);
+    }
+
+    public static Specification<Visit> state(VisitState state) {
+        return state == null ? null : (root, q, cb) -> cb.equal(root.get("state"), state);
+    }
+
+    public static Specification<Visit> priority(VisitPriority priority) {
+        return priority == null ? null : (root, q, cb) -> cb.equal(root.get("priority"), priority);
+    }
+
+    public static Specification<Visit> startsFrom(OffsetDateTime from) {
+        return from == null ? null
+                : (root, q, cb) -> cb.greaterThanOrEqualTo(root.<OffsetDateTime>get("scheduledStartAt"), from);
+    }
+
+    public static Specification<Visit> startsBefore(OffsetDateTime to) {
+        return to == null ? null
+                : (root, q, cb) -> cb.lessThan(root.<OffsetDateTime>get("scheduledStartAt"), to);
+    }
+}
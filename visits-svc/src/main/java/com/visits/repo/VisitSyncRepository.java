@@ -0,0 +1,210 @@
+package com.visits.repo;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Consultas de la sincronización incremental de los móviles de técnicos. Las
+ * filas se leen directamente en registros compactos, sin cargar entidades.
+ *
+ * Cada consulta filtra o bien por cambios desde un instante (sincronización
+ * incremental) o bien por visitas que empiezan a partir de un instante
+ * (primera sincronización).
+ *
+ * Las reasignaciones salen de {@code visit_reassignments}: una visita que
+ * entró en la agenda del técnico desde el token trae todas sus notas y
+ * eventos, y una que salió llega como tombstone.
+ */
+@Repository
+public class VisitSyncRepository {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record SyncVisit(
+            UUID id,
+            UUID customerId,
+            UUID siteId,
+            String state,
+            String priority,
+            String purpose,
+            OffsetDateTime scheduledStartAt,
+            OffsetDateTime scheduledEndAt,
+            String notesPlanned,
+            OffsetDateTime checkInAt,
+            OffsetDateTime checkOutAt,
+            OffsetDateTime updatedAt
+    ) {}
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record SyncNote(UUID id, UUID visitId, UUID authorId, String visibility, String body,
+            OffsetDateTime createdAt) {}
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record SyncEvent(long seq, UUID id, UUID visitId, String type, UUID actorId, Double geoLat,
+            Double geoLng, String payload, OffsetDateTime createdAt) {}
+
+    /**
+     * Visita que el móvil debe quitar: cancelada ({@code CANCELLED}) o
+     * reasignada a otro técnico ({@code REASSIGNED}).
+     */
+    public record Tombstone(UUID id, String reason, OffsetDateTime removedAt) {}
+
+    private static final RowMapper<SyncVisit> VISIT_MAPPER = (rs, n) -> new SyncVisit(
+            rs.getObject("id", UUID.class),
+            rs.getObject("customer_id", UUID.class),
+            rs.getObject("site_id", UUID.class),
+            rs.getString("state"),
+            rs.getString("priority"),
+            rs.getString("purpose"),
+            rs.getObject("scheduled_start_at", OffsetDateTime.class),
+            rs.getObject("scheduled_end_at", OffsetDateTime.class),
+            rs.getString("notes_planned"),
+            rs.getObject("check_in_at", OffsetDateTime.class),
+            rs.getObject("check_out_at", OffsetDateTime.class),
+            rs.getObject("updated_at", OffsetDateTime.class));
+
+    private static final RowMapper<SyncNote> NOTE_MAPPER = (rs, n) -> new SyncNote(
+            rs.getObject("id", UUID.class),
+            rs.getObject("visit_id", UUID.class),
+            rs.getObject("author_id", UUID.class),
+            rs.getString("visibility"),
+            rs.getString("body"),
+            rs.getObject("created_at", OffsetDateTime.class));
+
+    private static final RowMapper<SyncEvent> EVENT_MAPPER = (rs, n) -> new SyncEvent(
+            rs.getLong("seq"),
+            rs.getObject("id", UUID.class),
+            rs.getObject("visit_id", UUID.class),
+            rs.getString("type"),
+            rs.getObject("actor_id", UUID.class),
+            (Double) rs.getObject("geo_lat"),
+            (Double) rs.getObject("geo_lng"),
+            rs.getString("payload"),
+            rs.getObject("created_at", OffsetDateTime.class));
+
+    private final JdbcTemplate jdbc;
+
+    public VisitSyncRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Hora de la BD al inicio de la transacción; base del siguiente token. */
+    public OffsetDateTime now() {
+        return jdbc.queryForObject("select now()", OffsetDateTime.class);
+    }
+
+    /** Visitas no canceladas del técnico modificadas desde {@code since} ({@code ix_visits_technician_updated}). */
+    public List<SyncVisit> visitsChangedSince(UUID technicianId, OffsetDateTime since) {
+        return jdbc.query("""
+                select id, customer_id, site_id, state::text as state, priority::text as priority, purpose,
+                       scheduled_start_at, scheduled_end_at, notes_planned, check_in_at, check_out_at, updated_at
+                from app.visits
+                where technician_id = ? and updated_at >= ? and state <> 'CANCELLED'
+                order by updated_at
+                """, VISIT_MAPPER, technicianId, since);
+    }
+
+    /** Visitas no canceladas del técnico que empiezan a partir de {@code from}. */
+    public List<SyncVisit> visitsStartingFrom(UUID technicianId, OffsetDateTime from) {
+        return jdbc.query("""
+                select id, customer_id, site_id, state::text as state, priority::text as priority, purpose,
+                       scheduled_start_at, scheduled_end_at, notes_planned, check_in_at, check_out_at, updated_at
+                from app.visits
+                where technician_id = ? and scheduled_start_at >= ? and state <> 'CANCELLED'
+                order by scheduled_start_at
+                """, VISIT_MAPPER, technicianId, from);
+    }
+
+    /**
+     * Visitas que el técnico debe quitar desde {@code since}: las suyas
+     * canceladas y las reasignadas a otro técnico que no ha vuelto a tener.
+     */
+    public List<Tombstone> removedSince(UUID technicianId, OffsetDateTime since) {
+        return jdbc.query("""
+                select id, 'CANCELLED' as reason, updated_at as removed_at
+                from app.visits
+                where technician_id = ? and updated_at >= ? and state = 'CANCELLED'
+                union all
+                select r.visit_id, 'REASSIGNED', max(r.reassigned_at)
+                from app.visit_reassignments r
+                join app.visits v on v.id = r.visit_id
+                where r.from_technician_id = ? and r.reassigned_at >= ? and v.technician_id <> ?
+                group by r.visit_id
+                """, (rs, n) -> new Tombstone(
+                        rs.getObject("id", UUID.class),
+                        rs.getString("reason"),
+                        rs.getObject("removed_at", OffsetDateTime.class)),
+                technicianId, since, technicianId, since, technicianId);
+    }
+
+    /**
+     * Notas nuevas desde {@code since} en visitas del técnico
+     * ({@code ix_visit_notes_created}) más todas las anteriores de las visitas
+     * que se le asignaron desde entonces.
+     */
+    public List<SyncNote> notesSince(UUID technicianId, OffsetDateTime since) {
+        return jdbc.query("""
+                select n.id, n.visit_id, n.author_id, n.visibility::text as visibility, n.body, n.created_at
+                from app.visit_notes n
+                join app.visits v on v.id = n.visit_id
+                where n.created_at >= ? and v.technician_id = ? and v.state <> 'CANCELLED'
+                union all
+                select n.id, n.visit_id, n.author_id, n.visibility::text, n.body, n.created_at
+                from app.visit_notes n
+                join app.visits v on v.id = n.visit_id
+                where n.created_at < ? and v.technician_id = ? and v.state <> 'CANCELLED'
+                  and v.id in (select visit_id from app.visit_reassignments
+                               where to_technician_id = ? and reassigned_at >= ?)
+                order by created_at
+                """, NOTE_MAPPER, since, technicianId, since, technicianId, technicianId, since);
+    }
+
+    /** Notas de las visitas devueltas por {@link #visitsStartingFrom}. */
+    public List<SyncNote> notesOfVisitsStartingFrom(UUID technicianId, OffsetDateTime from) {
+        return jdbc.query("""
+                select n.id, n.visit_id, n.author_id, n.visibility::text as visibility, n.body, n.created_at
+                from app.visit_notes n
+                join app.visits v on v.id = n.visit_id
+                where v.technician_id = ? and v.scheduled_start_at >= ? and v.state <> 'CANCELLED'
+                order by n.created_at
+                """, NOTE_MAPPER, technicianId, from);
+    }
+
+    /**
+     * Eventos registrados desde {@code since} en visitas del técnico
+     * ({@code ix_visit_events_created}) más todos los anteriores de las visitas
+     * que se le asignaron desde entonces.
+     */
+    public List<SyncEvent> eventsSince(UUID technicianId, OffsetDateTime since) {
+        return jdbc.query("""
+                select e.seq, e.id, e.visit_id, e.type, e.actor_id, e.geo_lat, e.geo_lng, e.payload, e.created_at
+                from app.visit_events e
+                join app.visits v on v.id = e.visit_id
+                where e.created_at >= ? and v.technician_id = ? and v.state <> 'CANCELLED'
+                union all
+                select e.seq, e.id, e.visit_id, e.type, e.actor_id, e.geo_lat, e.geo_lng, e.payload, e.created_at
+                from app.visit_events e
+                join app.visits v on v.id = e.visit_id
+                where e.created_at < ? and v.technician_id = ? and v.state <> 'CANCELLED'
+                  and v.id in (select visit_id from app.visit_reassignments
+                               where to_technician_id = ? and reassigned_at >= ?)
+                order by seq
+                """, EVENT_MAPPER, since, technicianId, since, technicianId, technicianId, since);
+    }
+
+    /** Eventos de las visitas devueltas por {@link #visitsStartingFrom}. */
+    public List<SyncEvent> eventsOfVisitsStartingFrom(UUID technicianId, OffsetDateTime from) {
+        return jdbc.query("""
+                select e.seq, e.id, e.visit_id, e.type, e.actor_id, e.geo_lat, e.geo_lng, e.payload, e.created_at
+                from app.visit_events e
+                join app.visits v on v.id = e.visit_id
+                where v.technician_id = ? and v.scheduled_start_at >= ? and v.state <> 'CANCELLED'
+                order by e.seq
+                """, EVENT_MAPPER, technicianId, from);
+    }
+}
@@ -0,0 +1,184 @@
+package com.visits.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Búsqueda de huecos libres en la agenda de varios técnicos.
+ *
+ * Los intervalos ocupados salen de {@link TechnicianScheduleIndex} ya
+ * ordenados, así que los huecos de cada técnico se obtienen en una pasada. Los
+ * técnicos se reparten en tareas fork-join; cada tarea devuelve sus mejores
+ * opciones ya ordenadas y recortadas, y se combinan por mezcla.
+ */
+@Service
+public class AvailabilityService {
+
+    /**
+     * Hueco libre de un técnico en el que cabe la duración pedida.
+     * {@code busyMinutes} es su carga total en el horizonte consultado.
+     */
+    public record Option(UUID technicianId, OffsetDateTime start, OffsetDateTime end, long busyMinutes) {}
+
+    // Menor inicio primero; a igualdad, el técnico menos cargado.
+    private static final Comparator<Slot> RANK = Comparator
+            .comparingLong(Slot::start)
+            .thenComparingLong(Slot::busy)
+            .thenComparing(Slot::technicianId);
+
+    private record Slot(UUID technicianId, long start, long end, long busy) {}
+
+    private final TechnicianScheduleIndex index;
+    private final int maxTechnicians;
+    private final Duration maxHorizon;
+    private final int threshold;
+
+    public AvailabilityService(TechnicianScheduleIndex index,
+            @Value("${visits.availability.max-technicians:1000}") int maxTechnicians,
+            @Value("${visits.availability.max-horizon:P31D}") Duration maxHorizon,
+            @Value("${visits.availability.fork-threshold:32}") int threshold) {
+        this.index = index;
+        this.maxTechnicians = maxTechnicians;
+        this.maxHorizon = maxHorizon;
+        this.threshold = Math.max(threshold, 1);
+    }
+
+    /**
+     * Huecos de al menos {@code duration} dentro de {@code [from, to)} para los
+     * técnicos indicados, del más temprano al más tardío y como máximo
+     * {@code limit}.
+     */
+    public List<Option> search(OffsetDateTime from, OffsetDateTime to, Duration duration,
+            Collection<UUID> technicianIds, int limit) {
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new IllegalArgumentException("'to' debe ser posterior a 'from'");
+        }
+        if (Duration.between(from, to).compareTo(maxHorizon) > 0) {
+            throw new IllegalArgumentException("El rango no puede superar " + maxHorizon);
+        }
+        if (duration == null || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("'duration' debe ser positiva");
+        }
+        if (technicianIds == null || technicianIds.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos un técnico");
+        }
+        if (technicianIds.size() > maxTechnicians) {
+            throw new IllegalArgumentException("Máximo " + maxTechnicians + " técnicos por consulta");
+        }
+
+        long fromMs = from.toInstant().toEpochMilli();
+        long toMs = to.toInstant().toEpochMilli();
+        UUID[] techs = new LinkedHashSet<>(technicianIds).toArray(UUID[]::new);
+        Map<UUID, long[]> busy = index.busy(List.of(techs), fromMs, toMs);
+
+        FreeSlots task = new FreeSlots(techs, 0, techs.length, busy, fromMs, toMs,
+                duration.toMillis(), Math.max(limit, 1));
+        List<Slot> best = techs.length <= threshold ? task.compute() : ForkJoinPool.commonPool().invoke(task);
+
+        List<Option> out = new ArrayList<>(best.size());
+        for (Slot s : best) {
+            out.add(new Option(s.technicianId(), time(s.start()), time(s.end()), s.busy() / 60_000));
+        }
+        return out;
+    }
+
+    /** Huecos de {@code techs[lo, hi)}, ordenados por {@link #RANK} y recortados a {@code limit}. */
+    private final class FreeSlots extends RecursiveTask<List<Slot>> {
+        private final UUID[] techs;
+        private final int lo;
+        private final int hi;
+        private final Map<UUID, long[]> busy;
+        private final long from;
+        private final long to;
+        private final long duration;
+        private final int limit;
+
+        FreeSlots(UUID[] techs, int lo, int hi, Map<UUID, long[]> busy,
+                long from, long to, long duration, int limit) {
+            this.techs = techs;
+            this.lo = lo;
+            this.hi = hi;
+            this.busy = busy;
+            this.from = from;
+            this.to = to;
+            this.duration = duration;
+            this.limit = limit;
+        }
+
+        @Override
+        protected List<Slot> compute() {
+            if (hi - lo <= threshold) {
+                List<Slot> out = new ArrayList<>();
+                for (int i = lo; i < hi; i++) {
+                    collect(techs[i], busy.get(techs[i]), out);
+                }
+                out.sort(RANK);
+                return out.size() > limit ? out.subList(0, limit) : out;
+            }
+            int mid = (lo + hi) >>> 1;
+            FreeSlots left = new FreeSlots(techs, lo, mid, busy, from, to, duration, limit);
+            left.fork();
+            List<Slot> right = new FreeSlots(techs, mid, hi, busy, from, to, duration, limit).compute();
+            return merge(left.join(), right);
+        }
+
+        // Recorre los intervalos ocupados (ordenados por inicio) fusionando los
+        // que se solapan; cada hueco entre ellos donde cabe la duración es una opción.
+        private void collect(UUID tech, long[] pairs, List<Slot> out) {
+            long load = 0;
+            long cursor = from;
+            int first = out.size();
+            for (int i = 0; i < pairs.length; i += 2) {
+                long s = Math.max(pairs[i], from);
+                long e = Math.min(pairs[i + 1], to);
+                if (e <= cursor) continue;
+                if (s > cursor) {
+                    if (s - cursor >= duration) out.add(new Slot(tech, cursor, s, 0));
+                    load += e - s;
+                } else {
+                    load += e - cursor;
+                }
+                cursor = e;
+            }
+            if (to - cursor >= duration) out.add(new Slot(tech, cursor, to, 0));
+            // La carga se conoce al terminar el recorrido.
+            for (int i = first; i < out.size(); i++) {
+                Slot s = out.get(i);
+                out.set(i, new Slot(tech, s.start(), s.end(), load));
+            }
+        }
+
+        private List<Slot> merge(List<Slot> a, List<Slot> b) {
+            int n = Math.min(a.size() + b.size(), limit);
+            List<Slot> out = new ArrayList<>(n);
+            int i = 0;
+            int j = 0;
+            while (out.size() < n) {
+                if (j >= b.size() || (i < a.size() && RANK.compare(a.get(i), b.get(j)) <= 0)) {
+                    out.add(a.get(i++));
+                } else {
+                    out.add(b.get(j++));
+                }
+            }
+            return out;
+        }
+    }
+
+    private static OffsetDateTime time(long millis) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+}
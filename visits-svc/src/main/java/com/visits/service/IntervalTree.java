@@ -0,0 +1,142 @@
+package com.visits.service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Árbol de intervalos semiabiertos {@code [start, end)} en milisegundos.
+ *
+ * Treap ordenado por (start, id) en el que cada nodo guarda el mayor
+ * {@code end} de su subárbol; la búsqueda de solapes descarta ramas enteras
+ * con ese máximo, así que cuesta O(log n + k). No es thread-safe: lo protege
+ * {@link TechnicianScheduleIndex}.
+ */
+final class IntervalTree {
+
+    private static final class Node {
+        final long start;
+        final long end;
+        final UUID id;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        long maxEnd;
+        Node left;
+        Node right;
+
+        Node(long start, long end, UUID id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.maxEnd = end;
+        }
+    }
+
+    /** Intervalo que solapa con el consultado. */
+    record Hit(UUID id, long start, long end) {}
+
+    private Node root;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    void insert(UUID id, long start, long end) {
+        root = insert(root, new Node(start, end, id));
+        size++;
+    }
+
+    /** Elimina el intervalo {@code id} que empieza en {@code start}; false si no estaba. */
+    boolean remove(UUID id, long start) {
+        int before = size;
+        root = remove(root, id, start);
+        return size < before;
+    }
+
+    /** Añade a {@code out}, ordenados por inicio, los intervalos que solapan {@code [start, end)}, salvo {@code exclude}. */
+    void overlapping(long start, long end, UUID exclude, List<Hit> out) {
+        collect(root, start, end, exclude, out);
+    }
+
+    private static void collect(Node n, long start, long end, UUID exclude, List<Hit> out) {
+        if (n == null || n.maxEnd <= start) return;
+        collect(n.left, start, end, exclude, out);
+        if (n.start < end) {
+            if (n.end > start && !n.id.equals(exclude)) {
+                out.add(new Hit(n.id, n.start, n.end));
+            }
+            collect(n.right, start, end, exclude, out);
+        }
+    }
+
+    private static int compare(long start, UUID id, Node n) {
+        int c = Long.compare(start, n.start);
+        return c != 0 ? c : id.compareTo(n.id);
+    }
+
+    private static Node insert(Node n, Node x) {
+        if (n == null) return x;
+        if (compare(x.start, x.id, n) < 0) {
+            n.left = insert(n.left, x);
+            if (n.left.priority > n.priority) n = rotateRight(n);
+        } else {
+            n.right = insert(n.right, x);
+            if (n.right.priority > n.priority) n = rotateLeft(n);
+        }
+        update(n);
+        return n;
+    }
+
+    private Node remove(Node n, UUID id, long start) {
+        if (n == null) return null;
+        int c = compare(start, id, n);
+        if (c < 0) {
+            n.left = remove(n.left, id, start);
+        } else if (c > 0) {
+            n.right = remove(n.right, id, start);
+        } else {
+            size--;
+            return merge(n.left, n.right);
+        }
+        update(n);
+        return n;
+    }
+
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    private static Node rotateRight(Node n) {
+        Node l = n.left;
+        n.left = l.right;
+        l.right = n;
+        update(n);
+        update(l);
+        return l;
+    }
+
+    private static Node rotateLeft(Node n) {
+        Node r = n.right;
+        n.right = r.left;
+        r.left = n;
+        update(n);
+        update(r);
+        return r;
+    }
+
+    private static void update(Node n) {
+        long m = n.end;
+        if (n.left != null && n.left.maxEnd > m) m = n.left.maxEnd;
+        if (n.right != null && n.right.maxEnd > m) m = n.right.maxEnd;
+        n.maxEnd = m;
+    }
+}
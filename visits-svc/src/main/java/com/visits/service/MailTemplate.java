@@ -0,0 +1,102 @@
+package com.visits.service;
+
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plantilla HTML compilada una sola vez al arrancar.
+ *
+ * El texto se parte en literales y marcadores: {@code {{clave}}} se sustituye
+ * escapando HTML y {@code {{&clave}}} se inserta tal cual (para fragmentos ya
+ * renderizados). Renderizar es concatenar en un StringBuilder, sin volver a
+ * analizar el formato como hace {@code String.formatted} en cada mensaje.
+ */
+final class MailTemplate {
+
+    private final String[] literals;
+    private final String[] keys;
+    private final boolean[] raw;
+    private final int sizeHint;
+
+    private MailTemplate(String[] literals, String[] keys, boolean[] raw, int sizeHint) {
+        this.literals = literals;
+        this.keys = keys;
+        this.raw = raw;
+        this.sizeHint = sizeHint;
+    }
+
+    /** Carga y compila una plantilla del classpath (p. ej. {@code mail/visit-completed.html}). */
+    static MailTemplate load(String path) {
+        try (InputStream in = new ClassPathResource(path).getInputStream()) {
+            return compile(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo cargar la plantilla " + path, ex);
+        }
+    }
+
+    static MailTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        List<Boolean> raw = new ArrayList<>();
+        int pos = 0;
+        while (true) {
+            int open = source.indexOf("{{", pos);
+            if (open < 0) break;
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Marcador sin cerrar en la posición " + open);
+            }
+            literals.add(source.substring(pos, open));
+            String key = source.substring(open + 2, close).trim();
+            boolean isRaw = key.startsWith("&");
+            keys.add(isRaw ? key.substring(1).trim() : key);
+            raw.add(isRaw);
+            pos = close + 2;
+        }
+        literals.add(source.substring(pos));
+
+        boolean[] rawFlags = new boolean[raw.size()];
+        for (int i = 0; i < rawFlags.length; i++) rawFlags[i] = raw.get(i);
+        return new MailTemplate(literals.toArray(String[]::new), keys.toArray(String[]::new),
+                rawFlags, source.length() + 256);
+    }
+
+    String render(Map<String, String> values) {
+        StringBuilder out = new StringBuilder(sizeHint);
+        render(out, values);
+        return out.toString();
+    }
+
+    /** Añade la plantilla renderizada a {@code out}; una clave ausente se deja vacía. */
+    void render(StringBuilder out, Map<String, String> values) {
+        for (int i = 0; i < keys.length; i++) {
+            out.append(literals[i]);
+            String v = values.get(keys[i]);
+            if (v == null) continue;
+            if (raw[i]) out.append(v);
+            else escape(out, v);
+        }
+        out.append(literals[keys.length]);
+    }
+
+    private static void escape(StringBuilder out, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
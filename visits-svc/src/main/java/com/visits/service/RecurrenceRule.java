@@ -0,0 +1,158 @@
+package com.visits.service;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Subconjunto de RRULE (RFC 5545) suficiente para contratos de mantenimiento:
+ * {@code FREQ=DAILY|WEEKLY|MONTHLY}, {@code INTERVAL}, {@code BYDAY} (solo
+ * semanal, sin ordinales), {@code COUNT} y {@code UNTIL}. Por ejemplo
+ * {@code FREQ=WEEKLY;INTERVAL=6;BYDAY=TU}.
+ *
+ * Las ocurrencias se calculan en la zona horaria de la regla, así que la hora
+ * local se mantiene a través de los cambios de horario. En MONTHLY un día que
+ * no existe en el mes (31) se ajusta al último día.
+ */
+final class RecurrenceRule {
+
+    enum Freq { DAILY, WEEKLY, MONTHLY }
+
+    private static final DateTimeFormatter UNTIL_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssX");
+
+    final Freq freq;
+    final int interval;
+    final List<DayOfWeek> byDay;
+    final Integer count;
+    final Instant until;
+
+    private RecurrenceRule(Freq freq, int interval, List<DayOfWeek> byDay, Integer count, Instant until) {
+        this.freq = freq;
+        this.interval = interval;
+        this.byDay = byDay;
+        this.count = count;
+        this.until = until;
+    }
+
+    static RecurrenceRule parse(String rule) {
+        if (rule == null || rule.isBlank()) {
+            throw new IllegalArgumentException("Regla de recurrencia vacía");
+        }
+        Freq freq = null;
+        int interval = 1;
+        EnumSet<DayOfWeek> byDay = EnumSet.noneOf(DayOfWeek.class);
+        Integer count = null;
+        Instant until = null;
+        String body = rule.trim();
+        if (body.toUpperCase(Locale.ROOT).startsWith("RRULE:")) {
+            body = body.substring(6);
+        }
+        for (String part : body.split(";")) {
+            int eq = part.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Parte inválida en la regla: " + part);
+            }
+            String key = part.substring(0, eq).trim().toUpperCase(Locale.ROOT);
+            String value = part.substring(eq + 1).trim().toUpperCase(Locale.ROOT);
+            try {
+                switch (key) {
+                    case "FREQ" -> freq = Freq.valueOf(value);
+                    case "INTERVAL" -> interval = Integer.parseInt(value);
+                    case "COUNT" -> count = Integer.parseInt(value);
+                    case "UNTIL" -> until = value.length() == 8
+                            ? LocalDate.parse(value, DateTimeFormatter.BASIC_ISO_DATE).plusDays(1)
+                                    .atStartOfDay().toInstant(ZoneOffset.UTC).minusMillis(1)
+                            : Instant.from(UNTIL_FORMAT.parse(value));
+                    case "BYDAY" -> {
+                        for (String d : value.split(",")) {
+                            byDay.add(day(d.trim()));
+                        }
+                    }
+                    default -> throw new IllegalArgumentException("Parte no soportada en la regla: " + key);
+                }
+            } catch (NumberFormatException | DateTimeParseException ex) {
+                throw new IllegalArgumentException("Valor inválido para " + key + ": " + value);
+            }
+        }
+        if (freq == null) {
+            throw new IllegalArgumentException("La regla debe indicar FREQ");
+        }
+        if (interval < 1) {
+            throw new IllegalArgumentException("INTERVAL debe ser mayor que 0");
+        }
+        if (count != null && count < 1) {
+            throw new IllegalArgumentException("COUNT debe ser mayor que 0");
+        }
+        if (count != null && until != null) {
+            throw new IllegalArgumentException("COUNT y UNTIL no pueden usarse juntos");
+        }
+        if (!byDay.isEmpty() && freq != Freq.WEEKLY) {
+            throw new IllegalArgumentException("BYDAY solo se admite con FREQ=WEEKLY");
+        }
+        return new RecurrenceRule(freq, interval, new ArrayList<>(byDay), count, until);
+    }
+
+    private static DayOfWeek day(String code) {
+        return switch (code) {
+            case "MO" -> DayOfWeek.MONDAY;
+            case "TU" -> DayOfWeek.TUESDAY;
+            case "WE" -> DayOfWeek.WEDNESDAY;
+            case "TH" -> DayOfWeek.THURSDAY;
+            case "FR" -> DayOfWeek.FRIDAY;
+            case "SA" -> DayOfWeek.SATURDAY;
+            case "SU" -> DayOfWeek.SUNDAY;
+            default -> throw new IllegalArgumentException("Día inválido en BYDAY: " + code);
+        };
+    }
+
+    /**
+     * Entrega a {@code out}, en orden, las ocurrencias con inicio en
+     * {@code [from, to)}. Las anteriores a {@code from} se recorren sin
+     * emitirse porque cuentan para COUNT.
+     *
+     * @return true si la regla ya no tiene ocurrencias a partir de {@code to}.
+     */
+    boolean expand(ZonedDateTime dtstart, Instant from, Instant to, Consumer<ZonedDateTime> out) {
+        List<DayOfWeek> days = byDay.isEmpty() ? List.of(dtstart.getDayOfWeek()) : byDay;
+        LocalDate weekStart = dtstart.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        int emitted = 0;
+        for (long k = 0; ; k++) {
+            List<ZonedDateTime> period = new ArrayList<>(days.size());
+            switch (freq) {
+                case DAILY -> period.add(dtstart.plusDays(k * interval));
+                case MONTHLY -> period.add(dtstart.plusMonths(k * interval));
+                case WEEKLY -> {
+                    LocalDate week = weekStart.plusWeeks(k * interval);
+                    for (DayOfWeek d : days) {
+                        ZonedDateTime t = ZonedDateTime.of(week.plusDays(d.getValue() - 1L),
+                                dtstart.toLocalTime(), dtstart.getZone());
+                        if (!t.isBefore(dtstart)) period.add(t);
+                    }
+                }
+            }
+            for (ZonedDateTime t : period) {
+                Instant at = t.toInstant();
+                if ((count != null && emitted >= count) || (until != null && at.isAfter(until))) {
+                    return true;
+                }
+                if (!at.isBefore(to)) {
+                    return false;
+                }
+                emitted++;
+                if (!at.isBefore(from)) {
+                    out.accept(t);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.visits.service;
+
+import java.util.List;
+
+/**
+ * La ventana pedida solapa con otras visitas activas del mismo técnico.
+ */
+public class ScheduleConflictException extends RuntimeException {
+
+    private final List<TechnicianScheduleIndex.Conflict> conflicts;
+
+    public ScheduleConflictException(List<TechnicianScheduleIndex.Conflict> conflicts) {
+        super("El técnico ya tiene " + conflicts.size() + " visita(s) en ese horario");
+        this.conflicts = List.copyOf(conflicts);
+    }
+
+    public List<TechnicianScheduleIndex.Conflict> getConflicts() {
+        return conflicts;
+    }
+}
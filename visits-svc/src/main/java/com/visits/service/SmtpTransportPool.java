@@ -0,0 +1,196 @@
+package com.visits.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Conexiones SMTP reutilizables para los envíos de visitas.
+ *
+ * {@code JavaMailSender.send(mime)} abre y cierra una conexión (con su
+ * handshake TLS y AUTH) por cada correo. Aquí se mantienen hasta
+ * {@code pool-size} conexiones abiertas y cada lote se envía por una sola de
+ * ellas con {@code Transport.sendMessage}. Una conexión se recicla tras
+ * {@code max-messages-per-connection} mensajes (muchos relays cortan la sesión
+ * pasado un límite) o si lleva más de {@code max-idle} sin usarse.
+ *
+ * Métricas (actuator /metrics):
+ *   visits.mail.sent / visits.mail.failed     → mensajes enviados y fallidos.
+ *   visits.mail.batch                         → duración de cada lote.
+ *   visits.mail.connections.opened            → conexiones SMTP abiertas.
+ *   visits.mail.connections.idle              → conexiones disponibles en el pool.
+ */
+@Component
+public class SmtpTransportPool {
+
+    private static final Logger log = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    /** Conexión del pool con su contador de mensajes y último uso. */
+    private static final class Pooled {
+        final Transport transport;
+        int messages;
+        long lastUsedNanos = System.nanoTime();
+
+        Pooled(Transport transport) {
+            this.transport = transport;
+        }
+    }
+
+    private final JavaMailSenderImpl sender;
+    private final int poolSize;
+    private final int maxMessagesPerConnection;
+    private final long maxIdleNanos;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<Pooled> idle = new ConcurrentLinkedDeque<>();
+
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter opened;
+    private final Timer batchTimer;
+
+    public SmtpTransportPool(JavaMailSenderImpl sender, MeterRegistry meters,
+            @Value("${visits.mail.smtp.pool-size:4}") int poolSize,
+            @Value("${visits.mail.smtp.max-messages-per-connection:100}") int maxMessagesPerConnection,
+            @Value("${visits.mail.smtp.max-idle:PT60S}") Duration maxIdle) {
+        this.sender = sender;
+        this.poolSize = Math.max(poolSize, 1);
+        this.maxMessagesPerConnection = Math.max(maxMessagesPerConnection, 1);
+        this.maxIdleNanos = maxIdle.toNanos();
+        this.permits = new Semaphore(this.poolSize, true);
+        this.sent = meters.counter("visits.mail.sent");
+        this.failed = meters.counter("visits.mail.failed");
+        this.opened = meters.counter("visits.mail.connections.opened");
+        this.batchTimer = meters.timer("visits.mail.batch");
+        Gauge.builder("visits.mail.connections.idle", idle, ConcurrentLinkedDeque::size).register(meters);
+    }
+
+    /** Número máximo de conexiones simultáneas (y por tanto de lotes en paralelo). */
+    public int size() {
+        return poolSize;
+    }
+
+    /**
+     * Envía los mensajes por una única conexión del pool, reconectando si el
+     * servidor la corta a mitad del lote. Si no se puede conectar, el resto del
+     * lote falla con ese mismo error sin volver a intentarlo: cada intento
+     * esperaría otra vez el timeout de conexión, y las filas se reintentan en
+     * la siguiente vuelta.
+     *
+     * @return Para cada mensaje, {@code null} si se entregó o la excepción del fallo.
+     */
+    public List<Exception> sendBatch(List<MimeMessage> messages) throws InterruptedException {
+        List<Exception> results = new ArrayList<>(messages.size());
+        permits.acquire();
+        Timer.Sample sample = Timer.start();
+        Pooled conn = null;
+        MessagingException connectError = null;
+        try {
+            for (MimeMessage mime : messages) {
+                if (connectError != null) {
+                    failed.increment();
+                    results.add(connectError);
+                    continue;
+                }
+                try {
+                    if (conn == null || conn.messages >= maxMessagesPerConnection) {
+                        close(conn);
+                        conn = null;
+                        conn = borrow();
+                    }
+                    if (mime.getSentDate() == null) {
+                        mime.setSentDate(new Date());
+                    }
+                    mime.saveChanges();
+                    conn.transport.sendMessage(mime, mime.getAllRecipients());
+                    conn.messages++;
+                    sent.increment();
+                    results.add(null);
+                } catch (MessagingException ex) {
+                    failed.increment();
+                    results.add(ex);
+                    if (conn == null) {
+                        // No se pudo conectar: el resto del lote falla sin esperar otro timeout.
+                        log.warn("Could not connect to SMTP server; failing the remaining {} messages of the batch: {}",
+                                messages.size() - results.size(), ex.getMessage());
+                        connectError = ex;
+                    } else if (!conn.transport.isConnected()) {
+                        // Un rechazo del destinatario deja la sesión usable; una caída no.
+                        close(conn);
+                        conn = null;
+                    }
+                }
+            }
+        } finally {
+            release(conn);
+            sample.stop(batchTimer);
+            permits.release();
+        }
+        return results;
+    }
+
+    /** Toma una conexión sana del pool o abre una nueva. */
+    private Pooled borrow() throws MessagingException {
+        Pooled p;
+        while ((p = idle.pollFirst()) != null) {
+            boolean stale = System.nanoTime() - p.lastUsedNanos > maxIdleNanos;
+            if (!stale && p.transport.isConnected()) {
+                return p;
+            }
+            close(p);
+        }
+        Transport t = sender.getSession().getTransport(sender.getProtocol() != null ? sender.getProtocol() : "smtp");
+        // Como JavaMailSenderImpl: credenciales vacías = sin autenticación
+        t.connect(sender.getHost(), sender.getPort(), emptyToNull(sender.getUsername()),
+                emptyToNull(sender.getPassword()));
+        opened.increment();
+        return new Pooled(t);
+    }
+
+    private static String emptyToNull(String s) {
+        return s == null || s.isEmpty() ? null : s;
+    }
+
+    private void release(Pooled p) {
+        if (p == null) return;
+        if (p.messages >= maxMessagesPerConnection || !p.transport.isConnected()) {
+            close(p);
+            return;
+        }
+        p.lastUsedNanos = System.nanoTime();
+        idle.offerFirst(p);
+    }
+
+    private void close(Pooled p) {
+        if (p == null) return;
+        try {
+            p.transport.close();
+        } catch (MessagingException ex) {
+            log.debug("Error closing SMTP connection: {}", ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Pooled p;
+        while ((p = idle.pollFirst()) != null) {
+            close(p);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.visits.service;
+
+import com.visits.repo.VisitScheduleRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Garantiza que la restricción {@code ex_visits_technician_overlap} acabe
+ * existiendo sin bloquear el arranque.
+ *
+ * V5 no la crea si faltan btree_gist o hay solapes previos. Esta comprobación
+ * lo reintenta al arrancar y cada {@code check-interval}: en cuanto los datos
+ * están limpios (ver {@code db/manual/cleanup_technician_overlaps.sql}) crea la
+ * restricción. Mientras falte, lo registra como error y publica
+ * {@code visits.schedule.overlap_constraint.missing} = 1 y el número de
+ * solapes en {@code visits.schedule.overlaps}, para poder alertar.
+ */
+@Component
+public class TechnicianOverlapConstraint {
+
+    private static final Logger log = LoggerFactory.getLogger(TechnicianOverlapConstraint.class);
+
+    private final VisitScheduleRepository repo;
+    private final AtomicLong missing = new AtomicLong();
+    private final AtomicLong overlaps = new AtomicLong();
+
+    public TechnicianOverlapConstraint(VisitScheduleRepository repo, MeterRegistry meters) {
+        this.repo = repo;
+        Gauge.builder("visits.schedule.overlap_constraint.missing", missing, AtomicLong::get).register(meters);
+        Gauge.builder("visits.schedule.overlaps", overlaps, AtomicLong::get).register(meters);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${visits.schedule.overlap-check-interval:PT1H}",
+               initialDelayString = "${visits.schedule.overlap-check-interval:PT1H}")
+    public void check() {
+        try {
+            if (repo.overlapConstraintExists()) {
+                missing.set(0);
+                overlaps.set(0);
+                return;
+            }
+            missing.set(1);
+            if (!repo.btreeGistInstalled()) {
+                log.error("ex_visits_technician_overlap missing: btree_gist is not installed; "
+                        + "a superuser must run CREATE EXTENSION btree_gist");
+                return;
+            }
+            long n = repo.countOverlaps();
+            overlaps.set(n);
+            if (n > 0) {
+                log.error("ex_visits_technician_overlap missing: {} overlapping visit pairs; "
+                        + "run db/manual/cleanup_technician_overlaps.sql", n);
+                return;
+            }
+            repo.addOverlapConstraint();
+            missing.set(0);
+            log.info("ex_visits_technician_overlap created");
+        } catch (RuntimeException ex) {
+            log.error("Technician overlap constraint check failed: {}", ex.getMessage());
+        }
+    }
+}
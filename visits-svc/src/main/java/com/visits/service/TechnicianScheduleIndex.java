@@ -0,0 +1,230 @@
+package com.visits.service;
+
+import com.visits.model.Visit;
+import com.visits.model.VisitState;
+import com.visits.repo.VisitScheduleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Agenda ocupada de cada técnico en memoria: un {@link IntervalTree} por
+ * técnico con sus visitas PLANNED y STARTED.
+ *
+ * Detecta solapes al crear o mover una visita sin consultar rangos en la BD ni
+ * tomar bloqueos allí. Se actualiza tras el commit de cada escritura de esta
+ * instancia y se reconstruye al arrancar y cada {@code resync-interval} para
+ * recoger cambios de otras instancias. La restricción de exclusión
+ * {@code ex_visits_technician_overlap} es la red de seguridad ante carreras.
+ */
+@Service
+public class TechnicianScheduleIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TechnicianScheduleIndex.class);
+
+    /** Visita que solapa con la ventana pedida. */
+    public record Conflict(UUID visitId, OffsetDateTime scheduledStartAt, OffsetDateTime scheduledEndAt) {}
+
+    /** Posición de una visita en el índice, para poder moverla o quitarla. */
+    private record Slot(UUID technicianId, long start, long end) {}
+
+    private final VisitScheduleRepository repo;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Protegidos por lock.
+    private Map<UUID, IntervalTree> trees = new HashMap<>();
+    private Map<UUID, Slot> slots = new HashMap<>();
+    private List<Runnable> replayAfterRebuild;
+
+    public TechnicianScheduleIndex(VisitScheduleRepository repo) {
+        this.repo = repo;
+    }
+
+    /**
+     * Visitas del técnico que solapan {@code [start, end)}, excluyendo
+     * {@code excludeVisitId} (la propia visita al editarla).
+     */
+    public List<Conflict> conflicts(UUID technicianId, OffsetDateTime start, OffsetDateTime end, UUID excludeVisitId) {
+        List<IntervalTree.Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            IntervalTree tree = trees.get(technicianId);
+            if (tree != null) {
+                tree.overlapping(millis(start), millis(end), excludeVisitId, hits);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Conflict> out = new ArrayList<>(hits.size());
+        for (IntervalTree.Hit h : hits) {
+            out.add(new Conflict(h.id(), time(h.start()), time(h.end())));
+        }
+        return out;
+    }
+
+    /**
+     * Intervalos ocupados de cada técnico que tocan {@code [fromMs, toMs)}, como
+     * pares {@code start, end} ordenados por inicio. Solo copia bajo el lock de
+     * lectura; el cálculo sobre ellos se hace fuera.
+     */
+    public Map<UUID, long[]> busy(Collection<UUID> technicianIds, long fromMs, long toMs) {
+        Map<UUID, long[]> out = new HashMap<>(technicianIds.size() * 2);
+        List<IntervalTree.Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (UUID technicianId : technicianIds) {
+                IntervalTree tree = trees.get(technicianId);
+                hits.clear();
+                if (tree != null) {
+                    tree.overlapping(fromMs, toMs, null, hits);
+                }
+                long[] pairs = new long[hits.size() * 2];
+                for (int i = 0; i < hits.size(); i++) {
+                    pairs[2 * i] = hits.get(i).start();
+                    pairs[2 * i + 1] = hits.get(i).end();
+                }
+                out.put(technicianId, pairs);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return out;
+    }
+
+    /**
+     * Refleja el estado de la visita en el índice cuando confirme la
+     * transacción en curso (o de inmediato si no hay transacción). Si la
+     * transacción se revierte, el índice no cambia.
+     */
+    public void syncAfterCommit(Visit v) {
+        syncAfterCommit(List.of(v));
+    }
+
+    /** Como {@link #syncAfterCommit(Visit)} para un lote, con una sola toma del lock. */
+    public void syncAfterCommit(Collection<Visit> visits) {
+        List<UUID> ids = new ArrayList<>(visits.size());
+        List<Slot> newSlots = new ArrayList<>(visits.size());
+        for (Visit v : visits) {
+            boolean busy = v.getState() == VisitState.PLANNED || v.getState() == VisitState.STARTED;
+            ids.add(v.getId());
+            newSlots.add(busy ? new Slot(v.getTechnicianId(), millis(v.getScheduledStartAt()), millis(v.getScheduledEndAt())) : null);
+        }
+        Runnable change = () -> {
+            for (int i = 0; i < ids.size(); i++) {
+                put(ids.get(i), newSlots.get(i));
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (replayAfterRebuild != null) {
+                replayAfterRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Con el lock de escritura tomado. slot == null quita la visita.
+    private void put(UUID visitId, Slot slot) {
+        Slot old = slots.remove(visitId);
+        if (old != null) {
+            IntervalTree tree = trees.get(old.technicianId());
+            if (tree != null) {
+                tree.remove(visitId, old.start());
+                if (tree.size() == 0) trees.remove(old.technicianId());
+            }
+        }
+        if (slot != null) {
+            trees.computeIfAbsent(slot.technicianId(), k -> new IntervalTree()).insert(visitId, slot.start(), slot.end());
+            slots.put(visitId, slot);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${visits.schedule.resync-interval:PT5M}",
+            fixedDelayString = "${visits.schedule.resync-interval:PT5M}")
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            replayAfterRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<UUID, IntervalTree> newTrees = new HashMap<>();
+        Map<UUID, Slot> newSlots = new HashMap<>();
+        try {
+            repo.forEachBusy(b -> {
+                Slot s = new Slot(b.technicianId(), millis(b.start()), millis(b.end()));
+                newTrees.computeIfAbsent(s.technicianId(), k -> new IntervalTree()).insert(b.visitId(), s.start(), s.end());
+                newSlots.put(b.visitId(), s);
+            });
+        } catch (RuntimeException ex) {
+            log.error("Could not rebuild technician schedule index: {}", ex.getMessage(), ex);
+            lock.writeLock().lock();
+            try {
+                replayAfterRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Map<UUID, IntervalTree> oldTrees = trees;
+            Map<UUID, Slot> oldSlots = slots;
+            trees = newTrees;
+            slots = newSlots;
+            // Las escrituras confirmadas durante la carga se reaplican: son
+            // idempotentes, así que no importa si la carga ya las incluía.
+            for (Runnable change : replayAfterRebuild) {
+                change.run();
+            }
+            replayAfterRebuild = null;
+            log.info("Technician schedule index rebuilt: {} visits for {} technicians (was {})",
+                    slots.size(), trees.size(), oldSlots.size());
+            oldTrees.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static long millis(OffsetDateTime t) {
+        return t.toInstant().toEpochMilli();
+    }
+
+    private static OffsetDateTime time(long millis) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,183 @@
+package com.visits.service;
+
+import com.visits.model.Visit;
+import com.visits.model.VisitEmail;
+import com.visits.repo.VisitEmailOutboxRepository;
+import com.visits.repo.VisitRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Envía los correos encolados en el outbox {@code app.visit_emails}.
+ *
+ * Cada ciclo reclama un lote de correos vencidos (SKIP LOCKED + lease), lo
+ * reparte en sub-lotes, uno por conexión del {@link SmtpTransportPool}, y
+ * marca el resultado: SENT, ERROR con reintento exponencial o FAILED al agotar
+ * los intentos. Los correos de digest del lote se agrupan por destinatario en
+ * un único resumen. Repite mientras los lotes lleguen llenos.
+ */
+@Component
+public class VisitEmailDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(VisitEmailDispatcher.class);
+
+    private final VisitEmailOutboxRepository outbox;
+    private final VisitRepository visitRepository;
+    private final VisitEmailServiceImpl emails;
+    private final SmtpTransportPool smtp;
+    private final ExecutorService senders;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration backoff;
+    private final Duration maxBackoff;
+
+    /** Mensaje a enviar y filas del outbox que cubre (varias si es un digest). */
+    private record Outgoing(List<VisitEmail> rows, MimeMessage mime) {}
+
+    public VisitEmailDispatcher(VisitEmailOutboxRepository outbox,
+            VisitRepository visitRepository,
+            VisitEmailServiceImpl emails,
+            SmtpTransportPool smtp,
+            @Value("${visits.mail.outbox.batch-size:100}") int batchSize,
+            @Value("${visits.mail.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${visits.mail.outbox.lease:PT2M}") Duration lease,
+            @Value("${visits.mail.outbox.backoff:PT30S}") Duration backoff,
+            @Value("${visits.mail.outbox.max-backoff:PT1H}") Duration maxBackoff) {
+        this.outbox = outbox;
+        this.visitRepository = visitRepository;
+        this.emails = emails;
+        this.smtp = smtp;
+        this.senders = Executors.newFixedThreadPool(smtp.size(), r -> {
+            Thread t = new Thread(r, "visit-mail-sender");
+            t.setDaemon(true);
+            return t;
+        });
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.lease = lease;
+        this.backoff = backoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    @Scheduled(fixedDelayString = "${visits.mail.outbox.poll-interval:PT2S}")
+    public void dispatch() {
+        try {
+            List<VisitEmail> batch;
+            do {
+                batch = outbox.claim(batchSize, lease);
+                if (!batch.isEmpty()) {
+                    send(batch);
+                }
+            } while (batch.size() >= batchSize);
+        } catch (RuntimeException ex) {
+            log.error("Visit email dispatch failed: {}", ex.getMessage(), ex);
+        }
+    }
+
+    private void send(List<VisitEmail> batch) {
+        Map<UUID, Visit> visits = visitRepository
+                .findAllById(batch.stream().map(VisitEmail::getVisitId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Visit::getId, Function.identity()));
+
+        // Un mensaje por correo inmediato y uno por destinatario para los de digest.
+        List<Outgoing> outgoing = new ArrayList<>(batch.size());
+        Map<String, List<VisitEmail>> digests = new LinkedHashMap<>();
+        for (VisitEmail email : batch) {
+            Visit visit = visits.get(email.getVisitId());
+            if (visit == null) {
+                // La visita se borró después de encolar: no hay nada que notificar.
+                outbox.markFailed(email.getId(), "Visit not found", null);
+            } else if (email.isDigest()) {
+                digests.computeIfAbsent(email.getToEmail(), k -> new ArrayList<>()).add(email);
+            } else {
+                try {
+                    outgoing.add(new Outgoing(List.of(email), emails.buildMessage(email, visit)));
+                } catch (Exception ex) {
+                    onFailure(List.of(email), ex);
+                }
+            }
+        }
+        digests.forEach((to, group) -> {
+            try {
+                List<Visit> groupVisits = group.stream().map(e -> visits.get(e.getVisitId())).toList();
+                outgoing.add(new Outgoing(group, emails.buildDigestMessage(to, groupVisits)));
+            } catch (Exception ex) {
+                onFailure(group, ex);
+            }
+        });
+
+        // Un sub-lote por conexión: cada uno viaja por una sola sesión SMTP.
+        int chunk = Math.max(1, (outgoing.size() + smtp.size() - 1) / smtp.size());
+        List<Future<List<Exception>>> results = new ArrayList<>();
+        for (int from = 0; from < outgoing.size(); from += chunk) {
+            List<MimeMessage> part = outgoing.subList(from, Math.min(from + chunk, outgoing.size()))
+                    .stream().map(Outgoing::mime).toList();
+            results.add(senders.submit(() -> smtp.sendBatch(part)));
+        }
+
+        List<UUID> sent = new ArrayList<>(batch.size());
+        int i = 0;
+        for (Future<List<Exception>> f : results) {
+            int size = Math.min(chunk, outgoing.size() - i);
+            try {
+                for (Exception error : f.get()) {
+                    Outgoing o = outgoing.get(i++);
+                    if (error == null) o.rows().forEach(e -> sent.add(e.getId()));
+                    else onFailure(o.rows(), error);
+                }
+            } catch (InterruptedException ex) {
+                // Las filas quedan SENDING y se reintentan al vencer el lease.
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception ex) {
+                for (int k = 0; k < size; k++) onFailure(outgoing.get(i++).rows(), ex);
+            }
+        }
+        outbox.markSent(sent);
+        log.info("Visit emails dispatched: {} messages for {} rows, {} rows sent",
+                outgoing.size(), batch.size(), sent.size());
+    }
+
+    private void onFailure(List<VisitEmail> rows, Exception ex) {
+        for (VisitEmail email : rows) {
+            onFailure(email, ex);
+        }
+    }
+
+    private void onFailure(VisitEmail email, Exception ex) {
+        boolean exhausted = email.getAttempts() >= maxAttempts;
+        log.warn("Visit email {} failed (attempt {}/{}): {}",
+                email.getId(), email.getAttempts(), maxAttempts, ex.getMessage());
+        outbox.markFailed(email.getId(), ex.getMessage(), exhausted ? null : retryDelay(email.getAttempts()));
+    }
+
+    /** backoff · 2^(intentos-1), acotado por maxBackoff. */
+    private Duration retryDelay(int attempts) {
+        Duration d = backoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return d.compareTo(maxBackoff) > 0 ? maxBackoff : d;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdown();
+    }
+}
@@ -8,27 +8,29 @@
  *
  * Contexto de uso:
  *   - Implementa la interfaz {@link com.visits.service.VisitEmailService}.
- *   - Envía un correo automático cuando una visita es marcada como completada.
- *   - Registra el resultado del envío en la entidad {@link com.visits.model.VisitEmail},
- *     almacenando tanto los casos exitosos como los fallidos.
+ *   - Encola un correo automático cuando una visita es marcada como completada.
+ *   - El registro {@link com.visits.model.VisitEmail} actúa como outbox: se escribe
+ *     en la misma transacción del check-out y lo envía {@link VisitEmailDispatcher}.
  *
  * Diseño:
- *   - Anotada con @Service y @Transactional para que Spring maneje su ciclo de vida
- *     y la transaccionalidad de sus operaciones.
- *   - Usa JavaMailSender para enviar correos MIME con formato HTML.
- *   - Registra logs detallados sobre el flujo de envío, errores y persistencia.
+ *   - Anotada con @Service; onVisitCompleted se une a la transacción del llamador,
+ *     de modo que visita completada y correo pendiente se confirman juntos.
+ *   - No habla con el servidor SMTP: el check-out no depende de su latencia.
+ *   - buildMessage() arma el MimeMessage HTML que envía el dispatcher.
+ *   - Con visits.mail.digest.enabled los correos esperan al cierre de su ventana
+ *     y se envía un solo resumen por destinatario (buildDigestMessage()).
+ *   - Los cuerpos salen de plantillas en resources/mail compiladas al arrancar.
  *
  * Flujo general:
- *   1. Crea un registro VisitEmail en estado "PENDING".
- *   2. Construye el mensaje de correo con HTML (asunto y cuerpo).
- *   3. Intenta enviar el correo mediante JavaMailSender.
- *   4. Actualiza el estado a "SENT" si fue exitoso, o a "ERROR" si ocurrió una excepción.
+ *   1. Crea un registro VisitEmail en estado "PENDING" (en la transacción del check-out).
+ *   2. El dispatcher lo reclama, construye el mensaje y lo envía.
+ *   3. Queda "SENT" si fue exitoso, o "ERROR" (reintento con backoff) / "FAILED".
  *
  * Mantenibilidad:
  *   - El método `resolveToEmail()` puede adaptarse para obtener direcciones reales
  *     del cliente, sitio o técnico.
- *   - Los métodos `buildSubject()` y `buildBodyHtml()` pueden personalizarse
- *     para incorporar plantillas dinámicas.
+ *   - El diseño de los correos se edita en resources/mail/*.html: {{clave}} se
+ *     sustituye escapando HTML y {{&clave}} se inserta tal cual.
  * -----------------------------------------------------------------------------
  */
 package com.visits.service;
@@ -41,15 +43,22 @@ import jakarta.mail.internet.MimeMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.MailException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Implementación del servicio de envío de correos electrónicos asociados a visitas.
@@ -81,59 +90,55 @@ public class VisitEmailServiceImpl implements VisitEmailService {
     @Value("${visits.mail.from:no-reply@visits.local}")
     private String from;
 
+    // Modo digest: agrupa las visitas completadas por destinatario en un solo correo por ventana.
+    @Value("${visits.mail.digest.enabled:false}")
+    private boolean digestEnabled;
+
+    @Value("${visits.mail.digest.window:PT1H}")
+    private Duration digestWindow;
+
     private static final DateTimeFormatter ISO = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
 
+    // Plantillas compiladas una sola vez (resources/mail).
+    private final MailTemplate completedTemplate = MailTemplate.load("mail/visit-completed.html");
+    private final MailTemplate digestTemplate = MailTemplate.load("mail/visit-digest.html");
+    private final MailTemplate digestRowTemplate = MailTemplate.load("mail/visit-digest-row.html");
+
     /**
-     * Maneja el evento de "visita completada" enviando un correo electrónico al destinatario correspondiente.
-     * 
+     * Maneja el evento de "visita completada" encolando el correo para el destinatario
+     * correspondiente. El envío lo hace {@link VisitEmailDispatcher} fuera de la transacción.
+     *
      * @param visit Objeto Visit con la información de la visita completada.
      */
     @Override
     @Transactional
     public void onVisitCompleted(Visit visit) {
-
-        // Registra en logs el inicio del proceso de envío de correo.
-        log.info("Enviando correo por visita completada: {}", visit.getId());
-        // Crea un nuevo registro de correo con estado inicial "PENDING".
-        VisitEmail email = new VisitEmail();
-        email.setId(UUID.randomUUID());
-        email.setVisitId(visit.getId());
-        email.setToEmail(resolveToEmail(visit));
-        email.setSubject(buildSubject(visit));
-        email.setStatus("PENDING");
-        emailRepository.save(email);
-
-        // Intenta construir y enviar el correo electrónico con formato HTML.
-        try {
-            MimeMessage mime = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(
-                    mime, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, StandardCharsets.UTF_8.name());
-            helper.setFrom(from);
-            helper.setTo(email.getToEmail());
-            helper.setSubject(email.getSubject());
-            helper.setText(buildBodyHtml(visit), true);
-
-            // Envía el mensaje preparado utilizando el servicio JavaMailSender.
-            mailSender.send(mime);
-
-            // Si el correo se envía correctamente, actualiza el estado a "SENT" y guarda los cambios.
-            email.setStatus("SENT");
-            emailRepository.save(email);
-            log.info("Visit email SENT: {}", email.getId());
-        } catch (MessagingException | MailException ex) {
-            // Si ocurre un error durante el envío, captura la excepción y registra el fallo.
-            log.error("Error sending visit email: {}", ex.getMessage(), ex);
-            email.setStatus("ERROR");
-            String msg = ex.getMessage();
-            if (msg != null && msg.length() > 1000) {
-                msg = msg.substring(0, 1000);
-            }
-            // Guarda el mensaje de error truncado (si es largo) y actualiza el estado a "ERROR".
-            email.setErrorMessage(msg);
-            emailRepository.save(email);
+        VisitEmail email = VisitEmail.pending(visit.getId(), resolveToEmail(visit), buildSubject(visit));
+        if (digestEnabled) {
+            // Espera al cierre de su ventana; el dispatcher lo agrupa con los demás del destinatario.
+            email.setDigest(true);
+            email.setNextAttemptAt(digestWindowEnd(OffsetDateTime.now(ZoneOffset.UTC)));
         }
+        emailRepository.save(email);
+        log.debug("Visit email queued: {} (visit {})", email.getId(), visit.getId());
+    }
 
-
+    /**
+     * Construye el mensaje MIME con formato HTML de un correo encolado.
+     *
+     * @param email Registro del outbox (destinatario y asunto).
+     * @param visit Visita a la que se refiere el correo.
+     * @return Mensaje listo para enviar.
+     */
+    MimeMessage buildMessage(VisitEmail email, Visit visit) throws MessagingException {
+        MimeMessage mime = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(
+                mime, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, StandardCharsets.UTF_8.name());
+        helper.setFrom(from);
+        helper.setTo(email.getToEmail());
+        helper.setSubject(email.getSubject());
+        helper.setText(buildBodyHtml(visit), true);
+        return mime;
     }
 
     /**
@@ -168,48 +173,71 @@ public class VisitEmailServiceImpl implements VisitEmailService {
      * @return Cadena HTML que representa el contenido del correo.
      */
     private String buildBodyHtml(Visit v) {
-        // Define las fechas de inicio y fin formateadas en ISO o usa "—" si son nulas.
-        String in = v.getCheckInAt() != null ? ISO.format(v.getCheckInAt()) : "—";
-        String out = v.getCheckOutAt() != null ? ISO.format(v.getCheckOutAt()) : "—";
+        Map<String, String> values = visitValues(v);
         // Determina el subtítulo dinámico según si la visita tiene o no hora de cierre.
-        String subtitle = out.equals("—") ? "Sin hora de cierre registrada" : "Finalizada el " + out;
-
-        // Retorna el cuerpo HTML completo del correo con estilos y datos dinámicos.
-        return """
-                <html>
-                  <body style=\"font-family:-apple-system,BlinkMacSystemFont,'Segoe UI',Roboto,Arial,sans-serif;background:#f6f8fa;padding:24px;\">
-                    <div style=\"max-width:560px;margin:auto;background:#ffffff;border:1px solid #eaecef;border-radius:8px;overflow:hidden;\">
-                      <div style=\"background:#0ea5e9;color:#ffffff;padding:16px 20px;\">
-                        <h2 style=\"margin:0;font-weight:600;font-size:18px;\">Visita completada</h2>
-                        <div style=\"opacity:.9;font-size:13px;\">%s</div>
-                      </div>
-                      <div style=\"padding:20px;\">
-                        <table style=\"width:100%%;border-collapse:collapse;font-size:14px;\">
-                          <tr>
-                            <td style=\"color:#6b7280;padding:6px 0;\">ID</td>
-                            <td style=\"padding:6px 0;\">%s</td>
-                          </tr>
-                          <tr>
-                            <td style=\"color:#6b7280;padding:6px 0;\">Propósito</td>
-                            <td style=\"padding:6px 0;\">%s</td>
-                          </tr>
-                          <tr>
-                            <td style=\"color:#6b7280;padding:6px 0;\">Inicio</td>
-                            <td style=\"padding:6px 0;\">%s</td>
-                          </tr>
-                          <tr>
-                            <td style=\"color:#6b7280;padding:6px 0;\">Fin</td>
-                            <td style=\"padding:6px 0;\">%s</td>
-                          </tr>
-                        </table>
-                      </div>
-                      <div style=\"padding:14px 20px;border-top:1px solid #eaecef;color:#6b7280;font-size:12px;\">
-                        Este es un correo automático. Responder a %s no es monitoreado.
-                      </div>
-                    </div>
-                  </body>
-                </html>
-                """.formatted(subtitle, v.getId(), safe(v.getPurpose()), in, out, from);
+        values.put("subtitle", v.getCheckOutAt() == null
+                ? "Sin hora de cierre registrada"
+                : "Finalizada el " + values.get("checkOut"));
+        values.put("from", from);
+        return completedTemplate.render(values);
+    }
+
+    /**
+     * Construye el mensaje resumen de varias visitas completadas para un mismo destinatario.
+     *
+     * @param to     Dirección del destinatario.
+     * @param visits Visitas completadas dentro de la ventana del digest.
+     * @return Mensaje listo para enviar.
+     */
+    MimeMessage buildDigestMessage(String to, List<Visit> visits) throws MessagingException {
+        List<Visit> sorted = new ArrayList<>(visits);
+        sorted.sort(Comparator.comparing(Visit::getCheckOutAt, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        StringBuilder rows = new StringBuilder(sorted.size() * 400);
+        for (Visit v : sorted) {
+            digestRowTemplate.render(rows, visitValues(v));
+        }
+        Map<String, String> values = new HashMap<>();
+        values.put("count", Integer.toString(sorted.size()));
+        values.put("firstOut", formatOrDash(sorted.get(0).getCheckOutAt()));
+        values.put("lastOut", formatOrDash(sorted.get(sorted.size() - 1).getCheckOutAt()));
+        values.put("rows", rows.toString());
+        values.put("from", from);
+
+        MimeMessage mime = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(
+                mime, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, StandardCharsets.UTF_8.name());
+        helper.setFrom(from);
+        helper.setTo(to);
+        helper.setSubject("Visitas completadas – " + sorted.size());
+        helper.setText(digestTemplate.render(values), true);
+        return mime;
+    }
+
+    /** Valores comunes de una visita para las plantillas (fechas en ISO o "—"). */
+    private static Map<String, String> visitValues(Visit v) {
+        Map<String, String> values = new HashMap<>();
+        values.put("id", String.valueOf(v.getId()));
+        values.put("purpose", safe(v.getPurpose()));
+        values.put("checkIn", formatOrDash(v.getCheckInAt()));
+        values.put("checkOut", formatOrDash(v.getCheckOutAt()));
+        return values;
+    }
+
+    private static String formatOrDash(OffsetDateTime t) {
+        return t != null ? ISO.format(t) : "—";
+    }
+
+    /**
+     * Fin de la ventana del digest que contiene {@code now}. Las ventanas se
+     * alinean a la época, así todas las visitas de la misma ventana vencen a la
+     * vez y el dispatcher las reclama juntas.
+     */
+    private OffsetDateTime digestWindowEnd(OffsetDateTime now) {
+        long windowMs = Math.max(digestWindow.toMillis(), 1000);
+        long nowMs = now.toInstant().toEpochMilli();
+        long end = (nowMs / windowMs + 1) * windowMs;
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(end), ZoneOffset.UTC);
     }
 
     /**
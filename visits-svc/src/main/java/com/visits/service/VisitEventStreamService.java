@@ -0,0 +1,440 @@
+package com.visits.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.visits.repo.VisitEventFeedRepository;
+import com.visits.repo.VisitEventFeedRepository.FeedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica los eventos de visita (VisitScheduled, VisitStarted, VisitCompleted,
+ * VisitCancelled, ...) a clientes SSE suscritos por visita, técnico o cliente.
+ *
+ * Un único lector consulta {@code visit_events} por {@code seq} cada
+ * {@code poll-interval}, así da igual qué instancia escribió el evento y la BD
+ * recibe una consulta por ciclo, no una por cliente. Cada evento se serializa
+ * una vez y se reparte mediante índices en memoria (visita / técnico /
+ * cliente), sin recorrer todos los suscriptores.
+ *
+ * Cada suscriptor tiene su cola y se vacía en un pool pequeño de hilos: un
+ * cliente lento no frena a los demás. Si su cola supera {@code max-queue} se
+ * cierra su stream; el navegador reconecta con Last-Event-ID y se le reenvía
+ * lo pendiente desde la BD. El reenvío (y lo retenido durante él) no cuenta
+ * para ese límite: si contara, un reenvío largo cerraría el stream nada más
+ * abrirlo y el cliente reconectaría en bucle.
+ *
+ * Un cliente que no lee deja su {@code send} bloqueado con el buffer del socket
+ * lleno, y ese hilo no atiende a nadie más. Si un envío dura más de
+ * {@code send-timeout} el cliente se da de baja y el pool crece un hilo
+ * mientras el envío siga bloqueado; el envío acaba con el timeout de escritura
+ * del contenedor y entonces se cierra el stream y el pool vuelve a su tamaño.
+ */
+@Service
+public class VisitEventStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(VisitEventStreamService.class);
+
+    /** Criterio de suscripción; campos nulos no filtran. */
+    public record Filter(UUID visitId, UUID technicianId, UUID customerId) {
+        boolean matches(FeedEvent e) {
+            return (visitId == null || visitId.equals(e.visitId()))
+                    && (technicianId == null || technicianId.equals(e.technicianId()))
+                    && (customerId == null || customerId.equals(e.customerId()));
+        }
+    }
+
+    /** Trama SSE ya serializada; {@code seq < 0} para latidos. */
+    private record Frame(long seq, Set<DataWithMediaType> data) {}
+
+    private final VisitEventFeedRepository feed;
+    private final ObjectMapper json;
+    private final ThreadPoolExecutor senders;
+    private final int senderThreads;
+    private final int batchSize;
+    private final int maxQueue;
+    private final int maxReplay;
+    private final long timeoutMs;
+    private final long gapWaitNanos;
+    private final long sendTimeoutNanos;
+
+    private final Map<UUID, Set<Subscriber>> byVisit = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<Subscriber>> byTechnician = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<Subscriber>> byCustomer = new ConcurrentHashMap<>();
+    private final Set<Subscriber> unfiltered = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> all = ConcurrentHashMap.newKeySet();
+
+    // Estado del lector (solo lo toca el hilo del @Scheduled).
+    private long cursor = -1;
+    private long gapSince;
+
+    // Envíos bloqueados más allá de send-timeout; cada uno suma un hilo al pool.
+    private int stalledSenders;
+
+    public VisitEventStreamService(VisitEventFeedRepository feed, ObjectMapper json, MeterRegistry meters,
+            @Value("${visits.events.stream.sender-threads:4}") int senderThreads,
+            @Value("${visits.events.stream.batch-size:1000}") int batchSize,
+            @Value("${visits.events.stream.max-queue:2000}") int maxQueue,
+            @Value("${visits.events.stream.max-replay:1000}") int maxReplay,
+            @Value("${visits.events.stream.timeout:PT30M}") Duration timeout,
+            @Value("${visits.events.stream.gap-wait:PT2S}") Duration gapWait,
+            @Value("${visits.events.stream.send-timeout:PT10S}") Duration sendTimeout) {
+        this.feed = feed;
+        this.json = json;
+        this.senderThreads = Math.max(senderThreads, 1);
+        this.senders = new ThreadPoolExecutor(this.senderThreads, this.senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "visit-events-sse");
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxQueue = Math.max(maxQueue, 1);
+        this.maxReplay = Math.max(maxReplay, 1);
+        if (this.maxQueue <= this.maxReplay) {
+            throw new IllegalStateException("visits.events.stream.max-queue (" + this.maxQueue
+                    + ") debe ser mayor que max-replay (" + this.maxReplay + ")");
+        }
+        this.timeoutMs = timeout.toMillis();
+        this.gapWaitNanos = gapWait.toNanos();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        Gauge.builder("visits.events.stream.subscribers", all, Set::size).register(meters);
+    }
+
+    /**
+     * Abre un stream. Con {@code lastEventId} primero se reenvían desde la BD los
+     * eventos posteriores que cumplen el filtro y luego continúa en vivo, sin
+     * duplicados ni huecos entre ambas fases.
+     */
+    public SseEmitter subscribe(Filter filter, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber sub = new Subscriber(emitter, filter);
+        emitter.onCompletion(() -> unregister(sub));
+        emitter.onTimeout(() -> unregister(sub));
+        emitter.onError(ex -> unregister(sub));
+
+        // Se registra antes de leer la BD: lo que llegue en vivo mientras tanto
+        // queda retenido y se deduplica por seq al terminar el reenvío.
+        register(sub);
+        if (lastEventId != null) {
+            List<FeedEvent> missed = feed.replay(lastEventId, filter.visitId(), filter.technicianId(),
+                    filter.customerId(), maxReplay);
+            for (FeedEvent e : missed) {
+                sub.offerReplay(frame(e));
+            }
+            if (missed.size() == maxReplay) {
+                // Demasiado atraso para reenviarlo todo: el cliente debe recargar su vista.
+                sub.offerReplay(new Frame(-1, SseEmitter.event().name("reset").data("").build()));
+            }
+        }
+        sub.resume();
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${visits.events.stream.poll-interval:PT0.5S}")
+    public void poll() {
+        try {
+            if (cursor < 0 || all.isEmpty()) {
+                // Sin suscriptores no hace falta leer eventos, solo avanzar el cursor.
+                cursor = feed.maxSeq();
+                gapSince = 0;
+                return;
+            }
+            List<FeedEvent> events;
+            do {
+                events = feed.after(cursor, batchSize);
+                for (FeedEvent e : events) {
+                    if (e.seq() != cursor + 1 && !gapExpired()) {
+                        // Un seq menor puede estar aún sin confirmar: se espera un poco
+                        // antes de darlo por perdido (rollback).
+                        return;
+                    }
+                    gapSince = 0;
+                    cursor = e.seq();
+                    publish(e);
+                }
+            } while (events.size() == batchSize);
+        } catch (RuntimeException ex) {
+            log.error("Visit event stream poll failed: {}", ex.getMessage(), ex);
+        }
+    }
+
+    private boolean gapExpired() {
+        long now = System.nanoTime();
+        if (gapSince == 0) {
+            gapSince = now;
+            return false;
+        }
+        return now - gapSince >= gapWaitNanos;
+    }
+
+    /** Mantiene vivas las conexiones a través de proxies y detecta clientes caídos. */
+    @Scheduled(fixedDelayString = "${visits.events.stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        if (all.isEmpty()) return;
+        Frame ping = new Frame(-1, SseEmitter.event().comment("ping").build());
+        for (Subscriber s : all) {
+            s.offer(ping);
+        }
+    }
+
+    /** Da de baja a los clientes con un envío bloqueado más de {@code send-timeout}. */
+    @Scheduled(fixedDelayString = "${visits.events.stream.poll-interval:PT0.5S}")
+    public void dropStalled() {
+        long now = System.nanoTime();
+        for (Subscriber s : all) {
+            if (s.markStalled(now)) {
+                unregister(s);
+                resizeSenders(1);
+                log.warn("SSE client blocked a send for more than {} ms; dropping it",
+                        TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+            }
+        }
+    }
+
+    // Mantiene sender-threads hilos libres aunque haya envíos bloqueados.
+    private synchronized void resizeSenders(int delta) {
+        stalledSenders += delta;
+        int size = senderThreads + stalledSenders;
+        if (delta > 0) {
+            senders.setMaximumPoolSize(size);
+            senders.setCorePoolSize(size);
+        } else {
+            senders.setCorePoolSize(size);
+            senders.setMaximumPoolSize(size);
+        }
+    }
+
+    private void publish(FeedEvent e) {
+        Frame frame = null;
+        for (Set<Subscriber> targets : List.of(
+                byVisit.getOrDefault(e.visitId(), Set.of()),
+                e.technicianId() == null ? Set.<Subscriber>of() : byTechnician.getOrDefault(e.technicianId(), Set.of()),
+                byCustomer.getOrDefault(e.customerId(), Set.of()),
+                unfiltered)) {
+            for (Subscriber s : targets) {
+                if (!s.filter.matches(e)) continue;
+                if (frame == null) frame = frame(e);
+                s.offer(frame);
+            }
+        }
+    }
+
+    private Frame frame(FeedEvent e) {
+        try {
+            return new Frame(e.seq(), SseEmitter.event()
+                    .id(Long.toString(e.seq()))
+                    .name(e.type())
+                    .data(json.writeValueAsString(e))
+                    .build());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("No se pudo serializar el evento " + e.id(), ex);
+        }
+    }
+
+    // Cada suscriptor va en un único índice, el más selectivo de su filtro.
+    private void register(Subscriber s) {
+        all.add(s);
+        index(s).add(s);
+    }
+
+    private void unregister(Subscriber s) {
+        s.closed = true;
+        all.remove(s);
+        Filter f = s.filter;
+        if (f.visitId() != null) removeFrom(byVisit, f.visitId(), s);
+        else if (f.technicianId() != null) removeFrom(byTechnician, f.technicianId(), s);
+        else if (f.customerId() != null) removeFrom(byCustomer, f.customerId(), s);
+        else unfiltered.remove(s);
+    }
+
+    private Set<Subscriber> index(Subscriber s) {
+        Filter f = s.filter;
+        if (f.visitId() != null) return byVisit.computeIfAbsent(f.visitId(), k -> ConcurrentHashMap.newKeySet());
+        if (f.technicianId() != null) return byTechnician.computeIfAbsent(f.technicianId(), k -> ConcurrentHashMap.newKeySet());
+        if (f.customerId() != null) return byCustomer.computeIfAbsent(f.customerId(), k -> ConcurrentHashMap.newKeySet());
+        return unfiltered;
+    }
+
+    private static void removeFrom(Map<UUID, Set<Subscriber>> index, UUID key, Subscriber s) {
+        index.computeIfPresent(key, (k, set) -> {
+            set.remove(s);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber s : all) {
+            s.emitter.complete();
+        }
+        senders.shutdownNow();
+    }
+
+    /**
+     * Conexión SSE con su cola de tramas. Mientras está en pausa (reenvío desde
+     * la BD en curso) los eventos en vivo se retienen aparte.
+     */
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final Filter filter;
+        private final ArrayDeque<Frame> queue = new ArrayDeque<>();
+        private List<Frame> held = new ArrayList<>();
+        private boolean paused = true;
+        private boolean draining;
+        // Tramas al frente de la cola que vienen del reenvío o de lo retenido;
+        // no cuentan para max-queue.
+        private int backlog;
+        private long lastSeq = -1;
+        private boolean sending;
+        private long sendStartedNanos;
+        private boolean stalled;
+        // Cerrado con un envío en curso: lo completa drain al terminar ese envío,
+        // porque el emitter no se puede completar mientras send lo tiene tomado.
+        private boolean closeAfterSend;
+        volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, Filter filter) {
+            this.emitter = emitter;
+            this.filter = filter;
+        }
+
+        synchronized void offer(Frame f) {
+            if (closed) return;
+            if (paused) {
+                if (f.seq() < 0) return;
+                if (held.size() >= maxQueue) {
+                    overflow();
+                    return;
+                }
+                held.add(f);
+                return;
+            }
+            if (queue.size() - backlog >= maxQueue) {
+                overflow();
+                return;
+            }
+            enqueue(f);
+        }
+
+        synchronized void offerReplay(Frame f) {
+            if (enqueue(f)) backlog++;
+        }
+
+        synchronized void resume() {
+            if (closed) return;
+            paused = false;
+            for (Frame f : held) {
+                if (enqueue(f)) backlog++;
+            }
+            held = null;
+            schedule();
+        }
+
+        private boolean enqueue(Frame f) {
+            if (closed) return false;
+            if (f.seq() >= 0) {
+                if (f.seq() <= lastSeq) return false;
+                lastSeq = f.seq();
+            }
+            queue.add(f);
+            if (!paused) schedule();
+            return true;
+        }
+
+        // Cliente demasiado lento: se cierra y reconectará con Last-Event-ID.
+        private void overflow() {
+            closed = true;
+            queue.clear();
+            held = null;
+            backlog = 0;
+            if (sending) closeAfterSend = true;
+            else emitter.complete();
+        }
+
+        private void schedule() {
+            if (!draining && !queue.isEmpty()) {
+                draining = true;
+                senders.execute(this::drain);
+            }
+        }
+
+        /** Marca el cliente como atascado si su envío en curso pasa de send-timeout. */
+        synchronized boolean markStalled(long now) {
+            if (!sending || stalled || now - sendStartedNanos < sendTimeoutNanos) return false;
+            stalled = true;
+            closed = true;
+            closeAfterSend = true;
+            queue.clear();
+            held = null;
+            backlog = 0;
+            return true;
+        }
+
+        private void drain() {
+            while (true) {
+                Frame f;
+                synchronized (this) {
+                    f = queue.poll();
+                    if (f == null || closed) {
+                        draining = false;
+                        return;
+                    }
+                    if (backlog > 0) backlog--;
+                    sending = true;
+                    sendStartedNanos = System.nanoTime();
+                }
+                Exception error = null;
+                try {
+                    emitter.send(f.data());
+                } catch (IOException | IllegalStateException ex) {
+                    error = ex;
+                }
+                boolean wasStalled;
+                boolean close;
+                synchronized (this) {
+                    sending = false;
+                    wasStalled = stalled;
+                    close = closeAfterSend;
+                    if (error != null) {
+                        closed = true;
+                        draining = false;
+                        queue.clear();
+                    }
+                }
+                if (wasStalled) {
+                    // Ya dado de baja: el pool vuelve a su tamaño y el cliente reconectará.
+                    resizeSenders(-1);
+                }
+                if (error != null) {
+                    emitter.completeWithError(error);
+                    return;
+                }
+                if (close) {
+                    emitter.complete();
+                }
+            }
+        }
+    }
+}
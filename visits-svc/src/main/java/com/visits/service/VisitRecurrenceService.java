@@ -0,0 +1,173 @@
+package com.visits.service;
+
+import com.visits.model.Visit;
+import com.visits.model.VisitPriority;
+import com.visits.repo.VisitRecurrenceRepository;
+import com.visits.repo.VisitRecurrenceRepository.Occurrence;
+import com.visits.repo.VisitRecurrenceRepository.Progress;
+import com.visits.repo.VisitRecurrenceRepository.Recurrence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Visitas recurrentes: guarda las reglas y genera sus visitas PLANNED de forma
+ * perezosa, solo hasta {@code now + horizon}. Cada {@code generate-interval}
+ * extiende el horizonte de las reglas activas.
+ *
+ * Las visitas y sus eventos VisitScheduled se insertan con lotes JDBC en una
+ * transacción por tramo de unas {@code chunk-size} visitas, junto con el avance
+ * de {@code generated_until} de sus reglas; si un tramo falla, se reintenta
+ * entero en la siguiente pasada sin duplicar nada.
+ */
+@Service
+public class VisitRecurrenceService {
+
+    private static final Logger log = LoggerFactory.getLogger(VisitRecurrenceService.class);
+
+    private final VisitRecurrenceRepository repo;
+    private final TechnicianScheduleIndex scheduleIndex;
+    private final TransactionTemplate tx;
+    private final Duration horizon;
+    private final int chunkSize;
+    private final int claimBatch;
+
+    public VisitRecurrenceService(VisitRecurrenceRepository repo,
+            TechnicianScheduleIndex scheduleIndex,
+            TransactionTemplate tx,
+            @Value("${visits.recurrence.horizon:P90D}") Duration horizon,
+            @Value("${visits.recurrence.chunk-size:500}") int chunkSize,
+            @Value("${visits.recurrence.claim-batch:200}") int claimBatch) {
+        this.repo = repo;
+        this.scheduleIndex = scheduleIndex;
+        this.tx = tx;
+        this.horizon = horizon;
+        this.chunkSize = Math.max(chunkSize, 1);
+        this.claimBatch = Math.max(claimBatch, 1);
+    }
+
+    /**
+     * Registra una regla y genera de inmediato sus visitas dentro del
+     * horizonte. Si {@code dtstart} está en el pasado solo se generan las
+     * ocurrencias futuras.
+     */
+    public Recurrence create(UUID customerId, UUID siteId, UUID technicianId, VisitPriority priority,
+            String purpose, String notesPlanned, String rrule, OffsetDateTime dtstart, String timeZone,
+            int durationMinutes) {
+        if (customerId == null || technicianId == null) {
+            throw new IllegalArgumentException("customerId y technicianId son obligatorios");
+        }
+        if (dtstart == null) {
+            throw new IllegalArgumentException("dtstart es obligatorio");
+        }
+        if (durationMinutes <= 0) {
+            throw new IllegalArgumentException("durationMinutes debe ser mayor que 0");
+        }
+        RecurrenceRule.parse(rrule);
+        String zone = timeZone == null || timeZone.isBlank() ? "UTC" : timeZone;
+        try {
+            ZoneId.of(zone);
+        } catch (DateTimeException ex) {
+            throw new IllegalArgumentException("Zona horaria inválida: " + zone);
+        }
+
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        Recurrence r = repo.insert(new Recurrence(UUID.randomUUID(), customerId, siteId, technicianId,
+                priority == null ? VisitPriority.MEDIUM : priority, purpose, notesPlanned, rrule.trim(),
+                dtstart, zone, durationMinutes, dtstart.isAfter(now) ? dtstart : now, true));
+        generate(List.of(r), now.plus(horizon));
+        return repo.findById(r.id()).orElse(r);
+    }
+
+    public Recurrence get(UUID id) {
+        return repo.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Recurrence not found"));
+    }
+
+    /** Deja de generar visitas; las ya generadas se mantienen. */
+    public void deactivate(UUID id) {
+        if (!repo.deactivate(id)) {
+            repo.findById(id).orElseThrow(() -> new IllegalArgumentException("Recurrence not found"));
+        }
+    }
+
+    @Scheduled(initialDelayString = "${visits.recurrence.initial-delay:PT1M}",
+            fixedDelayString = "${visits.recurrence.generate-interval:PT1H}")
+    public void generateDue() {
+        try {
+            OffsetDateTime until = OffsetDateTime.now(ZoneOffset.UTC).plus(horizon);
+            List<Recurrence> due;
+            do {
+                due = repo.findDue(until, claimBatch);
+                generate(due, until);
+            } while (due.size() == claimBatch);
+        } catch (RuntimeException ex) {
+            log.error("Recurring visit generation failed: {}", ex.getMessage(), ex);
+        }
+    }
+
+    // Las ocurrencias de una regla nunca se reparten entre tramos, así su
+    // generated_until avanza en la misma transacción que sus visitas.
+    private void generate(List<Recurrence> recurrences, OffsetDateTime until) {
+        List<Occurrence> rows = new ArrayList<>();
+        List<Progress> progress = new ArrayList<>();
+        for (Recurrence r : recurrences) {
+            RecurrenceRule rule = RecurrenceRule.parse(r.rrule());
+            ZonedDateTime start = r.dtstart().atZoneSameInstant(ZoneId.of(r.timeZone()));
+            Duration length = Duration.ofMinutes(r.durationMinutes());
+            boolean exhausted = rule.expand(start, r.generatedUntil().toInstant(), until.toInstant(), t -> {
+                OffsetDateTime s = t.toOffsetDateTime();
+                rows.add(new Occurrence(r.id(), Visit.planned(r.customerId(), r.siteId(), r.technicianId(),
+                        s, s.plus(length), r.priority(), r.purpose(), r.notesPlanned())));
+            });
+            progress.add(new Progress(r.id(), until, exhausted));
+            if (rows.size() >= chunkSize) {
+                flush(rows, progress);
+                rows.clear();
+                progress.clear();
+            }
+        }
+        if (!progress.isEmpty()) {
+            flush(rows, progress);
+        }
+    }
+
+    private void flush(List<Occurrence> rows, List<Progress> progress) {
+        // Las ocurrencias que chocan con la agenda del técnico se omiten en lugar
+        // de abortar el tramo; la restricción de la BD cubre las que se escapen.
+        List<Occurrence> free = new ArrayList<>(rows.size());
+        for (Occurrence o : rows) {
+            Visit v = o.visit();
+            if (scheduleIndex.conflicts(v.getTechnicianId(), v.getScheduledStartAt(), v.getScheduledEndAt(), null).isEmpty()) {
+                free.add(o);
+            }
+        }
+        int inserted = tx.execute(status -> {
+            List<Visit> visits = free.isEmpty() ? List.of() : repo.insertPlanned(free, chunkSize);
+            if (!visits.isEmpty()) {
+                repo.insertScheduledEvents(visits, chunkSize);
+                scheduleIndex.syncAfterCommit(visits);
+            }
+            repo.advance(progress);
+            return visits.size();
+        });
+        if (inserted < rows.size()) {
+            log.warn("Recurring visits: {} of {} occurrences skipped (technician busy or already generated)",
+                    rows.size() - inserted, rows.size());
+        }
+        log.debug("Recurring visits: generated {} visits for {} recurrences", inserted, progress.size());
+    }
+}
@@ -1,6 +1,7 @@
 package com.visits.service;
 
 import com.visits.model.*;
+import com.visits.repo.VisitFilter;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -47,10 +48,9 @@ public interface VisitService {
     void cancel(UUID visitId, UUID actorId);
 
     /**
-     * Lista visitas aplicando filtros opcionales y paginación.
+     * Lista visitas aplicando los filtros opcionales informados y paginación.
      */
-    Page<Visit> list(UUID customerId, UUID technicianId, VisitState state,
-                     OffsetDateTime from, OffsetDateTime to, Pageable pageable);
+    Page<Visit> list(VisitFilter filter, Pageable pageable);
 
     /**
      * Recupera las visitas asignadas a un técnico para la fecha indicada.
@@ -29,6 +29,7 @@ public class VisitServiceImpl implements VisitService {
     private final VisitEventRepository eventRepository;
     private final VisitNoteRepository noteRepository;
     private final VisitEmailService visitEmailService;
+    private final TechnicianScheduleIndex scheduleIndex;
 
     /**
      * Crea la implementación del servicio de visitas con sus repositorios y adaptadores necesarios.
@@ -36,15 +37,18 @@ public class VisitServiceImpl implements VisitService {
     public VisitServiceImpl(VisitRepository visitRepository,
             VisitEventRepository eventRepository,
             VisitNoteRepository noteRepository,
-            VisitEmailService visitEmailService) {
+            VisitEmailService visitEmailService,
+            TechnicianScheduleIndex scheduleIndex) {
         this.visitRepository = visitRepository;
         this.eventRepository = eventRepository;
         this.noteRepository = noteRepository;
         this.visitEmailService = visitEmailService;
+        this.scheduleIndex = scheduleIndex;
     }
 
     /**
      * Registra una visita en estado planificado y produce el evento inicial.
+     * Rechaza la visita si solapa con otra activa del mismo técnico.
      */
     @Override
     public Visit createPlanned(UUID customerId, UUID siteId, UUID technicianId,
@@ -53,7 +57,9 @@ public class VisitServiceImpl implements VisitService {
 
         Visit v = Visit.planned(customerId, siteId, technicianId, start, end, priority, purpose, notesPlanned);
         v.validateDates();
+        checkConflicts(v, null);
         v = visitRepository.save(v);
+        scheduleIndex.syncAfterCommit(v);
 
         // Registra un evento indicando que la visita ha sido programada.
         eventRepository.save(VisitEvent.of(v.getId(), "VisitScheduled", null, null, null, null));
@@ -96,7 +102,11 @@ public class VisitServiceImpl implements VisitService {
         }
 
         v.validateDates();
+        if (v.getState() == VisitState.PLANNED || v.getState() == VisitState.STARTED) {
+            checkConflicts(v, v.getId());
+        }
         Visit saved = visitRepository.save(v);
+        scheduleIndex.syncAfterCommit(saved);
 
         eventRepository.save(VisitEvent.of(saved.getId(), "VisitUpdated", null, null, null, null));
         return saved;
@@ -113,6 +123,7 @@ public class VisitServiceImpl implements VisitService {
 
         v.start(when == null ? OffsetDateTime.now(ZoneOffset.UTC) : when);
         Visit saved = visitRepository.save(v);
+        scheduleIndex.syncAfterCommit(saved);
 
         eventRepository.save(VisitEvent.of(saved.getId(), "VisitStarted", actorId, lat, lng, null));
         return saved;
@@ -120,7 +131,7 @@ public class VisitServiceImpl implements VisitService {
 
     /**
      * Completa la visita, registra el check-out con los datos de ubicación y
-     * dispara la notificación por correo.
+     * encola la notificación por correo.
      */
     @Override
     public Visit checkOut(UUID visitId, UUID actorId, OffsetDateTime when, Double lat, Double lng, String workSummary) {
@@ -129,14 +140,13 @@ public class VisitServiceImpl implements VisitService {
 
         v.complete(when == null ? OffsetDateTime.now(ZoneOffset.UTC) : when);
         Visit saved = visitRepository.save(v);
+        scheduleIndex.syncAfterCommit(saved);
 
         eventRepository.save(VisitEvent.of(saved.getId(), "VisitCompleted", actorId, lat, lng, workSummary));
 
-        // Dispara la notificación por correo electrónico al completarse la visita.
-        try {
-            visitEmailService.onVisitCompleted(saved);
-        } catch (Exception ex) {
-        }
+        // Encola la notificación por correo en la misma transacción (outbox);
+        // el envío lo hace VisitEmailDispatcher en segundo plano.
+        visitEmailService.onVisitCompleted(saved);
         return saved;
     }
 
@@ -149,27 +159,33 @@ public class VisitServiceImpl implements VisitService {
                 .orElseThrow(() -> new IllegalArgumentException("Visit not found"));
         v.cancel();
         visitRepository.save(v);
+        scheduleIndex.syncAfterCommit(v);
 
         eventRepository.save(VisitEvent.of(v.getId(), "VisitCancelled", actorId, null, null, null));
     }
 
+    // Consulta el índice en memoria; la restricción de exclusión de la BD
+    // cubre las reservas concurrentes que lleguen a pasar esta comprobación.
+    private void checkConflicts(Visit v, UUID excludeVisitId) {
+        List<TechnicianScheduleIndex.Conflict> conflicts = scheduleIndex.conflicts(
+                v.getTechnicianId(), v.getScheduledStartAt(), v.getScheduledEndAt(), excludeVisitId);
+        if (!conflicts.isEmpty()) {
+            throw new ScheduleConflictException(conflicts);
+        }
+    }
+
     /**
-     * Devuelve visitas filtradas por estado, técnico y rango temporal según los
-     * parámetros disponibles. Si no hay filtros, retorna todas las visitas paginadas.
+     * Devuelve visitas filtradas por cualquier combinación de cliente, sitio,
+     * técnico, estado, prioridad y rango de inicio. Sin filtros, retorna todas
+     * las visitas paginadas.
      */
     @Override
     @Transactional(readOnly = true)
-    public Page<Visit> list(UUID customerId, UUID technicianId, VisitState state,
-            OffsetDateTime from, OffsetDateTime to, Pageable pageable) {
-        // Implementación simple: si viene technicianId + rango, usar el finder preparado
-        if (technicianId != null && from != null && to != null) {
-            return visitRepository.findByTechnicianIdAndScheduledStartAtBetween(technicianId, from, to, pageable);
-        }
-        if (state != null) {
-            return visitRepository.findByState(state, pageable);
+    public Page<Visit> list(VisitFilter filter, Pageable pageable) {
+        if (filter.from() != null && filter.to() != null && !filter.to().isAfter(filter.from())) {
+            throw new IllegalArgumentException("'to' debe ser posterior a 'from'");
         }
-        // Si no se aplican filtros, retorna todas las visitas paginadas.
-        return visitRepository.findAll(pageable);
+        return visitRepository.search(filter, pageable);
     }
 
     /**
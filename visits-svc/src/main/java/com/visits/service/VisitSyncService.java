@@ -0,0 +1,111 @@
+package com.visits.service;
+
+import com.visits.repo.VisitSyncRepository;
+import com.visits.repo.VisitSyncRepository.SyncEvent;
+import com.visits.repo.VisitSyncRepository.SyncNote;
+import com.visits.repo.VisitSyncRepository.SyncVisit;
+import com.visits.repo.VisitSyncRepository.Tombstone;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sincronización incremental de la agenda de un técnico para la app móvil.
+ *
+ * Sin token se devuelve la agenda desde {@code initial-past} atrás (visitas,
+ * notas y eventos). Con token solo lo modificado desde entonces; las
+ * visitas canceladas o reasignadas a otro técnico llegan como tombstones y
+ * las recién asignadas traen todas sus notas y eventos. Todas las lecturas
+ * usan la misma instantánea (REPEATABLE READ).
+ *
+ * {@code updated_at} y {@code created_at} toman la hora de inicio de su
+ * transacción, que puede confirmarse después de que otra lectura ya haya
+ * pasado por ese instante. Por eso el token se emite {@code lag} antes de la
+ * hora de la consulta: el cliente recibe de nuevo algunas filas (las aplica
+ * por id) pero no pierde las confirmadas tarde.
+ */
+@Service
+public class VisitSyncService {
+
+    /** Respuesta de sincronización; {@code full} indica que reemplaza el estado local. */
+    public record SyncResponse(
+            String token,
+            boolean full,
+            List<SyncVisit> visits,
+            List<SyncNote> notes,
+            List<SyncEvent> events,
+            List<Tombstone> tombstones
+    ) {}
+
+    private static final String TOKEN_PREFIX = "v1:";
+
+    private final VisitSyncRepository repo;
+    private final Duration lag;
+    private final Duration initialPast;
+
+    public VisitSyncService(VisitSyncRepository repo,
+            @Value("${visits.sync.lag:PT30S}") Duration lag,
+            @Value("${visits.sync.initial-past:P7D}") Duration initialPast) {
+        this.repo = repo;
+        this.lag = lag;
+        this.initialPast = initialPast;
+    }
+
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public SyncResponse sync(UUID technicianId, String since) {
+        if (technicianId == null) {
+            throw new IllegalArgumentException("technicianId es obligatorio");
+        }
+        OffsetDateTime now = repo.now();
+        String token = encode(now.minus(lag));
+
+        if (since == null || since.isBlank()) {
+            OffsetDateTime from = now.withOffsetSameInstant(ZoneOffset.UTC).truncatedTo(ChronoUnit.DAYS).minus(initialPast);
+            return new SyncResponse(token, true,
+                    repo.visitsStartingFrom(technicianId, from),
+                    repo.notesOfVisitsStartingFrom(technicianId, from),
+                    repo.eventsOfVisitsStartingFrom(technicianId, from),
+                    List.of());
+        }
+
+        OffsetDateTime from = decode(since);
+        return new SyncResponse(token, false,
+                repo.visitsChangedSince(technicianId, from),
+                repo.notesSince(technicianId, from),
+                repo.eventsSince(technicianId, from),
+                repo.removedSince(technicianId, from));
+    }
+
+    // El token es opaco para el cliente: instante en microsegundos con prefijo de versión.
+    private static String encode(OffsetDateTime t) {
+        Instant i = t.toInstant();
+        long micros = i.getEpochSecond() * 1_000_000L + i.getNano() / 1_000;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((TOKEN_PREFIX + micros).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static OffsetDateTime decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.US_ASCII);
+            if (!raw.startsWith(TOKEN_PREFIX)) {
+                throw new IllegalArgumentException("Token de sincronización inválido");
+            }
+            long micros = Long.parseLong(raw.substring(TOKEN_PREFIX.length()));
+            return OffsetDateTime.ofInstant(Instant.EPOCH.plus(micros, ChronoUnit.MICROS), ZoneOffset.UTC);
+        } catch (IllegalArgumentException ex) {
+            // También cubre NumberFormatException y Base64 mal formado.
+            throw new IllegalArgumentException("Token de sincronización inválido");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.visits.web;
+
+import com.visits.service.AvailabilityService;
+import com.visits.service.AvailabilityService.Option;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Consulta de disponibilidad de técnicos para el despacho de visitas.
+ */
+@RestController
+@RequestMapping("/visits")
+public class AvailabilityController {
+
+    private final AvailabilityService availability;
+
+    public AvailabilityController(AvailabilityService availability) {
+        this.availability = availability;
+    }
+
+    /**
+     * Huecos libres en los que cabe una visita de la duración indicada,
+     * ordenados por inicio y, a igualdad, por el técnico menos cargado.
+     *
+     * @param from          Inicio (inclusivo) del rango de búsqueda.
+     * @param to            Fin (exclusivo) del rango de búsqueda.
+     * @param duration      Duración de la visita en ISO-8601 (por ejemplo PT2H).
+     * @param technicianIds Técnicos candidatos, separados por comas.
+     * @param limit         Cantidad máxima de opciones devueltas.
+     * @return Opciones de hueco por técnico.
+     */
+    @GetMapping("/availability")
+    public List<Option> availability(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam String duration,
+            @RequestParam List<UUID> technicianIds,
+            @RequestParam(defaultValue = "50") int limit) {
+        Duration d;
+        try {
+            d = Duration.parse(duration);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("'duration' debe tener formato ISO-8601, por ejemplo PT2H");
+        }
+        return availability.search(from, to, d, technicianIds, Math.min(Math.max(limit, 1), 500));
+    }
+}
@@ -0,0 +1,79 @@
+package com.visits.web;
+
+import com.visits.service.ScheduleConflictException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Traduce a respuestas HTTP las excepciones de negocio de los controladores
+ * de visitas.
+ */
+@RestControllerAdvice
+public class RestExceptionHandler {
+
+    // exclusion_violation (ex_visits_technician_overlap) y unique_violation
+    private static final Set<String> CONFLICT_STATES = Set.of("23P01", "23505");
+
+    /**
+     * Solape con otras visitas del técnico: 409 con la lista de visitas en
+     * conflicto para que el cliente pueda proponer otro horario.
+     */
+    @ExceptionHandler(ScheduleConflictException.class)
+    public ResponseEntity<Map<String, Object>> handleConflict(ScheduleConflictException ex, HttpServletRequest req) {
+        Map<String, Object> body = body(HttpStatus.CONFLICT, ex.getMessage(), req);
+        body.put("conflicts", ex.getConflicts());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    /**
+     * Validación de entrada en servicios y controladores (rangos, formatos,
+     * reglas de recurrencia, token de sincronización...): 400 con el mensaje.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, Object>> handleBadRequest(IllegalArgumentException ex, HttpServletRequest req) {
+        return ResponseEntity.badRequest().body(body(HttpStatus.BAD_REQUEST, ex.getMessage(), req));
+    }
+
+    /**
+     * Restricciones de la BD. Exclusión (como {@code ex_visits_technician_overlap},
+     * cuando dos reservas concurrentes pasan a la vez la comprobación en memoria)
+     * y unicidad son conflictos: 409. El resto (NOT NULL, FK, CHECK) son datos
+     * inválidos de la petición: 400.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, Object>> handleIntegrity(DataIntegrityViolationException ex, HttpServletRequest req) {
+        HttpStatus status = CONFLICT_STATES.contains(sqlState(ex)) ? HttpStatus.CONFLICT : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status)
+                .body(body(status, "Violación de restricción", req));
+    }
+
+    private static String sqlState(Throwable ex) {
+        String state = null;
+        for (Throwable t = ex; t != null && t.getCause() != t; t = t.getCause()) {
+            if (t instanceof SQLException sql && sql.getSQLState() != null) {
+                state = sql.getSQLState();
+            }
+        }
+        return state;
+    }
+
+    private static Map<String, Object> body(HttpStatus status, String message, HttpServletRequest req) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", OffsetDateTime.now().toString());
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", message);
+        body.put("path", req.getRequestURI());
+        return body;
+    }
+}
@@ -1,9 +1,12 @@
 package com.visits.web;
 
 import com.visits.model.*;
+import com.visits.repo.VisitFilter;
 import com.visits.service.VisitService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -102,26 +105,34 @@ public class VisitController {
     }
 
     /**
-     * Lista visitas filtradas y paginadas por cliente, técnico, estado o rango de fechas.
+     * Lista visitas filtradas y paginadas. Todos los filtros son opcionales y
+     * se combinan entre sí; el orden es por inicio planificado descendente.
      *
      * @param customerId   Filtro opcional por cliente.
+     * @param siteId       Filtro opcional por sitio.
      * @param technicianId Filtro opcional por técnico.
      * @param state        Filtro opcional por estado.
-     * @param from         Fecha de inicio del rango.
-     * @param to           Fecha fin del rango.
+     * @param priority     Filtro opcional por prioridad.
+     * @param from         Inicio (inclusivo) del rango sobre el inicio planificado.
+     * @param to           Fin (exclusivo) del rango sobre el inicio planificado.
      * @param page         Número de página (base 0).
      * @param size         Cantidad de registros por página.
      * @return Página de visitas que cumplen los filtros.
      */
     @GetMapping
     public Page<Visit> list(@RequestParam(required = false) UUID customerId,
+            @RequestParam(required = false) UUID siteId,
             @RequestParam(required = false) UUID technicianId,
             @RequestParam(required = false) VisitState state,
-            @RequestParam(required = false) OffsetDateTime from,
-            @RequestParam(required = false) OffsetDateTime to,
+            @RequestParam(required = false) VisitPriority priority,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "50") int size) {
-        return service.list(customerId, technicianId, state, from, to, PageRequest.of(page, size));
+        VisitFilter filter = new VisitFilter(customerId, siteId, technicianId, state, priority, from, to);
+        PageRequest pageable = PageRequest.of(page, Math.min(Math.max(size, 1), 500),
+                Sort.by(Sort.Direction.DESC, "scheduledStartAt"));
+        return service.list(filter, pageable);
     }
 
     /**
@@ -0,0 +1,65 @@
+package com.visits.web;
+
+import com.visits.service.VisitEventStreamService;
+import com.visits.service.VisitEventStreamService.Filter;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+/**
+ * Streams SSE con los eventos de visita a medida que se registran.
+ *
+ * Cada mensaje lleva {@code id} = seq del evento y {@code event} = su tipo
+ * (VisitScheduled, VisitStarted, VisitCompleted, VisitCancelled, ...). Al
+ * reconectar, EventSource envía la cabecera Last-Event-ID y el stream continúa
+ * desde ahí; también se acepta el parámetro {@code lastEventId}.
+ */
+@RestController
+@RequestMapping("/visits")
+public class VisitEventStreamController {
+
+    private final VisitEventStreamService streams;
+
+    public VisitEventStreamController(VisitEventStreamService streams) {
+        this.streams = streams;
+    }
+
+    /**
+     * Eventos de una visita.
+     *
+     * @param id Identificador de la visita.
+     */
+    @GetMapping(path = "/{id}/events/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter visitEvents(@PathVariable UUID id,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(required = false) Long lastEventId) {
+        return streams.subscribe(new Filter(id, null, null), resumeFrom(lastEventIdHeader, lastEventId));
+    }
+
+    /**
+     * Eventos de las visitas de un técnico y/o cliente. Sin filtros recibe
+     * todos los eventos (pantallas de despacho).
+     *
+     * @param technicianId Filtro opcional por técnico asignado.
+     * @param customerId   Filtro opcional por cliente.
+     */
+    @GetMapping(path = "/events/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@RequestParam(required = false) UUID technicianId,
+            @RequestParam(required = false) UUID customerId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(required = false) Long lastEventId) {
+        return streams.subscribe(new Filter(null, technicianId, customerId), resumeFrom(lastEventIdHeader, lastEventId));
+    }
+
+    // La cabecera (reconexión automática) tiene prioridad sobre el parámetro (primera conexión).
+    private static Long resumeFrom(Long header, Long param) {
+        return header != null ? header : param;
+    }
+}
@@ -0,0 +1,75 @@
+package com.visits.web;
+
+import com.visits.model.VisitPriority;
+import com.visits.repo.VisitRecurrenceRepository.Recurrence;
+import com.visits.service.VisitRecurrenceService;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Controlador REST de visitas recurrentes (contratos de mantenimiento
+ * preventivo). Una regla reemplaza las altas una a una de cada visita.
+ */
+@RestController
+@RequestMapping("/visits/recurrences")
+public class VisitRecurrenceController {
+
+    private final VisitRecurrenceService service;
+
+    public VisitRecurrenceController(VisitRecurrenceService service) {
+        this.service = service;
+    }
+
+    /**
+     * Crea una regla de recurrencia y genera sus visitas hasta el horizonte
+     * configurado; el resto se genera a medida que el horizonte avanza.
+     *
+     * @param req Regla estilo RRULE (por ejemplo {@code FREQ=WEEKLY;INTERVAL=6;BYDAY=TU}),
+     *            primera ocurrencia, zona horaria y datos de la visita.
+     * @return Regla creada con su {@code generatedUntil}.
+     */
+    @PostMapping
+    public Recurrence create(@RequestBody CreateRecurrenceRequest req) {
+        return service.create(req.customerId, req.siteId, req.technicianId, req.priority,
+                req.purpose, req.notesPlanned, req.rrule, req.dtstart, req.timeZone,
+                req.durationMinutes == null ? 0 : req.durationMinutes);
+    }
+
+    /**
+     * Obtiene una regla de recurrencia.
+     *
+     * @param id Identificador de la regla.
+     * @return Regla encontrada.
+     */
+    @GetMapping("/{id}")
+    public Recurrence get(@PathVariable UUID id) {
+        return service.get(id);
+    }
+
+    /**
+     * Detiene la generación de visitas de la regla. Las visitas ya generadas
+     * no se modifican.
+     *
+     * @param id Identificador de la regla.
+     */
+    @DeleteMapping("/{id}")
+    public void deactivate(@PathVariable UUID id) {
+        service.deactivate(id);
+    }
+
+    public static class CreateRecurrenceRequest {
+
+        public UUID customerId;
+        public UUID siteId;
+        public UUID technicianId;
+        public VisitPriority priority;
+        public String purpose;
+        public String notesPlanned;
+        public String rrule;
+        public OffsetDateTime dtstart;
+        public String timeZone;
+        public Integer durationMinutes;
+    }
+}
@@ -0,0 +1,39 @@
+package com.visits.web;
+
+import com.visits.service.VisitSyncService;
+import com.visits.service.VisitSyncService.SyncResponse;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+/**
+ * Sincronización incremental para la app móvil de técnicos. Sustituye las
+ * llamadas repetidas a {@code /visits/me/today} por deltas pequeños; la
+ * respuesta se comprime con gzip (ver {@code server.compression}).
+ */
+@RestController
+@RequestMapping("/visits")
+public class VisitSyncController {
+
+    private final VisitSyncService sync;
+
+    public VisitSyncController(VisitSyncService sync) {
+        this.sync = sync;
+    }
+
+    /**
+     * Cambios en la agenda del técnico desde el token indicado.
+     *
+     * @param technicianId Identificador del técnico.
+     * @param since        Token de la respuesta anterior; sin él se devuelve la agenda completa.
+     * @return Visitas, notas y eventos cambiados, tombstones de cancelaciones y el próximo token.
+     */
+    @GetMapping("/sync")
+    public SyncResponse sync(@RequestParam UUID technicianId,
+            @RequestParam(required = false) String since) {
+        return sync.sync(technicianId, since);
+    }
+}
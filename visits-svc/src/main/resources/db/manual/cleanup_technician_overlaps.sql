@@ -0,0 +1,43 @@
+-- Limpieza previa a ex_visits_technician_overlap (V5). No la ejecuta Flyway:
+-- se lanza a mano con psql contra la BD del entorno, antes del despliegue.
+--
+--   psql "$DATABASE_URL" -f cleanup_technician_overlaps.sql
+--
+-- 1. Lista las parejas de visitas PLANNED/STARTED del mismo técnico que se
+--    solapan. Operaciones decide cuál se reprograma o se reasigna.
+-- 2. La segunda parte (comentada, opcional) corrige en bloque lo que quede:
+--    de cada pareja cancela la visita PLANNED creada más tarde, nunca una
+--    STARTED. Va directa a la tabla, así que no genera visit_events ni avisa
+--    al técnico. Volver a lanzar el paso 1 hasta que no liste nada.
+--
+-- Con los datos limpios TechnicianOverlapConstraint crea la restricción en su
+-- siguiente comprobación, sin redesplegar.
+
+SELECT a.technician_id,
+       a.id AS visit_a, a.state AS state_a, a.scheduled_start_at AS start_a, a.scheduled_end_at AS end_a,
+       b.id AS visit_b, b.state AS state_b, b.scheduled_start_at AS start_b, b.scheduled_end_at AS end_b
+FROM app.visits a
+JOIN app.visits b
+  ON b.technician_id = a.technician_id
+ AND b.id > a.id
+ AND b.scheduled_start_at < a.scheduled_end_at
+ AND a.scheduled_start_at < b.scheduled_end_at
+WHERE a.state IN ('PLANNED', 'STARTED')
+  AND b.state IN ('PLANNED', 'STARTED')
+ORDER BY a.technician_id, a.scheduled_start_at;
+
+-- BEGIN;
+-- UPDATE app.visits v
+--    SET state = 'CANCELLED'
+--  WHERE v.state = 'PLANNED'
+--    AND EXISTS (
+--      SELECT 1 FROM app.visits o
+--      WHERE o.technician_id = v.technician_id
+--        AND o.id <> v.id
+--        AND o.state IN ('PLANNED', 'STARTED')
+--        AND o.scheduled_start_at < v.scheduled_end_at
+--        AND v.scheduled_start_at < o.scheduled_end_at
+--        AND (o.state = 'STARTED' OR o.created_at < v.created_at
+--             OR (o.created_at = v.created_at AND o.id < v.id))
+--    );
+-- COMMIT;
@@ -0,0 +1,20 @@
+-- Índices para GET /visits con filtros componibles.
+-- El filtro de igualdad va delante y scheduled_start_at (rango y orden del
+-- listado) detrás; así filtro + orden + limit se resuelven con un recorrido.
+-- technician_id ya tiene ix_visits_technician_start (modelo_datos.sql).
+
+-- Visitas de un cliente (hasta ahora sin índice sobre customer_id)
+CREATE INDEX IF NOT EXISTS ix_visits_customer_start
+  ON app.visits (customer_id, scheduled_start_at);
+
+-- Visitas de un sitio
+CREATE INDEX IF NOT EXISTS ix_visits_site_start
+  ON app.visits (site_id, scheduled_start_at);
+
+-- Agenda por estado (p. ej. PLANNED de la próxima semana)
+CREATE INDEX IF NOT EXISTS ix_visits_state_start
+  ON app.visits (state, scheduled_start_at);
+
+-- Solo rango de fechas, o sin filtros (orden por defecto)
+CREATE INDEX IF NOT EXISTS ix_visits_start
+  ON app.visits (scheduled_start_at);
@@ -0,0 +1,24 @@
+-- visit_emails pasa a ser el outbox de correos de visitas: el check-out solo
+-- inserta la fila PENDING en su transacción y VisitEmailDispatcher la envía.
+--
+-- next_attempt_at: cuándo puede reclamarse la fila. Al reclamarla se marca
+--   SENDING y se adelanta un lease; si la instancia muere a mitad del envío,
+--   la fila vuelve a estar disponible cuando vence.
+-- attempts: intentos hechos; tras el máximo configurado queda FAILED.
+ALTER TABLE app.visit_emails
+  ADD COLUMN IF NOT EXISTS attempts        INT NOT NULL DEFAULT 0,
+  ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  ADD COLUMN IF NOT EXISTS sent_at         TIMESTAMPTZ;
+
+-- Las filas anteriores al outbox ya pasaron por el envío síncrono: las que
+-- quedaron PENDING/ERROR no se reintentan (next_attempt_at = now() las haría
+-- vencer todas a la vez y se reenviarían correos de visitas antiguas).
+UPDATE app.visit_emails
+   SET status = 'FAILED',
+       error_message = coalesce(error_message, 'No enviado antes de activar el outbox')
+ WHERE status IN ('PENDING', 'ERROR');
+
+-- Correos pendientes de (re)intentar, en el orden en que se reclaman
+CREATE INDEX IF NOT EXISTS ix_visit_emails_due
+  ON app.visit_emails (next_attempt_at)
+  WHERE status IN ('PENDING', 'ERROR', 'SENDING');
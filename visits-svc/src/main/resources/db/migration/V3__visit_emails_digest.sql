@@ -0,0 +1,5 @@
+-- Modo digest: los correos marcados se envían agrupados por destinatario en
+-- un solo resumen. Se encolan con next_attempt_at = fin de su ventana, así el
+-- dispatcher reclama juntos todos los de la misma ventana.
+ALTER TABLE app.visit_emails
+  ADD COLUMN IF NOT EXISTS digest BOOLEAN NOT NULL DEFAULT false;
@@ -0,0 +1,8 @@
+-- Secuencia global de eventos de visita: es el id de los eventos SSE
+-- (GET /visits/.../events/stream) y permite reanudar con Last-Event-ID.
+-- Las filas existentes reciben su número al añadir la columna.
+ALTER TABLE app.visit_events
+  ADD COLUMN IF NOT EXISTS seq BIGINT GENERATED ALWAYS AS IDENTITY;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_visit_events_seq
+  ON app.visit_events (seq);
@@ -0,0 +1,49 @@
+-- Red de seguridad contra visitas solapadas del mismo técnico. La detección
+-- normal la hace TechnicianScheduleIndex en memoria; esta restricción cubre
+-- las carreras entre transacciones concurrentes.
+--
+-- Esta migración nunca falla: si el usuario de la BD no puede crear btree_gist
+-- o ya hay solapes en los datos, avisa y sigue. TechnicianOverlapConstraint
+-- vuelve a intentar crear la restricción al arrancar y cada check-interval, y
+-- publica la métrica visits.schedule.overlap_constraint.missing para alertar
+-- mientras falte. Los solapes se corrigen con db/manual/cleanup_technician_overlaps.sql
+-- antes del despliegue (o después: la restricción se crea sola al quedar limpios).
+DO $$
+BEGIN
+  CREATE EXTENSION IF NOT EXISTS btree_gist;
+EXCEPTION WHEN insufficient_privilege THEN
+  RAISE WARNING 'btree_gist not available (%); a superuser must run CREATE EXTENSION btree_gist', SQLERRM;
+END
+$$;
+
+DO $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'ex_visits_technician_overlap') THEN
+    RETURN;
+  END IF;
+  IF NOT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'btree_gist') THEN
+    RAISE WARNING 'ex_visits_technician_overlap not created: btree_gist is missing';
+    RETURN;
+  END IF;
+  IF EXISTS (
+    SELECT 1
+    FROM app.visits a
+    JOIN app.visits b
+      ON b.technician_id = a.technician_id
+     AND b.id > a.id
+     AND b.scheduled_start_at < a.scheduled_end_at
+     AND a.scheduled_start_at < b.scheduled_end_at
+    WHERE a.state IN ('PLANNED', 'STARTED')
+      AND b.state IN ('PLANNED', 'STARTED')
+  ) THEN
+    RAISE WARNING 'ex_visits_technician_overlap not created: overlapping PLANNED/STARTED visits exist';
+    RETURN;
+  END IF;
+  ALTER TABLE app.visits
+    ADD CONSTRAINT ex_visits_technician_overlap
+    EXCLUDE USING gist (
+      technician_id WITH =,
+      tstzrange(scheduled_start_at, scheduled_end_at) WITH &&
+    ) WHERE (state IN ('PLANNED', 'STARTED'));
+END
+$$;
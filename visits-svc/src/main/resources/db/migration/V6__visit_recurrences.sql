@@ -0,0 +1,38 @@
+-- Visitas recurrentes (contratos de mantenimiento preventivo). Cada fila es una
+-- regla estilo RRULE; VisitRecurrenceService genera sus visitas PLANNED hasta
+-- un horizonte móvil y avanza generated_until.
+CREATE TABLE IF NOT EXISTS app.visit_recurrences (
+  id               UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+  customer_id      UUID NOT NULL REFERENCES app.customers(id) ON DELETE RESTRICT,
+  site_id          UUID REFERENCES app.customer_sites(id) ON DELETE SET NULL,
+  technician_id    UUID NOT NULL REFERENCES app.technicians(user_id) ON DELETE RESTRICT,
+  priority         app.visit_priority NOT NULL DEFAULT 'MEDIUM',
+  purpose          VARCHAR(200),
+  notes_planned    VARCHAR(2000),
+  rrule            VARCHAR(300) NOT NULL,
+  dtstart          TIMESTAMPTZ NOT NULL,
+  time_zone        VARCHAR(64) NOT NULL DEFAULT 'UTC',
+  duration_minutes INT NOT NULL CHECK (duration_minutes > 0),
+  generated_until  TIMESTAMPTZ NOT NULL,
+  active           BOOLEAN NOT NULL DEFAULT TRUE,
+  created_at       TIMESTAMPTZ NOT NULL DEFAULT now(),
+  updated_at       TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+DROP TRIGGER IF EXISTS trg_visit_recurrences_updated_at ON app.visit_recurrences;
+CREATE TRIGGER trg_visit_recurrences_updated_at
+  BEFORE UPDATE ON app.visit_recurrences
+  FOR EACH ROW EXECUTE FUNCTION app.set_updated_at();
+
+-- Reglas activas con visitas pendientes de generar.
+CREATE INDEX IF NOT EXISTS ix_visit_recurrences_due
+  ON app.visit_recurrences (generated_until)
+  WHERE active;
+
+ALTER TABLE app.visits
+  ADD COLUMN IF NOT EXISTS recurrence_id UUID REFERENCES app.visit_recurrences(id) ON DELETE SET NULL;
+
+-- Una ocurrencia se genera una sola vez aunque se reintente un lote.
+CREATE UNIQUE INDEX IF NOT EXISTS ux_visits_recurrence_start
+  ON app.visits (recurrence_id, scheduled_start_at)
+  WHERE recurrence_id IS NOT NULL;
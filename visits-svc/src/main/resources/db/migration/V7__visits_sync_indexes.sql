@@ -0,0 +1,10 @@
+-- Índices para GET /visits/sync (sincronización incremental de los móviles
+-- de técnicos): cambios de visitas por técnico y notas/eventos recientes.
+CREATE INDEX IF NOT EXISTS ix_visits_technician_updated
+  ON app.visits (technician_id, updated_at);
+
+CREATE INDEX IF NOT EXISTS ix_visit_notes_created
+  ON app.visit_notes (created_at);
+
+CREATE INDEX IF NOT EXISTS ix_visit_events_created
+  ON app.visit_events (created_at);
@@ -0,0 +1,32 @@
+-- Historial de reasignaciones de técnico, para GET /visits/sync: el técnico
+-- anterior recibe la visita como tombstone y el nuevo recibe todas sus notas
+-- y eventos, no solo los posteriores a su último token. Lo rellena un trigger
+-- para cubrir cualquier UPDATE de technician_id, venga de donde venga.
+CREATE TABLE IF NOT EXISTS app.visit_reassignments (
+  id                 BIGSERIAL PRIMARY KEY,
+  visit_id           UUID NOT NULL REFERENCES app.visits(id) ON DELETE CASCADE,
+  from_technician_id UUID NOT NULL,
+  to_technician_id   UUID NOT NULL,
+  reassigned_at      TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS ix_visit_reassignments_from
+  ON app.visit_reassignments (from_technician_id, reassigned_at);
+
+CREATE INDEX IF NOT EXISTS ix_visit_reassignments_to
+  ON app.visit_reassignments (to_technician_id, reassigned_at);
+
+CREATE OR REPLACE FUNCTION app.log_visit_reassignment()
+RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+  INSERT INTO app.visit_reassignments (visit_id, from_technician_id, to_technician_id)
+  VALUES (NEW.id, OLD.technician_id, NEW.technician_id);
+  RETURN NEW;
+END $$;
+
+DROP TRIGGER IF EXISTS trg_visits_reassignment ON app.visits;
+CREATE TRIGGER trg_visits_reassignment
+  AFTER UPDATE OF technician_id ON app.visits
+  FOR EACH ROW
+  WHEN (OLD.technician_id IS DISTINCT FROM NEW.technician_id)
+  EXECUTE FUNCTION app.log_visit_reassignment();
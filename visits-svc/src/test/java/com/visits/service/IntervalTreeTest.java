@@ -0,0 +1,97 @@
+package com.visits.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntervalTreeTest {
+
+    private static List<UUID> overlapping(IntervalTree tree, long start, long end, UUID exclude) {
+        List<IntervalTree.Hit> out = new ArrayList<>();
+        tree.overlapping(start, end, exclude, out);
+        return out.stream().map(IntervalTree.Hit::id).toList();
+    }
+
+    @Test
+    void halfOpenIntervalsOnlyTouchingDoNotOverlap() {
+        IntervalTree tree = new IntervalTree();
+        UUID a = UUID.randomUUID();
+        tree.insert(a, 10, 20);
+
+        assertEquals(List.of(), overlapping(tree, 0, 10, null));
+        assertEquals(List.of(), overlapping(tree, 20, 30, null));
+        assertEquals(List.of(a), overlapping(tree, 19, 21, null));
+        assertEquals(List.of(a), overlapping(tree, 12, 15, null));
+        assertEquals(List.of(a), overlapping(tree, 0, 100, null));
+    }
+
+    @Test
+    void resultsAreOrderedByStartAndSkipExclude() {
+        IntervalTree tree = new IntervalTree();
+        UUID late = UUID.randomUUID();
+        UUID early = UUID.randomUUID();
+        UUID self = UUID.randomUUID();
+        tree.insert(late, 30, 40);
+        tree.insert(early, 5, 35);
+        tree.insert(self, 20, 25);
+
+        assertEquals(List.of(early, self, late), overlapping(tree, 20, 32, null));
+        assertEquals(List.of(early, late), overlapping(tree, 20, 32, self));
+    }
+
+    @Test
+    void removeNeedsIdAndStart() {
+        IntervalTree tree = new IntervalTree();
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        tree.insert(a, 10, 20);
+        tree.insert(b, 10, 20);
+
+        assertFalse(tree.remove(a, 11));
+        assertFalse(tree.remove(UUID.randomUUID(), 10));
+        assertTrue(tree.remove(a, 10));
+        assertFalse(tree.remove(a, 10));
+        assertEquals(1, tree.size());
+        assertEquals(List.of(b), overlapping(tree, 0, 100, null));
+    }
+
+    @Test
+    void matchesBruteForceAfterRandomInsertsAndRemoves() {
+        Random rnd = new Random(7);
+        IntervalTree tree = new IntervalTree();
+        List<IntervalTree.Hit> all = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            long start = rnd.nextInt(10_000);
+            IntervalTree.Hit h = new IntervalTree.Hit(UUID.randomUUID(), start, start + 1 + rnd.nextInt(200));
+            tree.insert(h.id(), h.start(), h.end());
+            all.add(h);
+        }
+        for (int i = 0; i < 700; i++) {
+            IntervalTree.Hit h = all.remove(rnd.nextInt(all.size()));
+            assertTrue(tree.remove(h.id(), h.start()));
+        }
+        assertEquals(all.size(), tree.size());
+
+        for (int q = 0; q < 200; q++) {
+            long start = rnd.nextInt(10_000);
+            long end = start + 1 + rnd.nextInt(300);
+            List<IntervalTree.Hit> got = new ArrayList<>();
+            tree.overlapping(start, end, null, got);
+
+            long expected = all.stream().filter(h -> h.start() < end && h.end() > start).count();
+            assertEquals(expected, got.size());
+            for (int i = 0; i < got.size(); i++) {
+                IntervalTree.Hit h = got.get(i);
+                assertTrue(h.start() < end && h.end() > start);
+                if (i > 0) assertTrue(got.get(i - 1).start() <= h.start());
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.visits.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecurrenceRuleTest {
+
+    private static final ZoneId MADRID = ZoneId.of("Europe/Madrid");
+
+    private static ZonedDateTime at(int year, int month, int day, int hour) {
+        return ZonedDateTime.of(LocalDateTime.of(year, month, day, hour, 0), MADRID);
+    }
+
+    private static List<ZonedDateTime> expand(String rule, ZonedDateTime dtstart, Instant from, Instant to) {
+        List<ZonedDateTime> out = new ArrayList<>();
+        RecurrenceRule.parse(rule).expand(dtstart, from, to, out::add);
+        return out;
+    }
+
+    @Test
+    void parsesSupportedParts() {
+        RecurrenceRule r = RecurrenceRule.parse("RRULE:freq=weekly;INTERVAL=6;BYDAY=TU,FR;COUNT=4");
+        assertEquals(RecurrenceRule.Freq.WEEKLY, r.freq);
+        assertEquals(6, r.interval);
+        assertEquals(List.of(DayOfWeek.TUESDAY, DayOfWeek.FRIDAY), r.byDay);
+        assertEquals(Integer.valueOf(4), r.count);
+
+        assertEquals(Instant.parse("2026-03-31T23:59:59.999Z"), RecurrenceRule.parse("FREQ=DAILY;UNTIL=20260331").until);
+        assertEquals(Instant.parse("2026-03-31T10:00:00Z"),
+                RecurrenceRule.parse("FREQ=DAILY;UNTIL=20260331T100000Z").until);
+    }
+
+    @Test
+    void rejectsInvalidRules() {
+        for (String bad : List.of("", "INTERVAL=2", "FREQ=YEARLY", "FREQ=DAILY;INTERVAL=0", "FREQ=DAILY;COUNT=0",
+                "FREQ=DAILY;COUNT=2;UNTIL=20260101", "FREQ=DAILY;BYDAY=MO", "FREQ=WEEKLY;BYDAY=1MO",
+                "FREQ=DAILY;INTERVAL=x", "FREQ=DAILY;BYMONTH=2", "FREQ")) {
+            assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse(bad), bad);
+        }
+    }
+
+    @Test
+    void weeklyWithIntervalAndDays() {
+        // Miércoles 7 de enero de 2026: el martes de esa semana ya pasó.
+        ZonedDateTime start = at(2026, 1, 7, 9);
+        List<ZonedDateTime> got = expand("FREQ=WEEKLY;INTERVAL=2;BYDAY=TU,FR", start,
+                start.toInstant(), at(2026, 2, 1, 0).toInstant());
+
+        assertEquals(List.of(at(2026, 1, 9, 9), at(2026, 1, 20, 9), at(2026, 1, 23, 9)), got);
+    }
+
+    @Test
+    void monthlyClampsToTheLastDay() {
+        ZonedDateTime start = at(2026, 1, 31, 8);
+        List<ZonedDateTime> got = expand("FREQ=MONTHLY", start, start.toInstant(), at(2026, 5, 1, 0).toInstant());
+
+        assertEquals(List.of(at(2026, 1, 31, 8), at(2026, 2, 28, 8), at(2026, 3, 31, 8), at(2026, 4, 30, 8)), got);
+    }
+
+    @Test
+    void keepsLocalTimeAcrossDaylightSaving() {
+        // En Madrid el horario de verano empieza el 29 de marzo de 2026.
+        ZonedDateTime start = at(2026, 3, 27, 10);
+        List<ZonedDateTime> got = expand("FREQ=DAILY", start, start.toInstant(), at(2026, 3, 31, 0).toInstant());
+
+        assertEquals(4, got.size());
+        got.forEach(t -> assertEquals(LocalTime.of(10, 0), t.toLocalTime()));
+        assertEquals(23, Duration.between(got.get(1), got.get(2)).toHours());
+    }
+
+    @Test
+    void occurrencesBeforeFromCountTowardsCount() {
+        ZonedDateTime start = at(2026, 1, 1, 9);
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY;COUNT=5");
+        List<ZonedDateTime> got = new ArrayList<>();
+
+        boolean done = rule.expand(start, at(2026, 1, 4, 0).toInstant(), at(2026, 2, 1, 0).toInstant(), got::add);
+
+        assertEquals(List.of(at(2026, 1, 4, 9), at(2026, 1, 5, 9)), got);
+        assertTrue(done);
+    }
+
+    @Test
+    void reportsWhetherTheRuleContinuesPastTo() {
+        ZonedDateTime start = at(2026, 1, 1, 9);
+        Instant to = at(2026, 1, 3, 0).toInstant();
+
+        assertFalse(RecurrenceRule.parse("FREQ=DAILY").expand(start, start.toInstant(), to, t -> { }));
+        assertTrue(RecurrenceRule.parse("FREQ=DAILY;UNTIL=20260101").expand(start, start.toInstant(), to, t -> { }));
+    }
+}
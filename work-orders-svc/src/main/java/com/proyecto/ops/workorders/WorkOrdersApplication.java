@@ -30,8 +30,10 @@ package com.proyecto.ops.workorders;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 /**
  * Clase principal que inicia la aplicación Spring Boot del microservicio "work-orders-svc".
  */
@@ -0,0 +1,215 @@
+package com.proyecto.ops.workorders.analytics;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.IntCountsHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.proyecto.ops.workorders.model.WorkOrder;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Percentiles de duración de órdenes por técnico y semana, sin recorrer filas.
+ *
+ * Cada orden que llega a DONE se registra en un histograma en memoria
+ * (HdrHistogram, error ≤ 1 %). Hay dos mapas:
+ * <ul>
+ *   <li>{@code serving}: la vista que responde las consultas (persistido + local),
+ *       solo de las últimas {@code memory-weeks} semanas.</li>
+ *   <li>{@code pending}: deltas locales aún no volcados.</li>
+ * </ul>
+ * Las semanas anteriores se leen de la BD al consultarlas, así la memoria no
+ * crece con el histórico.
+ * Cada {@code flush-interval} los deltas se suman en la BD (ver
+ * {@link DurationSketchRepository#mergeAndSave}) y se recargan las claves que
+ * otras instancias hayan cambiado. Las consultas de varias semanas suman los
+ * histogramas, lo que es exacto porque son mezclables.
+ *
+ * Si la instancia cae sin apagarse de forma ordenada, se pierden los deltas
+ * del último intervalo.
+ */
+@Service
+public class DurationAnalyticsService {
+    private static final Logger log = LoggerFactory.getLogger(DurationAnalyticsService.class);
+
+    // Solape de la recarga incremental: cubre transacciones de otras instancias
+    // que empezaron antes de la última recarga pero confirmaron después.
+    private static final Duration RELOAD_OVERLAP = Duration.ofMinutes(2);
+
+    // Técnico y semana; la fila que mezcla semanas (weekStart null) va primero.
+    private static final Comparator<SketchKey> GROUP_ORDER = Comparator
+            .comparing(SketchKey::technicianId)
+            .thenComparing(SketchKey::weekStart, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final DurationSketchRepository repo;
+    private final int memoryWeeks;
+
+    // Protegidos por this
+    private final Map<SketchKey, IntCountsHistogram> serving = new HashMap<>();
+    private Map<SketchKey, IntCountsHistogram> pending = new HashMap<>();
+    private OffsetDateTime lastReload;
+    private LocalDate windowStart;
+
+    public DurationAnalyticsService(DurationSketchRepository repo,
+                                    @Value("${work-orders.analytics.memory-weeks:12}") int memoryWeeks) {
+        this.repo = repo;
+        this.memoryWeeks = Math.max(memoryWeeks, 1);
+        this.windowStart = currentWindowStart();
+    }
+
+    /** Registra una orden que acaba de pasar a DONE. */
+    public void onDone(WorkOrder w) {
+        if (w.getTechnicianId() == null || w.getEndedAt() == null) return;
+        SketchKey key = new SketchKey(w.getTechnicianId(), DurationSketches.weekStart(w.getEndedAt()));
+        synchronized (this) {
+            IntCountsHistogram p = pending.computeIfAbsent(key, k -> DurationSketches.newHistogram());
+            if (DurationSketches.record(p, w.getStartedAt(), w.getEndedAt()) && inWindow(key)) {
+                DurationSketches.record(serving.computeIfAbsent(key, k -> DurationSketches.newHistogram()),
+                        w.getStartedAt(), w.getEndedAt());
+            }
+        }
+    }
+
+    /**
+     * Percentiles en el rango de semanas [from, to].
+     *
+     * @param technicianId técnico, o null para todos.
+     * @param perWeek      true: una fila por técnico y semana; false: semanas mezcladas por técnico.
+     */
+    public List<DurationPercentiles> query(UUID technicianId, LocalDate from, LocalDate to, boolean perWeek) {
+        LocalDate fromWeek = from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        Map<SketchKey, Histogram> groups = new TreeMap<>(GROUP_ORDER);
+        LocalDate window;
+        synchronized (this) {
+            window = windowStart;
+            serving.forEach((k, h) -> {
+                if (matches(k, technicianId, fromWeek, to)) addTo(groups, k, h, perWeek);
+            });
+        }
+        if (fromWeek.isBefore(window)) {
+            // Semanas fuera de memoria: lo persistido más lo local aún sin volcar.
+            LocalDate lastOld = to.isBefore(window) ? to : window.minusDays(1);
+            Map<SketchKey, IntCountsHistogram> old = repo.loadWeeks(technicianId, fromWeek, lastOld);
+            synchronized (this) {
+                pending.forEach((k, h) -> {
+                    if (matches(k, technicianId, fromWeek, lastOld)) addTo(groups, k, h, perWeek);
+                });
+            }
+            old.forEach((k, h) -> addTo(groups, k, h, perWeek));
+        }
+        List<DurationPercentiles> out = new ArrayList<>(groups.size());
+        groups.forEach((k, h) -> {
+            if (h.getTotalCount() == 0) return;
+            out.add(new DurationPercentiles(k.technicianId(), k.weekStart(), h.getTotalCount(),
+                    h.getValueAtPercentile(50), h.getValueAtPercentile(90), h.getValueAtPercentile(99), h.getMaxValue()));
+        });
+        return out;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (repo.backfillIfEmpty()) {
+            log.info("Duration sketches backfilled from work order history");
+        }
+        OffsetDateTime at = repo.now();
+        LocalDate window = currentWindowStart();
+        Map<SketchKey, IntCountsHistogram> recent = repo.loadChangedSince(null, window);
+        synchronized (this) {
+            windowStart = window;
+            recent.forEach((k, h) -> serving.put(k, withPending(k, h)));
+            lastReload = at;
+        }
+        log.info("Duration sketches loaded: {} technician-weeks since {}", recent.size(), window);
+    }
+
+    @Scheduled(initialDelayString = "${work-orders.analytics.flush-interval:PT1M}",
+               fixedDelayString = "${work-orders.analytics.flush-interval:PT1M}")
+    public void flush() {
+        Map<SketchKey, IntCountsHistogram> batch;
+        OffsetDateTime since;
+        LocalDate window = currentWindowStart();
+        synchronized (this) {
+            batch = pending;
+            pending = new HashMap<>();
+            since = lastReload;
+        }
+
+        Map<SketchKey, IntCountsHistogram> fresh = new HashMap<>();
+        OffsetDateTime at;
+        try {
+            at = repo.now();
+            if (!batch.isEmpty()) fresh.putAll(repo.mergeAndSave(batch));
+            fresh.putAll(repo.loadChangedSince(since == null ? null : since.minus(RELOAD_OVERLAP), window));
+        } catch (RuntimeException e) {
+            // Se devuelven los deltas para el siguiente intento
+            synchronized (this) {
+                batch.forEach((k, h) -> pending.merge(k, h, (a, b) -> { a.add(b); return a; }));
+            }
+            log.warn("Could not flush duration sketches: {}", e.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            // La ventana avanza con las semanas: lo que sale se consulta en la BD.
+            windowStart = window;
+            serving.keySet().removeIf(k -> !inWindow(k));
+            fresh.forEach((k, h) -> {
+                if (inWindow(k)) serving.put(k, withPending(k, h));
+            });
+            lastReload = at;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Vista = persistido + lo registrado localmente desde el último volcado. Llamar con el lock.
+    private IntCountsHistogram withPending(SketchKey key, IntCountsHistogram persisted) {
+        IntCountsHistogram p = pending.get(key);
+        if (p == null) return persisted;
+        IntCountsHistogram view = persisted.copy();
+        view.add(p);
+        return view;
+    }
+
+    // Llamar con el lock.
+    private boolean inWindow(SketchKey key) {
+        return !key.weekStart().isBefore(windowStart);
+    }
+
+    private LocalDate currentWindowStart() {
+        return DurationSketches.weekStart(OffsetDateTime.now(ZoneOffset.UTC)).minusWeeks(memoryWeeks - 1L);
+    }
+
+    private static void addTo(Map<SketchKey, Histogram> groups, SketchKey key, IntCountsHistogram h, boolean perWeek) {
+        SketchKey group = perWeek ? key : new SketchKey(key.technicianId(), null);
+        groups.computeIfAbsent(group, k -> DurationSketches.newAggregate()).add(h);
+    }
+
+    private static boolean matches(SketchKey k, UUID technicianId, LocalDate fromWeek, LocalDate to) {
+        return (technicianId == null || technicianId.equals(k.technicianId()))
+                && !k.weekStart().isBefore(fromWeek) && !k.weekStart().isAfter(to);
+    }
+}
@@ -0,0 +1,21 @@
+package com.proyecto.ops.workorders.analytics;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Percentiles de duración (endedAt - startedAt) en segundos.
+ *
+ * @param technicianId técnico.
+ * @param weekStart    lunes de la semana, o null si se mezclaron varias semanas.
+ * @param count        órdenes DONE incluidas.
+ */
+public record DurationPercentiles(
+    UUID technicianId,
+    LocalDate weekStart,
+    long count,
+    long p50Seconds,
+    long p90Seconds,
+    long p99Seconds,
+    long maxSeconds
+) {}
@@ -0,0 +1,174 @@
+package com.proyecto.ops.workorders.analytics;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.HdrHistogram.IntCountsHistogram;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Persistencia de los histogramas en {@code app.work_order_duration_sketches}. */
+@Repository
+class DurationSketchRepository {
+
+    private final JdbcTemplate jdbc;
+
+    DurationSketchRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Suma los deltas sobre lo persistido y devuelve el resultado mezclado.
+     *
+     * Primero reserva las filas que falten (ON CONFLICT DO NOTHING) y luego las
+     * bloquea con FOR UPDATE. Así dos instancias que vuelcan la misma clave se
+     * serializan y ninguna pisa el delta de la otra.
+     */
+    @Transactional
+    public Map<SketchKey, IntCountsHistogram> mergeAndSave(Map<SketchKey, IntCountsHistogram> deltas) {
+        List<SketchKey> keys = new ArrayList<>(deltas.keySet());
+        UUID[] techs = keys.stream().map(SketchKey::technicianId).toArray(UUID[]::new);
+        Date[] weeks = keys.stream().map(k -> Date.valueOf(k.weekStart())).toArray(Date[]::new);
+
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement("""
+                    insert into app.work_order_duration_sketches (technician_id, week_start, histogram)
+                    select t, w, ''::bytea from unnest(?::uuid[], ?::date[]) as k(t, w)
+                    on conflict do nothing
+                    """);
+            ps.setArray(1, con.createArrayOf("uuid", techs));
+            ps.setArray(2, con.createArrayOf("date", weeks));
+            return ps;
+        });
+
+        Map<SketchKey, IntCountsHistogram> merged = new HashMap<>();
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement("""
+                    select s.technician_id, s.week_start, s.histogram
+                    from app.work_order_duration_sketches s
+                    join unnest(?::uuid[], ?::date[]) as k(t, w)
+                      on s.technician_id = k.t and s.week_start = k.w
+                    order by s.technician_id, s.week_start
+                    for update of s
+                    """);
+            ps.setArray(1, con.createArrayOf("uuid", techs));
+            ps.setArray(2, con.createArrayOf("date", weeks));
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            SketchKey key = new SketchKey(rs.getObject(1, UUID.class), rs.getObject(2, LocalDate.class));
+            IntCountsHistogram h = DurationSketches.decode(rs.getBytes(3));
+            h.add(deltas.get(key));
+            merged.put(key, h);
+        });
+
+        List<Map.Entry<SketchKey, IntCountsHistogram>> rows = new ArrayList<>(merged.entrySet());
+        jdbc.batchUpdate("""
+                update app.work_order_duration_sketches
+                set histogram = ?, total_count = ?, updated_at = now()
+                where technician_id = ? and week_start = ?
+                """,
+                rows, 500,
+                (ps, e) -> {
+                    ps.setBytes(1, DurationSketches.encode(e.getValue()));
+                    ps.setLong(2, e.getValue().getTotalCount());
+                    ps.setObject(3, e.getKey().technicianId());
+                    ps.setObject(4, e.getKey().weekStart());
+                });
+        return merged;
+    }
+
+    /**
+     * Histogramas de semanas desde {@code fromWeek} modificados después de
+     * {@code since} (todos si es null).
+     */
+    Map<SketchKey, IntCountsHistogram> loadChangedSince(OffsetDateTime since, LocalDate fromWeek) {
+        Map<SketchKey, IntCountsHistogram> out = new HashMap<>();
+        String sql = "select technician_id, week_start, histogram from app.work_order_duration_sketches"
+                + " where week_start >= ?";
+        if (since == null) {
+            jdbc.query(sql, handler(out), fromWeek);
+        } else {
+            jdbc.query(sql + " and updated_at > ?", handler(out), fromWeek, since);
+        }
+        return out;
+    }
+
+    /** Histogramas persistidos de las semanas [fromWeek, toWeek], de un técnico o de todos (null). */
+    Map<SketchKey, IntCountsHistogram> loadWeeks(UUID technicianId, LocalDate fromWeek, LocalDate toWeek) {
+        Map<SketchKey, IntCountsHistogram> out = new HashMap<>();
+        String sql = "select technician_id, week_start, histogram from app.work_order_duration_sketches"
+                + " where week_start between ? and ?";
+        if (technicianId == null) {
+            jdbc.query(sql, handler(out), fromWeek, toWeek);
+        } else {
+            jdbc.query(sql + " and technician_id = ?", handler(out), fromWeek, toWeek, technicianId);
+        }
+        return out;
+    }
+
+    private static RowCallbackHandler handler(Map<SketchKey, IntCountsHistogram> out) {
+        return rs -> out.put(
+                new SketchKey(rs.getObject(1, UUID.class), rs.getObject(2, LocalDate.class)),
+                DurationSketches.decode(rs.getBytes(3)));
+    }
+
+    OffsetDateTime now() {
+        return jdbc.queryForObject("select now()", OffsetDateTime.class);
+    }
+
+    /**
+     * Primer arranque: si la tabla está vacía, construye los histogramas desde
+     * el histórico de órdenes DONE. Un advisory lock de transacción evita que dos
+     * instancias lo hagan a la vez.
+     *
+     * @return true si se hizo el backfill.
+     */
+    @Transactional
+    public boolean backfillIfEmpty() {
+        Boolean locked = jdbc.queryForObject(
+                "select pg_try_advisory_xact_lock(hashtext('app.work_order_duration_sketches'))", Boolean.class);
+        Boolean empty = jdbc.queryForObject(
+                "select not exists (select 1 from app.work_order_duration_sketches)", Boolean.class);
+        if (!Boolean.TRUE.equals(locked) || !Boolean.TRUE.equals(empty)) return false;
+
+        Map<SketchKey, IntCountsHistogram> acc = new HashMap<>();
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement("""
+                    select technician_id, started_at, ended_at
+                    from app.work_orders
+                    where status = 'DONE' and technician_id is not null
+                      and started_at is not null and ended_at is not null
+                    """);
+            ps.setFetchSize(1000);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            OffsetDateTime started = rs.getObject(2, OffsetDateTime.class);
+            OffsetDateTime ended = rs.getObject(3, OffsetDateTime.class);
+            SketchKey key = new SketchKey(rs.getObject(1, UUID.class), DurationSketches.weekStart(ended));
+            DurationSketches.record(acc.computeIfAbsent(key, k -> DurationSketches.newHistogram()), started, ended);
+        });
+
+        List<Map.Entry<SketchKey, IntCountsHistogram>> rows = new ArrayList<>(acc.entrySet());
+        jdbc.batchUpdate("""
+                insert into app.work_order_duration_sketches (technician_id, week_start, histogram, total_count)
+                values (?, ?, ?, ?)
+                """,
+                rows, 500,
+                (ps, e) -> {
+                    ps.setObject(1, e.getKey().technicianId());
+                    ps.setObject(2, e.getKey().weekStart());
+                    ps.setBytes(3, DurationSketches.encode(e.getValue()));
+                    ps.setLong(4, e.getValue().getTotalCount());
+                });
+        return true;
+    }
+}
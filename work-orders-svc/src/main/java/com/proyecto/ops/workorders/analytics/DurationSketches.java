@@ -0,0 +1,75 @@
+package com.proyecto.ops.workorders.analytics;
+
+import java.nio.ByteBuffer;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+
+import org.HdrHistogram.AbstractHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.IntCountsHistogram;
+
+/**
+ * Utilidades comunes para los histogramas de duración: configuración,
+ * cubeta semanal y (de)serialización.
+ *
+ * Todos los histogramas comparten rango (1 s – 365 días) y precisión
+ * (2 dígitos significativos, error relativo ≤ 1 %), lo que los hace sumables
+ * entre sí con {@link AbstractHistogram#add}. Los de técnico y semana usan
+ * contadores int ({@link IntCountsHistogram}, la mitad de memoria que long: una
+ * cubeta no llega a 2^31 órdenes en una semana); las sumas de varias semanas o
+ * técnicos de una consulta, contadores long. Comprimido cada uno ocupa unos
+ * pocos KB.
+ */
+final class DurationSketches {
+
+    static final long MAX_SECONDS = TimeUnit.DAYS.toSeconds(365);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private DurationSketches() {}
+
+    /** Histograma de un técnico y semana. */
+    static IntCountsHistogram newHistogram() {
+        return new IntCountsHistogram(MAX_SECONDS, SIGNIFICANT_DIGITS);
+    }
+
+    /** Acumulador de una consulta (suma de varios histogramas). */
+    static Histogram newAggregate() {
+        return new Histogram(MAX_SECONDS, SIGNIFICANT_DIGITS);
+    }
+
+    /** Registra la duración de una orden; devuelve false si los datos no son válidos. */
+    static boolean record(AbstractHistogram h, OffsetDateTime startedAt, OffsetDateTime endedAt) {
+        if (startedAt == null || endedAt == null || endedAt.isBefore(startedAt)) return false;
+        long seconds = Duration.between(startedAt, endedAt).getSeconds();
+        h.recordValue(Math.max(1, Math.min(seconds, MAX_SECONDS)));
+        return true;
+    }
+
+    static LocalDate weekStart(OffsetDateTime at) {
+        return at.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate()
+                .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    static byte[] encode(AbstractHistogram h) {
+        ByteBuffer buf = ByteBuffer.allocate(h.getNeededByteBufferCapacity());
+        int len = h.encodeIntoCompressedByteBuffer(buf);
+        return Arrays.copyOf(buf.array(), len);
+    }
+
+    /** Un array vacío es un histograma vacío (fila recién reservada). */
+    static IntCountsHistogram decode(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) return newHistogram();
+        try {
+            return IntCountsHistogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(bytes), MAX_SECONDS);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Histograma de duración corrupto", e);
+        }
+    }
+}
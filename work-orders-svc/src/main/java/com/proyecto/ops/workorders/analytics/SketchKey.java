@@ -0,0 +1,7 @@
+package com.proyecto.ops.workorders.analytics;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/** Clave de un histograma: técnico y semana (lunes, UTC). */
+record SketchKey(UUID technicianId, LocalDate weekStart) {}
@@ -0,0 +1,74 @@
+package com.proyecto.ops.workorders.clients;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Cliente HTTP para el microservicio "sites-svc". Solo se usa para obtener las
+ * coordenadas de los sitios en lote.
+ */
+@Component
+public class SitesClient {
+  private static final Logger log = LoggerFactory.getLogger(SitesClient.class);
+  // Ids por petición: mantiene la URL por debajo de ~4 KB
+  private static final int CHUNK = 100;
+
+  private final RestClient http;
+
+  public SitesClient(RestClient.Builder builder,
+                     @Value("${sites.base-url:http://localhost:8080}") String baseUrl) {
+    this.http = builder.baseUrl(baseUrl).build();
+  }
+
+  /**
+   * Sitios con coordenadas conocidas, por id. Los sitios inexistentes o sin
+   * coordenadas no aparecen en el mapa.
+   *
+   * @throws RestClientException si el servicio no está disponible.
+   */
+  public Map<UUID, SiteDto> findLocated(Collection<UUID> ids) {
+    Map<UUID, SiteDto> out = new HashMap<>();
+    List<UUID> all = new ArrayList<>(ids);
+    try {
+      for (int i = 0; i < all.size(); i += CHUNK) {
+        List<UUID> chunk = all.subList(i, Math.min(i + CHUNK, all.size()));
+        SitePage body = http.get()
+            .uri(b -> b.path("/sites")
+                .queryParam("ids", chunk.toArray())
+                .queryParam("size", chunk.size())
+                .build())
+            .retrieve()
+            .body(SitePage.class);
+        if (body == null || body.content == null) continue;
+        for (SiteDto s : body.content) {
+          if (s.latitude != null && s.longitude != null) out.put(s.id, s);
+        }
+      }
+    } catch (RestClientException e) {
+      log.error("sites-svc unreachable when fetching {} sites: {}", ids.size(), e.getMessage());
+      throw e;
+    }
+    return out;
+  }
+
+  public static class SiteDto {
+    public UUID id;
+    public Double latitude;
+    public Double longitude;
+  }
+
+  public static class SitePage {
+    public List<SiteDto> content;
+  }
+}
@@ -0,0 +1,73 @@
+package com.proyecto.ops.workorders.clients;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Cliente HTTP para el microservicio "technicians-svc".
+ *
+ * technicians-svc exige autenticación, así que quien llama reenvía su cabecera
+ * {@code Authorization}.
+ */
+@Component
+public class TechniciansClient {
+  private static final Logger log = LoggerFactory.getLogger(TechniciansClient.class);
+  private static final int PAGE_SIZE = 500;
+
+  private final RestClient http;
+
+  public TechniciansClient(RestClient.Builder builder,
+                           @Value("${technicians.base-url:http://localhost:8095}") String baseUrl) {
+    this.http = builder.baseUrl(baseUrl).build();
+  }
+
+  /**
+   * Devuelve todos los técnicos activos recorriendo las páginas del listado.
+   *
+   * @param authorization Cabecera Authorization del usuario que origina la operación.
+   * @throws RestClientException si el servicio no está disponible o rechaza la llamada.
+   */
+  public List<TechnicianDto> listActive(String authorization) {
+    List<TechnicianDto> all = new ArrayList<>();
+    try {
+      for (int page = 0; ; page++) {
+        final int p = page;
+        TechnicianPage body = http.get()
+            .uri(b -> b.path("/technicians")
+                .queryParam("active", true)
+                .queryParam("page", p)
+                .queryParam("size", PAGE_SIZE)
+                .build())
+            .headers(h -> { if (authorization != null) h.set("Authorization", authorization); })
+            .retrieve()
+            .body(TechnicianPage.class);
+        if (body == null || body.content == null || body.content.isEmpty()) break;
+        all.addAll(body.content);
+        if (body.last) break;
+      }
+    } catch (RestClientException e) {
+      log.error("technicians-svc unreachable when listing active technicians: {}", e.getMessage());
+      throw e;
+    }
+    return all;
+  }
+
+  public static class TechnicianDto {
+    public UUID userId;
+    public String userName;
+    public List<String> skills;
+  }
+
+  public static class TechnicianPage {
+    public List<TechnicianDto> content;
+    public boolean last;
+  }
+}
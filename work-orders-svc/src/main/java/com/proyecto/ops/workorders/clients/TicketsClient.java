@@ -29,12 +29,19 @@
  */
 package com.proyecto.ops.workorders.clients;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
@@ -50,6 +57,8 @@ public class TicketsClient {
   private static final Logger log = LoggerFactory.getLogger(TicketsClient.class);
     // Cliente HTTP utilizado para realizar las solicitudes REST al servicio de tickets.
   private final RestClient http;
+    // Ids por petición en la comprobación en lote.
+  private static final int EXISTS_CHUNK = 5_000;
 
     /**
      * Constructor que inicializa el cliente HTTP con la URL base del servicio de tickets.
@@ -83,4 +92,37 @@ public class TicketsClient {
       throw e; // lo manejamos en el controller como 503
     }
   }
-}
\ No newline at end of file
+
+    /**
+     * Comprueba en lote qué tickets existen ({@code POST /tickets:exists}), en
+     * bloques de {@value #EXISTS_CHUNK} ids: una petición por bloque en lugar de
+     * una por ticket.
+     *
+     * @param ids Identificadores a comprobar.
+     * @return Subconjunto de {@code ids} que existe en tickets-svc.
+     * @throws RestClientException si el servicio no está disponible o ocurre un error de conexión.
+     */
+  public Set<UUID> existing(Collection<UUID> ids) {
+    List<UUID> all = new ArrayList<>(ids);
+    Set<UUID> out = new HashSet<>();
+    try {
+      for (int i = 0; i < all.size(); i += EXISTS_CHUNK) {
+        List<UUID> chunk = all.subList(i, Math.min(i + EXISTS_CHUNK, all.size()));
+        ExistenceResponse body = http.post().uri("/tickets:exists")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("ids", chunk))
+            .retrieve()
+            .body(ExistenceResponse.class);
+        if (body != null && body.existing != null) out.addAll(body.existing);
+      }
+    } catch (RestClientException e) {
+      log.error("tickets-svc unreachable when checking {} ids: {}", all.size(), e.getMessage());
+      throw e;
+    }
+    return out;
+  }
+
+  public static class ExistenceResponse {
+    public List<UUID> existing;
+  }
+}
@@ -0,0 +1,169 @@
+package com.proyecto.ops.workorders.dispatch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Emparejamiento órdenes → técnicos, en memoria y sin E/S.
+ *
+ * Greedy por orden de prioridad (el llamador entrega las órdenes ya ordenadas
+ * por programación): para cada orden se elige, entre los técnicos con todas las
+ * habilidades requeridas y capacidad libre, el de menor coste
+ *
+ * <pre>coste = wCarga · carga/cargaMax + wDistancia · min(km, kmMax)/kmMax</pre>
+ *
+ * Tras asignar, la carga del técnico sube y su posición pasa a ser el sitio de
+ * la orden, de modo que las siguientes asignaciones tienden a encadenar sitios
+ * cercanos. Las habilidades se internan a bits ({@code long[]} por técnico),
+ * así la comprobación de elegibilidad son unas pocas operaciones AND. El coste
+ * total es O(órdenes × técnicos): 5.000 × 500 son 2,5 M evaluaciones, muy por
+ * debajo de un segundo.
+ */
+final class DispatchEngine {
+
+    // Penalización de distancia cuando no se conoce la posición de orden o técnico
+    private static final double UNKNOWN_DISTANCE = 0.5;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    record Order(UUID id, Collection<String> requiredSkills, UUID siteId) {}
+
+    record Technician(UUID id, Collection<String> skills, int load, UUID lastSiteId) {}
+
+    record GeoPoint(double lat, double lon) {}
+
+    record Settings(int maxLoad, double loadWeight, double distanceWeight, double maxDistanceKm) {}
+
+    record Assignment(UUID workOrderId, UUID technicianId, double score, Double distanceKm) {}
+
+    enum Reason { NO_SKILLED_TECHNICIAN, NO_CAPACITY }
+
+    record Unassigned(UUID workOrderId, Reason reason) {}
+
+    record Plan(List<Assignment> assignments, List<Unassigned> unassigned) {}
+
+    private DispatchEngine() {}
+
+    static Plan plan(List<Order> orders, List<Technician> techs, Map<UUID, GeoPoint> sites, Settings cfg) {
+        Map<String, Integer> skillBits = new HashMap<>();
+        for (Technician t : techs) intern(t.skills(), skillBits);
+        int words = Math.max(1, (skillBits.size() + 63) >>> 6);
+
+        int n = techs.size();
+        long[][] techSkills = new long[n][];
+        int[] load = new int[n];
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        boolean[] located = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            Technician t = techs.get(i);
+            techSkills[i] = bits(t.skills(), skillBits, words);
+            load[i] = t.load();
+            GeoPoint p = t.lastSiteId() == null ? null : sites.get(t.lastSiteId());
+            if (p != null) {
+                lat[i] = p.lat();
+                lon[i] = p.lon();
+                located[i] = true;
+            }
+        }
+
+        List<Assignment> assignments = new ArrayList<>();
+        List<Unassigned> unassigned = new ArrayList<>();
+        for (Order o : orders) {
+            long[] required = requiredBits(o.requiredSkills(), skillBits, words);
+            if (required == null) {
+                // Pide una habilidad que ningún técnico activo tiene
+                unassigned.add(new Unassigned(o.id(), Reason.NO_SKILLED_TECHNICIAN));
+                continue;
+            }
+            GeoPoint site = o.siteId() == null ? null : sites.get(o.siteId());
+
+            int best = -1;
+            double bestScore = Double.MAX_VALUE;
+            double bestKm = Double.NaN;
+            boolean anySkilled = false;
+            for (int i = 0; i < n; i++) {
+                if (!covers(techSkills[i], required)) continue;
+                anySkilled = true;
+                if (load[i] >= cfg.maxLoad()) continue;
+
+                double km = (site != null && located[i]) ? haversineKm(lat[i], lon[i], site.lat(), site.lon()) : Double.NaN;
+                double distanceTerm = Double.isNaN(km) ? UNKNOWN_DISTANCE : Math.min(km, cfg.maxDistanceKm()) / cfg.maxDistanceKm();
+                double score = cfg.loadWeight() * load[i] / cfg.maxLoad() + cfg.distanceWeight() * distanceTerm;
+                if (score < bestScore) {
+                    bestScore = score;
+                    best = i;
+                    bestKm = km;
+                }
+            }
+
+            if (best < 0) {
+                unassigned.add(new Unassigned(o.id(), anySkilled ? Reason.NO_CAPACITY : Reason.NO_SKILLED_TECHNICIAN));
+                continue;
+            }
+            load[best]++;
+            if (site != null) {
+                lat[best] = site.lat();
+                lon[best] = site.lon();
+                located[best] = true;
+            }
+            assignments.add(new Assignment(o.id(), techs.get(best).id(), bestScore,
+                    Double.isNaN(bestKm) ? null : bestKm));
+        }
+        return new Plan(assignments, unassigned);
+    }
+
+    private static void intern(Collection<String> skills, Map<String, Integer> index) {
+        if (skills == null) return;
+        for (String s : skills) {
+            String k = normalize(s);
+            if (!k.isEmpty()) index.putIfAbsent(k, index.size());
+        }
+    }
+
+    private static long[] bits(Collection<String> skills, Map<String, Integer> index, int words) {
+        long[] b = new long[words];
+        if (skills == null) return b;
+        for (String s : skills) {
+            Integer bit = index.get(normalize(s));
+            if (bit != null) b[bit >>> 6] |= 1L << (bit & 63);
+        }
+        return b;
+    }
+
+    /** Como {@link #bits}, pero null si alguna habilidad no la tiene nadie. */
+    private static long[] requiredBits(Collection<String> skills, Map<String, Integer> index, int words) {
+        long[] b = new long[words];
+        if (skills == null) return b;
+        for (String s : skills) {
+            String k = normalize(s);
+            if (k.isEmpty()) continue;
+            Integer bit = index.get(k);
+            if (bit == null) return null;
+            b[bit >>> 6] |= 1L << (bit & 63);
+        }
+        return b;
+    }
+
+    private static boolean covers(long[] has, long[] required) {
+        for (int w = 0; w < required.length; w++) {
+            if ((required[w] & ~has[w]) != 0) return false;
+        }
+        return true;
+    }
+
+    private static String normalize(String skill) {
+        return skill == null ? "" : skill.strip().toLowerCase();
+    }
+
+    static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
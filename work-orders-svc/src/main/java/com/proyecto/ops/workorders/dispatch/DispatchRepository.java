@@ -0,0 +1,104 @@
+package com.proyecto.ops.workorders.dispatch;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Consultas del despacho: todo en pocas sentencias agregadas (sin N+1) y la
+ * escritura del plan como un único batch transaccional.
+ */
+@Repository
+class DispatchRepository {
+
+    private final JdbcTemplate jdbc;
+
+    DispatchRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Órdenes PENDING sin técnico, primero las programadas antes (usa ix_work_orders_dispatch_queue). */
+    List<DispatchEngine.Order> pendingUnassigned(int limit) {
+        return jdbc.query("""
+                select id, site_id, required_skills
+                from app.work_orders
+                where status = 'PENDING' and technician_id is null
+                order by scheduled_at nulls last, created_at
+                limit ?
+                """,
+                (rs, i) -> new DispatchEngine.Order(
+                        rs.getObject("id", UUID.class),
+                        skills(rs, "required_skills"),
+                        rs.getObject("site_id", UUID.class)),
+                limit);
+    }
+
+    /** Órdenes abiertas (ASSIGNED, STARTED, PAUSED) por técnico. */
+    Map<UUID, Integer> activeLoad() {
+        Map<UUID, Integer> out = new HashMap<>();
+        jdbc.query("""
+                select technician_id, count(*) as n
+                from app.work_orders
+                where technician_id is not null and status in ('ASSIGNED', 'STARTED', 'PAUSED')
+                group by technician_id
+                """,
+                rs -> { out.put(rs.getObject("technician_id", UUID.class), rs.getInt("n")); });
+        return out;
+    }
+
+    /**
+     * Último sitio conocido de cada técnico: el de su orden más reciente
+     * (iniciada, programada o creada) no cancelada. Es la estimación de dónde está.
+     */
+    Map<UUID, UUID> lastSites() {
+        Map<UUID, UUID> out = new HashMap<>();
+        jdbc.query("""
+                select distinct on (technician_id) technician_id, site_id
+                from app.work_orders
+                where technician_id is not null and site_id is not null and status <> 'CANCELLED'
+                order by technician_id, coalesce(started_at, scheduled_at, created_at) desc
+                """,
+                rs -> { out.put(rs.getObject("technician_id", UUID.class), rs.getObject("site_id", UUID.class)); });
+        return out;
+    }
+
+    /**
+     * Aplica el plan en una transacción. La condición {@code status = 'PENDING'
+     * and technician_id is null} evita pisar órdenes asignadas a mano mientras se
+     * calculaba el plan.
+     *
+     * @return por cada asignación, true si se aplicó.
+     */
+    @Transactional
+    public boolean[] apply(List<DispatchEngine.Assignment> plan) {
+        int[][] counts = jdbc.batchUpdate("""
+                update app.work_orders
+                set technician_id = ?, status = 'ASSIGNED'
+                where id = ? and status = 'PENDING' and technician_id is null
+                """,
+                plan, 500,
+                (ps, a) -> {
+                    ps.setObject(1, a.technicianId());
+                    ps.setObject(2, a.workOrderId());
+                });
+        boolean[] applied = new boolean[plan.size()];
+        int k = 0;
+        for (int[] batch : counts) {
+            for (int c : batch) applied[k++] = c > 0;
+        }
+        return applied;
+    }
+
+    private static List<String> skills(ResultSet rs, String column) throws SQLException {
+        Array arr = rs.getArray(column);
+        return arr == null ? List.of() : List.of((String[]) arr.getArray());
+    }
+}
@@ -0,0 +1,34 @@
+package com.proyecto.ops.workorders.dispatch;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resultado de una ejecución del despacho.
+ *
+ * @param dryRun     true si el plan solo se calculó (no se escribió nada).
+ * @param considered órdenes PENDING sin técnico evaluadas.
+ * @param technicians técnicos activos considerados.
+ * @param assigned   asignaciones (aplicadas, o propuestas en dry-run).
+ * @param skipped    asignaciones descartadas porque la orden cambió mientras se calculaba.
+ * @param unassigned órdenes sin candidato y motivo.
+ * @param elapsedMs  tiempo total de la ejecución.
+ */
+public record DispatchResult(
+    boolean dryRun,
+    int considered,
+    int technicians,
+    List<Assignment> assigned,
+    List<UUID> skipped,
+    List<Unassigned> unassigned,
+    long elapsedMs
+) {
+    /**
+     * @param score      coste del emparejamiento (menor es mejor).
+     * @param distanceKm distancia estimada desde la posición del técnico, si se conoce.
+     */
+    public record Assignment(UUID workOrderId, UUID technicianId, double score, Double distanceKm) {}
+
+    /** @param reason NO_SKILLED_TECHNICIAN o NO_CAPACITY. */
+    public record Unassigned(UUID workOrderId, String reason) {}
+}
@@ -0,0 +1,130 @@
+package com.proyecto.ops.workorders.dispatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+
+import com.proyecto.ops.workorders.clients.SitesClient;
+import com.proyecto.ops.workorders.clients.TechniciansClient;
+import com.proyecto.ops.workorders.queue.WorkQueueService;
+
+/**
+ * Despacho automático de órdenes PENDING.
+ *
+ * Carga todo lo necesario de una vez (órdenes, carga por técnico, último sitio,
+ * técnicos activos y coordenadas), calcula el plan en memoria con
+ * {@link DispatchEngine} y lo escribe en una sola transacción. En dry-run solo
+ * devuelve el plan.
+ */
+@Service
+public class DispatchService {
+    private static final Logger log = LoggerFactory.getLogger(DispatchService.class);
+
+    private final DispatchRepository repo;
+    private final TechniciansClient techniciansClient;
+    private final SitesClient sitesClient;
+    private final WorkQueueService queue;
+    private final DispatchEngine.Settings settings;
+    private final int defaultMaxOrders;
+
+    public DispatchService(DispatchRepository repo,
+                           TechniciansClient techniciansClient,
+                           SitesClient sitesClient,
+                           WorkQueueService queue,
+                           @Value("${work-orders.dispatch.max-load:8}") int maxLoad,
+                           @Value("${work-orders.dispatch.weights.load:1.0}") double loadWeight,
+                           @Value("${work-orders.dispatch.weights.distance:1.0}") double distanceWeight,
+                           @Value("${work-orders.dispatch.max-distance-km:100}") double maxDistanceKm,
+                           @Value("${work-orders.dispatch.max-orders:5000}") int defaultMaxOrders) {
+        this.repo = repo;
+        this.techniciansClient = techniciansClient;
+        this.sitesClient = sitesClient;
+        this.queue = queue;
+        this.settings = new DispatchEngine.Settings(Math.max(maxLoad, 1), loadWeight, distanceWeight,
+                maxDistanceKm > 0 ? maxDistanceKm : 100);
+        this.defaultMaxOrders = Math.max(defaultMaxOrders, 1);
+    }
+
+    /**
+     * @param dryRun        si es true no se escribe nada.
+     * @param maxOrders     límite de órdenes a evaluar (null = configuración).
+     * @param authorization cabecera Authorization a reenviar a technicians-svc.
+     * @throws RestClientException si technicians-svc no responde (sin técnicos no hay plan).
+     */
+    public DispatchResult run(boolean dryRun, Integer maxOrders, String authorization) {
+        long t0 = System.nanoTime();
+        int limit = maxOrders == null ? defaultMaxOrders : Math.min(maxOrders, defaultMaxOrders);
+
+        List<DispatchEngine.Order> orders = repo.pendingUnassigned(limit);
+        if (orders.isEmpty()) {
+            return new DispatchResult(dryRun, 0, 0, List.of(), List.of(), List.of(), elapsedMs(t0));
+        }
+
+        Map<UUID, Integer> load = repo.activeLoad();
+        Map<UUID, UUID> lastSites = repo.lastSites();
+        List<DispatchEngine.Technician> techs = new ArrayList<>();
+        for (TechniciansClient.TechnicianDto t : techniciansClient.listActive(authorization)) {
+            if (t.userId == null) continue;
+            techs.add(new DispatchEngine.Technician(t.userId, t.skills, load.getOrDefault(t.userId, 0),
+                    lastSites.get(t.userId)));
+        }
+
+        Map<UUID, DispatchEngine.GeoPoint> sites = locate(orders, techs);
+        DispatchEngine.Plan plan = DispatchEngine.plan(orders, techs, sites, settings);
+
+        List<UUID> skipped = new ArrayList<>();
+        List<DispatchResult.Assignment> assigned = new ArrayList<>(plan.assignments().size());
+        boolean[] applied = dryRun ? null : repo.apply(plan.assignments());
+        for (int i = 0; i < plan.assignments().size(); i++) {
+            DispatchEngine.Assignment a = plan.assignments().get(i);
+            if (applied != null && !applied[i]) {
+                skipped.add(a.workOrderId());
+                continue;
+            }
+            assigned.add(new DispatchResult.Assignment(a.workOrderId(), a.technicianId(), a.score(), a.distanceKm()));
+        }
+        if (!dryRun) {
+            queue.refresh(assigned.stream().map(DispatchResult.Assignment::workOrderId).toList());
+        }
+        List<DispatchResult.Unassigned> unassigned = plan.unassigned().stream()
+                .map(u -> new DispatchResult.Unassigned(u.workOrderId(), u.reason().name()))
+                .toList();
+
+        DispatchResult result = new DispatchResult(dryRun, orders.size(), techs.size(), assigned, skipped, unassigned,
+                elapsedMs(t0));
+        log.info("Dispatch{}: {} orders, {} technicians → {} assigned, {} skipped, {} unassigned in {} ms",
+                dryRun ? " (dry-run)" : "", orders.size(), techs.size(), assigned.size(), skipped.size(),
+                unassigned.size(), result.elapsedMs());
+        return result;
+    }
+
+    /** Coordenadas de los sitios implicados; sin sites-svc se despacha sin proximidad. */
+    private Map<UUID, DispatchEngine.GeoPoint> locate(List<DispatchEngine.Order> orders,
+                                                      List<DispatchEngine.Technician> techs) {
+        Set<UUID> ids = new HashSet<>();
+        for (DispatchEngine.Order o : orders) if (o.siteId() != null) ids.add(o.siteId());
+        for (DispatchEngine.Technician t : techs) if (t.lastSiteId() != null) ids.add(t.lastSiteId());
+        Map<UUID, DispatchEngine.GeoPoint> out = new HashMap<>();
+        if (ids.isEmpty()) return out;
+        try {
+            sitesClient.findLocated(ids).forEach((id, s) -> out.put(id, new DispatchEngine.GeoPoint(s.latitude, s.longitude)));
+        } catch (RestClientException e) {
+            log.warn("Dispatching without proximity: {}", e.getMessage());
+        }
+        return out;
+    }
+
+    private static long elapsedMs(long t0) {
+        return (System.nanoTime() - t0) / 1_000_000;
+    }
+}
@@ -0,0 +1,189 @@
+package com.proyecto.ops.workorders.inventory;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Persistencia del inventario.
+ *
+ * Las operaciones de reserva solo hacen INSERT/UPDATE sobre su propia fila de
+ * {@code part_reservations} y añaden una entrada en {@code inventory_journal}.
+ * Ninguna toca la fila de {@code parts}, que es la que se disputarían todas
+ * las reservas de un SKU popular. {@link #applyJournal} consolida los deltas
+ * en {@code parts} por lotes, SKU a SKU.
+ */
+@Repository
+class InventoryRepository {
+
+    record StockRow(String sku, String name, long onHand, long reserved) {}
+
+    /** Reserva aún activa de una orden cerrada ({@code woStatus}) o borrada ({@code woStatus} nulo). */
+    record StaleReservation(UUID id, UUID workOrderId, String woStatus) {}
+
+    private static final RowMapper<PartReservation> RESERVATION_MAPPER = (rs, i) -> new PartReservation(
+            rs.getObject("id", UUID.class),
+            rs.getObject("work_order_id", UUID.class),
+            rs.getString("sku"),
+            rs.getInt("quantity"),
+            PartReservation.Status.valueOf(rs.getString("status")),
+            rs.getObject("created_at", OffsetDateTime.class));
+
+    private final JdbcTemplate jdbc;
+
+    InventoryRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Stock efectivo de todos los repuestos: foto de {@code parts} + diario sin aplicar. */
+    List<StockRow> loadStock() {
+        return jdbc.query("""
+                select p.sku, p.name,
+                       p.on_hand + coalesce(j.on_hand_delta, 0) as on_hand,
+                       p.reserved + coalesce(j.reserved_delta, 0) as reserved
+                from app.parts p
+                left join (
+                  select sku, sum(on_hand_delta) as on_hand_delta, sum(reserved_delta) as reserved_delta
+                  from app.inventory_journal
+                  where not applied
+                  group by sku
+                ) j on j.sku = p.sku
+                """,
+                (rs, i) -> new StockRow(rs.getString("sku"), rs.getString("name"),
+                        rs.getLong("on_hand"), rs.getLong("reserved")));
+    }
+
+    /** @return false si el SKU ya existía. */
+    boolean insertPart(String sku, String name, long onHand) {
+        return jdbc.update("insert into app.parts (sku, name, on_hand) values (?, ?, ?) on conflict do nothing",
+                sku, name, onHand) > 0;
+    }
+
+    /**
+     * Inserta la reserva solo si la orden sigue abierta. El FOR SHARE sobre la
+     * orden impide que se cierre (o se borre) entre la comprobación y el INSERT,
+     * así que el cierre siempre ve la reserva.
+     *
+     * @return false si la orden no existe o ya está cerrada.
+     */
+    @Transactional
+    public boolean insertReservation(PartReservation r) {
+        int n = jdbc.update("""
+                with wo as (
+                  select id from app.work_orders
+                  where id = ? and status not in ('DONE', 'CANCELLED')
+                  for share
+                )
+                insert into app.part_reservations (id, work_order_id, sku, quantity, status)
+                select ?, wo.id, ?, ?, 'RESERVED' from wo
+                """, r.workOrderId(), r.id(), r.sku(), r.quantity());
+        if (n == 0) return false;
+        journal(r.sku(), 0, r.quantity(), r.id());
+        return true;
+    }
+
+    /**
+     * Cierra una reserva activa (RELEASED o CONSUMED) y apunta su efecto.
+     *
+     * @return la reserva ya cerrada, o vacío si no existía o ya estaba cerrada.
+     */
+    @Transactional
+    public Optional<PartReservation> close(UUID workOrderId, UUID reservationId, PartReservation.Status to) {
+        Optional<PartReservation> r = jdbc.query("""
+                update app.part_reservations set status = ?, updated_at = now()
+                where id = ? and work_order_id = ? and status = 'RESERVED'
+                returning id, work_order_id, sku, quantity, status, created_at
+                """, RESERVATION_MAPPER, to.name(), reservationId, workOrderId).stream().findFirst();
+        r.ifPresent(x -> journal(x.sku(), to == PartReservation.Status.CONSUMED ? -x.quantity() : 0, -x.quantity(), x.id()));
+        return r;
+    }
+
+    /**
+     * Reservas activas cuya orden ya está cerrada o no existe: las que cerró
+     * otra instancia (que no toca los contadores) o quedaron de una carrera.
+     */
+    List<StaleReservation> staleReservations(int limit) {
+        return jdbc.query("""
+                select r.id, r.work_order_id, w.status
+                from app.part_reservations r
+                left join app.work_orders w on w.id = r.work_order_id
+                where r.status = 'RESERVED'
+                  and (w.id is null or w.status in ('DONE', 'CANCELLED'))
+                limit ?
+                """, (rs, i) -> new StaleReservation(rs.getObject("id", UUID.class),
+                        rs.getObject("work_order_id", UUID.class), rs.getString("status")), limit);
+    }
+
+    List<UUID> activeReservationIds(UUID workOrderId) {
+        return jdbc.query("select id from app.part_reservations where work_order_id = ? and status = 'RESERVED'",
+                (rs, i) -> rs.getObject(1, UUID.class), workOrderId);
+    }
+
+    List<PartReservation> reservationsOf(UUID workOrderId) {
+        return jdbc.query("""
+                select id, work_order_id, sku, quantity, status, created_at
+                from app.part_reservations where work_order_id = ? order by created_at
+                """, RESERVATION_MAPPER, workOrderId);
+    }
+
+    void journalStockChange(String sku, long onHandDelta) {
+        journal(sku, onHandDelta, 0, null);
+    }
+
+    private void journal(String sku, long onHandDelta, long reservedDelta, UUID reservationId) {
+        jdbc.update("""
+                insert into app.inventory_journal (sku, on_hand_delta, reserved_delta, reservation_id)
+                values (?, ?, ?, ?)
+                """, sku, onHandDelta, reservedDelta, reservationId);
+    }
+
+    /** SKUs con entradas del diario sin aplicar. */
+    List<String> pendingSkus() {
+        return jdbc.queryForList("select distinct sku from app.inventory_journal where not applied", String.class);
+    }
+
+    /**
+     * Aplica a {@code parts} hasta {@code limit} entradas pendientes de un SKU
+     * en una sentencia. Si el resultado viola {@code ck_parts_stock} falla solo
+     * este SKU y sus entradas siguen pendientes.
+     *
+     * @return entradas aplicadas.
+     */
+    int applyJournal(String sku, int limit) {
+        Integer n = jdbc.queryForObject("""
+                with batch as (
+                  update app.inventory_journal set applied = true
+                  where seq in (
+                    select seq from app.inventory_journal
+                    where not applied and sku = ?
+                    order by seq
+                    limit ?
+                    for update skip locked
+                  )
+                  returning on_hand_delta, reserved_delta
+                ), agg as (
+                  select coalesce(sum(on_hand_delta), 0) as dh, coalesce(sum(reserved_delta), 0) as dr,
+                         count(*) as n
+                  from batch
+                ), upd as (
+                  update app.parts p
+                  set on_hand = p.on_hand + agg.dh, reserved = p.reserved + agg.dr, updated_at = now()
+                  from agg where p.sku = ? and agg.n > 0
+                  returning 1
+                )
+                select n::int from agg
+                """, Integer.class, sku, limit, sku);
+        return n == null ? 0 : n;
+    }
+
+    Optional<String> workOrderStatus(UUID workOrderId) {
+        return jdbc.query("select status from app.work_orders where id = ?",
+                (rs, i) -> rs.getString(1), workOrderId).stream().findFirst();
+    }
+}
@@ -0,0 +1,287 @@
+package com.proyecto.ops.workorders.inventory;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.proyecto.ops.workorders.model.WoStatus;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Reservas de repuestos sin contención en la BD.
+ *
+ * El disponible de cada SKU vive en memoria en un {@link StripedCounter}: la
+ * reserva se decide con un CAS, nunca deja el contador por debajo de cero, y
+ * no toma el lock de la fila del SKU en {@code parts}. La durabilidad la da el
+ * diario ({@code inventory_journal}), que se escribe antes de responder. Un
+ * proceso periódico lo consolida en {@code parts} por lotes, y al arrancar el
+ * disponible se reconstruye como foto + diario sin aplicar.
+ *
+ * Solo una instancia escribe inventario a la vez: la que tiene el
+ * {@link InventoryWriterLock}. Las demás responden 503 a las operaciones que
+ * toman stock y reintentan el bloqueo en cada flush; al conseguirlo recargan el
+ * stock desde la BD. El CHECK de {@code parts} es la red de seguridad.
+ *
+ * El diario se consolida SKU a SKU: si un SKU viola el CHECK queda aparcado
+ * ({@code park-retry}) sin frenar al resto. En cada flush la escritora cierra
+ * además las reservas activas de órdenes ya cerradas o borradas, que es como le
+ * llegan los cierres hechos en otras instancias.
+ */
+@Service
+public class InventoryService {
+    private static final Logger log = LoggerFactory.getLogger(InventoryService.class);
+
+    /** Estado en memoria de un SKU. {@code onHand} es informativo; {@code available} decide. */
+    private record Sku(String name, AtomicLong onHand, StripedCounter available) {}
+
+    private final InventoryRepository repo;
+    private final InventoryWriterLock writerLock;
+    private final int stripes;
+    private final int flushBatch;
+    private final long parkRetryNanos;
+    private final Map<String, Sku> skus = new ConcurrentHashMap<>();
+    // SKU -> instante (nanoTime) en que se reintenta consolidarlo.
+    private final Map<String, Long> parked = new ConcurrentHashMap<>();
+    private volatile boolean writer;
+
+    public InventoryService(InventoryRepository repo,
+                            InventoryWriterLock writerLock,
+                            @Value("${work-orders.inventory.stripes:16}") int stripes,
+                            @Value("${work-orders.inventory.flush-batch:10000}") int flushBatch,
+                            @Value("${work-orders.inventory.park-retry:PT5M}") Duration parkRetry) {
+        this.repo = repo;
+        this.writerLock = writerLock;
+        this.stripes = Math.max(stripes, 1);
+        this.flushBatch = Math.max(flushBatch, 1);
+        this.parkRetryNanos = parkRetry.toNanos();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        if (!writerLock.tryAcquire()) {
+            log.warn("Another instance holds the inventory writer lock; inventory writes disabled until it is released");
+            return;
+        }
+        skus.clear();
+        for (InventoryRepository.StockRow r : repo.loadStock()) {
+            skus.put(r.sku(), new Sku(r.name(), new AtomicLong(r.onHand()),
+                    new StripedCounter(stripes, Math.max(0, r.onHand() - r.reserved()))));
+        }
+        writer = true;
+        log.info("Inventory loaded: {} SKUs", skus.size());
+    }
+
+    public PartStock createPart(String sku, String name, long onHand) {
+        requireWriter();
+        if (!repo.insertPart(sku, name, onHand)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "El SKU ya existe");
+        }
+        Sku s = new Sku(name, new AtomicLong(onHand), new StripedCounter(stripes, onHand));
+        skus.put(sku, s);
+        return toStock(sku, s);
+    }
+
+    public Optional<PartStock> stock(String sku) {
+        return Optional.ofNullable(skus.get(sku)).map(s -> toStock(sku, s));
+    }
+
+    /** Entrada (delta > 0) o salida/ajuste (delta < 0) de existencias físicas. */
+    public PartStock adjustStock(String sku, long delta) {
+        requireWriter();
+        Sku s = require(sku);
+        if (delta < 0 && !s.available().tryAcquire(-delta)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "No se puede retirar stock reservado o inexistente");
+        }
+        try {
+            repo.journalStockChange(sku, delta);
+        } catch (RuntimeException e) {
+            if (delta < 0) s.available().add(-delta);
+            throw e;
+        }
+        if (delta > 0) s.available().add(delta);
+        s.onHand().addAndGet(delta);
+        return toStock(sku, s);
+    }
+
+    /**
+     * Reserva {@code quantity} unidades para la orden. 409 si no hay suficiente
+     * disponible o la orden está cerrada.
+     */
+    public PartReservation reserve(UUID workOrderId, String sku, int quantity) {
+        requireWriter();
+        Sku s = require(sku);
+        String status = repo.workOrderStatus(workOrderId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Orden de trabajo no encontrada"));
+        if (WoStatus.valueOf(status).isTerminal()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "La orden está cerrada (" + status + ")");
+        }
+        if (!s.available().tryAcquire(quantity)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Stock insuficiente para " + sku);
+        }
+        PartReservation r = new PartReservation(UUID.randomUUID(), workOrderId, sku, quantity,
+                PartReservation.Status.RESERVED, OffsetDateTime.now());
+        boolean inserted;
+        try {
+            inserted = repo.insertReservation(r);
+        } catch (RuntimeException e) {
+            // No quedó apuntada: se devuelve lo tomado
+            s.available().add(quantity);
+            throw e;
+        }
+        if (!inserted) {
+            // La orden se cerró o se borró entre la comprobación y el INSERT
+            s.available().add(quantity);
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "La orden está cerrada");
+        }
+        return r;
+    }
+
+    /** Libera una reserva activa y devuelve sus unidades al disponible. */
+    public PartReservation release(UUID workOrderId, UUID reservationId) {
+        requireWriter();
+        PartReservation r = repo.close(workOrderId, reservationId, PartReservation.Status.RELEASED)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Reserva activa no encontrada"));
+        Sku s = skus.get(r.sku());
+        if (s != null) s.available().add(r.quantity());
+        return r;
+    }
+
+    public List<PartReservation> reservationsOf(UUID workOrderId) {
+        return repo.reservationsOf(workOrderId);
+    }
+
+    /**
+     * Cierra las reservas activas de una orden que termina: DONE las consume
+     * (salen del stock físico) y CANCELLED las libera.
+     *
+     * En una instancia que no es la escritora no se hace nada: la orden ya
+     * consta cerrada en la BD y la escritora cierra sus reservas en el próximo
+     * flush, actualizando sus contadores.
+     */
+    public void onWorkOrderClosed(UUID workOrderId, WoStatus status) {
+        if (!writer) {
+            log.debug("Work order {} closed on a non-writer instance; the writer closes its reservations", workOrderId);
+            return;
+        }
+        PartReservation.Status to = closedStatus(status);
+        for (UUID id : repo.activeReservationIds(workOrderId)) {
+            closeReservation(workOrderId, id, to);
+        }
+    }
+
+    // DONE consume; CANCELLED u orden borrada (null) libera.
+    private static PartReservation.Status closedStatus(WoStatus status) {
+        return status == WoStatus.DONE ? PartReservation.Status.CONSUMED : PartReservation.Status.RELEASED;
+    }
+
+    private void closeReservation(UUID workOrderId, UUID reservationId, PartReservation.Status to) {
+        repo.close(workOrderId, reservationId, to).ifPresent(r -> {
+            Sku s = skus.get(r.sku());
+            if (s == null) return;
+            if (to == PartReservation.Status.RELEASED) s.available().add(r.quantity());
+            else s.onHand().addAndGet(-r.quantity());
+        });
+    }
+
+    // Cierra las reservas que siguen activas con la orden ya cerrada o borrada.
+    private void closeStaleReservations() {
+        List<InventoryRepository.StaleReservation> stale;
+        do {
+            stale = repo.staleReservations(flushBatch);
+            for (InventoryRepository.StaleReservation r : stale) {
+                WoStatus status = r.woStatus() == null ? null : WoStatus.valueOf(r.woStatus());
+                closeReservation(r.workOrderId(), r.id(), closedStatus(status));
+            }
+        } while (stale.size() == flushBatch);
+    }
+
+    /**
+     * Consolida el diario en {@code parts}, SKU a SKU. Solo lo hace la instancia
+     * escritora; las demás aprovechan para reintentar el bloqueo.
+     */
+    @Scheduled(fixedDelayString = "${work-orders.inventory.flush-interval:PT1S}")
+    public void flush() {
+        if (!writerLock.tryAcquire()) {
+            if (writer) {
+                writer = false;
+                log.error("Inventory writer lock lost; inventory writes disabled");
+            }
+            return;
+        }
+        if (!writer) {
+            load();
+        }
+        try {
+            closeStaleReservations();
+        } catch (RuntimeException e) {
+            log.error("Could not close reservations of closed work orders: {}", e.getMessage());
+        }
+        try {
+            long now = System.nanoTime();
+            for (String sku : repo.pendingSkus()) {
+                Long retryAt = parked.get(sku);
+                if (retryAt != null && now - retryAt < 0) continue;
+                try {
+                    int n;
+                    do {
+                        n = repo.applyJournal(sku, flushBatch);
+                    } while (n == flushBatch);
+                    if (parked.remove(sku) != null) {
+                        log.info("Inventory journal for {} applied again", sku);
+                    }
+                } catch (DataIntegrityViolationException e) {
+                    if (parked.put(sku, now + parkRetryNanos) == null) {
+                        log.error("Inventory journal for {} violates ck_parts_stock; parked: {}", sku, e.getMessage());
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not apply inventory journal: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writer) {
+            flush();
+        }
+        writer = false;
+        writerLock.release();
+    }
+
+    private void requireWriter() {
+        if (!writer) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Otra instancia gestiona el inventario; reintentar en unos segundos");
+        }
+    }
+
+    private Sku require(String sku) {
+        Sku s = skus.get(sku);
+        if (s == null) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Repuesto no encontrado: " + sku);
+        return s;
+    }
+
+    private static PartStock toStock(String sku, Sku s) {
+        long available = s.available().sum();
+        long onHand = s.onHand().get();
+        return new PartStock(sku, s.name(), onHand, Math.max(0, onHand - available), available);
+    }
+}
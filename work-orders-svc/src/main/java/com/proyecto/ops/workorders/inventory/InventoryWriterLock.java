@@ -0,0 +1,103 @@
+package com.proyecto.ops.workorders.inventory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bloqueo de escritor único del inventario: advisory lock de sesión de
+ * PostgreSQL sobre una conexión propia que se mantiene mientras la instancia
+ * es la escritora.
+ *
+ * Los contadores en memoria de {@link InventoryService} solo son correctos si
+ * una única instancia reserva stock. En un despliegue sin corte conviven dos
+ * instancias un momento: la nueva espera aquí hasta que la anterior suelta el
+ * bloqueo (al cerrarse su conexión) y solo entonces carga el stock.
+ *
+ * La conexión sale del pool y no vuelve mientras se tenga el bloqueo.
+ */
+@Component
+class InventoryWriterLock {
+    private static final Logger log = LoggerFactory.getLogger(InventoryWriterLock.class);
+
+    private static final String LOCK_KEY = "app.inventory_writer";
+
+    private final DataSource dataSource;
+    private Connection connection;
+
+    InventoryWriterLock(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Intenta tomar el bloqueo, o comprueba que se sigue teniendo.
+     *
+     * @return true si esta instancia es la escritora.
+     */
+    synchronized boolean tryAcquire() {
+        if (connection != null) {
+            try {
+                if (connection.isValid(2)) return true;
+            } catch (SQLException e) {
+                // Se trata como conexión perdida
+            }
+            log.error("Lost the inventory writer lock connection");
+            closeQuietly();
+        }
+        Connection c = null;
+        try {
+            c = dataSource.getConnection();
+            c.setAutoCommit(true);
+            try (PreparedStatement ps = c.prepareStatement("select pg_try_advisory_lock(hashtext(?))")) {
+                ps.setString(1, LOCK_KEY);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next() && rs.getBoolean(1)) {
+                        connection = c;
+                        return true;
+                    }
+                }
+            }
+            c.close();
+        } catch (SQLException e) {
+            log.warn("Could not try the inventory writer lock: {}", e.getMessage());
+            if (c != null) {
+                try {
+                    c.close();
+                } catch (SQLException ignored) {
+                    // Nada más que hacer
+                }
+            }
+        }
+        return false;
+    }
+
+    @PreDestroy
+    synchronized void release() {
+        if (connection == null) return;
+        try (PreparedStatement ps = connection.prepareStatement("select pg_advisory_unlock(hashtext(?))")) {
+            ps.setString(1, LOCK_KEY);
+            ps.execute();
+        } catch (SQLException e) {
+            // Al cerrar la conexión PostgreSQL lo suelta igualmente
+        }
+        closeQuietly();
+    }
+
+    private void closeQuietly() {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // Nada más que hacer
+        }
+        connection = null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.proyecto.ops.workorders.inventory;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/** Reserva de {@code quantity} unidades de un repuesto para una orden de trabajo. */
+public record PartReservation(
+    UUID id,
+    UUID workOrderId,
+    String sku,
+    int quantity,
+    Status status,
+    OffsetDateTime createdAt
+) {
+    public enum Status { RESERVED, RELEASED, CONSUMED }
+}
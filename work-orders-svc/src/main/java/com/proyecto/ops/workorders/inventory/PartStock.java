@@ -0,0 +1,10 @@
+package com.proyecto.ops.workorders.inventory;
+
+/**
+ * Stock de un repuesto.
+ *
+ * @param onHand    existencias físicas (persistidas + movimientos pendientes de aplicar).
+ * @param reserved  unidades reservadas por órdenes abiertas.
+ * @param available unidades reservables ahora mismo (onHand - reserved).
+ */
+public record PartStock(String sku, String name, long onHand, long reserved, long available) {}
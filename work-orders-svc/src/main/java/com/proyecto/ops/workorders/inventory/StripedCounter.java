@@ -0,0 +1,86 @@
+package com.proyecto.ops.workorders.inventory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contador no negativo repartido en franjas, para reservas concurrentes sobre
+ * un mismo SKU sin un único punto de contención.
+ *
+ * Cada hilo empieza por una franja aleatoria y resta con CAS. Si ninguna franja
+ * sola alcanza, la reserva reúne unidades de varias bajo un lock (camino raro,
+ * solo con el stock casi agotado o muy fragmentado) y, si el total tampoco
+ * alcanza, devuelve lo tomado. Ninguna franja baja nunca de cero, así que el
+ * total tampoco.
+ */
+final class StripedCounter {
+
+    // Una franja por línea de caché (8 longs = 64 bytes) para evitar false sharing
+    private static final int PAD = 8;
+
+    private final int stripes;
+    private final AtomicLongArray cells;
+
+    StripedCounter(int stripes, long initial) {
+        this.stripes = Math.max(1, stripes);
+        this.cells = new AtomicLongArray(this.stripes * PAD);
+        add(initial);
+    }
+
+    /** Resta {@code n} si hay suficiente; false (sin cambios) si no. */
+    boolean tryAcquire(long n) {
+        if (n <= 0) return true;
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        for (int i = 0; i < stripes; i++) {
+            int idx = ((start + i) % stripes) * PAD;
+            long v;
+            while ((v = cells.get(idx)) >= n) {
+                if (cells.compareAndSet(idx, v, v - n)) return true;
+            }
+        }
+        return drain(n);
+    }
+
+    private synchronized boolean drain(long n) {
+        long[] taken = new long[stripes];
+        long need = n;
+        for (int s = 0; s < stripes && need > 0; s++) {
+            int idx = s * PAD;
+            long v;
+            while ((v = cells.get(idx)) > 0) {
+                long take = Math.min(v, need);
+                if (cells.compareAndSet(idx, v, v - take)) {
+                    taken[s] = take;
+                    need -= take;
+                    break;
+                }
+            }
+        }
+        if (need == 0) return true;
+        for (int s = 0; s < stripes; s++) {
+            if (taken[s] > 0) cells.addAndGet(s * PAD, taken[s]);
+        }
+        return false;
+    }
+
+    /** Suma {@code n} (devoluciones, entradas de stock). */
+    void add(long n) {
+        if (n < 0) throw new IllegalArgumentException("n < 0; use tryAcquire");
+        if (n == 0) return;
+        // Repartido para no concentrar el stock en una sola franja
+        long base = n / stripes;
+        long rest = n % stripes;
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        for (int i = 0; i < stripes; i++) {
+            long part = base + (i < rest ? 1 : 0);
+            if (part != 0) cells.addAndGet(((start + i) % stripes) * PAD, part);
+        }
+    }
+
+    /** Suma de las franjas; aproximada si hay operaciones en curso. */
+    long sum() {
+        long total = 0;
+        for (int s = 0; s < stripes; s++) total += cells.get(s * PAD);
+        return total;
+    }
+}
@@ -0,0 +1,11 @@
+package com.proyecto.ops.workorders.model;
+
+/**
+ * Prioridad de una orden de trabajo. El orden de declaración es el de atención
+ * (HIGH primero).
+ */
+public enum WoPriority {
+  HIGH,
+  MEDIUM,
+  LOW
+}
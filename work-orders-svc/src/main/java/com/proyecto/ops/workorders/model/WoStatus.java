@@ -21,13 +21,25 @@
  *
  * Mantenibilidad:
  *   - Se pueden agregar nuevos estados según evolucione el flujo operativo
- *     (por ejemplo, "REVIEWED" o "ESCALATED").
+ *     (por ejemplo, "REVIEWED" o "ESCALATED"); cada estado nuevo debe declarar
+ *     sus transiciones en el bloque estático.
  * -----------------------------------------------------------------------------
  */
 package com.proyecto.ops.workorders.model;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Enumeración que representa los diferentes estados posibles de una orden de trabajo.
+ *
+ * Declara además la máquina de estados: qué transiciones están permitidas. Las
+ * actualizaciones de estado se aplican con un UPDATE condicional sobre
+ * {@link #sourcesOf(WoStatus)}, de modo que la validación y la escritura son
+ * atómicas en la BD.
  */
 public enum WoStatus {
   PENDING,   // Orden creada pero aún no asignada a un técnico.
@@ -35,5 +47,38 @@ public enum WoStatus {
   STARTED,   // Orden actualmente en ejecución.
   PAUSED,    // Orden en pausa temporal.
   DONE,      // Orden finalizada exitosamente.
-  CANCELLED  // Orden cancelada antes o durante la ejecución.
-}
\ No newline at end of file
+  CANCELLED; // Orden cancelada antes o durante la ejecución.
+
+  private static final Map<WoStatus, Set<WoStatus>> NEXT = new EnumMap<>(WoStatus.class);
+  private static final Map<WoStatus, Set<WoStatus>> SOURCES = new EnumMap<>(WoStatus.class);
+
+  static {
+    // ASSIGNED → ASSIGNED es una reasignación a otro técnico.
+    NEXT.put(PENDING,   EnumSet.of(ASSIGNED, CANCELLED));
+    NEXT.put(ASSIGNED,  EnumSet.of(ASSIGNED, STARTED, CANCELLED));
+    NEXT.put(STARTED,   EnumSet.of(PAUSED, DONE, CANCELLED));
+    NEXT.put(PAUSED,    EnumSet.of(STARTED, CANCELLED));
+    NEXT.put(DONE,      EnumSet.noneOf(WoStatus.class));
+    NEXT.put(CANCELLED, EnumSet.noneOf(WoStatus.class));
+
+    for (WoStatus s : values()) SOURCES.put(s, EnumSet.noneOf(WoStatus.class));
+    NEXT.forEach((from, tos) -> tos.forEach(to -> SOURCES.get(to).add(from)));
+    NEXT.replaceAll((k, v) -> Collections.unmodifiableSet(v));
+    SOURCES.replaceAll((k, v) -> Collections.unmodifiableSet(v));
+  }
+
+  /** Indica si la orden puede pasar de este estado a {@code target}. */
+  public boolean canTransitionTo(WoStatus target) {
+    return NEXT.get(this).contains(target);
+  }
+
+  /** Estados desde los que se puede llegar a {@code target}. */
+  public static Set<WoStatus> sourcesOf(WoStatus target) {
+    return SOURCES.get(target);
+  }
+
+  /** true si la orden ya no admite cambios (DONE o CANCELLED). */
+  public boolean isTerminal() {
+    return NEXT.get(this).isEmpty();
+  }
+}
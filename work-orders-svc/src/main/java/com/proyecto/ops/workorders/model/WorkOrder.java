@@ -29,6 +29,7 @@
 package com.proyecto.ops.workorders.model;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import org.hibernate.annotations.JdbcTypeCode;
@@ -73,6 +74,21 @@ public class WorkOrder {
   @Column(name = "status", columnDefinition = "app.wo_status", nullable = false)
   private WoStatus status = WoStatus.PENDING;
 
+    // Prioridad de atención (por defecto: MEDIUM).
+  @Enumerated(EnumType.STRING)
+  @Column(name = "priority", nullable = false, length = 16)
+  private WoPriority priority = WoPriority.MEDIUM;
+
+    // Sitio del cliente donde se ejecuta la orden (referencia externa a sites-svc, opcional).
+  @JdbcTypeCode(SqlTypes.UUID)
+  @Column(name = "site_id")
+  private UUID siteId;
+
+    // Habilidades que debe tener el técnico para atender la orden (opcional).
+  @JdbcTypeCode(SqlTypes.ARRAY)
+  @Column(name = "required_skills", columnDefinition = "text[]")
+  private List<String> requiredSkills;
+
     // Fecha y hora programadas para que el técnico ejecute la orden.
   @Column(name = "scheduled_at", columnDefinition = "timestamptz")
   private OffsetDateTime scheduledAt;
@@ -108,6 +124,15 @@ public class WorkOrder {
   public WoStatus getStatus() { return status; }
   public void setStatus(WoStatus status) { this.status = status; }
 
+  public WoPriority getPriority() { return priority; }
+  public void setPriority(WoPriority priority) { this.priority = priority; }
+
+  public UUID getSiteId() { return siteId; }
+  public void setSiteId(UUID siteId) { this.siteId = siteId; }
+
+  public List<String> getRequiredSkills() { return requiredSkills; }
+  public void setRequiredSkills(List<String> requiredSkills) { this.requiredSkills = requiredSkills; }
+
   public OffsetDateTime getScheduledAt() { return scheduledAt; }
   public void setScheduledAt(OffsetDateTime scheduledAt) { this.scheduledAt = scheduledAt; }
 
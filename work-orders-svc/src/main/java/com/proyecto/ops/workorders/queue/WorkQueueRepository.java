@@ -0,0 +1,54 @@
+package com.proyecto.ops.workorders.queue;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.proyecto.ops.workorders.model.WoPriority;
+import com.proyecto.ops.workorders.model.WoStatus;
+
+/** Lecturas para construir y refrescar las colas por técnico. */
+@Repository
+class WorkQueueRepository {
+
+    private static final String COLUMNS =
+            "id, ticket_id, technician_id, status, priority, scheduled_at, site_id, created_at";
+
+    private final JdbcTemplate jdbc;
+
+    WorkQueueRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Todas las órdenes con técnico y estado no terminal. */
+    List<WorkQueueService.QueueItem> loadQueued() {
+        return jdbc.query("select " + COLUMNS + " from app.work_orders"
+                + " where technician_id is not null and status in ('PENDING', 'ASSIGNED', 'STARTED', 'PAUSED')",
+                WorkQueueRepository::map);
+    }
+
+    /** Estado actual de las órdenes indicadas (las borradas no aparecen). */
+    List<WorkQueueService.QueueItem> findByIds(Collection<UUID> ids) {
+        return jdbc.query("select " + COLUMNS + " from app.work_orders where id = any(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids.toArray())),
+                WorkQueueRepository::map);
+    }
+
+    private static WorkQueueService.QueueItem map(ResultSet rs, int i) throws SQLException {
+        return new WorkQueueService.QueueItem(
+                rs.getObject("id", UUID.class),
+                rs.getObject("ticket_id", UUID.class),
+                rs.getObject("technician_id", UUID.class),
+                WoStatus.valueOf(rs.getString("status")),
+                WoPriority.valueOf(rs.getString("priority")),
+                rs.getObject("scheduled_at", OffsetDateTime.class),
+                rs.getObject("site_id", UUID.class),
+                rs.getObject("created_at", OffsetDateTime.class));
+    }
+}
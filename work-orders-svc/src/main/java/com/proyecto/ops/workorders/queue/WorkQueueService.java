@@ -0,0 +1,194 @@
+package com.proyecto.ops.workorders.queue;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.proyecto.ops.workorders.model.WoPriority;
+import com.proyecto.ops.workorders.model.WoStatus;
+import com.proyecto.ops.workorders.model.WorkOrder;
+
+/**
+ * Cola de trabajo por técnico, en memoria.
+ *
+ * Cada técnico tiene un {@link TreeSet} ordenado por {@code scheduledAt}
+ * (sin programar al final), prioridad y antigüedad. Un índice id → elemento
+ * permite mover o quitar una orden en O(log n). "Siguiente trabajo" es
+ * {@code first()}, sin consulta a la BD.
+ *
+ * Se mantiene al día desde los puntos de escritura (alta, asignación, cambio de
+ * estado, borrado y despacho). Se reconstruye desde la BD al arrancar y
+ * periódicamente, lo que también recoge cambios hechos por otras instancias.
+ */
+@Service
+public class WorkQueueService {
+    private static final Logger log = LoggerFactory.getLogger(WorkQueueService.class);
+
+    /** Estados en los que una orden ocupa un hueco en la cola de su técnico. */
+    static final Set<WoStatus> QUEUED = EnumSet.of(WoStatus.PENDING, WoStatus.ASSIGNED, WoStatus.STARTED, WoStatus.PAUSED);
+
+    public record QueueItem(
+        UUID workOrderId,
+        UUID ticketId,
+        UUID technicianId,
+        WoStatus status,
+        WoPriority priority,
+        OffsetDateTime scheduledAt,
+        UUID siteId,
+        OffsetDateTime createdAt
+    ) {}
+
+    private static final Comparator<QueueItem> ORDER = Comparator
+            .comparing(QueueItem::scheduledAt, Comparator.nullsLast(Comparator.<OffsetDateTime>naturalOrder()))
+            .thenComparing(QueueItem::priority)
+            .thenComparing(QueueItem::createdAt, Comparator.nullsLast(Comparator.<OffsetDateTime>naturalOrder()))
+            .thenComparing(QueueItem::workOrderId);
+
+    private final WorkQueueRepository repo;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Protegidos por lock
+    private Map<UUID, NavigableSet<QueueItem>> queues = new HashMap<>();
+    private Map<UUID, QueueItem> byOrder = new HashMap<>();
+    // Órdenes tocadas mientras se reconstruye; se refrescan al final
+    private Set<UUID> touchedDuringRebuild;
+
+    public WorkQueueService(WorkQueueRepository repo) {
+        this.repo = repo;
+    }
+
+    /** Primeros {@code limit} trabajos del técnico, en orden de atención. */
+    public List<QueueItem> next(UUID technicianId, int limit) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<QueueItem> q = queues.get(technicianId);
+            if (q == null) return List.of();
+            List<QueueItem> out = new ArrayList<>(Math.min(limit, q.size()));
+            Iterator<QueueItem> it = q.iterator();
+            while (it.hasNext() && out.size() < limit) out.add(it.next());
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Refleja el estado de la orden tras una escritura (alta, asignación o cambio de estado). */
+    public void sync(WorkOrder w) {
+        put(new QueueItem(w.getId(), w.getTicketId(), w.getTechnicianId(), w.getStatus(), w.getPriority(),
+                w.getScheduledAt(), w.getSiteId(), w.getCreatedAt() != null ? w.getCreatedAt() : OffsetDateTime.now()));
+    }
+
+    /** Relee de la BD las órdenes indicadas (p. ej. tras un despacho en lote). */
+    public void refresh(Collection<UUID> ids) {
+        if (ids.isEmpty()) return;
+        Set<UUID> missing = new HashSet<>(ids);
+        for (QueueItem item : repo.findByIds(ids)) {
+            missing.remove(item.workOrderId());
+            put(item);
+        }
+        missing.forEach(this::remove);
+    }
+
+    public void remove(UUID workOrderId) {
+        lock.writeLock().lock();
+        try {
+            unlink(workOrderId);
+            if (touchedDuringRebuild != null) touchedDuringRebuild.add(workOrderId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(QueueItem item) {
+        lock.writeLock().lock();
+        try {
+            unlink(item.workOrderId());
+            if (item.technicianId() != null && QUEUED.contains(item.status())) {
+                queues.computeIfAbsent(item.technicianId(), k -> new TreeSet<>(ORDER)).add(item);
+                byOrder.put(item.workOrderId(), item);
+            }
+            if (touchedDuringRebuild != null) touchedDuringRebuild.add(item.workOrderId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void unlink(UUID workOrderId) {
+        QueueItem old = byOrder.remove(workOrderId);
+        if (old == null) return;
+        NavigableSet<QueueItem> q = queues.get(old.technicianId());
+        if (q != null) {
+            q.remove(old);
+            if (q.isEmpty()) queues.remove(old.technicianId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${work-orders.queue.resync-interval:PT5M}",
+               fixedDelayString = "${work-orders.queue.resync-interval:PT5M}")
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            touchedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Set<UUID> touched;
+        int size;
+        int technicians;
+        try {
+            // La consulta va fuera del lock: las lecturas siguen sirviéndose de la cola anterior
+            Map<UUID, NavigableSet<QueueItem>> freshQueues = new HashMap<>();
+            Map<UUID, QueueItem> freshIndex = new HashMap<>();
+            for (QueueItem item : repo.loadQueued()) {
+                freshQueues.computeIfAbsent(item.technicianId(), k -> new TreeSet<>(ORDER)).add(item);
+                freshIndex.put(item.workOrderId(), item);
+            }
+            size = freshIndex.size();
+            technicians = freshQueues.size();
+
+            lock.writeLock().lock();
+            try {
+                queues = freshQueues;
+                byOrder = freshIndex;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                touched = touchedDuringRebuild;
+                touchedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        // Lo escrito durante la carga puede no estar en la foto: se relee
+        refresh(touched);
+        log.info("Work queues rebuilt: {} orders across {} technicians", size, technicians);
+    }
+}
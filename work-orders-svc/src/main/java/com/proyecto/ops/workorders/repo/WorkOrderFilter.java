@@ -0,0 +1,23 @@
+package com.proyecto.ops.workorders.repo;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import com.proyecto.ops.workorders.model.WoStatus;
+
+/**
+ * Criterios opcionales de búsqueda de órdenes de trabajo. Un campo nulo no filtra.
+ *
+ * @param ticketId      Ticket asociado.
+ * @param technicianId  Técnico asignado.
+ * @param status        Estado de la orden.
+ * @param scheduledFrom Inicio (inclusivo) del rango sobre {@code scheduledAt}.
+ * @param scheduledTo   Fin (exclusivo) del rango sobre {@code scheduledAt}.
+ */
+public record WorkOrderFilter(
+    UUID ticketId,
+    UUID technicianId,
+    WoStatus status,
+    OffsetDateTime scheduledFrom,
+    OffsetDateTime scheduledTo
+) {}
@@ -0,0 +1,120 @@
+package com.proyecto.ops.workorders.repo;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.proyecto.ops.workorders.model.WoStatus;
+import com.proyecto.ops.workorders.model.WorkOrder;
+
+/**
+ * Transiciones de estado en una sola sentencia.
+ *
+ * Cada cambio es un {@code UPDATE ... WHERE id = ? AND status = ANY(origenes)
+ * RETURNING *}, donde los orígenes válidos salen de la máquina de estados de
+ * {@link WoStatus}. No hay lectura previa ni dirty checking, y dos peticiones
+ * concurrentes no pueden pisarse: la segunda ve el estado ya cambiado y no
+ * actualiza nada.
+ */
+@Repository
+public class WorkOrderJdbcRepository {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String RETURNING = " returning " + WorkOrderRowMapper.COLUMNS.strip();
+
+    private final JdbcTemplate jdbc;
+
+    public WorkOrderJdbcRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Cambia el estado si la transición es válida desde el estado actual. Marca
+     * {@code started_at} / {@code ended_at} la primera vez que se entra en
+     * STARTED / DONE.
+     *
+     * @param notes notas nuevas, o null para conservar las actuales.
+     * @return la orden actualizada, o vacío si no existe o la transición no es válida.
+     */
+    public Optional<WorkOrder> transition(UUID id, WoStatus target, String notes) {
+        StringBuilder set = new StringBuilder("status = cast(? as app.wo_status), notes = coalesce(?, notes)");
+        if (target == WoStatus.STARTED) set.append(", started_at = coalesce(started_at, now())");
+        if (target == WoStatus.DONE) set.append(", ended_at = coalesce(ended_at, now())");
+        String sql = "update app.work_orders set " + set + " where id = ? and status = any(cast(? as app.wo_status[]))" + RETURNING;
+
+        return single(jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setString(1, target.name());
+            ps.setString(2, notes);
+            ps.setObject(3, id);
+            ps.setArray(4, sources(con, target));
+            return ps;
+        }, WorkOrderRowMapper.INSTANCE));
+    }
+
+    /**
+     * Asigna (o reasigna) un técnico si el estado actual lo permite.
+     *
+     * @return la orden actualizada, o vacío si no existe o su estado no admite asignación.
+     */
+    public Optional<WorkOrder> assign(UUID id, UUID technicianId) {
+        String sql = "update app.work_orders set technician_id = ?, status = cast(? as app.wo_status)"
+                + " where id = ? and status = any(cast(? as app.wo_status[]))" + RETURNING;
+        return single(jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setObject(1, technicianId);
+            ps.setString(2, WoStatus.ASSIGNED.name());
+            ps.setObject(3, id);
+            ps.setArray(4, sources(con, WoStatus.ASSIGNED));
+            return ps;
+        }, WorkOrderRowMapper.INSTANCE));
+    }
+
+    /**
+     * Inserta las órdenes con batching JDBC, en una transacción. Los ids deben venir
+     * ya asignados; created_at lo pone la BD.
+     */
+    @Transactional
+    public void insertAll(List<WorkOrder> orders) {
+        jdbc.batchUpdate("""
+                insert into app.work_orders
+                  (id, ticket_id, technician_id, status, priority, site_id, required_skills, scheduled_at, notes)
+                values (?, ?, ?, cast(? as app.wo_status), ?, ?, ?, ?, ?)
+                """,
+                orders, BATCH_SIZE,
+                (ps, w) -> {
+                    ps.setObject(1, w.getId());
+                    ps.setObject(2, w.getTicketId());
+                    ps.setObject(3, w.getTechnicianId());
+                    ps.setString(4, w.getStatus().name());
+                    ps.setString(5, w.getPriority().name());
+                    ps.setObject(6, w.getSiteId());
+                    ps.setArray(7, w.getRequiredSkills() == null ? null
+                            : ps.getConnection().createArrayOf("text", w.getRequiredSkills().toArray()));
+                    ps.setObject(8, w.getScheduledAt());
+                    ps.setString(9, w.getNotes());
+                });
+    }
+
+    /** Estado actual; solo se consulta cuando un UPDATE condicional no afectó filas. */
+    public Optional<WoStatus> currentStatus(UUID id) {
+        return jdbc.query("select status from app.work_orders where id = ?",
+                (rs, i) -> WoStatus.valueOf(rs.getString(1)), id).stream().findFirst();
+    }
+
+    private static Array sources(Connection con, WoStatus target) throws SQLException {
+        return con.createArrayOf("text", WoStatus.sourcesOf(target).stream().map(Enum::name).toArray());
+    }
+
+    private static Optional<WorkOrder> single(List<WorkOrder> rows) {
+        return rows.stream().findFirst();
+    }
+}
@@ -8,13 +8,13 @@
  *
  * Contexto de uso:
  *   - Extiende JpaRepository para heredar operaciones CRUD básicas (save, findById, findAll, deleteById).
- *   - Permite realizar búsquedas personalizadas mediante consultas JPQL.
+ *   - Permite realizar búsquedas personalizadas mediante Specifications (Criteria API).
  *   - Utilizada por el servicio principal de órdenes de trabajo para listar o filtrar órdenes.
  *
  * Diseño:
- *   - Se emplea una consulta personalizada (`@Query`) para filtrar órdenes por ticket y estado.
- *   - Los filtros usan la función COALESCE para permitir parámetros opcionales.
- *     Si el parámetro es nulo, el filtro se ignora.
+ *   - search() compone solo los predicados informados (ticket, técnico, estado y
+ *     rango de scheduledAt), de modo que cada combinación usa su índice.
+ *   - El orden lo decide el Pageable (por defecto createdAt desc, desde el controlador).
  *
  * Mantenibilidad:
  *   - Se pueden agregar nuevos métodos derivados o consultas personalizadas para necesidades futuras,
@@ -28,40 +28,27 @@ import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
-import com.proyecto.ops.workorders.model.WoStatus;
 import com.proyecto.ops.workorders.model.WorkOrder;
 
 /**
  * Repositorio JPA para la entidad WorkOrder.
  *
- * Proporciona acceso a operaciones CRUD y consultas personalizadas.
+ * Proporciona acceso a operaciones CRUD y consultas personalizadas; las búsquedas
+ * con filtros opcionales se componen con {@link WorkOrderSpecs}.
  */
-public interface WorkOrderRepository extends JpaRepository<WorkOrder, UUID> {
+public interface WorkOrderRepository extends JpaRepository<WorkOrder, UUID>, JpaSpecificationExecutor<WorkOrder> {
 
     /**
-     * Realiza una búsqueda paginada de órdenes de trabajo, filtrando opcionalmente
-     * por el identificador del ticket o por estado.
+     * Realiza una búsqueda paginada de órdenes de trabajo aplicando solo los
+     * filtros informados en {@code filter}.
      *
-     * @param ticketId Identificador del ticket asociado (puede ser nulo para omitir el filtro).
-     * @param status Estado de la orden (puede ser nulo para omitir el filtro).
-     * @param pageable Parámetros de paginación (número de página, tamaño, orden).
+     * @param filter Criterios opcionales (ticket, técnico, estado, rango de programación).
+     * @param pageable Parámetros de paginación; el orden pedido se respeta tal cual.
      * @return Página de resultados que cumplen los criterios de búsqueda.
      */
-    // Consulta JPQL que filtra dinámicamente por ticketId y estado usando COALESCE.
-    // Si el parámetro es nulo, el filtro no se aplica (se comporta como un filtro opcional).
-    @Query("""
-           select w
-           from WorkOrder w
-           where w.ticketId = coalesce(:ticketId, w.ticketId)
-             and w.status = coalesce(:status, w.status)
-           order by w.createdAt desc
-           """)
-    Page<WorkOrder> search(
-        @Param("ticketId") UUID ticketId,
-        @Param("status") WoStatus status,
-        Pageable pageable
-    );
-}
\ No newline at end of file
+    default Page<WorkOrder> search(WorkOrderFilter filter, Pageable pageable) {
+        return findAll(WorkOrderSpecs.matching(filter), pageable);
+    }
+}
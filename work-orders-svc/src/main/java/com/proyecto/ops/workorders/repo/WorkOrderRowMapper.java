@@ -0,0 +1,46 @@
+package com.proyecto.ops.workorders.repo;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import com.proyecto.ops.workorders.model.WoPriority;
+import com.proyecto.ops.workorders.model.WoStatus;
+import com.proyecto.ops.workorders.model.WorkOrder;
+
+/** Mapea filas de {@code app.work_orders} a {@link WorkOrder} desligados de JPA. */
+final class WorkOrderRowMapper implements RowMapper<WorkOrder> {
+
+    static final String COLUMNS = """
+            id, ticket_id, technician_id, status, priority, site_id, required_skills,
+            scheduled_at, started_at, ended_at, notes, created_at
+            """;
+
+    static final WorkOrderRowMapper INSTANCE = new WorkOrderRowMapper();
+
+    private WorkOrderRowMapper() {}
+
+    @Override
+    public WorkOrder mapRow(ResultSet rs, int rowNum) throws SQLException {
+        WorkOrder w = new WorkOrder();
+        w.setId(rs.getObject("id", UUID.class));
+        w.setTicketId(rs.getObject("ticket_id", UUID.class));
+        w.setTechnicianId(rs.getObject("technician_id", UUID.class));
+        w.setStatus(WoStatus.valueOf(rs.getString("status")));
+        w.setPriority(WoPriority.valueOf(rs.getString("priority")));
+        w.setSiteId(rs.getObject("site_id", UUID.class));
+        Array skills = rs.getArray("required_skills");
+        w.setRequiredSkills(skills == null ? null : List.of((String[]) skills.getArray()));
+        w.setScheduledAt(rs.getObject("scheduled_at", OffsetDateTime.class));
+        w.setStartedAt(rs.getObject("started_at", OffsetDateTime.class));
+        w.setEndedAt(rs.getObject("ended_at", OffsetDateTime.class));
+        w.setNotes(rs.getString("notes"));
+        w.setCreatedAt(rs.getObject("created_at", OffsetDateTime.class));
+        return w;
+    }
+}
@@ -0,0 +1,53 @@
+package com.proyecto.ops.workorders.repo;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.proyecto.ops.workorders.model.WoStatus;
+import com.proyecto.ops.workorders.model.WorkOrder;
+
+/**
+ * Predicados componibles para {@link WorkOrderRepository#search}.
+ *
+ * Cada método devuelve {@code null} cuando su parámetro es nulo, y
+ * {@link Specification#and} ignora los nulos. Así el SQL generado solo
+ * contiene las condiciones realmente pedidas (p. ej. {@code technician_id = ?
+ * and scheduled_at >= ? and scheduled_at < ?}) y el planificador puede usar
+ * los índices compuestos. Con {@code coalesce(:p, columna)} no podía hacerlo.
+ */
+public final class WorkOrderSpecs {
+
+    private WorkOrderSpecs() {}
+
+    public static Specification<WorkOrder> matching(WorkOrderFilter f) {
+        return Specification.where(ticket(f.ticketId()))
+                .and(technician(f.technicianId()))
+                .and(status(f.status()))
+                .and(scheduledFrom(f.scheduledFrom()))
+                .and(scheduledBefore(f.scheduledTo()));
+    }
+
+    public static Specification<WorkOrder> ticket(UUID ticketId) {
+        return ticketId == null ? null : (root, q, cb) -> cb.equal(root.get("ticketId"), ticketId);
+    }
+
+    public static Specification<WorkOrder> technician(UUID technicianId) {
+        return technicianId == null ? null : (root, q, cb) -> cb.equal(root.get("technicianId"), technicianId);
+    }
+
+    public static Specification<WorkOrder> status(WoStatus status) {
+        return status == null ? null : (root, q, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<WorkOrder> scheduledFrom(OffsetDateTime from) {
+        return from == null ? null
+                : (root, q, cb) -> cb.greaterThanOrEqualTo(root.<OffsetDateTime>get("scheduledAt"), from);
+    }
+
+    public static Specification<WorkOrder> scheduledBefore(OffsetDateTime to) {
+        return to == null ? null
+                : (root, q, cb) -> cb.lessThan(root.<OffsetDateTime>get("scheduledAt"), to);
+    }
+}
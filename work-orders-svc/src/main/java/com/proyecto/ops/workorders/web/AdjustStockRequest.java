@@ -0,0 +1,9 @@
+package com.proyecto.ops.workorders.web;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO para registrar una entrada (delta positivo) o salida (delta negativo)
+ * de existencias físicas de un repuesto.
+ */
+public record AdjustStockRequest(@NotNull Long delta) {}
@@ -0,0 +1,17 @@
+package com.proyecto.ops.workorders.web;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO para crear órdenes de trabajo en lote (p. ej. una por ticket afectado en
+ * una incidencia grande).
+ *
+ * @param items Órdenes a crear, con el mismo formato que {@code POST /work-orders}.
+ */
+public record BulkCreateWorkOrdersRequest(
+    @NotEmpty @Size(max = 10_000) List<@Valid CreateWorkOrderRequest> items
+) {}
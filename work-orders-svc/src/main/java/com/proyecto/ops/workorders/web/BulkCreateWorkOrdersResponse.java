@@ -0,0 +1,22 @@
+package com.proyecto.ops.workorders.web;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resultado de una creación en lote; {@code results} sigue el orden de la petición.
+ *
+ * @param created  Órdenes creadas.
+ * @param rejected Órdenes rechazadas (ticket inexistente).
+ * @param results  Resultado por elemento.
+ */
+public record BulkCreateWorkOrdersResponse(int created, int rejected, List<Item> results) {
+
+    public enum Outcome { CREATED, TICKET_NOT_FOUND }
+
+    /**
+     * @param index       Posición del elemento en la petición.
+     * @param workOrderId Id de la orden creada (null si se rechazó).
+     */
+    public record Item(int index, UUID ticketId, Outcome outcome, UUID workOrderId) {}
+}
@@ -0,0 +1,16 @@
+package com.proyecto.ops.workorders.web;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO para dar de alta un repuesto en el inventario.
+ *
+ * @param sku    Código del repuesto (obligatorio, único).
+ * @param name   Descripción (obligatoria).
+ * @param onHand Existencias iniciales (por defecto 0).
+ */
+public record CreatePartRequest(@NotBlank @Size(max = 64) String sku,
+                                @NotBlank String name,
+                                @PositiveOrZero Long onHand) {}
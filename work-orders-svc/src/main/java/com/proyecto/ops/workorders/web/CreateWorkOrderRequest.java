@@ -26,8 +26,11 @@
 package com.proyecto.ops.workorders.web;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
 
+import com.proyecto.ops.workorders.model.WoPriority;
+
 import jakarta.validation.constraints.NotNull;
 
 /**
@@ -36,6 +39,9 @@ import jakarta.validation.constraints.NotNull;
  * @param ticketId Identificador único del ticket asociado (obligatorio).
  * @param technicianId Identificador del técnico asignado (opcional).
  * @param scheduledAt Fecha y hora programadas para ejecutar la orden (opcional).
+ * @param priority Prioridad de la orden (opcional, por defecto MEDIUM).
+ * @param siteId Sitio del cliente donde se ejecuta la orden (opcional).
+ * @param requiredSkills Habilidades que debe tener el técnico (opcional).
  * @param notes Notas o comentarios adicionales sobre la orden (opcional).
  */
 public record CreateWorkOrderRequest(
@@ -49,6 +55,15 @@ public record CreateWorkOrderRequest(
     // Fecha y hora programadas para la ejecución de la orden. Opcional.
     OffsetDateTime scheduledAt,
 
+    // Prioridad de atención. Opcional; si no se indica se usa MEDIUM.
+    WoPriority priority,
+
+    // Sitio del cliente donde se ejecuta la orden. Opcional; lo usa el despacho automático.
+    UUID siteId,
+
+    // Habilidades requeridas al técnico. Opcional; lo usa el despacho automático.
+    List<String> requiredSkills,
+
     // Notas o comentarios adicionales proporcionados por el usuario. Opcional.
     String notes
 ) {}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.proyecto.ops.workorders.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.proyecto.ops.workorders.dispatch.DispatchResult;
+import com.proyecto.ops.workorders.dispatch.DispatchService;
+
+import jakarta.validation.Valid;
+
+/**
+ * Despacho automático de órdenes de trabajo.
+ *
+ * POST /work-orders/dispatch asigna en lote las órdenes PENDING sin técnico,
+ * según habilidades, carga y proximidad. Con {@code dryRun=true} devuelve el
+ * plan sin aplicarlo.
+ */
+@RestController
+@RequestMapping("/work-orders")
+public class DispatchController {
+
+    private final DispatchService dispatch;
+
+    public DispatchController(DispatchService dispatch) {
+        this.dispatch = dispatch;
+    }
+
+    @PostMapping("/dispatch")
+    public DispatchResult dispatch(@Valid @RequestBody(required = false) DispatchRequest req,
+                                   @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        boolean dryRun = req != null && Boolean.TRUE.equals(req.dryRun());
+        Integer maxOrders = req == null ? null : req.maxOrders();
+        try {
+            return dispatch.run(dryRun, maxOrders, authorization);
+        } catch (RestClientException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "technicians-svc no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.proyecto.ops.workorders.web;
+
+import jakarta.validation.constraints.Positive;
+
+/**
+ * DTO para lanzar el despacho automático.
+ *
+ * @param dryRun    Si es true solo se calcula y devuelve el plan (por defecto false).
+ * @param maxOrders Máximo de órdenes a evaluar (opcional, acotado por configuración).
+ */
+public record DispatchRequest(Boolean dryRun, @Positive Integer maxOrders) {}
@@ -0,0 +1,49 @@
+package com.proyecto.ops.workorders.web;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.proyecto.ops.workorders.analytics.DurationAnalyticsService;
+import com.proyecto.ops.workorders.analytics.DurationPercentiles;
+
+@RestController
+@RequestMapping("/work-orders/analytics")
+public class DurationAnalyticsController {
+
+    private final DurationAnalyticsService analytics;
+
+    public DurationAnalyticsController(DurationAnalyticsService analytics) {
+        this.analytics = analytics;
+    }
+
+    /**
+     * p50/p90/p99 de endedAt - startedAt (segundos) por técnico.
+     * Ej.: últimas 12 semanas de un técnico, semana a semana:
+     * {@code /work-orders/analytics/durations?technicianId=...}; con
+     * {@code perWeek=false} se mezclan las semanas del rango.
+     */
+    @GetMapping("/durations")
+    public List<DurationPercentiles> durations(
+            @RequestParam(required = false) UUID technicianId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "true") boolean perWeek
+    ) {
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusWeeks(12);
+        if (start.isAfter(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from debe ser anterior a to");
+        }
+        return analytics.query(technicianId, start, end, perWeek);
+    }
+}
@@ -0,0 +1,40 @@
+package com.proyecto.ops.workorders.web;
+
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Errores comunes a todos los controladores del servicio, incluidos los que no
+ * cuelgan de {@code /work-orders/} como {@link WorkOrderBulkController}.
+ */
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    /**
+     * Manejador global de errores de integridad referencial (por ejemplo, claves duplicadas).
+     *
+     * @param ex Excepción de violación de integridad.
+     * @param req Objeto HttpServletRequest para obtener la ruta del error.
+     * @return Respuesta con detalles del error (HTTP 409 Conflict).
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, Object>> integrity(DataIntegrityViolationException ex, HttpServletRequest req) {
+        // Se construye un cuerpo JSON con detalles del error para la respuesta HTTP.
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", OffsetDateTime.now().toString());
+        body.put("status", HttpStatus.CONFLICT.value());
+        body.put("error", "Conflict");
+        body.put("message", "Violación de integridad");
+        body.put("path", req.getRequestURI());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+}
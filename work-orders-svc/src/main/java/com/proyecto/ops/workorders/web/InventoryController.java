@@ -0,0 +1,82 @@
+package com.proyecto.ops.workorders.web;
+
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.proyecto.ops.workorders.inventory.InventoryService;
+import com.proyecto.ops.workorders.inventory.PartReservation;
+import com.proyecto.ops.workorders.inventory.PartStock;
+
+import jakarta.validation.Valid;
+
+/**
+ * Repuestos y reservas de stock por orden de trabajo.
+ *
+ * Endpoints:
+ *   • POST   /parts                                        → Alta de repuesto.
+ *   • GET    /parts/{sku}                                  → Existencias, reservado y disponible.
+ *   • POST   /parts/{sku}/stock                            → Entrada/salida de existencias.
+ *   • POST   /work-orders/{id}/reservations                → Reserva unidades (409 si no alcanza).
+ *   • GET    /work-orders/{id}/reservations                → Reservas de la orden.
+ *   • DELETE /work-orders/{id}/reservations/{reservationId} → Libera una reserva.
+ *
+ * Al pasar la orden a DONE sus reservas se consumen y al cancelarla se liberan
+ * (ver {@link WorkOrderController}).
+ */
+@RestController
+public class InventoryController {
+
+    private final InventoryService inventory;
+
+    public InventoryController(InventoryService inventory) {
+        this.inventory = inventory;
+    }
+
+    @PostMapping("/parts")
+    public ResponseEntity<PartStock> createPart(@Valid @RequestBody CreatePartRequest req) {
+        long onHand = req.onHand() != null ? req.onHand() : 0;
+        PartStock created = inventory.createPart(req.sku().trim(), req.name(), onHand);
+        return ResponseEntity.created(URI.create("/parts/" + created.sku())).body(created);
+    }
+
+    @GetMapping("/parts/{sku}")
+    public PartStock stock(@PathVariable String sku) {
+        return inventory.stock(sku)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Repuesto no encontrado: " + sku));
+    }
+
+    @PostMapping("/parts/{sku}/stock")
+    public PartStock adjust(@PathVariable String sku, @Valid @RequestBody AdjustStockRequest req) {
+        if (req.delta() == 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "delta no puede ser 0");
+        }
+        return inventory.adjustStock(sku, req.delta());
+    }
+
+    @PostMapping("/work-orders/{id}/reservations")
+    public ResponseEntity<PartReservation> reserve(@PathVariable UUID id, @Valid @RequestBody ReservePartRequest req) {
+        PartReservation r = inventory.reserve(id, req.sku(), req.quantity());
+        return ResponseEntity.created(URI.create("/work-orders/" + id + "/reservations/" + r.id())).body(r);
+    }
+
+    @GetMapping("/work-orders/{id}/reservations")
+    public List<PartReservation> reservations(@PathVariable UUID id) {
+        return inventory.reservationsOf(id);
+    }
+
+    @DeleteMapping("/work-orders/{id}/reservations/{reservationId}")
+    public PartReservation release(@PathVariable UUID id, @PathVariable UUID reservationId) {
+        return inventory.release(id, reservationId);
+    }
+}
@@ -0,0 +1,12 @@
+package com.proyecto.ops.workorders.web;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * DTO para reservar unidades de un repuesto para una orden de trabajo.
+ *
+ * @param sku      Código del repuesto.
+ * @param quantity Unidades a reservar (mayor que cero).
+ */
+public record ReservePartRequest(@NotBlank String sku, @Positive int quantity) {}
@@ -0,0 +1,93 @@
+package com.proyecto.ops.workorders.web;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.proyecto.ops.workorders.clients.TicketsClient;
+import com.proyecto.ops.workorders.model.WoPriority;
+import com.proyecto.ops.workorders.model.WoStatus;
+import com.proyecto.ops.workorders.model.WorkOrder;
+import com.proyecto.ops.workorders.queue.WorkQueueService;
+import com.proyecto.ops.workorders.repo.WorkOrderJdbcRepository;
+import com.proyecto.ops.workorders.web.BulkCreateWorkOrdersResponse.Item;
+import com.proyecto.ops.workorders.web.BulkCreateWorkOrdersResponse.Outcome;
+
+import jakarta.validation.Valid;
+
+/**
+ * Operaciones masivas sobre órdenes de trabajo. Va aparte de
+ * {@link WorkOrderController} porque la ruta {@code /work-orders:bulkCreate} no
+ * cuelga de {@code /work-orders/}.
+ */
+@RestController
+public class WorkOrderBulkController {
+
+    private final WorkOrderJdbcRepository jdbcRepo;
+    private final TicketsClient ticketsClient;
+    private final WorkQueueService queue;
+
+    public WorkOrderBulkController(WorkOrderJdbcRepository jdbcRepo, TicketsClient ticketsClient,
+                                   WorkQueueService queue) {
+        this.jdbcRepo = jdbcRepo;
+        this.ticketsClient = ticketsClient;
+        this.queue = queue;
+    }
+
+    /**
+     * Crea las órdenes cuyo ticket existe y rechaza el resto, sin abortar el lote.
+     * Los tickets se validan con una sola comprobación en lote contra tickets-svc
+     * y las filas se insertan con batching JDBC en una transacción.
+     */
+    @PostMapping("/work-orders:bulkCreate")
+    public BulkCreateWorkOrdersResponse bulkCreate(@Valid @RequestBody BulkCreateWorkOrdersRequest req) {
+        List<CreateWorkOrderRequest> items = req.items();
+        Set<UUID> existing;
+        try {
+            existing = ticketsClient.existing(items.stream().map(CreateWorkOrderRequest::ticketId).distinct().toList());
+        } catch (RestClientException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "tickets-svc no disponible", e);
+        }
+
+        List<WorkOrder> toInsert = new ArrayList<>();
+        List<Item> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            CreateWorkOrderRequest it = items.get(i);
+            if (!existing.contains(it.ticketId())) {
+                results.add(new Item(i, it.ticketId(), Outcome.TICKET_NOT_FOUND, null));
+                continue;
+            }
+            WorkOrder w = new WorkOrder();
+            w.setId(UUID.randomUUID());
+            w.setTicketId(it.ticketId());
+            w.setTechnicianId(it.technicianId());
+            w.setScheduledAt(it.scheduledAt());
+            w.setNotes(it.notes());
+            w.setStatus(WoStatus.PENDING);
+            w.setPriority(it.priority() != null ? it.priority() : WoPriority.MEDIUM);
+            w.setSiteId(it.siteId());
+            w.setRequiredSkills(it.requiredSkills());
+            toInsert.add(w);
+            results.add(new Item(i, it.ticketId(), Outcome.CREATED, w.getId()));
+        }
+
+        if (!toInsert.isEmpty()) {
+            jdbcRepo.insertAll(toInsert);
+            OffsetDateTime now = OffsetDateTime.now();
+            for (WorkOrder w : toInsert) {
+                w.setCreatedAt(now);
+                queue.sync(w);
+            }
+        }
+        return new BulkCreateWorkOrdersResponse(toInsert.size(), items.size() - toInsert.size(), results);
+    }
+}
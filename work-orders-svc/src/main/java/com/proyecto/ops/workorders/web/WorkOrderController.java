@@ -16,7 +16,7 @@
  * Diseño:
  *   - Anotado con @RestController y @RequestMapping("/work-orders").
  *   - Utiliza ResponseEntity para manejar respuestas HTTP consistentes.
- *   - Maneja errores comunes como violaciones de integridad con un controlador de excepciones.
+ *   - Las violaciones de integridad las traduce a 409 {@link GlobalExceptionHandler}.
  *
  * Endpoints principales:
  *   • POST   /work-orders             → Crea una nueva orden de trabajo.
@@ -35,17 +35,17 @@ package com.proyecto.ops.workorders.web;
 
 import java.net.URI;
 import java.time.OffsetDateTime;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
-import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
-import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -56,12 +56,17 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.proyecto.ops.workorders.analytics.DurationAnalyticsService;
 import com.proyecto.ops.workorders.clients.TicketsClient;
+import com.proyecto.ops.workorders.inventory.InventoryService;
+import com.proyecto.ops.workorders.model.WoPriority;
 import com.proyecto.ops.workorders.model.WoStatus;
 import com.proyecto.ops.workorders.model.WorkOrder;
+import com.proyecto.ops.workorders.queue.WorkQueueService;
+import com.proyecto.ops.workorders.repo.WorkOrderFilter;
+import com.proyecto.ops.workorders.repo.WorkOrderJdbcRepository;
 import com.proyecto.ops.workorders.repo.WorkOrderRepository;
 
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 /**
@@ -74,18 +79,35 @@ import jakarta.validation.Valid;
 @RequestMapping("/work-orders")
 public class WorkOrderController {
 
+    private static final Set<String> SORTABLE = Set.of("createdAt", "scheduledAt", "startedAt", "endedAt", "status");
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.DESC, "createdAt");
+
     private final WorkOrderRepository repo;
+    private final WorkOrderJdbcRepository jdbcRepo;
     private final TicketsClient ticketsClient;
+    private final WorkQueueService queue;
+    private final DurationAnalyticsService analytics;
+    private final InventoryService inventory;
 
     /**
      * Constructor que inyecta el repositorio de órdenes y el cliente de tickets.
      *
      * @param repo Repositorio de acceso a datos para WorkOrder.
+     * @param jdbcRepo Transiciones de estado con UPDATE condicional.
      * @param ticketsClient Cliente HTTP para validar la existencia de tickets en tickets-svc.
+     * @param queue Colas por técnico en memoria, que se actualizan en cada escritura.
+     * @param analytics Histogramas de duración, que se alimentan con las órdenes DONE.
+     * @param inventory Reservas de repuestos, que se cierran al terminar la orden.
      */
-    public WorkOrderController(WorkOrderRepository repo, TicketsClient ticketsClient) {
+    public WorkOrderController(WorkOrderRepository repo, WorkOrderJdbcRepository jdbcRepo,
+                               TicketsClient ticketsClient, WorkQueueService queue,
+                               DurationAnalyticsService analytics, InventoryService inventory) {
         this.repo = repo;
+        this.jdbcRepo = jdbcRepo;
         this.ticketsClient = ticketsClient;
+        this.queue = queue;
+        this.analytics = analytics;
+        this.inventory = inventory;
     }
 
     /**
@@ -111,11 +133,15 @@ public class WorkOrderController {
         w.setTicketId(req.ticketId());
         w.setTechnicianId(req.technicianId());
         w.setScheduledAt(req.scheduledAt());
+        w.setPriority(req.priority() != null ? req.priority() : WoPriority.MEDIUM);
+        w.setSiteId(req.siteId());
+        w.setRequiredSkills(req.requiredSkills());
         w.setNotes(req.notes());
         w.setStatus(WoStatus.PENDING);
 
         // Se guarda la nueva orden en la base de datos.
         WorkOrder saved = repo.save(w);
+        queue.sync(saved);
         // Se retorna la orden creada junto con la ubicación del nuevo recurso.
         return ResponseEntity.created(URI.create("/work-orders/" + saved.getId()))
                 .body(toResponse(saved));
@@ -138,67 +164,100 @@ public class WorkOrderController {
      * Lista las órdenes de trabajo existentes aplicando filtros opcionales.
      *
      * @param ticketId Identificador del ticket asociado (opcional).
+     * @param technicianId Identificador del técnico asignado (opcional).
      * @param status Estado actual de la orden (opcional).
-     * @param pageable Parámetros de paginación (número de página, tamaño, orden).
+     * @param scheduledFrom Inicio inclusivo del rango de programación (opcional, ISO-8601).
+     * @param scheduledTo Fin exclusivo del rango de programación (opcional, ISO-8601).
+     * @param pageable Parámetros de paginación (número de página, tamaño, orden). Sin
+     *                 {@code sort} se ordena por createdAt descendente.
      * @return Página de resultados con las órdenes filtradas.
      */
     @GetMapping
     public Page<WorkOrderResponse> list(
             @RequestParam(required = false) UUID ticketId,
+            @RequestParam(required = false) UUID technicianId,
             @RequestParam(required = false) WoStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime scheduledFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime scheduledTo,
             Pageable pageable
     ) {
-        // Consulta el repositorio aplicando los filtros de ticket y estado.
-        Page<WorkOrder> page = repo.search(ticketId, status, pageable);
-        return page.map(this::toResponse);
+        if (scheduledFrom != null && scheduledTo != null && !scheduledFrom.isBefore(scheduledTo)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "scheduledFrom debe ser anterior a scheduledTo");
+        }
+        // Solo se permite ordenar por columnas indexadas o baratas; el resto daría 500 o un sort en memoria.
+        for (Sort.Order o : pageable.getSort()) {
+            if (!SORTABLE.contains(o.getProperty())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No se puede ordenar por " + o.getProperty());
+            }
+        }
+        Pageable effective = pageable.getSort().isSorted()
+                ? pageable
+                : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), DEFAULT_SORT);
+
+        WorkOrderFilter filter = new WorkOrderFilter(ticketId, technicianId, status, scheduledFrom, scheduledTo);
+        return repo.search(filter, effective).map(this::toResponse);
     }
 
     /**
      * Asigna un técnico a una orden de trabajo existente.
      *
+     * La asignación es un UPDATE condicional: solo se aplica si el estado actual
+     * lo permite (PENDING o ASSIGNED, según {@link WoStatus}).
+     *
      * @param id Identificador de la orden.
      * @param req Solicitud con el identificador del técnico a asignar.
-     * @return Orden actualizada con el técnico asignado o 404 si no existe.
+     * @return Orden actualizada, 404 si no existe o 409 si su estado no admite asignación.
      */
     @PatchMapping("/{id}/assign")
     public ResponseEntity<WorkOrderResponse> assign(@PathVariable UUID id, @Valid @RequestBody AssignRequest req) {
-        return repo.findById(id).map(w -> {
-            // Asigna el identificador del técnico a la orden.
-            w.setTechnicianId(req.technicianId());
-            // Actualiza el estado de la orden a "ASSIGNED".
-            w.setStatus(WoStatus.ASSIGNED);
-            WorkOrder saved = repo.save(w);
-            return ResponseEntity.ok(toResponse(saved));
-        }).orElseGet(() -> ResponseEntity.notFound().build());
+        WorkOrder saved = jdbcRepo.assign(id, req.technicianId())
+                .orElseThrow(() -> rejected(id, WoStatus.ASSIGNED));
+        queue.sync(saved);
+        return ResponseEntity.ok(toResponse(saved));
     }
 
     /**
      * Actualiza el estado de una orden de trabajo y registra las fechas relevantes.
      *
+     * La transición se valida y aplica en una sola sentencia (UPDATE condicional
+     * con RETURNING), sin lectura previa; dos cambios concurrentes no se pisan.
+     *
      * @param id Identificador de la orden.
      * @param req Solicitud con el nuevo estado y notas opcionales.
-     * @return Orden actualizada o 404 si no se encuentra.
+     * @return Orden actualizada, 404 si no existe o 409 si la transición no es válida.
      */
     @PatchMapping("/{id}/status")
     public ResponseEntity<WorkOrderResponse> updateStatus(@PathVariable UUID id, @Valid @RequestBody UpdateStatusRequest req) {
-        return repo.findById(id).map(w -> {
-            WoStatus newStatus = req.status();
-            // Si el nuevo estado es STARTED y no tiene fecha, se marca el inicio.
-            if (newStatus == WoStatus.STARTED && w.getStartedAt() == null) {
-                w.setStartedAt(OffsetDateTime.now());
-            }
-            // Si el nuevo estado es DONE y no tiene fecha, se marca la finalización.
-            if (newStatus == WoStatus.DONE && w.getEndedAt() == null) {
-                w.setEndedAt(OffsetDateTime.now());
-            }
-            w.setStatus(newStatus);
-            // Si hay notas adicionales en la solicitud, se actualizan en la orden.
-            if (req.notes() != null && !req.notes().isBlank()) {
-                w.setNotes(req.notes());
-            }
-            WorkOrder saved = repo.save(w);
-            return ResponseEntity.ok(toResponse(saved));
-        }).orElseGet(() -> ResponseEntity.notFound().build());
+        WoStatus newStatus = req.status();
+        // La asignación necesita un técnico: va por /assign.
+        if (newStatus == WoStatus.ASSIGNED) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Para asignar use PATCH /work-orders/{id}/assign");
+        }
+        // Las notas solo se reemplazan si vienen informadas.
+        String notes = (req.notes() != null && !req.notes().isBlank()) ? req.notes() : null;
+        WorkOrder saved = jdbcRepo.transition(id, newStatus, notes)
+                .orElseThrow(() -> rejected(id, newStatus));
+        queue.sync(saved);
+        // DONE es terminal y solo se alcanza una vez: cada orden cuenta una sola vez.
+        if (saved.getStatus() == WoStatus.DONE) {
+            analytics.onDone(saved);
+        }
+        // Al cerrar la orden sus reservas se consumen (DONE) o se liberan (CANCELLED).
+        if (saved.getStatus().isTerminal()) {
+            inventory.onWorkOrderClosed(id, saved.getStatus());
+        }
+        return ResponseEntity.ok(toResponse(saved));
+    }
+
+    /**
+     * Construye el error de un UPDATE condicional que no afectó filas: 404 si la
+     * orden no existe, 409 si existe pero su estado no admite la transición.
+     */
+    private ResponseStatusException rejected(UUID id, WoStatus target) {
+        return jdbcRepo.currentStatus(id)
+                .map(current -> new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Transición inválida: " + current + " → " + target))
+                .orElseGet(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Orden de trabajo no encontrada"));
     }
 
     /**
@@ -211,31 +270,14 @@ public class WorkOrderController {
     public ResponseEntity<?> delete(@PathVariable UUID id) {
         return repo.findById(id)
                 .map(w -> {
+                    inventory.onWorkOrderClosed(id, WoStatus.CANCELLED);
                     repo.delete(w);
+                    queue.remove(id);
                     return ResponseEntity.noContent().build();
                 })
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
-    /**
-     * Manejador global de errores de integridad referencial (por ejemplo, claves duplicadas).
-     *
-     * @param ex Excepción de violación de integridad.
-     * @param req Objeto HttpServletRequest para obtener la ruta del error.
-     * @return Respuesta con detalles del error (HTTP 409 Conflict).
-     */
-    @ExceptionHandler(DataIntegrityViolationException.class)
-    public ResponseEntity<Map<String, Object>> integrity(DataIntegrityViolationException ex, HttpServletRequest req) {
-        // Se construye un cuerpo JSON con detalles del error para la respuesta HTTP.
-        Map<String, Object> body = new LinkedHashMap<>();
-        body.put("timestamp", OffsetDateTime.now().toString());
-        body.put("status", HttpStatus.CONFLICT.value());
-        body.put("error", "Conflict");
-        body.put("message", "Violación de integridad");
-        body.put("path", req.getRequestURI());
-        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
-    }
-
     /**
      * Convierte una entidad WorkOrder en un objeto de respuesta (DTO).
      *
@@ -248,6 +290,9 @@ public class WorkOrderController {
                 w.getTicketId(),
                 w.getTechnicianId(),
                 w.getStatus(),
+                w.getPriority(),
+                w.getSiteId(),
+                w.getRequiredSkills(),
                 w.getScheduledAt(),
                 w.getStartedAt(),
                 w.getEndedAt(),
@@ -25,8 +25,10 @@
 package com.proyecto.ops.workorders.web;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
 
+import com.proyecto.ops.workorders.model.WoPriority;
 import com.proyecto.ops.workorders.model.WoStatus;
 
 /**
@@ -36,6 +38,9 @@ import com.proyecto.ops.workorders.model.WoStatus;
  * @param ticketId Identificador del ticket asociado.
  * @param technicianId Identificador del técnico asignado.
  * @param status Estado actual de la orden (PENDING, ASSIGNED, STARTED, etc.).
+ * @param priority Prioridad de la orden.
+ * @param siteId Sitio del cliente donde se ejecuta la orden.
+ * @param requiredSkills Habilidades requeridas al técnico.
  * @param scheduledAt Fecha y hora programadas para ejecución.
  * @param startedAt Fecha y hora reales de inicio.
  * @param endedAt Fecha y hora reales de finalización.
@@ -47,6 +52,9 @@ public record WorkOrderResponse(
     UUID ticketId,
     UUID technicianId,
     WoStatus status,
+    WoPriority priority,
+    UUID siteId,
+    List<String> requiredSkills,
     OffsetDateTime scheduledAt,
     OffsetDateTime startedAt,
     OffsetDateTime endedAt,
@@ -0,0 +1,42 @@
+package com.proyecto.ops.workorders.web;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.proyecto.ops.workorders.queue.WorkQueueService;
+import com.proyecto.ops.workorders.queue.WorkQueueService.QueueItem;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+/**
+ * Cola de trabajo de un técnico, servida desde memoria.
+ *
+ * GET /work-orders/queue/{technicianId} devuelve sus órdenes abiertas por
+ * orden de atención (programación, prioridad, antigüedad); el primer elemento
+ * es su siguiente trabajo.
+ */
+@RestController
+@Validated
+@RequestMapping("/work-orders/queue")
+public class WorkQueueController {
+
+    private final WorkQueueService queue;
+
+    public WorkQueueController(WorkQueueService queue) {
+        this.queue = queue;
+    }
+
+    @GetMapping("/{technicianId}")
+    public List<QueueItem> queue(@PathVariable UUID technicianId,
+                                 @RequestParam(defaultValue = "20") @Min(1) @Max(500) int limit) {
+        return queue.next(technicianId, limit);
+    }
+}
@@ -0,0 +1,23 @@
+-- Índices para GET /work-orders con filtros componibles.
+-- Cada filtro de igualdad va delante y la columna de orden/rango detrás,
+-- así el planificador resuelve filtro + orden + limit con un solo recorrido.
+
+-- Pantallas de despacho: órdenes de un técnico en un día (rango sobre scheduled_at)
+CREATE INDEX IF NOT EXISTS ix_work_orders_technician_scheduled
+  ON app.work_orders (technician_id, scheduled_at);
+
+-- Agenda general por estado (p. ej. PENDING de mañana)
+CREATE INDEX IF NOT EXISTS ix_work_orders_status_scheduled
+  ON app.work_orders (status, scheduled_at);
+
+-- Listado por estado con el orden por defecto
+CREATE INDEX IF NOT EXISTS ix_work_orders_status_created
+  ON app.work_orders (status, created_at DESC);
+
+-- Órdenes de un ticket
+CREATE INDEX IF NOT EXISTS ix_work_orders_ticket_created
+  ON app.work_orders (ticket_id, created_at DESC);
+
+-- Listado sin filtros (orden por defecto)
+CREATE INDEX IF NOT EXISTS ix_work_orders_created
+  ON app.work_orders (created_at DESC);
@@ -0,0 +1,11 @@
+-- Datos que necesita el despacho automático (POST /work-orders/dispatch):
+--  * site_id: sitio del cliente donde se ejecuta la orden (proximidad).
+--  * required_skills: habilidades que debe tener el técnico (todas).
+ALTER TABLE app.work_orders
+  ADD COLUMN IF NOT EXISTS site_id UUID,
+  ADD COLUMN IF NOT EXISTS required_skills TEXT[];
+
+-- Cola del despacho: pendientes sin técnico, en orden de programación
+CREATE INDEX IF NOT EXISTS ix_work_orders_dispatch_queue
+  ON app.work_orders (scheduled_at, created_at)
+  WHERE status = 'PENDING' AND technician_id IS NULL;
@@ -0,0 +1,11 @@
+-- Prioridad de la orden: segundo criterio (tras scheduled_at) de la cola por técnico.
+ALTER TABLE app.work_orders
+  ADD COLUMN IF NOT EXISTS priority VARCHAR(16) NOT NULL DEFAULT 'MEDIUM';
+
+DO $$
+BEGIN
+  IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'ck_work_orders_priority') THEN
+    ALTER TABLE app.work_orders
+      ADD CONSTRAINT ck_work_orders_priority CHECK (priority IN ('HIGH', 'MEDIUM', 'LOW'));
+  END IF;
+END $$;
@@ -0,0 +1,15 @@
+-- Histogramas (HdrHistogram comprimido) de endedAt - startedAt en segundos,
+-- por técnico y semana (lunes, UTC). Son mezclables: cada instancia suma su
+-- delta sobre la fila con SELECT ... FOR UPDATE.
+CREATE TABLE IF NOT EXISTS app.work_order_duration_sketches (
+  technician_id UUID        NOT NULL,
+  week_start    DATE        NOT NULL,
+  histogram     BYTEA       NOT NULL,
+  total_count   BIGINT      NOT NULL DEFAULT 0,
+  updated_at    TIMESTAMPTZ NOT NULL DEFAULT now(),
+  PRIMARY KEY (technician_id, week_start)
+);
+
+-- Recarga incremental de lo que otras instancias hayan escrito
+CREATE INDEX IF NOT EXISTS ix_wo_duration_sketches_updated
+  ON app.work_order_duration_sketches (updated_at);
@@ -0,0 +1,43 @@
+-- Repuestos y reservas de stock para órdenes de trabajo.
+--
+-- parts.on_hand / parts.reserved son la foto persistida; el disponible "vivo"
+-- lo lleva work-orders-svc en memoria. Cada operación se apunta primero en
+-- inventory_journal (solo INSERT, sin contención) y un proceso periódico aplica
+-- los deltas pendientes a parts en una sola sentencia por lote.
+
+CREATE TABLE IF NOT EXISTS app.parts (
+  sku         TEXT PRIMARY KEY,
+  name        TEXT NOT NULL,
+  on_hand     BIGINT NOT NULL DEFAULT 0,
+  reserved    BIGINT NOT NULL DEFAULT 0,
+  created_at  TIMESTAMPTZ NOT NULL DEFAULT now(),
+  updated_at  TIMESTAMPTZ NOT NULL DEFAULT now(),
+  -- Red de seguridad: el stock persistido nunca queda negativo ni sobre-reservado
+  CONSTRAINT ck_parts_stock CHECK (reserved >= 0 AND on_hand >= reserved)
+);
+
+CREATE TABLE IF NOT EXISTS app.part_reservations (
+  id             UUID PRIMARY KEY,
+  work_order_id  UUID NOT NULL,
+  sku            TEXT NOT NULL REFERENCES app.parts(sku),
+  quantity       INT  NOT NULL CHECK (quantity > 0),
+  status         VARCHAR(16) NOT NULL DEFAULT 'RESERVED'
+                 CHECK (status IN ('RESERVED', 'RELEASED', 'CONSUMED')),
+  created_at     TIMESTAMPTZ NOT NULL DEFAULT now(),
+  updated_at     TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+CREATE INDEX IF NOT EXISTS ix_part_reservations_work_order
+  ON app.part_reservations (work_order_id);
+
+CREATE TABLE IF NOT EXISTS app.inventory_journal (
+  seq             BIGSERIAL PRIMARY KEY,
+  sku             TEXT NOT NULL,
+  on_hand_delta   BIGINT NOT NULL DEFAULT 0,
+  reserved_delta  BIGINT NOT NULL DEFAULT 0,
+  reservation_id  UUID,
+  applied         BOOLEAN NOT NULL DEFAULT false,
+  created_at      TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+-- Cola de pendientes de aplicar (pequeña: se vacía cada segundo)
+CREATE INDEX IF NOT EXISTS ix_inventory_journal_pending
+  ON app.inventory_journal (seq) WHERE NOT applied;
@@ -0,0 +1,4 @@
+-- Reservas activas, para que la instancia escritora del inventario encuentre
+-- en cada flush las de órdenes ya cerradas o borradas sin recorrer el histórico.
+CREATE INDEX IF NOT EXISTS ix_part_reservations_active
+  ON app.part_reservations (work_order_id) WHERE status = 'RESERVED';
@@ -0,0 +1,4 @@
+-- Solo las semanas recientes viven en memoria: la carga al arrancar y las
+-- consultas de semanas antiguas de todos los técnicos filtran por week_start.
+CREATE INDEX IF NOT EXISTS ix_wo_duration_sketches_week
+  ON app.work_order_duration_sketches (week_start);
@@ -0,0 +1,124 @@
+package com.proyecto.ops.workorders.dispatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.proyecto.ops.workorders.dispatch.DispatchEngine.Assignment;
+import com.proyecto.ops.workorders.dispatch.DispatchEngine.GeoPoint;
+import com.proyecto.ops.workorders.dispatch.DispatchEngine.Order;
+import com.proyecto.ops.workorders.dispatch.DispatchEngine.Plan;
+import com.proyecto.ops.workorders.dispatch.DispatchEngine.Reason;
+import com.proyecto.ops.workorders.dispatch.DispatchEngine.Settings;
+import com.proyecto.ops.workorders.dispatch.DispatchEngine.Technician;
+
+class DispatchEngineTest {
+
+    private static final Settings CFG = new Settings(3, 1.0, 1.0, 50.0);
+
+    private static final UUID MADRID = UUID.randomUUID();
+    private static final UUID GETAFE = UUID.randomUUID();
+    private static final UUID SEVILLA = UUID.randomUUID();
+    private static final Map<UUID, GeoPoint> SITES = Map.of(
+            MADRID, new GeoPoint(40.4168, -3.7038),
+            GETAFE, new GeoPoint(40.3057, -3.7329),
+            SEVILLA, new GeoPoint(37.3891, -5.9845));
+
+    private static Order order(UUID site, String... skills) {
+        return new Order(UUID.randomUUID(), Set.of(skills), site);
+    }
+
+    private static Technician tech(int load, UUID lastSite, String... skills) {
+        return new Technician(UUID.randomUUID(), Set.of(skills), load, lastSite);
+    }
+
+    @Test
+    void picksTheSkilledTechnician() {
+        Technician plumber = tech(0, null, "fontaneria");
+        Technician electrician = tech(0, null, "Electricidad ");
+        Order o = order(null, "electricidad");
+
+        Plan plan = DispatchEngine.plan(List.of(o), List.of(plumber, electrician), SITES, CFG);
+
+        assertEquals(List.of(o.id()), plan.assignments().stream().map(Assignment::workOrderId).toList());
+        assertEquals(electrician.id(), plan.assignments().get(0).technicianId());
+        assertTrue(plan.unassigned().isEmpty());
+    }
+
+    @Test
+    void prefersLowerLoadAndCloserTechnicians() {
+        Technician busy = tech(2, null, "hvac");
+        Technician free = tech(0, null, "hvac");
+        Plan byLoad = DispatchEngine.plan(List.of(order(null, "hvac")), List.of(busy, free), SITES, CFG);
+        assertEquals(free.id(), byLoad.assignments().get(0).technicianId());
+
+        Technician far = tech(0, SEVILLA, "hvac");
+        Technician near = tech(0, GETAFE, "hvac");
+        Plan byDistance = DispatchEngine.plan(List.of(order(MADRID, "hvac")), List.of(far, near), SITES, CFG);
+        Assignment a = byDistance.assignments().get(0);
+        assertEquals(near.id(), a.technicianId());
+        assertEquals(12.5, a.distanceKm(), 1.0);
+    }
+
+    @Test
+    void unknownPositionHasNoDistance() {
+        Technician t = tech(0, null, "hvac");
+        Plan plan = DispatchEngine.plan(List.of(order(MADRID, "hvac")), List.of(t), SITES, CFG);
+        assertNull(plan.assignments().get(0).distanceKm());
+    }
+
+    @Test
+    void assignmentsRaiseLoadAndMoveTheTechnician() {
+        Technician inMadrid = tech(0, MADRID, "hvac");
+        Technician inGetafe = tech(0, GETAFE, "hvac");
+        // Tras la primera orden en Sevilla, ese técnico está allí y se lleva la segunda.
+        Plan plan = DispatchEngine.plan(List.of(order(SEVILLA, "hvac"), order(SEVILLA, "hvac")),
+                List.of(inMadrid, inGetafe), SITES, new Settings(3, 0.1, 1.0, 1000.0));
+
+        assertEquals(2, plan.assignments().size());
+        assertEquals(plan.assignments().get(0).technicianId(), plan.assignments().get(1).technicianId());
+        assertEquals(0.0, plan.assignments().get(1).distanceKm(), 1e-9);
+    }
+
+    @Test
+    void reportsWhyAnOrderStaysUnassigned() {
+        Technician t = tech(0, null, "hvac");
+        Order unknownSkill = order(null, "ascensores");
+        Order first = order(null, "hvac");
+        Order second = order(null, "hvac");
+
+        Plan plan = DispatchEngine.plan(List.of(unknownSkill, first, second), List.of(t), SITES,
+                new Settings(1, 1.0, 1.0, 50.0));
+
+        assertEquals(List.of(first.id()), plan.assignments().stream().map(Assignment::workOrderId).toList());
+        assertEquals(List.of(new DispatchEngine.Unassigned(unknownSkill.id(), Reason.NO_SKILLED_TECHNICIAN),
+                        new DispatchEngine.Unassigned(second.id(), Reason.NO_CAPACITY)),
+                plan.unassigned());
+    }
+
+    @Test
+    void requiresEverySkillEvenPastSixtyFour() {
+        String[] many = new String[70];
+        for (int i = 0; i < many.length; i++) many[i] = "skill" + i;
+        Technician all = tech(1, null, many);
+        Technician partial = tech(0, null, "skill0", "skill69");
+
+        Plan plan = DispatchEngine.plan(List.of(order(null, "skill0", "skill65", "skill69")),
+                List.of(partial, all), SITES, CFG);
+
+        assertEquals(all.id(), plan.assignments().get(0).technicianId());
+    }
+
+    @Test
+    void haversineMadridSevilla() {
+        assertEquals(390, DispatchEngine.haversineKm(40.4168, -3.7038, 37.3891, -5.9845), 5);
+        assertEquals(0, DispatchEngine.haversineKm(1, 2, 1, 2), 1e-9);
+    }
+}
@@ -0,0 +1,87 @@
+package com.proyecto.ops.workorders.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class StripedCounterTest {
+
+    @Test
+    void acquireAndAddKeepTheTotal() {
+        StripedCounter c = new StripedCounter(4, 10);
+        assertEquals(10, c.sum());
+
+        assertTrue(c.tryAcquire(3));
+        assertEquals(7, c.sum());
+        c.add(5);
+        assertEquals(12, c.sum());
+        assertTrue(c.tryAcquire(0));
+        assertEquals(12, c.sum());
+    }
+
+    @Test
+    void acquireSpanningStripesTakesEverything() {
+        // 10 en 16 franjas: ninguna tiene más de 1, así que hay que reunir.
+        StripedCounter c = new StripedCounter(16, 10);
+        assertTrue(c.tryAcquire(10));
+        assertEquals(0, c.sum());
+    }
+
+    @Test
+    void insufficientStockLeavesTheCounterUntouched() {
+        StripedCounter c = new StripedCounter(8, 10);
+        assertFalse(c.tryAcquire(11));
+        assertEquals(10, c.sum());
+
+        StripedCounter empty = new StripedCounter(8, 0);
+        assertFalse(empty.tryAcquire(1));
+        assertEquals(0, empty.sum());
+    }
+
+    @Test
+    void rejectsNegativeAdd() {
+        StripedCounter c = new StripedCounter(4, 0);
+        assertThrows(IllegalArgumentException.class, () -> c.add(-1));
+    }
+
+    @Test
+    void neverOversellsUnderContention() throws Exception {
+        int stock = 1_000;
+        int threads = 8;
+        StripedCounter c = new StripedCounter(4, stock);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int taken = 0;
+                    for (int i = 0; i < 500; i++) {
+                        if (c.tryAcquire(1 + i % 3)) taken += 1 + i % 3;
+                    }
+                    return taken;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> f : results) total += f.get(10, TimeUnit.SECONDS);
+
+            assertEquals(stock, total + c.sum());
+            assertTrue(c.sum() >= 0);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}